@@ -0,0 +1,35 @@
+package com.hotel.benchmark;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks once per thread count.
+ *
+ * Usage: java -jar benchmarks.jar [include-regex] [thread counts, e.g. 1,4,16]
+ * Dataset size can be changed with -Dbench.rooms and -Dbench.reservations.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "com.hotel.benchmark.*";
+        String threadList = args.length > 1 ? args[1] : "1,4,16";
+        String rooms = System.getProperty("bench.rooms", "5000");
+        String reservations = System.getProperty("bench.reservations", "1000000");
+
+        for (String threads : threadList.split(",")) {
+            int threadCount = Integer.parseInt(threads.trim());
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threadCount)
+                    .param("rooms", rooms)
+                    .param("reservations", reservations)
+                    .jvmArgsAppend("-Xmx4g", "-Ddb.maxConnections=" + Math.max(10, threadCount * 2))
+                    .result("jmh-result-" + threadCount + "t.json")
+                    .resultFormat(org.openjdk.jmh.results.format.ResultFormatType.JSON);
+            new Runner(options.build()).run();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.hotel.benchmark;
+
+import com.hotel.model.Customer;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point lookups and availability checks through the DAOs.
+ * The lookups also exercise the extract*FromResultSet mappers.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DaoBenchmark {
+
+    @Benchmark
+    public boolean isRoomAvailable(HotelState state) {
+        LocalDate checkIn = state.randomNearDate();
+        return state.reservationDAO.isRoomAvailable(state.randomRoomId(), checkIn,
+                checkIn.plusDays(1 + ThreadLocalRandom.current().nextInt(5)));
+    }
+
+    @Benchmark
+    public Room getRoomById(HotelState state) {
+        return state.roomDAO.getRoomById(state.randomRoomId());
+    }
+
+    @Benchmark
+    public Customer getCustomerById(HotelState state) {
+        return state.customerDAO.getCustomerById(state.randomCustomerId());
+    }
+
+    @Benchmark
+    public Reservation getReservationById(HotelState state) {
+        return state.reservationDAO.getReservationById(state.randomReservationId());
+    }
+
+    @Benchmark
+    public List<Reservation> getReservationsByCustomer(HotelState state) {
+        return state.reservationDAO.getReservationsByCustomer(state.randomCustomerId());
+    }
+}
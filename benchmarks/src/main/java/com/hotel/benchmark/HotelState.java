@@ -0,0 +1,102 @@
+package com.hotel.benchmark;
+
+import com.hotel.cache.RoomTypeInventory;
+import com.hotel.dao.CustomerDAO;
+import com.hotel.dao.ReservationDAO;
+import com.hotel.dao.RoomDAO;
+import com.hotel.service.ReservationService;
+import com.hotel.util.DatabaseConnection;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Shared benchmark state: a seeded H2 hotel plus the DAOs and service under test
+ */
+@State(Scope.Benchmark)
+public class HotelState {
+
+    @Param("5000")
+    public int rooms;
+
+    @Param("1000000")
+    public int reservations;
+
+    public SyntheticHotel hotel;
+    public RoomDAO roomDAO;
+    public CustomerDAO customerDAO;
+    public ReservationDAO reservationDAO;
+    public ReservationService reservationService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        System.setProperty("db.mode", "test");
+        hotel = new SyntheticHotel(rooms, reservations);
+        hotel.seed();
+
+        roomDAO = new RoomDAO();
+        customerDAO = new CustomerDAO();
+        reservationDAO = new ReservationDAO();
+        reservationService = new ReservationService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseConnection.getInstance().shutdown();
+    }
+
+    public int randomRoomId() {
+        int[] ids = hotel.getRoomIds();
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    public int randomCustomerId() {
+        int[] ids = hotel.getCustomerIds();
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    public int randomReservationId() {
+        return ThreadLocalRandom.current().nextInt(hotel.getMinReservationId(), hotel.getMaxReservationId() + 1);
+    }
+
+    /**
+     * Random check-in within the next year, where seeded stays still exist
+     */
+    public LocalDate randomNearDate() {
+        return LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(365));
+    }
+
+    /**
+     * Rooms for one of threadCount benchmark threads; no two threads share a room
+     */
+    public int[] roomStripe(int threadIndex, int threadCount) {
+        int[] ids = hotel.getRoomIds();
+        int[] stripe = new int[(ids.length - threadIndex + threadCount - 1) / threadCount];
+        for (int i = 0; i < stripe.length; i++) {
+            stripe[i] = ids[threadIndex + i * threadCount];
+        }
+        return stripe;
+    }
+
+    /**
+     * First night open to benchmark bookings: past the seeded stays, so they do
+     * not collide with them, and well inside the service's inventory window
+     */
+    public LocalDate firstOpenNight() {
+        return hotel.getLastCheckOut();
+    }
+
+    /**
+     * Night after the last one open to benchmark bookings, the end of the inventory window
+     */
+    public LocalDate endOpenNight() {
+        return LocalDate.now().plusDays(RoomTypeInventory.DEFAULT_HORIZON_DAYS);
+    }
+}
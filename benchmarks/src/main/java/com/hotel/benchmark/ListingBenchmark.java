@@ -0,0 +1,34 @@
+package com.hotel.benchmark;
+
+import com.hotel.model.Reservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full listings; each call reads a large share of the reservations table
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ListingBenchmark {
+
+    @Benchmark
+    public List<Reservation> getAllReservations(HotelState state) {
+        return state.reservationDAO.getAllReservations();
+    }
+
+    @Benchmark
+    public List<Reservation> getActiveReservations(HotelState state) {
+        return state.reservationDAO.getActiveReservations();
+    }
+}
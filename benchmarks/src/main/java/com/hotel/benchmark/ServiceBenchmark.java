@@ -0,0 +1,188 @@
+package com.hotel.benchmark;
+
+import com.hotel.model.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking, cancellation and availability through ReservationService.
+ * Bookings fall inside the service's inventory window, past the seeded
+ * stays, and each thread books its own rooms so threads never collide.
+ * Database setup runs once per iteration, outside the measured calls.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int GUESTS_PER_THREAD = 256;
+    private static final int CANCELLATIONS_PER_ITERATION = 2_000;
+
+    /**
+     * Stays for one thread, walked room by room over its stripe and then
+     * SLOT_NIGHTS further on, so no two stays it hands out overlap until the
+     * open nights run out and it starts over
+     */
+    static final class Stays {
+        private static final int SLOT_NIGHTS = 6;
+
+        private final int[] rooms;
+        private final long firstDay;
+        private final int slots;
+        private int next;
+
+        int roomId;
+        LocalDate checkIn;
+        LocalDate checkOut;
+
+        Stays(int[] rooms, LocalDate firstNight, LocalDate endNight) {
+            this.rooms = rooms;
+            this.firstDay = firstNight.toEpochDay();
+            this.slots = (int) ((endNight.toEpochDay() - firstDay) / SLOT_NIGHTS);
+        }
+
+        /**
+         * Move on to the next stay, one to five nights long
+         */
+        void advance() {
+            int slot = (next / rooms.length) % slots;
+            roomId = rooms[next % rooms.length];
+            checkIn = LocalDate.ofEpochDay(firstDay + (long) slot * SLOT_NIGHTS);
+            checkOut = checkIn.plusDays(1 + ThreadLocalRandom.current().nextInt(SLOT_NIGHTS - 1));
+            next++;
+        }
+
+        void restart() {
+            next = 0;
+        }
+    }
+
+    /**
+     * Per-thread booking requests. Guests are read once per iteration, and
+     * the iteration's bookings are cancelled when it ends.
+     */
+    @State(Scope.Thread)
+    public static class Booking {
+        Customer[] guests;
+        Stays stays;
+        final List<Integer> booked = new ArrayList<>();
+
+        @Setup(Level.Trial)
+        public void plan(HotelState state, ThreadParams thread) {
+            stays = new Stays(state.roomStripe(thread.getThreadIndex(), thread.getThreadCount()),
+                    state.firstOpenNight(), state.endOpenNight());
+        }
+
+        @Setup(Level.Iteration)
+        public void prepare(HotelState state) {
+            guests = new Customer[GUESTS_PER_THREAD];
+            for (int i = 0; i < guests.length; i++) {
+                guests[i] = state.customerDAO.getCustomerById(state.randomCustomerId());
+            }
+            stays.restart();
+        }
+
+        @TearDown(Level.Iteration)
+        public void undo(HotelState state) {
+            for (int reservationId : booked) {
+                state.reservationService.cancelReservation(reservationId);
+            }
+            booked.clear();
+        }
+    }
+
+    /**
+     * Per-thread bookings to cancel, made before each iteration
+     */
+    @State(Scope.Thread)
+    public static class Cancellation {
+        Stays stays;
+        int[] reservationIds;
+        int next;
+
+        @Setup(Level.Trial)
+        public void plan(HotelState state, ThreadParams thread) {
+            stays = new Stays(state.roomStripe(thread.getThreadIndex(), thread.getThreadCount()),
+                    state.firstOpenNight(), state.endOpenNight());
+        }
+
+        @Setup(Level.Iteration)
+        public void prepare(HotelState state) {
+            stays.restart();
+            reservationIds = new int[CANCELLATIONS_PER_ITERATION];
+            for (int i = 0; i < reservationIds.length; i++) {
+                Customer guest = state.customerDAO.getCustomerById(state.randomCustomerId());
+                stays.advance();
+                reservationIds[i] = state.reservationService.createReservation(guest.getFirstName(),
+                        guest.getLastName(), guest.getEmail(), guest.getPhoneNumber(), guest.getIdProof(),
+                        stays.roomId, stays.checkIn, stays.checkOut).getReservationId();
+            }
+            next = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void undo(HotelState state) {
+            // Only left over if an iteration ended early
+            for (; next < reservationIds.length; next++) {
+                if (reservationIds[next] > 0) {
+                    state.reservationService.cancelReservation(reservationIds[next]);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int createReservation(HotelState state, Booking booking) {
+        Customer guest = booking.guests[ThreadLocalRandom.current().nextInt(booking.guests.length)];
+        Stays stays = booking.stays;
+        stays.advance();
+        int reservationId = state.reservationService.createReservation(guest.getFirstName(),
+                guest.getLastName(), guest.getEmail(), guest.getPhoneNumber(), guest.getIdProof(),
+                stays.roomId, stays.checkIn, stays.checkOut).getReservationId();
+        if (reservationId > 0) {
+            booking.booked.add(reservationId);
+        }
+        return reservationId;
+    }
+
+    /**
+     * Score is the time for one iteration's batch of CANCELLATIONS_PER_ITERATION cancellations
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 3, batchSize = CANCELLATIONS_PER_ITERATION)
+    @Measurement(iterations = 5, batchSize = CANCELLATIONS_PER_ITERATION)
+    public int cancelReservation(HotelState state, Cancellation cancellation) {
+        int reservationId = cancellation.reservationIds[cancellation.next++];
+        if (reservationId > 0) {
+            state.reservationService.cancelReservation(reservationId);
+        }
+        return reservationId;
+    }
+
+    @Benchmark
+    public boolean isRoomAvailable(HotelState state) {
+        LocalDate checkIn = state.randomNearDate();
+        return state.reservationService.isRoomAvailable(state.randomRoomId(), checkIn,
+                checkIn.plusDays(1 + ThreadLocalRandom.current().nextInt(5)));
+    }
+}
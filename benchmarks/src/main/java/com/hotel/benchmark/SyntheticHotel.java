@@ -0,0 +1,206 @@
+package com.hotel.benchmark;
+
+import com.hotel.util.DatabaseConnection;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds the embedded H2 test database with a synthetic hotel: rooms,
+ * customers and a reservation history per room that runs from the past
+ * into the near future. About 5% of the stays are still active
+ * (CONFIRMED or CHECKED_IN) and hold room_nights rows.
+ */
+public class SyntheticHotel {
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final String[] ROOM_TYPES = {"SINGLE", "DOUBLE", "SUITE", "DELUXE"};
+    private static final double[] PRICES = {1500.00, 2500.00, 5000.00, 7500.00};
+    private static final int[] OCCUPANCY = {1, 2, 4, 4};
+
+    private final int roomCount;
+    private final int reservationCount;
+    private final int customerCount;
+    private final Random random = new Random(42);
+
+    private int[] roomIds;
+    private int[] customerIds;
+    private int minReservationId;
+    private int maxReservationId;
+    private LocalDate lastCheckOut = LocalDate.now();
+
+    public SyntheticHotel(int roomCount, int reservationCount) {
+        this.roomCount = roomCount;
+        this.reservationCount = reservationCount;
+        this.customerCount = Math.max(1, reservationCount / 10);
+    }
+
+    /**
+     * Insert the synthetic data; DatabaseConnection must be in test mode
+     */
+    public void seed() throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            insertRooms(conn);
+            insertCustomers(conn);
+            insertReservations(conn);
+            insertRoomNights(conn);
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private void insertRooms(Connection conn) throws SQLException {
+        String query = "INSERT INTO rooms (room_number, room_type, price_per_night, status, floor_number, max_occupancy) " +
+                      "VALUES (?, ?, ?, 'AVAILABLE', ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            for (int i = 0; i < roomCount; i++) {
+                int type = random.nextInt(ROOM_TYPES.length);
+                pstmt.setString(1, "B" + i);
+                pstmt.setString(2, ROOM_TYPES[type]);
+                pstmt.setDouble(3, PRICES[type]);
+                pstmt.setInt(4, 1 + i / 100);
+                pstmt.setInt(5, OCCUPANCY[type]);
+                addBatch(conn, pstmt, i);
+            }
+            pstmt.executeBatch();
+        }
+        roomIds = selectIds(conn, "SELECT room_id FROM rooms WHERE room_number LIKE 'B%' ORDER BY room_id");
+    }
+
+    private void insertCustomers(Connection conn) throws SQLException {
+        String query = "INSERT INTO customers (first_name, last_name, email, phone_number, id_proof) " +
+                      "VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            for (int i = 0; i < customerCount; i++) {
+                pstmt.setString(1, "Guest");
+                pstmt.setString(2, "No" + i);
+                pstmt.setString(3, "guest" + i + "@bench.example");
+                pstmt.setString(4, String.format("7%09d", i));
+                pstmt.setString(5, "BENCH" + i);
+                addBatch(conn, pstmt, i);
+            }
+            pstmt.executeBatch();
+        }
+        customerIds = selectIds(conn,
+                "SELECT customer_id FROM customers WHERE email LIKE '%@bench.example' ORDER BY customer_id");
+    }
+
+    private void insertReservations(Connection conn) throws SQLException {
+        String query = "INSERT INTO reservations (customer_id, room_id, check_in_date, check_out_date, total_amount, status) " +
+                      "VALUES (?, ?, ?, ?, ?, ?)";
+        int perRoom = Math.max(1, reservationCount / roomCount);
+        LocalDate today = LocalDate.now();
+        // Average stay plus gap is about 4 days; start far enough back that ~5% end up in the future
+        LocalDate historyStart = today.minusDays((long) (perRoom * 4 * 0.95));
+
+        int inserted = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            for (int r = 0; r < roomIds.length && inserted < reservationCount; r++) {
+                LocalDate cursor = historyStart;
+                for (int n = 0; n < perRoom && inserted < reservationCount; n++) {
+                    LocalDate checkIn = cursor.plusDays(random.nextInt(3));
+                    LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(3));
+                    cursor = checkOut;
+                    if (checkOut.isAfter(lastCheckOut)) {
+                        lastCheckOut = checkOut;
+                    }
+
+                    String status;
+                    if (checkOut.isBefore(today)) {
+                        status = random.nextInt(10) == 0 ? "CANCELLED" : "CHECKED_OUT";
+                    } else if (checkIn.isAfter(today)) {
+                        status = "CONFIRMED";
+                    } else {
+                        status = "CHECKED_IN";
+                    }
+
+                    pstmt.setInt(1, customerIds[random.nextInt(customerIds.length)]);
+                    pstmt.setInt(2, roomIds[r]);
+                    pstmt.setDate(3, Date.valueOf(checkIn));
+                    pstmt.setDate(4, Date.valueOf(checkOut));
+                    pstmt.setDouble(5, 2500.00 * (checkOut.toEpochDay() - checkIn.toEpochDay()));
+                    pstmt.setString(6, status);
+                    addBatch(conn, pstmt, inserted++);
+                }
+            }
+            pstmt.executeBatch();
+        }
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(reservation_id), MAX(reservation_id) FROM reservations")) {
+            rs.next();
+            minReservationId = rs.getInt(1);
+            maxReservationId = rs.getInt(2);
+        }
+    }
+
+    private void insertRoomNights(Connection conn) throws SQLException {
+        String active = "SELECT reservation_id, room_id, check_in_date, check_out_date FROM reservations " +
+                       "WHERE status IN ('CONFIRMED', 'CHECKED_IN') AND room_id >= ?";
+        String insert = "INSERT INTO room_nights (room_id, stay_date, reservation_id) VALUES (?, ?, ?)";
+
+        try (PreparedStatement select = conn.prepareStatement(active);
+             PreparedStatement pstmt = conn.prepareStatement(insert)) {
+            select.setInt(1, roomIds[0]);
+            ResultSet rs = select.executeQuery();
+            int count = 0;
+            while (rs.next()) {
+                LocalDate night = rs.getDate("check_in_date").toLocalDate();
+                LocalDate checkOut = rs.getDate("check_out_date").toLocalDate();
+                for (; night.isBefore(checkOut); night = night.plusDays(1)) {
+                    pstmt.setInt(1, rs.getInt("room_id"));
+                    pstmt.setDate(2, Date.valueOf(night));
+                    pstmt.setInt(3, rs.getInt("reservation_id"));
+                    addBatch(conn, pstmt, count++);
+                }
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private static void addBatch(Connection conn, PreparedStatement pstmt, int index) throws SQLException {
+        pstmt.addBatch();
+        if ((index + 1) % BATCH_SIZE == 0) {
+            pstmt.executeBatch();
+            conn.commit();
+        }
+    }
+
+    private static int[] selectIds(Connection conn, String query) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public int[] getRoomIds() {
+        return roomIds;
+    }
+
+    public int[] getCustomerIds() {
+        return customerIds;
+    }
+
+    public int getMinReservationId() {
+        return minReservationId;
+    }
+
+    public int getMaxReservationId() {
+        return maxReservationId;
+    }
+
+    /**
+     * Latest check-out of the seeded stays, or today if none run past it
+     */
+    public LocalDate getLastCheckOut() {
+        return lastCheckOut;
+    }
+}
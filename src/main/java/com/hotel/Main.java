@@ -1,33 +1,400 @@
 package com.hotel;
 
+import com.hotel.api.ApiServer;
+import com.hotel.dao.JdbcStorageEngine;
+import com.hotel.dao.ReservationArchiveDAO;
+import com.hotel.dao.StayTransitionDAO;
+import com.hotel.journal.ReservationJournal;
+import com.hotel.journal.SnapshotStore;
+import com.hotel.repository.StorageEngine;
+import com.hotel.repository.memory.InMemoryStorageEngine;
+import com.hotel.service.AsyncReservationService;
+import com.hotel.service.NightAudit;
+import com.hotel.service.ReservationArchiver;
+import com.hotel.service.ReservationService;
 import com.hotel.ui.ConsoleUI;
 import com.hotel.util.DatabaseConnection;
+import com.hotel.util.SchemaMigrator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Main class - Entry point for Hotel Reservation System
+ *
+ * Usage:
+ *   java -jar hotel-reservation-system.jar                      console only
+ *   java -jar hotel-reservation-system.jar --api 8080           console and HTTP API
+ *   java -jar hotel-reservation-system.jar --api 8080 --headless HTTP API only
+ *   java -jar hotel-reservation-system.jar --journal data        also journal reservation changes to data/
+ *                                                               and snapshot state there for fast restarts
+ *   java -jar hotel-reservation-system.jar --journal data --snapshot-minutes 5
+ *   java -jar hotel-reservation-system.jar --storage memory      no database; data is lost on exit
+ *   java -jar hotel-reservation-system.jar --archive-days 90     daily, archive reservations completed
+ *                                                               more than 90 days ago
+ *   java -jar hotel-reservation-system.jar --night-audit 02:00   daily at 02:00 (and once at startup),
+ *                                                               cancel no-shows and check out departures
  */
 public class Main {
-    
+
+    private static final int DEFAULT_SNAPSHOT_MINUTES = 15;
+
     public static void main(String[] args) {
-        // Test database connection
-        System.out.println("Testing database connection...");
-        
-        DatabaseConnection dbConnection = DatabaseConnection.getInstance();
-        
-        if (dbConnection.testConnection()) {
-            System.out.println("✓ Database connected successfully!");
-            
-            // Start the application
-            ConsoleUI ui = new ConsoleUI();
-            ui.start();
-            
+        Integer apiPort = null;
+        boolean headless = false;
+        boolean inMemory = false;
+        Path journalDir = null;
+        int snapshotMinutes = DEFAULT_SNAPSHOT_MINUTES;
+        Integer archiveDays = null;
+        LocalTime nightAuditTime = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--api")) {
+                if (i + 1 >= args.length || !isPort(args[i + 1])) {
+                    System.err.println("--api requires a port number");
+                    printUsage();
+                }
+                apiPort = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--headless")) {
+                headless = true;
+            } else if (args[i].equals("--storage") && i + 1 < args.length) {
+                inMemory = parseStorage(args[++i]);
+            } else if (args[i].equals("--journal") && i + 1 < args.length) {
+                journalDir = Path.of(args[++i]);
+            } else if (args[i].equals("--snapshot-minutes") && i + 1 < args.length) {
+                snapshotMinutes = parsePositive("snapshot interval", args[++i]);
+            } else if (args[i].equals("--archive-days") && i + 1 < args.length) {
+                archiveDays = parsePositive("archive horizon", args[++i]);
+            } else if (args[i].equals("--night-audit") && i + 1 < args.length) {
+                nightAuditTime = parseTime("night audit time", args[++i]);
+            } else {
+                System.err.println("Unknown option: " + args[i]);
+                printUsage();
+            }
+        }
+        if (headless && apiPort == null) {
+            System.err.println("--headless requires --api <port>");
+            System.exit(1);
+        }
+        if (inMemory && journalDir != null) {
+            System.err.println("--journal requires database storage");
+            System.exit(1);
+        }
+        if (inMemory && archiveDays != null) {
+            System.err.println("--archive-days requires database storage");
+            System.exit(1);
+        }
+        if (inMemory && nightAuditTime != null) {
+            System.err.println("--night-audit requires database storage");
+            System.exit(1);
+        }
+
+        DatabaseConnection dbConnection = null;
+        StorageEngine storage;
+        if (inMemory) {
+            storage = new InMemoryStorageEngine().withSampleRooms();
+            System.out.println("Running on in-memory storage (data is lost on exit)");
         } else {
-            System.err.println("✗ Failed to connect to database!");
-            System.err.println("Please check:");
-            System.err.println("1. MySQL is running");
-            System.err.println("2. Database 'hotel_reservation_db' exists");
-            System.err.println("3. Username and password in application.properties are correct");
+            // Test database connection
+            System.out.println("Testing database connection...");
+
+            dbConnection = DatabaseConnection.getInstance();
+
+            if (!dbConnection.testConnection()) {
+                System.err.println("✗ Failed to connect to database!");
+                System.err.println("Please check:");
+                System.err.println("1. MySQL is running");
+                System.err.println("2. Database 'hotel_reservation_db' exists");
+                System.err.println("3. Username and password in application.properties are correct");
+                System.exit(1);
+            }
+            System.out.println("✓ Database connected successfully!");
+            if (dbConnection.isTestMode()) {
+                System.out.println("Running in test mode (embedded H2 database)");
+            }
+            migrateSchema(dbConnection);
+            storage = new JdbcStorageEngine();
+        }
+
+        ReservationJournal journal = null;
+        SnapshotStore snapshots = null;
+        if (journalDir != null) {
+            journal = openJournal(journalDir);
+            snapshots = openSnapshots(journalDir);
+        }
+
+        // The console and the HTTP API share one service
+        long startNanos = System.nanoTime();
+        ReservationService reservationService = new ReservationService(storage, journal, snapshots);
+        long startMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        if (reservationService.getReconciledReservations() > 0) {
+            System.out.println("✓ Journaled " + reservationService.getReconciledReservations()
+                    + " reservation changes the journal had missed");
+        }
+        ScheduledExecutorService snapshotter = null;
+        if (snapshots != null) {
+            if (reservationService.getRestoredSnapshotSequence() >= 0) {
+                System.out.println("✓ Warm start from snapshot at event "
+                        + reservationService.getRestoredSnapshotSequence() + " in " + startMillis + " ms");
+            } else {
+                System.out.println("✓ Cold start in " + startMillis + " ms");
+            }
+            snapshotter = scheduleSnapshots(reservationService, snapshotMinutes);
+        }
+
+        if (archiveDays != null) {
+            scheduleArchival(new ReservationArchiver(new ReservationArchiveDAO(), archiveDays));
+        }
+        if (nightAuditTime != null) {
+            scheduleNightAudit(new NightAudit(new StayTransitionDAO(), reservationService), nightAuditTime);
+        }
+
+        ApiServer apiServer = null;
+        if (apiPort != null) {
+            // With no database pool to size it by, one async worker per core
+            AsyncReservationService asyncService = inMemory
+                    ? new AsyncReservationService(reservationService, Runtime.getRuntime().availableProcessors())
+                    : new AsyncReservationService(reservationService);
+            apiServer = startApi(reservationService, asyncService, apiPort);
+        }
+
+        if (headless) {
+            awaitShutdown(apiServer, snapshotter, reservationService, journal, dbConnection);
+            return;
+        }
+
+        // Start the application
+        ConsoleUI ui = new ConsoleUI(reservationService);
+        ui.start();
+
+        if (apiServer != null) {
+            apiServer.stop(2);
+        }
+        stopSnapshots(snapshotter, reservationService);
+        if (journal != null) {
+            journal.close();
+        }
+        if (dbConnection != null) {
+            dbConnection.shutdown();
+        }
+    }
+
+    private static ApiServer startApi(ReservationService reservationService,
+                                      AsyncReservationService asyncService, int port) {
+        ApiServer apiServer = new ApiServer(reservationService, asyncService, port);
+        try {
+            apiServer.start();
+            System.out.println("✓ HTTP API listening on port " + apiServer.getPort());
+            return apiServer;
+        } catch (IOException e) {
+            System.err.println("✗ Failed to start HTTP API on port " + port + ": " + e.getMessage());
             System.exit(1);
+            return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Apply pending db/migration scripts to the primary before anything reads the schema
+     */
+    private static void migrateSchema(DatabaseConnection dbConnection) {
+        try (Connection conn = dbConnection.getConnection()) {
+            int applied = SchemaMigrator.migrate(conn);
+            if (applied > 0) {
+                System.out.println("✓ Applied " + applied + " schema migration(s), now at version "
+                        + SchemaMigrator.getCurrentVersion(conn));
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println("✗ Schema migration failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static ReservationJournal openJournal(Path directory) {
+        try {
+            ReservationJournal journal = ReservationJournal.open(directory);
+            System.out.println("✓ Reservation journal: " + journal.getPath()
+                    + " (" + journal.getLastSequence() + " events)");
+            return journal;
+        } catch (IOException e) {
+            System.err.println("✗ Failed to open reservation journal in " + directory + ": " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+
+    private static SnapshotStore openSnapshots(Path directory) {
+        try {
+            return SnapshotStore.open(directory);
+        } catch (IOException e) {
+            System.err.println("✗ Failed to open snapshot directory " + directory + ": " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+
+    /**
+     * Snapshot the service in the background so the next start replays less
+     */
+    private static ScheduledExecutorService scheduleSnapshots(ReservationService reservationService, int minutes) {
+        ScheduledExecutorService snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotter.scheduleWithFixedDelay(reservationService::writeSnapshot, minutes, minutes, TimeUnit.MINUTES);
+        return snapshotter;
+    }
+
+    /**
+     * Archive completed reservations in the background, once a day.
+     * The thread is a daemon: a batch cut off at exit rolls back and is retried next run.
+     */
+    private static void scheduleArchival(ReservationArchiver archiver) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            int archived = archiver.archiveCompleted();
+            if (archived > 0) {
+                System.out.println("✓ Archived " + archived + " reservations completed more than "
+                        + archiver.getHorizonDays() + " days ago");
+            }
+        }, 1, TimeUnit.DAYS.toMinutes(1), TimeUnit.MINUTES);
+    }
+
+    /**
+     * Run the night audit for the current date once now, to catch up on
+     * days missed while stopped, and then every day at the given time.
+     * The thread is a daemon: a batch cut off at exit rolls back and is redone next run.
+     */
+    private static void scheduleNightAudit(NightAudit nightAudit, LocalTime time) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "night-audit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runnable audit = () -> {
+            NightAudit.Report report = nightAudit.run(LocalDate.now(), (transition, batchMoved, totalMoved) ->
+                    System.out.println("  night audit: " + transition + " " + totalMoved + " so far"));
+            if (report.getTotalMoved() > 0 || !report.isComplete()) {
+                System.out.println("✓ " + report);
+            }
+        };
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(time);
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        scheduler.execute(audit);
+        scheduler.scheduleAtFixedRate(audit, Duration.between(now, next).toMinutes(),
+                TimeUnit.DAYS.toMinutes(1), TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stop periodic snapshots and take a final one for the next start
+     */
+    private static void stopSnapshots(ScheduledExecutorService snapshotter, ReservationService reservationService) {
+        if (snapshotter == null) {
+            return;
+        }
+        snapshotter.shutdown();
+        try {
+            snapshotter.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        reservationService.writeSnapshot();
+    }
+
+    /**
+     * Serve the HTTP API until the process is asked to stop (Ctrl+C or SIGTERM)
+     */
+    private static void awaitShutdown(ApiServer apiServer, ScheduledExecutorService snapshotter,
+                                      ReservationService reservationService, ReservationJournal journal,
+                                      DatabaseConnection dbConnection) {
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            apiServer.stop(2);
+            stopSnapshots(snapshotter, reservationService);
+            if (journal != null) {
+                journal.close();
+            }
+            if (dbConnection != null) {
+                dbConnection.shutdown();
+            }
+            stopped.countDown();
+        }));
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Parse a storage name; true means in-memory
+     */
+    private static boolean parseStorage(String value) {
+        if (value.equals("memory")) {
+            return true;
+        }
+        if (!value.equals("jdbc")) {
+            System.err.println("Unknown storage: " + value + " (expected jdbc or memory)");
+            System.exit(1);
+        }
+        return false;
+    }
+
+    private static int parsePositive(String name, String value) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the error below
+        }
+        System.err.println("Invalid " + name + ": " + value);
+        System.exit(1);
+        return -1;
+    }
+
+    private static LocalTime parseTime(String name, String value) {
+        try {
+            return LocalTime.parse(value);
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid " + name + " (use HH:MM): " + value);
+            System.exit(1);
+            return null;
+        }
+    }
+
+    private static boolean isPort(String value) {
+        return value.matches("\\d{1,5}") && Integer.parseInt(value) <= 65535;
+    }
+
+    private static void printUsage() {
+        System.err.println("""
+                Usage: java -jar hotel-reservation-system.jar [options]
+                  --api <port>                serve the HTTP API on <port> (0 picks a free port)
+                  --headless                  HTTP API only, no console menu (requires --api)
+                  --storage jdbc|memory       storage engine (default jdbc)
+                  --journal <dir>             journal reservation changes and snapshot state to <dir>
+                  --snapshot-minutes <n>      minutes between snapshots (default 15)
+                  --archive-days <n>          daily, archive reservations completed more than <n> days ago
+                  --night-audit <HH:MM>       daily, cancel no-shows and check out departures""");
+        System.exit(1);
+    }
+}
@@ -0,0 +1,18 @@
+package com.hotel.api;
+
+/**
+ * Error that maps to an HTTP status code and a JSON error body
+ */
+public class ApiException extends RuntimeException {
+
+    private final int status;
+
+    public ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,246 @@
+package com.hotel.api;
+
+import com.hotel.model.Customer;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import com.hotel.util.ReadYourWrites;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Base class for the JSON endpoints.
+ * Subclasses handle one request at a time on a virtual thread and signal
+ * client errors with ApiException; everything else becomes a 500.
+ * Responses carry the client's last write time in the X-Last-Write header;
+ * a client that sends it back on later requests reads its own writes even
+ * when reads are spread over replicas.
+ */
+public abstract class ApiHandler implements HttpHandler {
+
+    public static final String LAST_WRITE_HEADER = "X-Last-Write";
+
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        ReadYourWrites.Request request = ReadYourWrites.beginRequest(lastWriteOf(exchange));
+        try {
+            handleRequest(exchange);
+        } catch (ApiException e) {
+            sendError(exchange, e.getStatus(), e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Error handling " + exchange.getRequestMethod() + " "
+                    + exchange.getRequestURI() + ": " + e.getMessage());
+            sendError(exchange, 500, "Internal server error");
+        } finally {
+            request.close();
+            exchange.close();
+        }
+    }
+
+    /**
+     * Get the last write time the client sent back, or 0 if it sent none or an invalid one
+     */
+    private static long lastWriteOf(HttpExchange exchange) {
+        String value = exchange.getRequestHeaders().getFirst(LAST_WRITE_HEADER);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Handle one request and send the response
+     */
+    protected abstract void handleRequest(HttpExchange exchange) throws IOException;
+
+    /**
+     * Send a value as a JSON response
+     */
+    protected void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        long lastWrite = ReadYourWrites.lastWriteMillis();
+        if (lastWrite > 0) {
+            exchange.getResponseHeaders().set(LAST_WRITE_HEADER, Long.toString(lastWrite));
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", message);
+        sendJson(exchange, status, body);
+    }
+
+    /**
+     * Read the request body as a JSON object
+     */
+    protected Map<String, Object> readJsonObject(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body too large");
+            }
+            if (bytes.length == 0) {
+                throw new ApiException(400, "Request body is required");
+            }
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Fail with 405 unless the request uses the given method
+     */
+    protected void requireMethod(HttpExchange exchange, String method) {
+        if (!method.equalsIgnoreCase(exchange.getRequestMethod())) {
+            throw new ApiException(405, "Method not allowed");
+        }
+    }
+
+    /**
+     * Get the path below the handler's context, without leading or trailing slashes
+     */
+    protected String subPath(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        String rest = path.substring(exchange.getHttpContext().getPath().length());
+        int start = 0;
+        int end = rest.length();
+        while (start < end && rest.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && rest.charAt(end - 1) == '/') {
+            end--;
+        }
+        return rest.substring(start, end);
+    }
+
+    /**
+     * Parse the query string into a map; repeated keys keep the last value
+     */
+    protected Map<String, String> queryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    /**
+     * Parse a path segment or parameter as an ID
+     */
+    protected static int parseId(String value, String name) {
+        if (value == null || value.isEmpty()) {
+            throw new ApiException(400, name + " is required");
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Invalid " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Parse an optional integer parameter; blank values return null
+     */
+    protected static Integer parseOptionalInt(String value, String name) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        return parseId(value, name);
+    }
+
+    /**
+     * Parse a required YYYY-MM-DD date
+     */
+    protected static LocalDate parseDate(String value, String name) {
+        if (value == null || value.isEmpty()) {
+            throw new ApiException(400, name + " is required");
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ApiException(400, "Invalid " + name + " (use YYYY-MM-DD): " + value);
+        }
+    }
+
+    /**
+     * Parse an enum constant, ignoring case; blank values return null
+     */
+    protected static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String name) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Invalid " + name + ": " + value);
+        }
+    }
+
+    protected static Map<String, Object> toJson(Room room) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("roomId", room.getRoomId());
+        json.put("roomNumber", room.getRoomNumber());
+        json.put("roomType", room.getRoomType());
+        json.put("pricePerNight", room.getPricePerNight());
+        json.put("status", room.getStatus());
+        json.put("floorNumber", room.getFloorNumber());
+        json.put("maxOccupancy", room.getMaxOccupancy());
+        return json;
+    }
+
+    protected static Map<String, Object> toJson(Reservation reservation) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("reservationId", reservation.getReservationId());
+        json.put("customerId", reservation.getCustomerId());
+        json.put("customerName", reservation.getCustomerName());
+        json.put("roomId", reservation.getRoomId());
+        json.put("roomNumber", reservation.getRoomNumber());
+        json.put("checkIn", reservation.getCheckInDate());
+        json.put("checkOut", reservation.getCheckOutDate());
+        json.put("nights", reservation.getNumberOfNights());
+        json.put("totalAmount", reservation.getTotalAmount());
+        json.put("status", reservation.getStatus());
+        json.put("createdAt", reservation.getCreatedAt());
+        return json;
+    }
+
+    protected static Map<String, Object> toJson(Customer customer) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("customerId", customer.getCustomerId());
+        json.put("firstName", customer.getFirstName());
+        json.put("lastName", customer.getLastName());
+        json.put("email", customer.getEmail());
+        json.put("phoneNumber", customer.getPhoneNumber());
+        return json;
+    }
+}
@@ -0,0 +1,73 @@
+package com.hotel.api;
+
+import com.hotel.service.AsyncReservationService;
+import com.hotel.service.ReservationService;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP/JSON server for the reservation service.
+ * Every request runs on its own virtual thread, so many clients can book
+ * at once while each handler keeps simple blocking JDBC code. Lookups a
+ * handler runs side by side go through the async facade, whose bounded
+ * pool keeps them from taking more connections than the database has.
+ */
+public class ApiServer {
+
+    private final ReservationService reservationService;
+    private final AsyncReservationService asyncService;
+    private final int port;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ApiServer(ReservationService reservationService, AsyncReservationService asyncService, int port) {
+        this.reservationService = reservationService;
+        this.asyncService = asyncService;
+        this.port = port;
+    }
+
+    /**
+     * Bind the port and start accepting requests
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/api/rooms", new RoomHandler(reservationService));
+        server.createContext("/api/reservations", new ReservationHandler(reservationService, asyncService));
+        server.createContext("/api/inventory", new InventoryHandler(reservationService));
+        server.createContext("/api/waitlist", new WaitlistHandler(reservationService));
+        server.createContext("/api/quotes", new QuoteHandler(reservationService));
+
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Stop accepting requests, wait up to the given seconds for running
+     * requests to finish, then release the port and the async facade's workers
+     */
+    public synchronized void stop(int delaySeconds) {
+        if (server == null) {
+            return;
+        }
+        server.stop(delaySeconds);
+        executor.shutdown();
+        asyncService.close();
+        server = null;
+        executor = null;
+    }
+
+    /**
+     * Get the bound port (useful when started on port 0)
+     */
+    public synchronized int getPort() {
+        return server != null ? server.getAddress().getPort() : port;
+    }
+}
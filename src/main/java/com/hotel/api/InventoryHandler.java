@@ -0,0 +1,63 @@
+package com.hotel.api;
+
+import com.hotel.cache.RoomTypeInventory;
+import com.hotel.model.Room.RoomType;
+import com.hotel.service.ReservationService;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Room type inventory endpoint:
+ * <pre>
+ * GET /api/inventory?type=DELUXE&amp;from=YYYY-MM-DD&amp;to=YYYY-MM-DD
+ * </pre>
+ * Returns the sold, blocked and available rooms of the type for each night in
+ * [from, to) and the fewest available on any of those nights.
+ */
+public class InventoryHandler extends ApiHandler {
+
+    private final ReservationService reservationService;
+
+    public InventoryHandler(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    @Override
+    protected void handleRequest(HttpExchange exchange) throws IOException {
+        requireMethod(exchange, "GET");
+        if (!subPath(exchange).isEmpty()) {
+            throw new ApiException(404, "Not found");
+        }
+        Map<String, String> params = queryParams(exchange);
+        RoomType type = parseEnum(RoomType.class, params.get("type"), "type");
+        if (type == null) {
+            throw new ApiException(400, "type is required");
+        }
+        LocalDate from = parseDate(params.get("from"), "from");
+        LocalDate to = parseDate(params.get("to"), "to");
+
+        List<Object> nights = new ArrayList<>();
+        for (RoomTypeInventory.Night night : reservationService.getTypeInventory(type, from, to)) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("date", night.getDate());
+            json.put("sold", night.getSold());
+            json.put("blocked", night.getBlocked());
+            json.put("available", night.getAvailable());
+            nights.add(json);
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("type", type);
+        json.put("from", from);
+        json.put("to", to);
+        json.put("minAvailable", reservationService.getMinAvailable(type, from, to));
+        json.put("nights", nights);
+        sendJson(exchange, 200, json);
+    }
+}
@@ -0,0 +1,109 @@
+package com.hotel.api;
+
+import com.hotel.model.Room.RoomType;
+import com.hotel.service.Quote;
+import com.hotel.service.QuoteRequest;
+import com.hotel.service.ReservationService;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk quote endpoint:
+ * <pre>
+ * POST /api/quotes    price and check many rooms or room types for many date ranges
+ * </pre>
+ * The body is {"requests": [{"roomId": 3 | "roomType": "SUITE", "checkIn", "checkOut"}, ...]};
+ * the response lists one quote per request, in the same order.
+ */
+public class QuoteHandler extends ApiHandler {
+
+    private static final int MAX_REQUESTS = 1_000;
+
+    private final ReservationService reservationService;
+
+    public QuoteHandler(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    @Override
+    protected void handleRequest(HttpExchange exchange) throws IOException {
+        if (!subPath(exchange).isEmpty()) {
+            throw new ApiException(404, "Not found");
+        }
+        requireMethod(exchange, "POST");
+
+        Object items = readJsonObject(exchange).get("requests");
+        if (!(items instanceof List)) {
+            throw new ApiException(400, "requests must be a list");
+        }
+        List<?> list = (List<?>) items;
+        if (list.size() > MAX_REQUESTS) {
+            throw new ApiException(400, "At most " + MAX_REQUESTS + " requests per call");
+        }
+
+        List<QuoteRequest> requests = new ArrayList<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            requests.add(parseRequest(list.get(i), "requests[" + i + "]"));
+        }
+
+        List<Object> quotes = new ArrayList<>(requests.size());
+        for (Quote quote : reservationService.quote(requests)) {
+            quotes.add(toJson(quote));
+        }
+        sendJson(exchange, 200, Map.of("quotes", quotes));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static QuoteRequest parseRequest(Object item, String name) {
+        if (!(item instanceof Map)) {
+            throw new ApiException(400, name + " must be an object");
+        }
+        Map<String, Object> fields = (Map<String, Object>) item;
+        RoomType roomType = parseEnum(RoomType.class, stringField(fields, "roomType", name), name + ".roomType");
+        String roomId = stringField(fields, "roomId", name);
+        if ((roomType == null) == (roomId == null)) {
+            throw new ApiException(400, name + " needs either roomId or roomType");
+        }
+        var checkIn = parseDate(stringField(fields, "checkIn", name), name + ".checkIn");
+        var checkOut = parseDate(stringField(fields, "checkOut", name), name + ".checkOut");
+        return roomType != null ? QuoteRequest.forType(roomType, checkIn, checkOut)
+                : QuoteRequest.forRoom(parseId(roomId, name + ".roomId"), checkIn, checkOut);
+    }
+
+    private static Map<String, Object> toJson(Quote quote) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("status", quote.getStatus());
+        json.put("message", quote.getMessage());
+        if (quote.getRoom() != null) {
+            json.put("roomId", quote.getRoom().getRoomId());
+            json.put("roomNumber", quote.getRoom().getRoomNumber());
+            json.put("roomType", quote.getRoom().getRoomType());
+            json.put("nights", quote.getNights());
+            json.put("totalAmount", quote.getTotalAmount());
+        }
+        return json;
+    }
+
+    /**
+     * Get a field as a string; numbers are accepted in their plain form
+     */
+    private static String stringField(Map<String, Object> fields, String field, String name) {
+        Object value = fields.get(field);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if (!(value instanceof String)) {
+            throw new ApiException(400, "Invalid " + name + "." + field);
+        }
+        return (String) value;
+    }
+}
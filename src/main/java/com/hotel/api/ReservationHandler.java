@@ -0,0 +1,242 @@
+package com.hotel.api;
+
+import com.hotel.model.Customer;
+import com.hotel.model.Reservation;
+import com.hotel.model.Reservation.ReservationStatus;
+import com.hotel.model.Room;
+import com.hotel.service.AsyncReservationService;
+import com.hotel.service.BookingResult;
+import com.hotel.service.CancellationResult;
+import com.hotel.service.ReservationService;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Reservation endpoints:
+ * <pre>
+ * GET    /api/reservations[?after={id}&amp;limit=50]   page of reservations, newest first
+ * POST   /api/reservations                         book a room
+ * GET    /api/reservations/{id}                    look up a reservation with its room,
+ *                                                  guest and the guest's reservations
+ * DELETE /api/reservations/{id}                    cancel a reservation
+ * PUT    /api/reservations/{id}/status             check a guest in or out
+ * </pre>
+ */
+public class ReservationHandler extends ApiHandler {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final ReservationService reservationService;
+    private final AsyncReservationService asyncService;
+
+    public ReservationHandler(ReservationService reservationService, AsyncReservationService asyncService) {
+        this.reservationService = reservationService;
+        this.asyncService = asyncService;
+    }
+
+    @Override
+    protected void handleRequest(HttpExchange exchange) throws IOException {
+        String path = subPath(exchange);
+        String method = exchange.getRequestMethod().toUpperCase();
+
+        if (path.isEmpty()) {
+            switch (method) {
+                case "GET":
+                    listReservations(exchange);
+                    return;
+                case "POST":
+                    createReservation(exchange);
+                    return;
+                default:
+                    throw new ApiException(405, "Method not allowed");
+            }
+        }
+        String[] parts = path.split("/");
+        if (parts.length == 2 && parts[1].equals("status")) {
+            requireMethod(exchange, "PUT");
+            updateStatus(exchange, parseId(parts[0], "reservation ID"));
+            return;
+        }
+        if (parts.length != 1) {
+            throw new ApiException(404, "Not found");
+        }
+
+        int reservationId = parseId(path, "reservation ID");
+        switch (method) {
+            case "GET":
+                getReservation(exchange, reservationId);
+                break;
+            case "DELETE":
+                cancelReservation(exchange, reservationId);
+                break;
+            default:
+                throw new ApiException(405, "Method not allowed");
+        }
+    }
+
+    private void listReservations(HttpExchange exchange) throws IOException {
+        Map<String, String> params = queryParams(exchange);
+        Integer after = parseOptionalInt(params.get("after"), "after");
+        Integer limit = parseOptionalInt(params.get("limit"), "limit");
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        List<Reservation> page = reservationService.getReservationsPage(after == null ? 0 : after, pageSize);
+        List<Object> items = new ArrayList<>(page.size());
+        for (Reservation reservation : page) {
+            items.add(toJson(reservation));
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("reservations", items);
+        // Cursor for the next page; null when this page is the last
+        json.put("nextAfter", page.size() < pageSize ? null
+                : page.get(page.size() - 1).getReservationId());
+        sendJson(exchange, 200, json);
+    }
+
+    private void createReservation(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readJsonObject(exchange);
+
+        BookingResult result = reservationService.createReservation(
+                stringField(body, "firstName"),
+                stringField(body, "lastName"),
+                stringField(body, "email"),
+                stringField(body, "phoneNumber"),
+                stringField(body, "idProof"),
+                parseId(stringField(body, "roomId"), "roomId"),
+                parseDate(stringField(body, "checkIn"), "checkIn"),
+                parseDate(stringField(body, "checkOut"), "checkOut"));
+
+        if (!result.isSuccess()) {
+            throw new ApiException(statusOf(result.getStatus()), result.getMessage());
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("reservationId", result.getReservationId());
+        json.put("roomId", result.getRoom().getRoomId());
+        json.put("roomNumber", result.getRoom().getRoomNumber());
+        json.put("nights", result.getNights());
+        json.put("totalAmount", result.getTotalAmount());
+        json.put("newCustomer", result.isNewCustomer());
+        json.put("customer", toJson(result.getCustomer()));
+        exchange.getResponseHeaders().set("Location", "/api/reservations/" + result.getReservationId());
+        sendJson(exchange, 201, json);
+    }
+
+    /**
+     * Look up a reservation, then its guest and the guest's reservations side by side
+     */
+    private void getReservation(HttpExchange exchange, int reservationId) throws IOException {
+        Reservation reservation = reservationService.getReservationById(reservationId);
+        if (reservation == null) {
+            throw new ApiException(404, "Reservation not found with ID: " + reservationId);
+        }
+        CompletableFuture<Customer> customer = asyncService.getCustomerById(reservation.getCustomerId());
+        CompletableFuture<List<Reservation>> history =
+                asyncService.getReservationsByCustomer(reservation.getCustomerId());
+        Room room = reservationService.getRoomById(reservation.getRoomId());
+
+        Customer guest = join(customer);
+        List<Object> items = new ArrayList<>();
+        for (Reservation stay : join(history)) {
+            items.add(toJson(stay));
+        }
+
+        Map<String, Object> json = toJson(reservation);
+        json.put("room", room != null ? toJson(room) : null);
+        json.put("customer", guest != null ? toJson(guest) : null);
+        json.put("customerReservations", items);
+        sendJson(exchange, 200, json);
+    }
+
+    private void cancelReservation(HttpExchange exchange, int reservationId) throws IOException {
+        CancellationResult result = reservationService.cancelReservation(reservationId);
+        switch (result.getStatus()) {
+            case CANCELLED:
+                sendJson(exchange, 200, toJson(result.getReservation()));
+                return;
+            case NOT_FOUND:
+                throw new ApiException(404, result.getMessage());
+            case ALREADY_CANCELLED:
+            case COMPLETED:
+                throw new ApiException(409, result.getMessage());
+            default:
+                throw new ApiException(500, result.getMessage());
+        }
+    }
+
+    /**
+     * Check a guest in or out; cancelling goes through DELETE
+     */
+    private void updateStatus(HttpExchange exchange, int reservationId) throws IOException {
+        Map<String, Object> body = readJsonObject(exchange);
+        ReservationStatus status = parseEnum(ReservationStatus.class, stringField(body, "status"), "status");
+        if (status != ReservationStatus.CHECKED_IN && status != ReservationStatus.CHECKED_OUT) {
+            throw new ApiException(400, "status must be CHECKED_IN or CHECKED_OUT");
+        }
+
+        if (!reservationService.updateReservationStatus(reservationId, status)) {
+            Reservation reservation = reservationService.getReservationById(reservationId);
+            if (reservation == null) {
+                throw new ApiException(404, "Reservation not found with ID: " + reservationId);
+            }
+            throw new ApiException(409, "Cannot move a " + reservation.getStatus() + " reservation to " + status);
+        }
+        sendJson(exchange, 200, toJson(reservationService.getReservationById(reservationId)));
+    }
+
+    /**
+     * Wait for an async lookup; a full queue answers 503 so the client retries later
+     */
+    private static <T> T join(CompletableFuture<T> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                throw new ApiException(503, "Server busy, try again");
+            }
+            throw e;
+        }
+    }
+
+    private static int statusOf(BookingResult.Status status) {
+        switch (status) {
+            case INVALID_REQUEST:
+                return 400;
+            case ROOM_NOT_FOUND:
+                return 404;
+            case ROOM_UNAVAILABLE:
+            case DATES_TAKEN:
+                return 409;
+            default:
+                return 500;
+        }
+    }
+
+    /**
+     * Get a field as a string; numbers are accepted in their plain form
+     */
+    private static String stringField(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if (!(value instanceof String)) {
+            throw new ApiException(400, "Invalid " + name);
+        }
+        return (String) value;
+    }
+}
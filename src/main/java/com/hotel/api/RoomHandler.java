@@ -0,0 +1,192 @@
+package com.hotel.api;
+
+import com.hotel.model.Room;
+import com.hotel.model.Room.RoomStatus;
+import com.hotel.model.Room.RoomType;
+import com.hotel.model.RoomBlock;
+import com.hotel.service.MaintenanceResult;
+import com.hotel.service.ReservationService;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Room endpoints; a room's status is for the night starting on date (default today):
+ * <pre>
+ * GET    /api/rooms[?type=SUITE&amp;status=AVAILABLE&amp;date=YYYY-MM-DD]
+ * GET    /api/rooms/{id}[?date=YYYY-MM-DD]
+ * GET    /api/rooms/available?checkIn=YYYY-MM-DD&amp;checkOut=YYYY-MM-DD[&amp;type=&amp;floor=&amp;guests=]
+ * GET    /api/rooms/{id}/blocks                  maintenance blocks of a room
+ * POST   /api/rooms/{id}/blocks                  block a room for maintenance
+ * DELETE /api/rooms/{id}/blocks/{blockId}        remove a maintenance block
+ * </pre>
+ */
+public class RoomHandler extends ApiHandler {
+
+    private final ReservationService reservationService;
+
+    public RoomHandler(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    @Override
+    protected void handleRequest(HttpExchange exchange) throws IOException {
+        String path = subPath(exchange);
+        String[] parts = path.split("/");
+        if (parts.length >= 2 && parts[1].equals("blocks")) {
+            handleBlocks(exchange, parseId(parts[0], "room ID"), parts);
+            return;
+        }
+
+        requireMethod(exchange, "GET");
+        Map<String, String> params = queryParams(exchange);
+        if (path.isEmpty()) {
+            listRooms(exchange, params);
+        } else if (path.equals("available")) {
+            searchAvailableRooms(exchange, params);
+        } else if (parts.length == 1) {
+            getRoom(exchange, parseId(path, "room ID"), dateParam(params));
+        } else {
+            throw new ApiException(404, "Not found");
+        }
+    }
+
+    private void handleBlocks(HttpExchange exchange, int roomId, String[] parts) throws IOException {
+        String method = exchange.getRequestMethod().toUpperCase();
+        if (parts.length == 2) {
+            switch (method) {
+                case "GET":
+                    listBlocks(exchange, roomId);
+                    return;
+                case "POST":
+                    addBlock(exchange, roomId);
+                    return;
+                default:
+                    throw new ApiException(405, "Method not allowed");
+            }
+        }
+        if (parts.length != 3) {
+            throw new ApiException(404, "Not found");
+        }
+        requireMethod(exchange, "DELETE");
+        removeBlock(exchange, roomId, parseId(parts[2], "block ID"));
+    }
+
+    private void listRooms(HttpExchange exchange, Map<String, String> params) throws IOException {
+        RoomType type = parseEnum(RoomType.class, params.get("type"), "type");
+        RoomStatus status = parseEnum(RoomStatus.class, params.get("status"), "status");
+
+        List<Object> json = new ArrayList<>();
+        for (Room room : reservationService.getRoomsOn(dateParam(params))) {
+            if ((type == null || room.getRoomType() == type)
+                    && (status == null || room.getStatus() == status)) {
+                json.add(toJson(room));
+            }
+        }
+        sendJson(exchange, 200, json);
+    }
+
+    private void searchAvailableRooms(HttpExchange exchange, Map<String, String> params) throws IOException {
+        LocalDate checkIn = parseDate(params.get("checkIn"), "checkIn");
+        LocalDate checkOut = parseDate(params.get("checkOut"), "checkOut");
+        if (!checkOut.isAfter(checkIn)) {
+            throw new ApiException(400, "checkOut must be after checkIn");
+        }
+        RoomType type = parseEnum(RoomType.class, params.get("type"), "type");
+        Integer floor = parseOptionalInt(params.get("floor"), "floor");
+        Integer guests = parseOptionalInt(params.get("guests"), "guests");
+
+        List<Object> json = new ArrayList<>();
+        for (Room room : reservationService.searchAvailableRooms(checkIn, checkOut, type, floor, guests)) {
+            json.add(toJson(room));
+        }
+        sendJson(exchange, 200, json);
+    }
+
+    private void getRoom(HttpExchange exchange, int roomId, LocalDate date) throws IOException {
+        Room room = reservationService.getRoomOn(roomId, date);
+        if (room == null) {
+            throw new ApiException(404, "Room not found with ID: " + roomId);
+        }
+        sendJson(exchange, 200, toJson(room));
+    }
+
+    private void listBlocks(HttpExchange exchange, int roomId) throws IOException {
+        if (reservationService.getRoomById(roomId) == null) {
+            throw new ApiException(404, "Room not found with ID: " + roomId);
+        }
+        List<Object> json = new ArrayList<>();
+        for (RoomBlock block : reservationService.getMaintenanceBlocks()) {
+            if (block.getRoomId() == roomId) {
+                json.add(toJson(block));
+            }
+        }
+        sendJson(exchange, 200, json);
+    }
+
+    private void addBlock(HttpExchange exchange, int roomId) throws IOException {
+        Map<String, Object> body = readJsonObject(exchange);
+
+        MaintenanceResult result = reservationService.addMaintenanceBlock(roomId,
+                parseDate(stringField(body, "startDate"), "startDate"),
+                parseDate(stringField(body, "endDate"), "endDate"),
+                stringField(body, "reason"));
+        switch (result.getStatus()) {
+            case CREATED:
+                exchange.getResponseHeaders().set("Location",
+                        "/api/rooms/" + roomId + "/blocks/" + result.getBlock().getBlockId());
+                sendJson(exchange, 201, toJson(result.getBlock()));
+                return;
+            case INVALID_REQUEST:
+                throw new ApiException(400, result.getMessage());
+            case ROOM_NOT_FOUND:
+                throw new ApiException(404, result.getMessage());
+            case DATES_TAKEN:
+                throw new ApiException(409, result.getMessage());
+            default:
+                throw new ApiException(500, result.getMessage());
+        }
+    }
+
+    private void removeBlock(HttpExchange exchange, int roomId, int blockId) throws IOException {
+        RoomBlock block = reservationService.getMaintenanceBlocks().stream()
+                .filter(b -> b.getBlockId() == blockId && b.getRoomId() == roomId)
+                .findFirst()
+                .orElseThrow(() -> new ApiException(404, "Maintenance block not found with ID: " + blockId));
+        if (!reservationService.removeMaintenanceBlock(blockId)) {
+            throw new ApiException(500, "Failed to remove maintenance block");
+        }
+        sendJson(exchange, 200, toJson(block));
+    }
+
+    /**
+     * Get the optional date parameter, defaulting to today
+     */
+    private static LocalDate dateParam(Map<String, String> params) {
+        String date = params.get("date");
+        return date == null || date.isEmpty() ? LocalDate.now() : parseDate(date, "date");
+    }
+
+    private static String stringField(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new ApiException(400, "Invalid " + name);
+        }
+        return (String) value;
+    }
+
+    private static Map<String, Object> toJson(RoomBlock block) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("blockId", block.getBlockId());
+        json.put("roomId", block.getRoomId());
+        json.put("startDate", block.getStartDate());
+        json.put("endDate", block.getEndDate());
+        json.put("reason", block.getReason());
+        return json;
+    }
+}
@@ -0,0 +1,168 @@
+package com.hotel.api;
+
+import com.hotel.model.Customer;
+import com.hotel.model.Room.RoomType;
+import com.hotel.model.WaitlistRequest;
+import com.hotel.model.WaitlistRequest.WaitlistStatus;
+import com.hotel.service.BookingResult;
+import com.hotel.service.ReservationService;
+import com.hotel.service.WaitlistResult;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Waitlist endpoints:
+ * <pre>
+ * GET    /api/waitlist          waiting requests, oldest first
+ * POST   /api/waitlist          wait for any room of a type (booked at once if one is free)
+ * GET    /api/waitlist/{id}     look up a request and its status
+ * DELETE /api/waitlist/{id}     take a request off the waitlist
+ * </pre>
+ */
+public class WaitlistHandler extends ApiHandler {
+
+    private final ReservationService reservationService;
+
+    public WaitlistHandler(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    @Override
+    protected void handleRequest(HttpExchange exchange) throws IOException {
+        String path = subPath(exchange);
+        String method = exchange.getRequestMethod().toUpperCase();
+
+        if (path.isEmpty()) {
+            switch (method) {
+                case "GET":
+                    listWaitlist(exchange);
+                    return;
+                case "POST":
+                    joinWaitlist(exchange);
+                    return;
+                default:
+                    throw new ApiException(405, "Method not allowed");
+            }
+        }
+        if (path.indexOf('/') >= 0) {
+            throw new ApiException(404, "Not found");
+        }
+
+        int requestId = parseId(path, "request ID");
+        switch (method) {
+            case "GET":
+                getRequest(exchange, requestId);
+                break;
+            case "DELETE":
+                cancelRequest(exchange, requestId);
+                break;
+            default:
+                throw new ApiException(405, "Method not allowed");
+        }
+    }
+
+    private void listWaitlist(HttpExchange exchange) throws IOException {
+        List<Object> items = new ArrayList<>();
+        for (WaitlistRequest request : reservationService.getWaitlist()) {
+            items.add(toJson(request));
+        }
+        sendJson(exchange, 200, Map.of("requests", items));
+    }
+
+    private void joinWaitlist(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readJsonObject(exchange);
+
+        RoomType roomType = parseEnum(RoomType.class, stringField(body, "roomType"), "roomType");
+        if (roomType == null) {
+            throw new ApiException(400, "roomType is required");
+        }
+        Customer guest = new Customer(
+                stringField(body, "firstName"),
+                stringField(body, "lastName"),
+                stringField(body, "email"),
+                stringField(body, "phoneNumber"),
+                stringField(body, "idProof"));
+        WaitlistResult result = reservationService.joinWaitlist(guest, roomType,
+                parseDate(stringField(body, "checkIn"), "checkIn"),
+                parseDate(stringField(body, "checkOut"), "checkOut"));
+
+        switch (result.getStatus()) {
+            case QUEUED:
+            case BOOKED:
+                break;
+            case INVALID_REQUEST:
+                throw new ApiException(400, result.getMessage());
+            default:
+                throw new ApiException(500, result.getMessage());
+        }
+
+        Map<String, Object> json = toJson(result.getRequest());
+        BookingResult booking = result.getBooking();
+        if (booking != null) {
+            json.put("roomNumber", booking.getRoom().getRoomNumber());
+            json.put("totalAmount", booking.getTotalAmount());
+        }
+        exchange.getResponseHeaders().set("Location", "/api/waitlist/" + result.getRequest().getRequestId());
+        sendJson(exchange, 201, json);
+    }
+
+    private void getRequest(HttpExchange exchange, int requestId) throws IOException {
+        WaitlistRequest request = reservationService.getWaitlistRequest(requestId);
+        if (request == null) {
+            throw new ApiException(404, "Waitlist request not found with ID: " + requestId);
+        }
+        sendJson(exchange, 200, toJson(request));
+    }
+
+    private void cancelRequest(HttpExchange exchange, int requestId) throws IOException {
+        if (!reservationService.cancelWaitlistRequest(requestId)) {
+            WaitlistRequest request = reservationService.getWaitlistRequest(requestId);
+            if (request == null) {
+                throw new ApiException(404, "Waitlist request not found with ID: " + requestId);
+            }
+            if (request.getStatus() != WaitlistStatus.WAITING) {
+                throw new ApiException(409, "Waitlist request is already " + request.getStatus());
+            }
+            throw new ApiException(409, "Waitlist request is being booked; try again");
+        }
+        sendJson(exchange, 200, toJson(reservationService.getWaitlistRequest(requestId)));
+    }
+
+    private static Map<String, Object> toJson(WaitlistRequest request) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("requestId", request.getRequestId());
+        json.put("firstName", request.getGuest().getFirstName());
+        json.put("lastName", request.getGuest().getLastName());
+        json.put("email", request.getGuest().getEmail());
+        json.put("roomType", request.getRoomType());
+        json.put("checkIn", request.getCheckInDate());
+        json.put("checkOut", request.getCheckOutDate());
+        json.put("status", request.getStatus());
+        // Set once the request has been booked
+        json.put("reservationId", request.getReservationId() > 0 ? request.getReservationId() : null);
+        return json;
+    }
+
+    /**
+     * Get a field as a string; numbers are accepted in their plain form
+     */
+    private static String stringField(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if (!(value instanceof String)) {
+            throw new ApiException(400, "Invalid " + name);
+        }
+        return (String) value;
+    }
+}
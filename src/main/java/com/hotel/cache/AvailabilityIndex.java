@@ -0,0 +1,240 @@
+package com.hotel.cache;
+
+import com.hotel.model.Reservation;
+import com.hotel.model.Reservation.ReservationStatus;
+import com.hotel.model.RoomBlock;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory index of taken room-nights.
+ * Each room keeps one bit per night, set when the night starting on that
+ * epoch day is taken by a CONFIRMED or CHECKED_IN reservation or by a
+ * maintenance block. Bits are packed 64 nights to a word in
+ * AtomicLongArray chunks and claimed with compare-and-set, so nothing
+ * locks: bookings for different rooms never touch the same word, and a
+ * conflicting claim on the same room is rejected without a database trip.
+ * <p>
+ * A stay that spans several words is claimed word by word in ascending
+ * order, undoing the words already claimed if a later one is taken. Two
+ * claims can never hold the same night, but a request that races a claim
+ * which later fails may see its nights for a moment and be rejected.
+ */
+public class AvailabilityIndex {
+
+    private static final int WORDS_PER_CHUNK = 16;
+    private static final int NIGHTS_PER_CHUNK = WORDS_PER_CHUNK * Long.SIZE;
+
+    private volatile Map<Integer, RoomNights> takenNights = new ConcurrentHashMap<>();
+
+    /**
+     * Taken nights of one room; chunks of 1024 nights are created on first use
+     */
+    private static final class RoomNights {
+        private final ConcurrentHashMap<Integer, AtomicLongArray> chunks = new ConcurrentHashMap<>();
+
+        boolean isFree(int from, int to) {
+            for (int word = wordOf(from); word <= wordOf(to - 1); word++) {
+                AtomicLongArray chunk = chunks.get(chunkOf(word));
+                if (chunk != null && (chunk.get(slotOf(word)) & mask(word, from, to)) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean claim(int from, int to) {
+            int first = wordOf(from);
+            for (int word = first; word <= wordOf(to - 1); word++) {
+                AtomicLongArray chunk = chunks.computeIfAbsent(chunkOf(word),
+                        index -> new AtomicLongArray(WORDS_PER_CHUNK));
+                int slot = slotOf(word);
+                long mask = mask(word, from, to);
+                while (true) {
+                    long current = chunk.get(slot);
+                    if ((current & mask) != 0) {
+                        clearWords(first, word, from, to);
+                        return false;
+                    }
+                    if (chunk.compareAndSet(slot, current, current | mask)) {
+                        break;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Set the nights [from, to) whether or not they are taken; used while loading
+         */
+        void set(int from, int to) {
+            for (int word = wordOf(from); word <= wordOf(to - 1); word++) {
+                long mask = mask(word, from, to);
+                chunks.computeIfAbsent(chunkOf(word), index -> new AtomicLongArray(WORDS_PER_CHUNK))
+                      .getAndUpdate(slotOf(word), current -> current | mask);
+            }
+        }
+
+        void clear(int from, int to) {
+            clearWords(wordOf(from), wordOf(to - 1) + 1, from, to);
+        }
+
+        /**
+         * Clear the nights of [from, to) that fall in words [firstWord, endWord)
+         */
+        private void clearWords(int firstWord, int endWord, int from, int to) {
+            for (int word = firstWord; word < endWord; word++) {
+                AtomicLongArray chunk = chunks.get(chunkOf(word));
+                if (chunk != null) {
+                    long mask = mask(word, from, to);
+                    chunk.getAndUpdate(slotOf(word), current -> current & ~mask);
+                }
+            }
+        }
+
+        BitSet toBitSet() {
+            BitSet nights = new BitSet();
+            chunks.forEach((index, chunk) -> {
+                for (int slot = 0; slot < WORDS_PER_CHUNK; slot++) {
+                    long bits = chunk.get(slot);
+                    int base = index * NIGHTS_PER_CHUNK + slot * Long.SIZE;
+                    while (bits != 0) {
+                        nights.set(base + Long.numberOfTrailingZeros(bits));
+                        bits &= bits - 1;
+                    }
+                }
+            });
+            return nights;
+        }
+    }
+
+    /**
+     * Replace the index contents with the given reservations and blocks
+     */
+    public void load(List<Reservation> reservations, List<RoomBlock> blocks) {
+        Map<Integer, RoomNights> nights = new ConcurrentHashMap<>();
+        for (Reservation r : reservations) {
+            if (isActive(r)) {
+                nights.computeIfAbsent(r.getRoomId(), id -> new RoomNights())
+                      .set(toDay(r.getCheckInDate()), toDay(r.getCheckOutDate()));
+            }
+        }
+        for (RoomBlock b : blocks) {
+            nights.computeIfAbsent(b.getRoomId(), id -> new RoomNights())
+                  .set(toDay(b.getStartDate()), toDay(b.getEndDate()));
+        }
+        this.takenNights = nights;
+    }
+
+    /**
+     * Check if room is free for every night in [checkIn, checkOut)
+     */
+    public boolean isAvailable(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomNights nights = takenNights.get(roomId);
+        return nights == null || nights.isFree(toDay(checkIn), toDay(checkOut));
+    }
+
+    /**
+     * Atomically claim the nights [checkIn, checkOut) for a room.
+     * Returns false without keeping any night if one is already taken.
+     */
+    public boolean reserve(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        return takenNights.computeIfAbsent(roomId, id -> new RoomNights())
+                          .claim(toDay(checkIn), toDay(checkOut));
+    }
+
+    /**
+     * Free the nights [checkIn, checkOut) for a room
+     */
+    public void release(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomNights nights = takenNights.get(roomId);
+        if (nights != null) {
+            nights.clear(toDay(checkIn), toDay(checkOut));
+        }
+    }
+
+    /**
+     * Compare the index with the nights held in storage (room_nights, or the
+     * in-memory store's stays), as room ID -> held nights, and describe every
+     * room that differs. An empty list means the index is consistent.
+     */
+    public List<String> findInconsistencies(Map<Integer, List<LocalDate>> heldNights) {
+        Map<Integer, BitSet> expected = new HashMap<>();
+        heldNights.forEach((roomId, dates) -> {
+            BitSet nights = new BitSet();
+            for (LocalDate date : dates) {
+                nights.set(toDay(date));
+            }
+            expected.put(roomId, nights);
+        });
+        Map<Integer, RoomNights> current = takenNights;
+        List<String> problems = new ArrayList<>();
+
+        TreeSet<Integer> roomIds = new TreeSet<>(expected.keySet());
+        roomIds.addAll(current.keySet());
+
+        for (int roomId : roomIds) {
+            RoomNights nights = current.get(roomId);
+            BitSet actual = nights != null ? nights.toBitSet() : new BitSet();
+            BitSet wanted = expected.getOrDefault(roomId, new BitSet());
+
+            BitSet missing = (BitSet) wanted.clone();
+            missing.andNot(actual);
+            BitSet extra = actual;
+            extra.andNot(wanted);
+
+            if (!missing.isEmpty()) {
+                problems.add("Room " + roomId + ": held nights missing from index " + describe(missing));
+            }
+            if (!extra.isEmpty()) {
+                problems.add("Room " + roomId + ": index has nights not held in storage " + describe(extra));
+            }
+        }
+        return problems;
+    }
+
+    private static boolean isActive(Reservation r) {
+        return r.getStatus() == ReservationStatus.CONFIRMED || r.getStatus() == ReservationStatus.CHECKED_IN;
+    }
+
+    /**
+     * Bits of word that fall in the nights [from, to)
+     */
+    private static long mask(int word, int from, int to) {
+        int base = word * Long.SIZE;
+        int lo = Math.max(from - base, 0);
+        int hi = Math.min(to - base, Long.SIZE);
+        long upTo = hi == Long.SIZE ? -1L : (1L << hi) - 1;
+        return upTo & (-1L << lo);
+    }
+
+    private static int wordOf(int day) {
+        return Math.floorDiv(day, Long.SIZE);
+    }
+
+    private static int chunkOf(int word) {
+        return Math.floorDiv(word, WORDS_PER_CHUNK);
+    }
+
+    private static int slotOf(int word) {
+        return Math.floorMod(word, WORDS_PER_CHUNK);
+    }
+
+    private static String describe(BitSet nights) {
+        List<LocalDate> dates = new ArrayList<>();
+        nights.stream().limit(10).forEach(day -> dates.add(LocalDate.ofEpochDay(day)));
+        return dates + (nights.cardinality() > 10 ? " ..." : "");
+    }
+
+    private static int toDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+}
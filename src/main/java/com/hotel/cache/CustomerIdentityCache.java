@@ -0,0 +1,164 @@
+package com.hotel.cache;
+
+import com.hotel.model.Customer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of customer identities used to de-duplicate guests.
+ * Bloom filters over every known email and phone number let a lookup for a
+ * new guest skip the database; bounded LRU maps hold recently used customers.
+ */
+public class CustomerIdentityCache {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final Map<String, Customer> byEmail;
+    private final Map<String, Customer> byPhone;
+    private volatile BloomFilter knownEmails;
+    private volatile BloomFilter knownPhones;
+    private volatile int filterCapacity;
+
+    public CustomerIdentityCache(int lruCapacity) {
+        this.byEmail = new LruMap(lruCapacity);
+        this.byPhone = new LruMap(lruCapacity);
+        rebuild(0);
+    }
+
+    /**
+     * Bounded map that evicts the least recently used entry
+     */
+    private static class LruMap extends LinkedHashMap<String, Customer> {
+        private final int capacity;
+
+        LruMap(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Customer> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    /**
+     * Start over with empty filters sized for the expected number of customers.
+     * The filters get twice that capacity so new guests do not degrade them quickly.
+     */
+    public void rebuild(int expectedCustomers) {
+        int capacity = Math.max(10_000, expectedCustomers * 2);
+        restore(capacity, new BloomFilter(capacity, FALSE_POSITIVE_RATE),
+                new BloomFilter(capacity, FALSE_POSITIVE_RATE));
+    }
+
+    /**
+     * Start over with filters saved earlier (see getEmailFilter/getPhoneFilter)
+     * that were sized for the given number of customers
+     */
+    public void restore(int capacity, BloomFilter emails, BloomFilter phones) {
+        filterCapacity = capacity;
+        knownEmails = emails;
+        knownPhones = phones;
+        synchronized (this) {
+            byEmail.clear();
+            byPhone.clear();
+        }
+    }
+
+    /**
+     * Get the number of customers the filters were sized for
+     */
+    public int getFilterCapacity() {
+        return filterCapacity;
+    }
+
+    public BloomFilter getEmailFilter() {
+        return knownEmails;
+    }
+
+    public BloomFilter getPhoneFilter() {
+        return knownPhones;
+    }
+
+    /**
+     * Record that a customer with this email and phone exists
+     */
+    public void markKnown(String email, String phoneNumber) {
+        if (email != null) {
+            knownEmails.add(email);
+        }
+        if (phoneNumber != null) {
+            knownPhones.add(phoneNumber);
+        }
+    }
+
+    /**
+     * False means no customer has this email; true means "maybe"
+     */
+    public boolean mightHaveEmail(String email) {
+        return email != null && knownEmails.mightContain(email);
+    }
+
+    /**
+     * False means no customer has this phone number; true means "maybe"
+     */
+    public boolean mightHavePhone(String phoneNumber) {
+        return phoneNumber != null && knownPhones.mightContain(phoneNumber);
+    }
+
+    /**
+     * Get a cached customer by email, or null if not cached
+     */
+    public synchronized Customer getByEmail(String email) {
+        return copyOf(byEmail.get(email));
+    }
+
+    /**
+     * Get a cached customer by phone number, or null if not cached
+     */
+    public synchronized Customer getByPhone(String phoneNumber) {
+        return copyOf(byPhone.get(phoneNumber));
+    }
+
+    /**
+     * Cache a customer read from or written to the database
+     */
+    public void put(Customer customer) {
+        markKnown(customer.getEmail(), customer.getPhoneNumber());
+        Customer copy = copyOf(customer);
+        synchronized (this) {
+            evictLocked(customer.getCustomerId());
+            if (copy.getEmail() != null) {
+                byEmail.put(copy.getEmail(), copy);
+            }
+            if (copy.getPhoneNumber() != null) {
+                byPhone.put(copy.getPhoneNumber(), copy);
+            }
+        }
+    }
+
+    /**
+     * Drop a customer from the LRU maps (the filters cannot forget keys)
+     */
+    public synchronized void evict(int customerId) {
+        evictLocked(customerId);
+    }
+
+    private void evictLocked(int customerId) {
+        byEmail.values().removeIf(c -> c.getCustomerId() == customerId);
+        byPhone.values().removeIf(c -> c.getCustomerId() == customerId);
+    }
+
+    private static Customer copyOf(Customer customer) {
+        if (customer == null) {
+            return null;
+        }
+        Customer copy = new Customer(customer.getCustomerId(), customer.getFirstName(),
+                customer.getLastName(), customer.getEmail(), customer.getPhoneNumber(),
+                customer.getIdProof());
+        copy.setCreatedAt(customer.getCreatedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,163 @@
+package com.hotel.cache;
+
+import com.hotel.model.Room;
+import com.hotel.model.Room.RoomStatus;
+import com.hotel.model.Room.RoomType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory catalog of all rooms.
+ * Readers work on an immutable snapshot indexed by ID, room number and type;
+ * changes build a new snapshot and swap it in atomically (copy-on-write),
+ * so lookups never lock and never touch the database.
+ * Rooms returned by the catalog are shared and must be treated as read-only.
+ */
+public class RoomCatalog {
+
+    private static final Comparator<Room> BY_NUMBER = Comparator.comparing(Room::getRoomNumber);
+    private static final Comparator<Room> BY_PRICE =
+        Comparator.comparingDouble(Room::getPricePerNight).thenComparing(BY_NUMBER);
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(List.of()));
+
+    /**
+     * Immutable view of the rooms at one point in time
+     */
+    private static final class Snapshot {
+        private final List<Room> byNumber;
+        private final List<Room> byPrice;
+        private final Map<Integer, Room> byId;
+        private final Map<String, Room> byRoomNumber;
+        private final Map<RoomType, List<Room>> byType;
+
+        Snapshot(List<Room> rooms) {
+            List<Room> sorted = new ArrayList<>(rooms);
+            sorted.sort(BY_NUMBER);
+            this.byNumber = Collections.unmodifiableList(sorted);
+
+            List<Room> priced = new ArrayList<>(rooms);
+            priced.sort(BY_PRICE);
+            this.byPrice = Collections.unmodifiableList(priced);
+
+            Map<Integer, Room> ids = new HashMap<>();
+            Map<String, Room> numbers = new HashMap<>();
+            Map<RoomType, List<Room>> types = new EnumMap<>(RoomType.class);
+            for (RoomType type : RoomType.values()) {
+                types.put(type, new ArrayList<>());
+            }
+            for (Room room : priced) {
+                ids.put(room.getRoomId(), room);
+                numbers.put(room.getRoomNumber(), room);
+                types.get(room.getRoomType()).add(room);
+            }
+            types.replaceAll((type, list) -> Collections.unmodifiableList(list));
+
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byRoomNumber = Collections.unmodifiableMap(numbers);
+            this.byType = Collections.unmodifiableMap(types);
+        }
+
+        /**
+         * New snapshot with the given room added or replaced
+         */
+        Snapshot with(Room room) {
+            List<Room> rooms = new ArrayList<>(byNumber.size() + 1);
+            for (Room existing : byNumber) {
+                if (existing.getRoomId() != room.getRoomId()) {
+                    rooms.add(existing);
+                }
+            }
+            rooms.add(room);
+            return new Snapshot(rooms);
+        }
+    }
+
+    /**
+     * Replace the catalog contents with the given rooms
+     */
+    public void load(List<Room> rooms) {
+        List<Room> copies = new ArrayList<>(rooms.size());
+        for (Room room : rooms) {
+            copies.add(copyOf(room));
+        }
+        snapshot.set(new Snapshot(copies));
+    }
+
+    /**
+     * Add a room, or replace the room with the same ID
+     */
+    public void put(Room room) {
+        Room copy = copyOf(room);
+        snapshot.updateAndGet(current -> current.with(copy));
+    }
+
+    /**
+     * Change the status of a room; unknown room IDs are ignored
+     */
+    public void updateStatus(int roomId, RoomStatus status) {
+        snapshot.updateAndGet(current -> {
+            Room room = current.byId.get(roomId);
+            if (room == null || room.getStatus() == status) {
+                return current;
+            }
+            Room updated = copyOf(room);
+            updated.setStatus(status);
+            return current.with(updated);
+        });
+    }
+
+    /**
+     * Get room by ID, or null if unknown
+     */
+    public Room getRoomById(int roomId) {
+        return snapshot.get().byId.get(roomId);
+    }
+
+    /**
+     * Get room by room number, or null if unknown
+     */
+    public Room getRoomByNumber(String roomNumber) {
+        return snapshot.get().byRoomNumber.get(roomNumber);
+    }
+
+    /**
+     * Get all rooms ordered by room number
+     */
+    public List<Room> getAllRooms() {
+        return snapshot.get().byNumber;
+    }
+
+    /**
+     * Get all rooms ordered by price, cheapest first
+     */
+    public List<Room> getRoomsByPrice() {
+        return snapshot.get().byPrice;
+    }
+
+    /**
+     * Get rooms of a type ordered by price, cheapest first
+     */
+    public List<Room> getRoomsByType(RoomType roomType) {
+        return snapshot.get().byType.get(roomType);
+    }
+
+    /**
+     * Get number of rooms in the catalog
+     */
+    public int size() {
+        return snapshot.get().byId.size();
+    }
+
+    private static Room copyOf(Room room) {
+        return new Room(room.getRoomId(), room.getRoomNumber(), room.getRoomType(),
+                room.getPricePerNight(), room.getStatus(), room.getFloorNumber(), room.getMaxOccupancy());
+    }
+}
@@ -0,0 +1,469 @@
+package com.hotel.cache;
+
+import com.hotel.model.Reservation;
+import com.hotel.model.Reservation.ReservationStatus;
+import com.hotel.model.Room;
+import com.hotel.model.Room.RoomStatus;
+import com.hotel.model.Room.RoomType;
+import com.hotel.model.RoomBlock;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Nightly sold, blocked and available room counts per room type.
+ * Covers a window of nights starting on the day it was loaded. Each type
+ * keeps sold and blocked counts per night plus a segment tree over the
+ * available counts, so "fewest rooms free on any night in a range" costs O(log n)
+ * and the nightly breakdown costs O(nights). Rebuild with reload() from the
+ * rooms, active reservations and maintenance blocks, e.g. once a day to move the window on.
+ * <p>
+ * Callers make each storage change and its count update inside counting()
+ * for stays, or changingRooms() for rooms and blocks. A reload reads storage
+ * and builds the new counts without holding stays off: stay changes made
+ * meanwhile are logged by reservation ID and replayed on the new counts
+ * when they are swapped in, except those the read already saw. Room and
+ * block changes are rare and simply wait for a reload to finish.
+ */
+public class RoomTypeInventory {
+
+    public static final int DEFAULT_HORIZON_DAYS = 730;
+
+    private final int horizonDays;
+    private volatile Window window;
+    // Shared by changes, exclusive only to start logging and to swap in reloaded counts
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    // Held for a whole reload; room and block changes take it too
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    // Stay changes made while a reload reads storage, else null
+    private volatile Queue<StayChange> pending;
+
+    /**
+     * A stay counted or released while a reload was reading storage
+     */
+    private static final class StayChange {
+        final int reservationId;
+        final RoomType type;
+        final LocalDate checkIn;
+        final LocalDate checkOut;
+        final int delta;
+
+        StayChange(int reservationId, RoomType type, LocalDate checkIn, LocalDate checkOut, int delta) {
+            this.reservationId = reservationId;
+            this.type = type;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+            this.delta = delta;
+        }
+    }
+
+    /**
+     * Sold, blocked and available rooms of one type on one night
+     */
+    public static class Night {
+        private final LocalDate date;
+        private final int sold;
+        private final int blocked;
+        private final int available;
+
+        Night(LocalDate date, int sold, int blocked, int available) {
+            this.date = date;
+            this.sold = sold;
+            this.blocked = blocked;
+            this.available = available;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public int getSold() {
+            return sold;
+        }
+
+        public int getBlocked() {
+            return blocked;
+        }
+
+        public int getAvailable() {
+            return available;
+        }
+    }
+
+    public RoomTypeInventory() {
+        this(DEFAULT_HORIZON_DAYS);
+    }
+
+    public RoomTypeInventory(int horizonDays) {
+        this.horizonDays = horizonDays;
+        this.window = new Window(LocalDate.now().toEpochDay(), horizonDays);
+    }
+
+    /**
+     * Run a stay's storage change together with its book() or release()
+     * here, so a concurrent reload() can tell whether it read the change.
+     * Changes do not wait for each other or for a reload reading storage.
+     */
+    public <T> T counting(Supplier<T> change) {
+        swapLock.readLock().lock();
+        try {
+            return change.get();
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Run a room or block storage change together with its count updates
+     * here; it waits for a reload in progress
+     */
+    public <T> T changingRooms(Supplier<T> change) {
+        reloadLock.lock();
+        try {
+            return counting(change);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Read the rooms, reservations and blocks from storage and rebuild the
+     * counts from them. Stays booked or released meanwhile are applied to
+     * the new counts before they are published, unless the read saw them.
+     */
+    public void reload(Supplier<List<Room>> rooms, Supplier<List<Reservation>> reservations,
+                       Supplier<List<RoomBlock>> blocks) {
+        reloadLock.lock();
+        try {
+            Queue<StayChange> log = new ConcurrentLinkedQueue<>();
+            swapLock.writeLock().lock();
+            try {
+                pending = log;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+
+            Window next = null;
+            Set<Integer> readActive = new HashSet<>();
+            try {
+                List<Reservation> stored = reservations.get();
+                for (Reservation r : stored) {
+                    if (isActive(r)) {
+                        readActive.add(r.getReservationId());
+                    }
+                }
+                next = build(rooms.get(), stored, blocks.get());
+            } finally {
+                swapLock.writeLock().lock();
+                try {
+                    if (next != null) {
+                        replay(next, log, readActive);
+                        this.window = next;
+                    }
+                    pending = null;
+                } finally {
+                    swapLock.writeLock().unlock();
+                }
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Apply the logged stay changes the read did not see. A reservation read
+     * as active was booked before the read, so only its release is applied;
+     * one read as inactive is booked here if its booking was logged, and
+     * released only if its booking was too, since an unpaired release came
+     * before the read.
+     */
+    private static void replay(Window next, Queue<StayChange> log, Set<Integer> readActive) {
+        Set<Integer> bookedSince = new HashSet<>();
+        for (StayChange change : log) {
+            if (change.delta > 0) {
+                bookedSince.add(change.reservationId);
+            }
+        }
+        for (StayChange change : log) {
+            boolean wasRead = readActive.contains(change.reservationId);
+            boolean apply = change.delta > 0 ? !wasRead : wasRead || bookedSince.contains(change.reservationId);
+            if (apply) {
+                next.apply(change.type, change.checkIn, change.checkOut, change.delta, false);
+            }
+        }
+    }
+
+    /**
+     * Rebuild the counts from the rooms, their reservations and their blocks,
+     * starting today. Rooms out of service are not counted as sellable, so
+     * their blocks are not counted either. Changes made while the caller read
+     * the lists are lost; use reload() once the inventory is shared.
+     */
+    public void load(List<Room> rooms, List<Reservation> reservations, List<RoomBlock> blocks) {
+        this.window = build(rooms, reservations, blocks);
+    }
+
+    private Window build(List<Room> rooms, List<Reservation> reservations, List<RoomBlock> blocks) {
+        Window next = new Window(LocalDate.now().toEpochDay(), horizonDays);
+        Map<Integer, RoomType> roomTypes = new HashMap<>();
+        Map<Integer, RoomType> sellableTypes = new HashMap<>();
+        for (Room room : rooms) {
+            roomTypes.put(room.getRoomId(), room.getRoomType());
+            if (room.getStatus() != RoomStatus.MAINTENANCE) {
+                sellableTypes.put(room.getRoomId(), room.getRoomType());
+                next.counters.get(room.getRoomType()).addCapacity(1);
+            }
+        }
+        for (Reservation r : reservations) {
+            if (!isActive(r)) {
+                continue;
+            }
+            RoomType type = roomTypes.get(r.getRoomId());
+            if (type != null) {
+                next.apply(type, r.getCheckInDate(), r.getCheckOutDate(), 1, false);
+            }
+        }
+        for (RoomBlock b : blocks) {
+            RoomType type = sellableTypes.get(b.getRoomId());
+            if (type != null) {
+                next.apply(type, b.getStartDate(), b.getEndDate(), 1, true);
+            }
+        }
+        return next;
+    }
+
+    private static boolean isActive(Reservation reservation) {
+        return reservation.getStatus() == ReservationStatus.CONFIRMED
+                || reservation.getStatus() == ReservationStatus.CHECKED_IN;
+    }
+
+    /**
+     * Count the reservation's room of the type as sold for the nights [checkIn, checkOut)
+     */
+    public void book(int reservationId, RoomType type, LocalDate checkIn, LocalDate checkOut) {
+        changeStay(new StayChange(reservationId, type, checkIn, checkOut, 1));
+    }
+
+    /**
+     * Stop counting the reservation's room of the type as sold for the nights [checkIn, checkOut)
+     */
+    public void release(int reservationId, RoomType type, LocalDate checkIn, LocalDate checkOut) {
+        changeStay(new StayChange(reservationId, type, checkIn, checkOut, -1));
+    }
+
+    private void changeStay(StayChange change) {
+        window.apply(change.type, change.checkIn, change.checkOut, change.delta, false);
+        Queue<StayChange> log = pending;
+        if (log != null) {
+            log.add(change);
+        }
+    }
+
+    /**
+     * Count one more blocked room of the type for the nights [from, to)
+     */
+    public void block(RoomType type, LocalDate from, LocalDate to) {
+        window.apply(type, from, to, 1, true);
+    }
+
+    /**
+     * Count one fewer blocked room of the type for the nights [from, to)
+     */
+    public void unblock(RoomType type, LocalDate from, LocalDate to) {
+        window.apply(type, from, to, -1, true);
+    }
+
+    /**
+     * Add sellable rooms of a type (negative to remove)
+     */
+    public void addCapacity(RoomType type, int rooms) {
+        window.counters.get(type).addCapacity(rooms);
+    }
+
+    /**
+     * Get the fewest rooms of the type free on any night in [from, to)
+     *
+     * @throws IllegalArgumentException if the range is empty or outside the window
+     */
+    public int getMinAvailable(RoomType type, LocalDate from, LocalDate to) {
+        Window current = window;
+        return current.counters.get(type).minAvailable(current.index(from), current.index(to, true));
+    }
+
+    /**
+     * Get sold, blocked and available counts of the type for each night in [from, to)
+     *
+     * @throws IllegalArgumentException if the range is empty or outside the window
+     */
+    public List<Night> getNights(RoomType type, LocalDate from, LocalDate to) {
+        Window current = window;
+        return current.counters.get(type).nights(current, current.index(from), current.index(to, true));
+    }
+
+    /**
+     * Get the first night covered by the counts
+     */
+    public LocalDate getFirstNight() {
+        return LocalDate.ofEpochDay(window.originDay);
+    }
+
+    /**
+     * Get the night after the last one covered by the counts
+     */
+    public LocalDate getEndNight() {
+        return LocalDate.ofEpochDay(window.originDay + horizonDays);
+    }
+
+    /**
+     * Counters for every room type over one range of nights
+     */
+    private static final class Window {
+        private final long originDay;
+        private final int size;
+        private final Map<RoomType, TypeCounters> counters = new EnumMap<>(RoomType.class);
+
+        Window(long originDay, int size) {
+            this.originDay = originDay;
+            this.size = size;
+            for (RoomType type : RoomType.values()) {
+                counters.put(type, new TypeCounters(size));
+            }
+        }
+
+        /**
+         * Apply a stay or block to the nights inside the window; nights outside are ignored
+         */
+        void apply(RoomType type, LocalDate checkIn, LocalDate checkOut, int delta, boolean blocked) {
+            long from = Math.max(checkIn.toEpochDay() - originDay, 0);
+            long to = Math.min(checkOut.toEpochDay() - originDay, size);
+            if (from < to) {
+                TypeCounters typeCounters = counters.get(type);
+                typeCounters.add(blocked ? typeCounters.blocked : typeCounters.sold, (int) from, (int) to, delta);
+            }
+        }
+
+        int index(LocalDate date) {
+            return index(date, false);
+        }
+
+        int index(LocalDate date, boolean end) {
+            long offset = date.toEpochDay() - originDay;
+            if (offset < 0 || offset > size || (!end && offset == size)) {
+                throw new IllegalArgumentException("Date " + date + " is outside the inventory window "
+                        + LocalDate.ofEpochDay(originDay) + " to " + LocalDate.ofEpochDay(originDay + size));
+            }
+            return (int) offset;
+        }
+    }
+
+    /**
+     * Counts for one room type; all access is synchronized on the instance
+     */
+    private static final class TypeCounters {
+        private final int[] sold;
+        private final int[] blocked;
+        private final MinTree available;
+        private int capacity;
+
+        TypeCounters(int size) {
+            this.sold = new int[size];
+            this.blocked = new int[size];
+            this.available = new MinTree(size);
+        }
+
+        synchronized void addCapacity(int rooms) {
+            capacity += rooms;
+            available.add(0, sold.length, rooms);
+        }
+
+        synchronized void add(int[] counts, int from, int to, int delta) {
+            for (int i = from; i < to; i++) {
+                counts[i] += delta;
+            }
+            available.add(from, to, -delta);
+        }
+
+        synchronized int minAvailable(int from, int to) {
+            checkRange(from, to);
+            return available.min(from, to);
+        }
+
+        synchronized List<Night> nights(Window window, int from, int to) {
+            checkRange(from, to);
+            List<Night> nights = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                nights.add(new Night(LocalDate.ofEpochDay(window.originDay + i), sold[i], blocked[i],
+                        capacity - sold[i] - blocked[i]));
+            }
+            return Collections.unmodifiableList(nights);
+        }
+
+        private static void checkRange(int from, int to) {
+            if (from >= to) {
+                throw new IllegalArgumentException("End date must be after start date");
+            }
+        }
+    }
+
+    /**
+     * Segment tree with range add and range minimum, both O(log n)
+     */
+    private static final class MinTree {
+        private final int size;
+        private final int[] min;
+        private final int[] pending;
+
+        MinTree(int size) {
+            this.size = size;
+            this.min = new int[4 * size];
+            this.pending = new int[4 * size];
+        }
+
+        void add(int from, int to, int delta) {
+            add(1, 0, size, from, to, delta);
+        }
+
+        int min(int from, int to) {
+            return min(1, 0, size, from, to);
+        }
+
+        private void add(int node, int lo, int hi, int from, int to, int delta) {
+            if (to <= lo || hi <= from) {
+                return;
+            }
+            if (from <= lo && hi <= to) {
+                min[node] += delta;
+                pending[node] += delta;
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            add(2 * node, lo, mid, from, to, delta);
+            add(2 * node + 1, mid, hi, from, to, delta);
+            min[node] = Math.min(min[2 * node], min[2 * node + 1]) + pending[node];
+        }
+
+        private int min(int node, int lo, int hi, int from, int to) {
+            if (to <= lo || hi <= from) {
+                return Integer.MAX_VALUE;
+            }
+            if (from <= lo && hi <= to) {
+                return min[node];
+            }
+            int mid = (lo + hi) >>> 1;
+            int child = Math.min(min(2 * node, lo, mid, from, to), min(2 * node + 1, mid, hi, from, to));
+            return child + pending[node];
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.hotel.cache;
+
+import com.hotel.model.Room.RoomType;
+import com.hotel.model.WaitlistRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Waiting requests indexed by room type and night, so the requests that can
+ * use a freed range of nights are found from those nights instead of by
+ * scanning the whole waitlist. Each type maps every night to the IDs of the
+ * requests that need it, oldest first. Finding the requests that overlap
+ * [from, to) costs O(nights + matches) however long the waitlist is; adding
+ * or removing a request costs O(its nights).
+ */
+public class WaitlistIndex {
+
+    private static final Comparator<WaitlistRequest> BY_ID = Comparator.comparingInt(WaitlistRequest::getRequestId);
+
+    // Room type -> epoch day -> IDs of waiting requests that need that night
+    private final Map<RoomType, ConcurrentHashMap<Long, ConcurrentSkipListSet<Integer>>> byNight =
+            new EnumMap<>(RoomType.class);
+    private final ConcurrentHashMap<Integer, WaitlistRequest> requests = new ConcurrentHashMap<>();
+
+    public WaitlistIndex() {
+        for (RoomType type : RoomType.values()) {
+            byNight.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Index the waiting requests read at startup
+     */
+    public void load(List<WaitlistRequest> waiting) {
+        waiting.forEach(this::add);
+    }
+
+    /**
+     * Index a waiting request under each of its nights
+     */
+    public void add(WaitlistRequest request) {
+        int requestId = request.getRequestId();
+        if (requests.putIfAbsent(requestId, request) != null) {
+            return;
+        }
+        ConcurrentHashMap<Long, ConcurrentSkipListSet<Integer>> nights = byNight.get(request.getRoomType());
+        for (long day = request.getCheckInDate().toEpochDay(); day < request.getCheckOutDate().toEpochDay(); day++) {
+            // compute() runs atomically per night, so an emptied set is never dropped under an add
+            nights.compute(day, (night, ids) -> {
+                ConcurrentSkipListSet<Integer> set = ids != null ? ids : new ConcurrentSkipListSet<>();
+                set.add(requestId);
+                return set;
+            });
+        }
+        // A remove() that claimed the request meanwhile may have run before
+        // some nights were indexed; take them out again so none is left behind
+        if (requests.get(requestId) != request) {
+            unindex(request);
+        }
+    }
+
+    /**
+     * Take a request out of the index. Returns it, or null if it was not
+     * there; of several concurrent callers only one gets it, so this also
+     * claims the request before booking it.
+     */
+    public WaitlistRequest remove(int requestId) {
+        WaitlistRequest request = requests.remove(requestId);
+        if (request == null) {
+            return null;
+        }
+        unindex(request);
+        return request;
+    }
+
+    private void unindex(WaitlistRequest request) {
+        int requestId = request.getRequestId();
+        ConcurrentHashMap<Long, ConcurrentSkipListSet<Integer>> nights = byNight.get(request.getRoomType());
+        for (long day = request.getCheckInDate().toEpochDay(); day < request.getCheckOutDate().toEpochDay(); day++) {
+            nights.computeIfPresent(day, (night, ids) -> {
+                ids.remove(requestId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * Get the waiting requests for the type that need any night in [from, to), oldest first
+     */
+    public List<WaitlistRequest> findOverlapping(RoomType type, LocalDate from, LocalDate to) {
+        ConcurrentHashMap<Long, ConcurrentSkipListSet<Integer>> nights = byNight.get(type);
+        TreeSet<Integer> ids = new TreeSet<>();
+        for (long day = from.toEpochDay(); day < to.toEpochDay(); day++) {
+            ConcurrentSkipListSet<Integer> waiting = nights.get(day);
+            if (waiting != null) {
+                ids.addAll(waiting);
+            }
+        }
+        List<WaitlistRequest> result = new ArrayList<>(ids.size());
+        for (int requestId : ids) {
+            WaitlistRequest request = requests.get(requestId);
+            if (request != null) {
+                result.add(request);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get every waiting request, oldest first
+     */
+    public List<WaitlistRequest> getAll() {
+        List<WaitlistRequest> result = new ArrayList<>(requests.values());
+        result.sort(BY_ID);
+        return result;
+    }
+
+    /**
+     * Get the number of waiting requests
+     */
+    public int size() {
+        return requests.size();
+    }
+}
@@ -0,0 +1,122 @@
+package com.hotel.dao;
+
+import com.hotel.metrics.Metrics;
+import com.hotel.metrics.OperationStats;
+import com.hotel.model.Customer;
+import com.hotel.model.Reservation;
+import com.hotel.repository.BookingRepository;
+import com.hotel.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+
+/**
+ * Data Access Object for the booking transaction.
+ * Looks up or creates the customer and inserts the reservation together
+ * with one room_nights row per night on one connection. The room_nights
+ * primary key rejects overlapping stays, so no row locks are taken and
+ * several application nodes can book against the same database.
+ */
+public class BookingDAO implements BookingRepository {
+
+    private static final Metrics METRICS = Metrics.forComponent("BookingDAO");
+
+    private final CustomerDAO customerDAO;
+    private final ReservationDAO reservationDAO;
+
+    public BookingDAO(CustomerDAO customerDAO, ReservationDAO reservationDAO) {
+        this.customerDAO = customerDAO;
+        this.reservationDAO = reservationDAO;
+    }
+
+    /**
+     * Book a room for a guest in a single transaction.
+     * The caller has already checked that the room exists and is available.
+     * A guest that already has a customer ID is booked as that customer;
+     * otherwise the guest is matched to an existing customer by email, then
+     * phone, and created if neither matches. The reservation's customerId is filled in.
+     */
+    @Override
+    public Result book(Customer guest, Reservation reservation) {
+        try (OperationStats.Timer timer = METRICS.time("book");
+             Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            int guestId = guest.getCustomerId();
+            try {
+                Result result = book(conn, guest, reservation);
+                if (result.getOutcome() == Outcome.BOOKED) {
+                    conn.commit();
+                    DatabaseConnection.getInstance().markWrite();
+                    if (result.isNewCustomer()) {
+                        customerDAO.cacheCustomer(result.getCustomer());
+                    }
+                } else {
+                    conn.rollback();
+                    guest.setCustomerId(guestId);
+                }
+                return result;
+            } catch (SQLException e) {
+                conn.rollback();
+                guest.setCustomerId(guestId);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            METRICS.error("book");
+            System.err.println("Error booking room: " + e.getMessage());
+            return Result.failed(Outcome.FAILED);
+        }
+    }
+
+    private Result book(Connection conn, Customer guest, Reservation reservation) throws SQLException {
+        int roomId = reservation.getRoomId();
+
+        // Find or create the customer
+        boolean newCustomer = false;
+        Customer customer = guest.getCustomerId() > 0 ? guest : findCustomer(conn, guest);
+        if (customer == null) {
+            try {
+                int customerId = customerDAO.addCustomer(conn, guest);
+                if (customerId == -1) {
+                    return Result.failed(Outcome.FAILED);
+                }
+                guest.setCustomerId(customerId);
+                customer = guest;
+                newCustomer = true;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // Another booking created this customer in the meantime
+                customer = findCustomer(conn, guest);
+                if (customer == null) {
+                    throw e;
+                }
+            }
+        }
+        reservation.setCustomerId(customer.getCustomerId());
+
+        int reservationId = reservationDAO.createReservation(conn, reservation);
+        if (reservationId == -1) {
+            return Result.failed(Outcome.FAILED);
+        }
+
+        // Claim the nights; the unique key rejects a night that is already booked
+        try {
+            reservationDAO.insertRoomNights(conn, reservationId, roomId,
+                    reservation.getCheckInDate(), reservation.getCheckOutDate());
+        } catch (SQLIntegrityConstraintViolationException e) {
+            return Result.failed(Outcome.DATES_TAKEN);
+        }
+
+        return Result.booked(reservationId, customer, newCustomer);
+    }
+
+    private Customer findCustomer(Connection conn, Customer guest) throws SQLException {
+        Customer customer = customerDAO.getCustomerByEmail(conn, guest.getEmail());
+        if (customer == null) {
+            customer = customerDAO.getCustomerByPhone(conn, guest.getPhoneNumber());
+        }
+        return customer;
+    }
+}
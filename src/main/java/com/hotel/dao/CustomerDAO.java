@@ -1,6 +1,10 @@
 package com.hotel.dao;
 
+import com.hotel.cache.CustomerIdentityCache;
+import com.hotel.metrics.Metrics;
+import com.hotel.metrics.OperationStats;
 import com.hotel.model.Customer;
+import com.hotel.repository.CustomerRepository;
 import com.hotel.util.DatabaseConnection;
 
 import java.sql.*;
@@ -10,17 +14,151 @@ import java.util.List;
 /**
  * Data Access Object for Customer entity
  */
-public class CustomerDAO {
+public class CustomerDAO implements CustomerRepository {
+
+    private static final Metrics METRICS = Metrics.forComponent("CustomerDAO");
+
+    // Catch-up re-reads this many ids below the watermark, for inserts that committed out of id order
+    private static final int CATCH_UP_OVERLAP = 1000;
+
+    // Optional identity cache; when set, lookups consult it and writes keep it current
+    private final CustomerIdentityCache cache;
+
+    public CustomerDAO() {
+        this(null);
+    }
+
+    public CustomerDAO(CustomerIdentityCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Fill the identity cache's filters with every customer's email and phone
+     */
+    @Override
+    public void loadIdentityCache() {
+        if (cache == null) {
+            return;
+        }
+        try (OperationStats.Timer timer = METRICS.time("loadIdentityCache");
+             Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            ResultSet count = stmt.executeQuery("SELECT COUNT(*) FROM customers");
+            cache.rebuild(count.next() ? count.getInt(1) : 0);
+
+            stmt.setFetchSize(1000);
+            ResultSet rs = stmt.executeQuery("SELECT email, phone_number FROM customers");
+            while (rs.next()) {
+                cache.markKnown(rs.getString("email"), rs.getString("phone_number"));
+            }
+        } catch (SQLException e) {
+            METRICS.error("loadIdentityCache");
+            System.err.println("Error loading customer identity cache: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Add the customers created after a snapshot's watermark to the identity
+     * cache's filters. Returns the number of customers read, or -1 on error.
+     */
+    @Override
+    public int catchUpIdentityCache(int afterCustomerId) {
+        if (cache == null) {
+            return 0;
+        }
+        String query = "SELECT email, phone_number FROM customers WHERE customer_id > ?";
+
+        try (OperationStats.Timer timer = METRICS.time("catchUpIdentityCache");
+             Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+            pstmt.setInt(1, Math.max(0, afterCustomerId - CATCH_UP_OVERLAP));
+            pstmt.setFetchSize(1000);
+            int count = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    cache.markKnown(rs.getString("email"), rs.getString("phone_number"));
+                    count++;
+                }
+            }
+            return count;
+        } catch (SQLException e) {
+            METRICS.error("catchUpIdentityCache");
+            System.err.println("Error catching up customer identity cache: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Get the highest customer id (0 if there are none), or -1 on error
+     */
+    @Override
+    public int getMaxCustomerId() {
+        return queryInt("getMaxCustomerId", "SELECT COALESCE(MAX(customer_id), 0) FROM customers");
+    }
+
+    /**
+     * Get the number of customers, or -1 on error
+     */
+    @Override
+    public int countCustomers() {
+        return queryInt("countCustomers", "SELECT COUNT(*) FROM customers");
+    }
+
+    private int queryInt(String operation, String query) {
+        try (OperationStats.Timer timer = METRICS.time(operation);
+             Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            METRICS.error(operation);
+            System.err.println("Error in " + operation + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Publish a customer written inside a transaction, once it has committed
+     */
+    public void cacheCustomer(Customer customer) {
+        if (cache != null) {
+            cache.put(customer);
+        }
+    }
 
     /**
      * Add a new customer
      */
+    @Override
     public int addCustomer(Customer customer) {
+        try (OperationStats.Timer timer = METRICS.time("addCustomer");
+             Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            int customerId = addCustomer(conn, customer);
+            if (customerId != -1) {
+                customer.setCustomerId(customerId);
+                cacheCustomer(customer);
+                DatabaseConnection.getInstance().markWrite();
+            }
+            return customerId;
+        } catch (SQLException e) {
+            METRICS.error("addCustomer");
+            System.err.println("Error adding customer: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * Add a new customer on the caller's connection.
+     * The cache is not updated; call cacheCustomer after the transaction commits.
+     */
+    public int addCustomer(Connection conn, Customer customer) throws SQLException {
         String query = "INSERT INTO customers (first_name, last_name, email, phone_number, id_proof) " +
                       "VALUES (?, ?, ?, ?, ?)";
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
 
             pstmt.setString(1, customer.getFirstName());
             pstmt.setString(2, customer.getLastName());
@@ -28,7 +166,16 @@ public class CustomerDAO {
             pstmt.setString(4, customer.getPhoneNumber());
             pstmt.setString(5, customer.getIdProof());
 
-            int rowsAffected = pstmt.executeUpdate();
+            int rowsAffected;
+            try {
+                rowsAffected = pstmt.executeUpdate();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // The email exists even though the filter did not know it (e.g. added by another node)
+                if (cache != null) {
+                    cache.markKnown(customer.getEmail(), customer.getPhoneNumber());
+                }
+                throw e;
+            }
 
             if (rowsAffected > 0) {
                 // Get generated customer ID
@@ -37,8 +184,6 @@ public class CustomerDAO {
                     return rs.getInt(1);
                 }
             }
-        } catch (SQLException e) {
-            System.err.println("Error adding customer: " + e.getMessage());
         }
         return -1;
     }
@@ -46,20 +191,27 @@ public class CustomerDAO {
     /**
      * Get customer by ID
      */
+    @Override
     public Customer getCustomerById(int customerId) {
-        String query = "SELECT * FROM customers WHERE customer_id = ?";
+        try (OperationStats.Timer timer = METRICS.time("getCustomerById")) {
+            return DatabaseConnection.getInstance().lookup(conn -> getCustomerById(conn, customerId));
+        } catch (SQLException e) {
+            METRICS.error("getCustomerById");
+            System.err.println("Error fetching customer by ID: " + e.getMessage());
+        }
+        return null;
+    }
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
+    private Customer getCustomerById(Connection conn, int customerId) throws SQLException {
+        String query = "SELECT * FROM customers WHERE customer_id = ?";
 
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setInt(1, customerId);
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
                 return extractCustomerFromResultSet(rs);
             }
-        } catch (SQLException e) {
-            System.err.println("Error fetching customer by ID: " + e.getMessage());
         }
         return null;
     }
@@ -67,20 +219,50 @@ public class CustomerDAO {
     /**
      * Get customer by email
      */
+    @Override
     public Customer getCustomerByEmail(String email) {
-        String query = "SELECT * FROM customers WHERE email = ?";
+        if (cache != null) {
+            if (!cache.mightHaveEmail(email)) {
+                return null;
+            }
+            Customer cached = cache.getByEmail(email);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        try (OperationStats.Timer timer = METRICS.time("getCustomerByEmail")) {
+            return DatabaseConnection.getInstance().lookup(conn -> getCustomerByEmail(conn, email));
+        } catch (SQLException e) {
+            METRICS.error("getCustomerByEmail");
+            System.err.println("Error fetching customer by email: " + e.getMessage());
+        }
+        return null;
+    }
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
+    /**
+     * Get customer by email on the caller's connection
+     */
+    public Customer getCustomerByEmail(Connection conn, String email) throws SQLException {
+        if (cache != null) {
+            if (!cache.mightHaveEmail(email)) {
+                return null;
+            }
+            Customer cached = cache.getByEmail(email);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        String query = "SELECT * FROM customers WHERE email = ?";
 
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, email);
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                return extractCustomerFromResultSet(rs);
+                Customer customer = extractCustomerFromResultSet(rs);
+                cacheCustomer(customer);
+                return customer;
             }
-        } catch (SQLException e) {
-            System.err.println("Error fetching customer by email: " + e.getMessage());
         }
         return null;
     }
@@ -88,20 +270,50 @@ public class CustomerDAO {
     /**
      * Get customer by phone number
      */
+    @Override
     public Customer getCustomerByPhone(String phoneNumber) {
-        String query = "SELECT * FROM customers WHERE phone_number = ?";
+        if (cache != null) {
+            if (!cache.mightHavePhone(phoneNumber)) {
+                return null;
+            }
+            Customer cached = cache.getByPhone(phoneNumber);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        try (OperationStats.Timer timer = METRICS.time("getCustomerByPhone")) {
+            return DatabaseConnection.getInstance().lookup(conn -> getCustomerByPhone(conn, phoneNumber));
+        } catch (SQLException e) {
+            METRICS.error("getCustomerByPhone");
+            System.err.println("Error fetching customer by phone: " + e.getMessage());
+        }
+        return null;
+    }
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
+    /**
+     * Get customer by phone number on the caller's connection
+     */
+    public Customer getCustomerByPhone(Connection conn, String phoneNumber) throws SQLException {
+        if (cache != null) {
+            if (!cache.mightHavePhone(phoneNumber)) {
+                return null;
+            }
+            Customer cached = cache.getByPhone(phoneNumber);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        String query = "SELECT * FROM customers WHERE phone_number = ?";
 
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, phoneNumber);
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                return extractCustomerFromResultSet(rs);
+                Customer customer = extractCustomerFromResultSet(rs);
+                cacheCustomer(customer);
+                return customer;
             }
-        } catch (SQLException e) {
-            System.err.println("Error fetching customer by phone: " + e.getMessage());
         }
         return null;
     }
@@ -109,11 +321,13 @@ public class CustomerDAO {
     /**
      * Get all customers
      */
+    @Override
     public List<Customer> getAllCustomers() {
         List<Customer> customers = new ArrayList<>();
         String query = "SELECT * FROM customers ORDER BY created_at DESC";
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+        try (OperationStats.Timer timer = METRICS.time("getAllCustomers");
+             Connection conn = DatabaseConnection.getInstance().getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
 
@@ -121,6 +335,7 @@ public class CustomerDAO {
                 customers.add(extractCustomerFromResultSet(rs));
             }
         } catch (SQLException e) {
+            METRICS.error("getAllCustomers");
             System.err.println("Error fetching all customers: " + e.getMessage());
         }
         return customers;
@@ -129,11 +344,13 @@ public class CustomerDAO {
     /**
      * Update customer information
      */
+    @Override
     public boolean updateCustomer(Customer customer) {
         String query = "UPDATE customers SET first_name = ?, last_name = ?, email = ?, " +
                       "phone_number = ?, id_proof = ? WHERE customer_id = ?";
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+        try (OperationStats.Timer timer = METRICS.time("updateCustomer");
+             Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
 
             pstmt.setString(1, customer.getFirstName());
@@ -144,9 +361,14 @@ public class CustomerDAO {
             pstmt.setInt(6, customer.getCustomerId());
 
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                cacheCustomer(customer);
+                DatabaseConnection.getInstance().markWrite();
+            }
             return rowsAffected > 0;
 
         } catch (SQLException e) {
+            METRICS.error("updateCustomer");
             System.err.println("Error updating customer: " + e.getMessage());
             return false;
         }
@@ -155,17 +377,26 @@ public class CustomerDAO {
     /**
      * Delete customer
      */
+    @Override
     public boolean deleteCustomer(int customerId) {
         String query = "DELETE FROM customers WHERE customer_id = ?";
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+        try (OperationStats.Timer timer = METRICS.time("deleteCustomer");
+             Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
 
             pstmt.setInt(1, customerId);
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                if (cache != null) {
+                    cache.evict(customerId);
+                }
+                DatabaseConnection.getInstance().markWrite();
+            }
             return rowsAffected > 0;
 
         } catch (SQLException e) {
+            METRICS.error("deleteCustomer");
             System.err.println("Error deleting customer: " + e.getMessage());
             return false;
         }
@@ -0,0 +1,68 @@
+package com.hotel.dao;
+
+import com.hotel.cache.CustomerIdentityCache;
+import com.hotel.repository.BookingRepository;
+import com.hotel.repository.CustomerRepository;
+import com.hotel.repository.ReservationRepository;
+import com.hotel.repository.RoomRepository;
+import com.hotel.repository.StorageEngine;
+import com.hotel.repository.WaitlistRepository;
+
+/**
+ * Storage engine backed by the JDBC DAOs and the shared connection pool
+ */
+public class JdbcStorageEngine implements StorageEngine {
+
+    private static final int CUSTOMER_CACHE_SIZE = 10_000;
+
+    private final RoomDAO roomDAO;
+    private final CustomerDAO customerDAO;
+    private final ReservationDAO reservationDAO;
+    private final BookingDAO bookingDAO;
+    private final WaitlistDAO waitlistDAO;
+    private final CustomerIdentityCache identityCache;
+
+    public JdbcStorageEngine() {
+        this.identityCache = new CustomerIdentityCache(CUSTOMER_CACHE_SIZE);
+        this.roomDAO = new RoomDAO();
+        this.customerDAO = new CustomerDAO(identityCache);
+        this.reservationDAO = new ReservationDAO();
+        this.bookingDAO = new BookingDAO(customerDAO, reservationDAO);
+        this.waitlistDAO = new WaitlistDAO();
+    }
+
+    @Override
+    public RoomRepository getRooms() {
+        return roomDAO;
+    }
+
+    @Override
+    public CustomerRepository getCustomers() {
+        return customerDAO;
+    }
+
+    @Override
+    public ReservationRepository getReservations() {
+        return reservationDAO;
+    }
+
+    @Override
+    public BookingRepository getBookings() {
+        return bookingDAO;
+    }
+
+    @Override
+    public WaitlistRepository getWaitlist() {
+        return waitlistDAO;
+    }
+
+    @Override
+    public CustomerIdentityCache getIdentityCache() {
+        return identityCache;
+    }
+
+    @Override
+    public boolean isDurable() {
+        return true;
+    }
+}
@@ -0,0 +1,119 @@
+package com.hotel.dao;
+
+import com.hotel.metrics.Metrics;
+import com.hotel.metrics.OperationStats;
+import com.hotel.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Moves completed reservations from reservations into reservations_archive.
+ * Each batch is copied and deleted in one transaction, so a run that stops
+ * part way leaves every row in exactly one table and the next run simply
+ * picks up the rows that are still left.
+ */
+public class ReservationArchiveDAO {
+
+    private static final Metrics METRICS = Metrics.forComponent("ReservationArchiveDAO");
+
+    private static final String COLUMNS =
+            "reservation_id, customer_id, room_id, check_in_date, check_out_date, " +
+            "total_amount, status, created_at, updated_at";
+
+    /**
+     * Get the IDs of up to limit CHECKED_OUT or CANCELLED reservations that
+     * checked out before the cutoff, in ID order after afterReservationId.
+     * The newest reservation is never returned: MySQL before 8.0 restarts
+     * AUTO_INCREMENT at the highest remaining ID, which would reuse an
+     * archived ID.
+     */
+    public List<Integer> findArchivable(LocalDate cutoff, int afterReservationId, int limit) {
+        List<Integer> reservationIds = new ArrayList<>();
+        String query = "SELECT reservation_id FROM reservations " +
+                      "WHERE status IN ('CHECKED_OUT', 'CANCELLED') AND check_out_date < ? " +
+                      "AND reservation_id > ? " +
+                      "AND reservation_id < (SELECT MAX(reservation_id) FROM reservations) " +
+                      "ORDER BY reservation_id LIMIT ?";
+
+        try (OperationStats.Timer timer = METRICS.time("findArchivable");
+             Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+            pstmt.setDate(1, Date.valueOf(cutoff));
+            pstmt.setInt(2, afterReservationId);
+            pstmt.setInt(3, limit);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                reservationIds.add(rs.getInt(1));
+            }
+        } catch (SQLException e) {
+            METRICS.error("findArchivable");
+            System.err.println("Error finding reservations to archive: " + e.getMessage());
+        }
+        return reservationIds;
+    }
+
+    /**
+     * Copy the given reservations into the archive and delete them, with their
+     * room nights, from reservations in one transaction. Only rows that are
+     * still CHECKED_OUT or CANCELLED are moved. Returns the number moved, or
+     * -1 if the batch failed and was rolled back.
+     */
+    public int archive(List<Integer> reservationIds) {
+        if (reservationIds.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(reservationIds.size(), "?"));
+        String copy = "INSERT INTO reservations_archive (" + COLUMNS + ") " +
+                     "SELECT " + COLUMNS + " FROM reservations " +
+                     "WHERE reservation_id IN (" + placeholders + ") " +
+                     "AND status IN ('CHECKED_OUT', 'CANCELLED')";
+        String delete = "DELETE FROM reservations " +
+                       "WHERE reservation_id IN (" + placeholders + ") " +
+                       "AND status IN ('CHECKED_OUT', 'CANCELLED')";
+
+        try (OperationStats.Timer timer = METRICS.time("archive");
+             Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement copyStmt = conn.prepareStatement(copy);
+                 PreparedStatement deleteStmt = conn.prepareStatement(delete)) {
+                bindIds(copyStmt, reservationIds);
+                bindIds(deleteStmt, reservationIds);
+                int copied = copyStmt.executeUpdate();
+                int deleted = deleteStmt.executeUpdate();
+                if (copied != deleted) {
+                    // A row changed status between the two statements; try it next run
+                    conn.rollback();
+                    return 0;
+                }
+                conn.commit();
+                return deleted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            METRICS.error("archive");
+            System.err.println("Error archiving reservations: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private static void bindIds(PreparedStatement pstmt, List<Integer> reservationIds) throws SQLException {
+        int index = 1;
+        for (int reservationId : reservationIds) {
+            pstmt.setInt(index++, reservationId);
+        }
+    }
+}
@@ -1,34 +1,116 @@
 package com.hotel.dao;
 
+import com.hotel.metrics.Metrics;
+import com.hotel.metrics.OperationStats;
 import com.hotel.model.Reservation;
 import com.hotel.model.Reservation.ReservationStatus;
+import com.hotel.repository.ReservationRepository;
 import com.hotel.util.DatabaseConnection;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
- * Data Access Object for Reservation entity
+ * Data Access Object for Reservation entity.
+ * Lookups by ID and by customer also search reservations_archive, where
+ * ReservationArchiveDAO moves completed reservations; listings cover only
+ * the reservations table.
  */
-public class ReservationDAO {
+public class ReservationDAO implements ReservationRepository {
+
+    private static final Metrics METRICS = Metrics.forComponent("ReservationDAO");
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // Columns shared by reservations and reservations_archive, plus the joined names
+    private static final String SELECT_COLUMNS =
+            "r.reservation_id, r.customer_id, r.room_id, r.check_in_date, r.check_out_date, " +
+            "r.total_amount, r.status, r.created_at, r.updated_at, " +
+            "c.first_name, c.last_name, rm.room_number";
+
+    // The hot queries; QueryPlanTest EXPLAINs these to check the indexes they use
+
+    static final String RESERVATIONS_PAGE_QUERY =
+            "SELECT r.*, c.first_name, c.last_name, rm.room_number " +
+            "FROM reservations r " +
+            "JOIN customers c ON r.customer_id = c.customer_id " +
+            "JOIN rooms rm ON r.room_id = rm.room_id " +
+            "WHERE r.reservation_id < ? " +
+            "ORDER BY r.reservation_id DESC " +
+            "LIMIT ?";
+
+    static final String CUSTOMER_RESERVATIONS_QUERY =
+            "SELECT " + SELECT_COLUMNS + " " +
+            "FROM reservations r " +
+            "JOIN customers c ON r.customer_id = c.customer_id " +
+            "JOIN rooms rm ON r.room_id = rm.room_id " +
+            "WHERE r.customer_id = ? " +
+            "UNION ALL " +
+            "SELECT " + SELECT_COLUMNS + " " +
+            "FROM reservations_archive r " +
+            "JOIN customers c ON r.customer_id = c.customer_id " +
+            "JOIN rooms rm ON r.room_id = rm.room_id " +
+            "WHERE r.customer_id = ? " +
+            "ORDER BY check_in_date DESC";
+
+    static final String ACTIVE_RESERVATIONS_QUERY =
+            "SELECT r.*, c.first_name, c.last_name, rm.room_number " +
+            "FROM reservations r " +
+            "JOIN customers c ON r.customer_id = c.customer_id " +
+            "JOIN rooms rm ON r.room_id = rm.room_id " +
+            "WHERE r.status IN ('CONFIRMED', 'CHECKED_IN') " +
+            "ORDER BY r.check_in_date";
+
+    static final String ACTIVE_STATUSES_QUERY =
+            "SELECT reservation_id, status FROM reservations " +
+            "WHERE status IN ('CONFIRMED', 'CHECKED_IN')";
+
+    static final String NIGHTS_TAKEN_QUERY =
+            "SELECT COUNT(*) FROM room_nights " +
+            "WHERE room_id = ? AND stay_date >= ? AND stay_date < ?";
+
+    static final String DELETE_ROOM_NIGHTS_QUERY = "DELETE FROM room_nights WHERE reservation_id = ?";
 
     /**
      * Create a new reservation
      */
     public int createReservation(Reservation reservation) {
+        try (OperationStats.Timer timer = METRICS.time("createReservation");
+             Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            int reservationId = createReservation(conn, reservation);
+            DatabaseConnection.getInstance().markWrite();
+            return reservationId;
+        } catch (SQLException e) {
+            METRICS.error("createReservation");
+            System.err.println("Error creating reservation: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * Create a new reservation on the caller's connection
+     */
+    public int createReservation(Connection conn, Reservation reservation) throws SQLException {
         String query = "INSERT INTO reservations (customer_id, room_id, check_in_date, check_out_date, total_amount, status) " +
                       "VALUES (?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
 
             pstmt.setInt(1, reservation.getCustomerId());
             pstmt.setInt(2, reservation.getRoomId());
             pstmt.setDate(3, Date.valueOf(reservation.getCheckInDate()));
             pstmt.setDate(4, Date.valueOf(reservation.getCheckOutDate()));
-            pstmt.setDouble(5, reservation.getTotalAmount());
+            // Via BigDecimal so the DECIMAL(10,2) column gets exactly the priced cents
+            pstmt.setBigDecimal(5, BigDecimal.valueOf(reservation.getTotalAmount()).setScale(2, RoundingMode.HALF_UP));
             pstmt.setString(6, reservation.getStatus().name());
 
             int rowsAffected = pstmt.executeUpdate();
@@ -39,8 +121,6 @@ public class ReservationDAO {
                     return rs.getInt(1);
                 }
             }
-        } catch (SQLException e) {
-            System.err.println("Error creating reservation: " + e.getMessage());
         }
         return -1;
     }
@@ -48,40 +128,74 @@ public class ReservationDAO {
     /**
      * Get reservation by ID
      */
+    @Override
     public Reservation getReservationById(int reservationId) {
-        String query = "SELECT r.*, c.first_name, c.last_name, rm.room_number " +
-                      "FROM reservations r " +
+        try (OperationStats.Timer timer = METRICS.time("getReservationById")) {
+            return DatabaseConnection.getInstance().lookup(conn -> getReservationById(conn, reservationId));
+        } catch (SQLException e) {
+            METRICS.error("getReservationById");
+            System.err.println("Error fetching reservation by ID: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Get reservation by ID from the primary, never a replica
+     */
+    @Override
+    public Reservation getLatestReservation(int reservationId) {
+        try (OperationStats.Timer timer = METRICS.time("getLatestReservation");
+             Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            return getReservationById(conn, reservationId);
+        } catch (SQLException e) {
+            METRICS.error("getLatestReservation");
+            System.err.println("Error fetching reservation by ID: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Look the reservation up in reservations, then in reservations_archive
+     */
+    private Reservation getReservationById(Connection conn, int reservationId) throws SQLException {
+        Reservation reservation = getReservationById(conn, "reservations", reservationId);
+        return reservation != null ? reservation
+                                   : getReservationById(conn, "reservations_archive", reservationId);
+    }
+
+    private Reservation getReservationById(Connection conn, String table, int reservationId) throws SQLException {
+        String query = "SELECT " + SELECT_COLUMNS + " " +
+                      "FROM " + table + " r " +
                       "JOIN customers c ON r.customer_id = c.customer_id " +
                       "JOIN rooms rm ON r.room_id = rm.room_id " +
                       "WHERE r.reservation_id = ?";
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setInt(1, reservationId);
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
                 return extractReservationFromResultSet(rs);
             }
-        } catch (SQLException e) {
-            System.err.println("Error fetching reservation by ID: " + e.getMessage());
         }
         return null;
     }
 
     /**
-     * Get all reservations
+     * Get all reservations, newest first.
+     * Prefer getReservationsPage or forEachReservation for large tables.
      */
+    @Override
     public List<Reservation> getAllReservations() {
         List<Reservation> reservations = new ArrayList<>();
         String query = "SELECT r.*, c.first_name, c.last_name, rm.room_number " +
                       "FROM reservations r " +
                       "JOIN customers c ON r.customer_id = c.customer_id " +
                       "JOIN rooms rm ON r.room_id = rm.room_id " +
-                      "ORDER BY r.created_at DESC";
+                      "ORDER BY r.reservation_id DESC";
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+        try (OperationStats.Timer timer = METRICS.time("getAllReservations");
+             Connection conn = DatabaseConnection.getInstance().getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
 
@@ -89,132 +203,304 @@ public class ReservationDAO {
                 reservations.add(extractReservationFromResultSet(rs));
             }
         } catch (SQLException e) {
+            METRICS.error("getAllReservations");
             System.err.println("Error fetching all reservations: " + e.getMessage());
         }
         return reservations;
     }
 
     /**
-     * Get reservations by customer ID
+     * Get one page of reservations, newest first, using the primary key as cursor.
+     * Pass 0 for the first page, then the last reservation ID of the previous page.
      */
-    public List<Reservation> getReservationsByCustomer(int customerId) {
+    @Override
+    public List<Reservation> getReservationsPage(int afterReservationId, int pageSize) {
         List<Reservation> reservations = new ArrayList<>();
+
+        try (OperationStats.Timer timer = METRICS.time("getReservationsPage");
+             Connection conn = DatabaseConnection.getInstance().getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(RESERVATIONS_PAGE_QUERY)) {
+
+            pstmt.setInt(1, afterReservationId > 0 ? afterReservationId : Integer.MAX_VALUE);
+            pstmt.setInt(2, pageSize);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                reservations.add(extractReservationFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            METRICS.error("getReservationsPage");
+            System.err.println("Error fetching reservations page: " + e.getMessage());
+        }
+        return reservations;
+    }
+
+    /**
+     * Stream every reservation, newest first, to the given action without
+     * holding the whole table in memory. Rows are fetched forward-only.
+     * Returns the number of reservations visited.
+     */
+    @Override
+    public int forEachReservation(Consumer<Reservation> action) {
         String query = "SELECT r.*, c.first_name, c.last_name, rm.room_number " +
                       "FROM reservations r " +
                       "JOIN customers c ON r.customer_id = c.customer_id " +
                       "JOIN rooms rm ON r.room_id = rm.room_id " +
-                      "WHERE r.customer_id = ? " +
-                      "ORDER BY r.check_in_date DESC";
+                      "ORDER BY r.reservation_id DESC";
+
+        int count = 0;
+        try (OperationStats.Timer timer = METRICS.time("forEachReservation");
+             Connection conn = DatabaseConnection.getInstance().getReadConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            setStreamingFetchSize(conn, stmt);
+            try (ResultSet rs = stmt.executeQuery(query)) {
+                while (rs.next()) {
+                    action.accept(extractReservationFromResultSet(rs));
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            METRICS.error("forEachReservation");
+            System.err.println("Error streaming reservations: " + e.getMessage());
+        }
+        return count;
+    }
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
+    /**
+     * Get reservations by customer ID, including archived ones
+     */
+    @Override
+    public List<Reservation> getReservationsByCustomer(int customerId) {
+        List<Reservation> reservations = new ArrayList<>();
+
+        try (OperationStats.Timer timer = METRICS.time("getReservationsByCustomer");
+             Connection conn = DatabaseConnection.getInstance().getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(CUSTOMER_RESERVATIONS_QUERY)) {
 
             pstmt.setInt(1, customerId);
+            pstmt.setInt(2, customerId);
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
                 reservations.add(extractReservationFromResultSet(rs));
             }
         } catch (SQLException e) {
+            METRICS.error("getReservationsByCustomer");
             System.err.println("Error fetching reservations by customer: " + e.getMessage());
         }
         return reservations;
     }
 
     /**
-     * Get active reservations (CONFIRMED or CHECKED_IN)
+     * Get active reservations (CONFIRMED or CHECKED_IN).
+     * Reads the primary: the availability indexes are rebuilt from this.
      */
+    @Override
     public List<Reservation> getActiveReservations() {
         List<Reservation> reservations = new ArrayList<>();
-        String query = "SELECT r.*, c.first_name, c.last_name, rm.room_number " +
-                      "FROM reservations r " +
-                      "JOIN customers c ON r.customer_id = c.customer_id " +
-                      "JOIN rooms rm ON r.room_id = rm.room_id " +
-                      "WHERE r.status IN ('CONFIRMED', 'CHECKED_IN') " +
-                      "ORDER BY r.check_in_date";
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+        try (OperationStats.Timer timer = METRICS.time("getActiveReservations");
+             Connection conn = DatabaseConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
+             ResultSet rs = stmt.executeQuery(ACTIVE_RESERVATIONS_QUERY)) {
 
             while (rs.next()) {
                 reservations.add(extractReservationFromResultSet(rs));
             }
         } catch (SQLException e) {
+            METRICS.error("getActiveReservations");
             System.err.println("Error fetching active reservations: " + e.getMessage());
         }
         return reservations;
     }
 
+    /**
+     * Get the status of every active reservation by ID.
+     * Only the status index is read, and from the primary, like getActiveReservations().
+     */
+    @Override
+    public Map<Integer, ReservationStatus> getActiveStatuses() {
+        Map<Integer, ReservationStatus> statuses = new HashMap<>();
+
+        try (OperationStats.Timer timer = METRICS.time("getActiveStatuses");
+             Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(ACTIVE_STATUSES_QUERY)) {
+
+            while (rs.next()) {
+                statuses.put(rs.getInt("reservation_id"), ReservationStatus.valueOf(rs.getString("status")));
+            }
+            return statuses;
+        } catch (SQLException e) {
+            METRICS.error("getActiveStatuses");
+            System.err.println("Error fetching active reservation statuses: " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Check if room is available for given dates
      */
+    @Override
     public boolean isRoomAvailable(int roomId, LocalDate checkIn, LocalDate checkOut) {
-        String query = "SELECT COUNT(*) FROM reservations " +
-                      "WHERE room_id = ? " +
-                      "AND status IN ('CONFIRMED', 'CHECKED_IN') " +
-                      "AND ((check_in_date <= ? AND check_out_date > ?) " +
-                      "OR (check_in_date < ? AND check_out_date >= ?) " +
-                      "OR (check_in_date >= ? AND check_out_date <= ?))";
-
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
+        try (OperationStats.Timer timer = METRICS.time("isRoomAvailable");
+             Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            return isRoomAvailable(conn, roomId, checkIn, checkOut);
+        } catch (SQLException e) {
+            METRICS.error("isRoomAvailable");
+            System.err.println("Error checking room availability: " + e.getMessage());
+        }
+        return false;
+    }
 
+    /**
+     * Check if room is available for given dates on the caller's connection
+     */
+    public boolean isRoomAvailable(Connection conn, int roomId, LocalDate checkIn, LocalDate checkOut)
+            throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(NIGHTS_TAKEN_QUERY)) {
             pstmt.setInt(1, roomId);
             pstmt.setDate(2, Date.valueOf(checkIn));
-            pstmt.setDate(3, Date.valueOf(checkIn));
-            pstmt.setDate(4, Date.valueOf(checkOut));
-            pstmt.setDate(5, Date.valueOf(checkOut));
-            pstmt.setDate(6, Date.valueOf(checkIn));
-            pstmt.setDate(7, Date.valueOf(checkOut));
+            pstmt.setDate(3, Date.valueOf(checkOut));
 
             ResultSet rs = pstmt.executeQuery();
             if (rs.next()) {
-                return rs.getInt(1) == 0; // Room is available if count is 0
+                return rs.getInt(1) == 0; // Room is available if no night is taken
             }
-        } catch (SQLException e) {
-            System.err.println("Error checking room availability: " + e.getMessage());
         }
         return false;
     }
 
     /**
-     * Update reservation status
+     * Claim one room_nights row per night of the reservation in a single
+     * multi-row INSERT. Throws SQLIntegrityConstraintViolationException if
+     * any night is already taken, in which case no row is inserted.
      */
-    public boolean updateReservationStatus(int reservationId, ReservationStatus status) {
-        String query = "UPDATE reservations SET status = ? WHERE reservation_id = ?";
+    public void insertRoomNights(Connection conn, int reservationId, int roomId,
+                                 LocalDate checkIn, LocalDate checkOut) throws SQLException {
+        List<LocalDate> nights = checkIn.datesUntil(checkOut).collect(Collectors.toList());
+        StringBuilder query = new StringBuilder(
+                "INSERT INTO room_nights (room_id, stay_date, reservation_id) VALUES ");
+        for (int i = 0; i < nights.size(); i++) {
+            query.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+        }
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(query.toString())) {
+            int index = 1;
+            for (LocalDate night : nights) {
+                pstmt.setInt(index++, roomId);
+                pstmt.setDate(index++, Date.valueOf(night));
+                pstmt.setInt(index++, reservationId);
+            }
+            pstmt.executeUpdate();
+        }
+    }
 
-            pstmt.setString(1, status.name());
-            pstmt.setInt(2, reservationId);
+    /**
+     * Release the room_nights rows held by a reservation
+     */
+    public int deleteRoomNights(Connection conn, int reservationId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(DELETE_ROOM_NIGHTS_QUERY)) {
+            pstmt.setInt(1, reservationId);
+            return pstmt.executeUpdate();
+        }
+    }
 
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+    /**
+     * Get every night held in room_nights, by reservations and blocks alike, by room ID.
+     * Reads the primary, like getActiveReservations().
+     */
+    @Override
+    public Map<Integer, List<LocalDate>> getHeldNights() {
+        Map<Integer, List<LocalDate>> nights = new TreeMap<>();
+        String query = "SELECT room_id, stay_date FROM room_nights ORDER BY room_id, stay_date";
+
+        try (OperationStats.Timer timer = METRICS.time("getHeldNights");
+             Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
 
+            while (rs.next()) {
+                nights.computeIfAbsent(rs.getInt("room_id"), id -> new ArrayList<>())
+                      .add(rs.getDate("stay_date").toLocalDate());
+            }
         } catch (SQLException e) {
+            METRICS.error("getHeldNights");
+            System.err.println("Error fetching held room nights: " + e.getMessage());
+        }
+        return nights;
+    }
+
+    /**
+     * Update reservation status.
+     * Cancelling or checking out also releases the reservation's room nights
+     * in the same transaction, so the room can be sold again for the nights
+     * left after an early departure.
+     */
+    @Override
+    public boolean updateReservationStatus(int reservationId, ReservationStatus expected, ReservationStatus status) {
+        try (OperationStats.Timer timer = METRICS.time("updateReservationStatus");
+             Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                boolean updated = updateReservationStatus(conn, reservationId, expected, status);
+                if (updated && releasesNights(status)) {
+                    deleteRoomNights(conn, reservationId);
+                }
+                conn.commit();
+                DatabaseConnection.getInstance().markWrite();
+                return updated;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            METRICS.error("updateReservationStatus");
             System.err.println("Error updating reservation status: " + e.getMessage());
             return false;
         }
     }
 
     /**
-     * Delete/Cancel reservation
+     * Update reservation status on the caller's connection, only if it still has the expected one.
+     * Returns false if the reservation is missing or its status changed,
+     * so of a cancellation and a check-out racing only one succeeds.
      */
-    public boolean deleteReservation(int reservationId) {
-        String query = "UPDATE reservations SET status = 'CANCELLED' WHERE reservation_id = ?";
+    public boolean updateReservationStatus(Connection conn, int reservationId,
+                                           ReservationStatus expected, ReservationStatus status)
+            throws SQLException {
+        String query = "UPDATE reservations SET status = ? WHERE reservation_id = ? AND status = ?";
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setString(1, status.name());
+            pstmt.setInt(2, reservationId);
+            pstmt.setString(3, expected.name());
 
-            pstmt.setInt(1, reservationId);
             int rowsAffected = pstmt.executeUpdate();
             return rowsAffected > 0;
+        }
+    }
 
-        } catch (SQLException e) {
-            System.err.println("Error cancelling reservation: " + e.getMessage());
-            return false;
+    /**
+     * Check whether moving to the status gives up the reservation's room nights
+     */
+    static boolean releasesNights(ReservationStatus status) {
+        return status == ReservationStatus.CANCELLED || status == ReservationStatus.CHECKED_OUT;
+    }
+
+    /**
+     * Ask the driver to stream rows instead of buffering the whole result.
+     * MySQL Connector/J streams row by row only with Integer.MIN_VALUE;
+     * other drivers take a regular batch size.
+     */
+    private void setStreamingFetchSize(Connection conn, Statement stmt) throws SQLException {
+        if (conn.getMetaData().getDriverName().contains("MySQL")) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+        } else {
+            stmt.setFetchSize(STREAM_FETCH_SIZE);
         }
     }
 
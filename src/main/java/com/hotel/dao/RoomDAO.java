@@ -1,27 +1,38 @@
 package com.hotel.dao;
 
+import com.hotel.metrics.Metrics;
+import com.hotel.metrics.OperationStats;
 import com.hotel.model.Room;
+import com.hotel.model.RoomBlock;
 import com.hotel.model.Room.RoomStatus;
 import com.hotel.model.Room.RoomType;
+import com.hotel.repository.RoomRepository;
 import com.hotel.util.DatabaseConnection;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Data Access Object for Room entity
  */
-public class RoomDAO {
+public class RoomDAO implements RoomRepository {
+
+    private static final Metrics METRICS = Metrics.forComponent("RoomDAO");
 
     /**
-     * Get all rooms
+     * Get all rooms.
+     * Reads the primary: the room catalog is loaded from this.
      */
+    @Override
     public List<Room> getAllRooms() {
         List<Room> rooms = new ArrayList<>();
         String query = "SELECT * FROM rooms ORDER BY room_number";
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+        try (OperationStats.Timer timer = METRICS.time("getAllRooms");
+             Connection conn = DatabaseConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
 
@@ -29,6 +40,7 @@ public class RoomDAO {
                 rooms.add(extractRoomFromResultSet(rs));
             }
         } catch (SQLException e) {
+            METRICS.error("getAllRooms");
             System.err.println("Error fetching all rooms: " + e.getMessage());
         }
         return rooms;
@@ -37,19 +49,12 @@ public class RoomDAO {
     /**
      * Get room by ID
      */
+    @Override
     public Room getRoomById(int roomId) {
-        String query = "SELECT * FROM rooms WHERE room_id = ?";
-
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-
-            pstmt.setInt(1, roomId);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                return extractRoomFromResultSet(rs);
-            }
+        try (OperationStats.Timer timer = METRICS.time("getRoomById")) {
+            return DatabaseConnection.getInstance().lookup(conn -> getRoomById(conn, roomId));
         } catch (SQLException e) {
+            METRICS.error("getRoomById");
             System.err.println("Error fetching room by ID: " + e.getMessage());
         }
         return null;
@@ -58,95 +63,174 @@ public class RoomDAO {
     /**
      * Get room by room number
      */
+    @Override
     public Room getRoomByNumber(String roomNumber) {
-        String query = "SELECT * FROM rooms WHERE room_number = ?";
-
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-
-            pstmt.setString(1, roomNumber);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                return extractRoomFromResultSet(rs);
-            }
+        try (OperationStats.Timer timer = METRICS.time("getRoomByNumber")) {
+            return DatabaseConnection.getInstance().lookup(conn -> getRoomByNumber(conn, roomNumber));
         } catch (SQLException e) {
+            METRICS.error("getRoomByNumber");
             System.err.println("Error fetching room by number: " + e.getMessage());
         }
         return null;
     }
 
     /**
-     * Get all available rooms
+     * Get all rooms free tonight
      */
+    @Override
     public List<Room> getAvailableRooms() {
+        LocalDate today = LocalDate.now();
+        return searchAvailableRooms(today, today.plusDays(1), null, null, null);
+    }
+
+    /**
+     * Get rooms of a type free tonight
+     */
+    @Override
+    public List<Room> getAvailableRoomsByType(RoomType roomType) {
+        LocalDate today = LocalDate.now();
+        return searchAvailableRooms(today, today.plusDays(1), roomType, null, null);
+    }
+
+    /**
+     * Get every room free for the whole stay [checkIn, checkOut) in one query.
+     * The type, floor and occupancy filters are optional (null means any);
+     * maxOccupancy selects rooms that sleep at least that many guests.
+     * Rooms out of service are never returned; booked and blocked nights
+     * are both room_nights rows, so one NOT EXISTS covers them.
+     */
+    @Override
+    public List<Room> searchAvailableRooms(LocalDate checkIn, LocalDate checkOut,
+                                           RoomType roomType, Integer floorNumber,
+                                           Integer maxOccupancy) {
         List<Room> rooms = new ArrayList<>();
-        String query = "SELECT * FROM rooms WHERE status = 'AVAILABLE' ORDER BY room_number";
+        String query = searchQuery(roomType != null, floorNumber != null, maxOccupancy != null);
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
+        try (OperationStats.Timer timer = METRICS.time("searchAvailableRooms");
+             Connection conn = DatabaseConnection.getInstance().getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+            int index = 1;
+            if (roomType != null) {
+                pstmt.setString(index++, roomType.name());
+            }
+            if (floorNumber != null) {
+                pstmt.setInt(index++, floorNumber);
+            }
+            if (maxOccupancy != null) {
+                pstmt.setInt(index++, maxOccupancy);
+            }
+            pstmt.setDate(index++, Date.valueOf(checkIn));
+            pstmt.setDate(index, Date.valueOf(checkOut));
 
+            ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
                 rooms.add(extractRoomFromResultSet(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Error fetching available rooms: " + e.getMessage());
+            METRICS.error("searchAvailableRooms");
+            System.err.println("Error searching available rooms: " + e.getMessage());
         }
         return rooms;
     }
 
     /**
-     * Get available rooms by type
+     * The availability search with the given optional filters.
+     * Package-private so QueryPlanTest EXPLAINs the SQL that runs.
      */
-    public List<Room> getAvailableRoomsByType(RoomType roomType) {
-        List<Room> rooms = new ArrayList<>();
-        String query = "SELECT * FROM rooms WHERE status = 'AVAILABLE' AND room_type = ? ORDER BY room_number";
+    static String searchQuery(boolean byType, boolean byFloor, boolean byOccupancy) {
+        StringBuilder query = new StringBuilder(
+                "SELECT rm.* FROM rooms rm " +
+                "WHERE rm.status <> 'MAINTENANCE' ");
+        if (byType) {
+            query.append("AND rm.room_type = ? ");
+        }
+        if (byFloor) {
+            query.append("AND rm.floor_number = ? ");
+        }
+        if (byOccupancy) {
+            query.append("AND rm.max_occupancy >= ? ");
+        }
+        query.append("AND NOT EXISTS (SELECT 1 FROM room_nights n " +
+                     "WHERE n.room_id = rm.room_id " +
+                     "AND n.stay_date >= ? AND n.stay_date < ?) " +
+                     "ORDER BY rm.room_number");
+        return query.toString();
+    }
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
+    /**
+     * Get room by ID on the caller's connection
+     */
+    public Room getRoomById(Connection conn, int roomId) throws SQLException {
+        String query = "SELECT * FROM rooms WHERE room_id = ?";
 
-            pstmt.setString(1, roomType.name());
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, roomId);
             ResultSet rs = pstmt.executeQuery();
 
-            while (rs.next()) {
-                rooms.add(extractRoomFromResultSet(rs));
+            if (rs.next()) {
+                return extractRoomFromResultSet(rs);
             }
-        } catch (SQLException e) {
-            System.err.println("Error fetching available rooms by type: " + e.getMessage());
         }
-        return rooms;
+        return null;
+    }
+
+    private Room getRoomByNumber(Connection conn, String roomNumber) throws SQLException {
+        String query = "SELECT * FROM rooms WHERE room_number = ?";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setString(1, roomNumber);
+            ResultSet rs = pstmt.executeQuery();
+
+            if (rs.next()) {
+                return extractRoomFromResultSet(rs);
+            }
+        }
+        return null;
     }
 
     /**
      * Update room status
      */
+    @Override
     public boolean updateRoomStatus(int roomId, RoomStatus status) {
-        String query = "UPDATE rooms SET status = ? WHERE room_id = ?";
+        try (OperationStats.Timer timer = METRICS.time("updateRoomStatus");
+             Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            boolean updated = updateRoomStatus(conn, roomId, status);
+            DatabaseConnection.getInstance().markWrite();
+            return updated;
+        } catch (SQLException e) {
+            METRICS.error("updateRoomStatus");
+            System.err.println("Error updating room status: " + e.getMessage());
+            return false;
+        }
+    }
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
+    /**
+     * Update room status on the caller's connection
+     */
+    public boolean updateRoomStatus(Connection conn, int roomId, RoomStatus status) throws SQLException {
+        String query = "UPDATE rooms SET status = ? WHERE room_id = ?";
 
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, status.name());
             pstmt.setInt(2, roomId);
 
             int rowsAffected = pstmt.executeUpdate();
             return rowsAffected > 0;
-
-        } catch (SQLException e) {
-            System.err.println("Error updating room status: " + e.getMessage());
-            return false;
         }
     }
 
     /**
      * Add a new room
      */
+    @Override
     public boolean addRoom(Room room) {
         String query = "INSERT INTO rooms (room_number, room_type, price_per_night, status, floor_number, max_occupancy) " +
                       "VALUES (?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+        try (OperationStats.Timer timer = METRICS.time("addRoom");
+             Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
 
             pstmt.setString(1, room.getRoomNumber());
@@ -157,14 +241,138 @@ public class RoomDAO {
             pstmt.setInt(6, room.getMaxOccupancy());
 
             int rowsAffected = pstmt.executeUpdate();
+            DatabaseConnection.getInstance().markWrite();
             return rowsAffected > 0;
 
         } catch (SQLException e) {
+            METRICS.error("addRoom");
             System.err.println("Error adding room: " + e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Block a room for [startDate, endDate) in one transaction: the block row
+     * plus one room_nights row per night, so the room_nights primary key
+     * refuses the block if any night is booked, and refuses bookings after it.
+     */
+    @Override
+    public boolean addBlock(RoomBlock block) {
+        String insertBlock = "INSERT INTO room_blocks (room_id, start_date, end_date, reason) VALUES (?, ?, ?, ?)";
+
+        try (OperationStats.Timer timer = METRICS.time("addBlock");
+             Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(insertBlock, Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setInt(1, block.getRoomId());
+                pstmt.setDate(2, Date.valueOf(block.getStartDate()));
+                pstmt.setDate(3, Date.valueOf(block.getEndDate()));
+                pstmt.setString(4, block.getReason());
+                pstmt.executeUpdate();
+
+                ResultSet keys = pstmt.getGeneratedKeys();
+                if (!keys.next()) {
+                    conn.rollback();
+                    return false;
+                }
+                int blockId = keys.getInt(1);
+                insertBlockNights(conn, blockId, block);
+                conn.commit();
+                DatabaseConnection.getInstance().markWrite();
+                block.setBlockId(blockId);
+                return true;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // A night in the range is already booked or blocked
+                conn.rollback();
+                return false;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            METRICS.error("addBlock");
+            System.err.println("Error adding room block: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void insertBlockNights(Connection conn, int blockId, RoomBlock block) throws SQLException {
+        List<LocalDate> nights = block.getStartDate().datesUntil(block.getEndDate()).collect(Collectors.toList());
+        StringBuilder query = new StringBuilder(
+                "INSERT INTO room_nights (room_id, stay_date, block_id) VALUES ");
+        for (int i = 0; i < nights.size(); i++) {
+            query.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(query.toString())) {
+            int index = 1;
+            for (LocalDate night : nights) {
+                pstmt.setInt(index++, block.getRoomId());
+                pstmt.setDate(index++, Date.valueOf(night));
+                pstmt.setInt(index++, blockId);
+            }
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Remove a block and the room nights it holds
+     */
+    @Override
+    public boolean removeBlock(int blockId) {
+        try (OperationStats.Timer timer = METRICS.time("removeBlock");
+             Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement nights = conn.prepareStatement("DELETE FROM room_nights WHERE block_id = ?");
+                 PreparedStatement block = conn.prepareStatement("DELETE FROM room_blocks WHERE block_id = ?")) {
+                nights.setInt(1, blockId);
+                nights.executeUpdate();
+                block.setInt(1, blockId);
+                int rowsAffected = block.executeUpdate();
+                conn.commit();
+                DatabaseConnection.getInstance().markWrite();
+                return rowsAffected > 0;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            METRICS.error("removeBlock");
+            System.err.println("Error removing room block: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Get all room blocks.
+     * Reads the primary: the availability indexes are rebuilt from this.
+     */
+    @Override
+    public List<RoomBlock> getBlocks() {
+        List<RoomBlock> blocks = new ArrayList<>();
+        String query = "SELECT * FROM room_blocks ORDER BY room_id, start_date";
+
+        try (OperationStats.Timer timer = METRICS.time("getBlocks");
+             Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+
+            while (rs.next()) {
+                blocks.add(new RoomBlock(rs.getInt("block_id"), rs.getInt("room_id"),
+                        rs.getDate("start_date").toLocalDate(), rs.getDate("end_date").toLocalDate(),
+                        rs.getString("reason")));
+            }
+        } catch (SQLException e) {
+            METRICS.error("getBlocks");
+            System.err.println("Error fetching room blocks: " + e.getMessage());
+        }
+        return blocks;
+    }
+
     /**
      * Extract Room object from ResultSet
      */
@@ -0,0 +1,156 @@
+package com.hotel.dao;
+
+import com.hotel.metrics.Metrics;
+import com.hotel.metrics.OperationStats;
+import com.hotel.model.Reservation;
+import com.hotel.model.Reservation.ReservationStatus;
+import com.hotel.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Moves due reservations to their next status in batches, one set-based
+ * UPDATE per batch. A batch locks only the rows it picked and commits
+ * before the next one is read, so bookings are never held up for long.
+ */
+public class StayTransitionDAO {
+
+    private static final Metrics METRICS = Metrics.forComponent("StayTransitionDAO");
+
+    private static final String COLUMNS =
+            "reservation_id, customer_id, room_id, check_in_date, check_out_date, total_amount, status";
+
+    /**
+     * The status changes a business date brings, in the order a run applies them.
+     * Guests are checked in one by one at the desk (console or status endpoint), never in bulk.
+     */
+    public enum Transition {
+        // Still not checked in after the arrival day is over
+        NO_SHOWS(ReservationStatus.CONFIRMED, ReservationStatus.CANCELLED, "check_in_date < ?"),
+        DEPARTURES(ReservationStatus.CHECKED_IN, ReservationStatus.CHECKED_OUT, "check_out_date <= ?");
+
+        private final ReservationStatus from;
+        private final ReservationStatus to;
+        // Picks and locks the next batch; QueryPlanTest EXPLAINs it
+        final String batchQuery;
+
+        Transition(ReservationStatus from, ReservationStatus to, String dueCondition) {
+            this.from = from;
+            this.to = to;
+            this.batchQuery = "SELECT " + COLUMNS + " FROM reservations " +
+                             "WHERE status = ? AND " + dueCondition + " " +
+                             "ORDER BY reservation_id LIMIT ? FOR UPDATE";
+        }
+
+        public ReservationStatus getFrom() {
+            return from;
+        }
+
+        public ReservationStatus getTo() {
+            return to;
+        }
+    }
+
+    /**
+     * Move up to limit reservations that are due on the business date, in
+     * ID order, and return them as they were before the change. Cancelling
+     * and checking out also release their room nights. Only rows still in the transition's
+     * source status are picked, so repeating a batch changes nothing.
+     * Returns null if the batch failed and was rolled back.
+     */
+    public List<Reservation> transitionBatch(Transition transition, LocalDate businessDate, int limit) {
+        try (OperationStats.Timer timer = METRICS.time("transitionBatch");
+             Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            // Record locks only: no gap locks in front of concurrent bookings
+            conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            try {
+                List<Reservation> batch = new ArrayList<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(transition.batchQuery)) {
+                    pstmt.setString(1, transition.from.name());
+                    pstmt.setDate(2, Date.valueOf(businessDate));
+                    pstmt.setInt(3, limit);
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        batch.add(extractReservation(rs));
+                    }
+                }
+                if (batch.isEmpty()) {
+                    conn.commit();
+                    return batch;
+                }
+
+                List<Integer> reservationIds = new ArrayList<>(batch.size());
+                for (Reservation reservation : batch) {
+                    reservationIds.add(reservation.getReservationId());
+                }
+                if (updateStatus(conn, reservationIds, transition) != batch.size()) {
+                    // The rows are locked, so this only happens if the database ignored the lock
+                    conn.rollback();
+                    return Collections.emptyList();
+                }
+                if (ReservationDAO.releasesNights(transition.to)) {
+                    deleteRoomNights(conn, reservationIds);
+                }
+                conn.commit();
+                DatabaseConnection.getInstance().markWrite();
+                return batch;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            METRICS.error("transitionBatch");
+            System.err.println("Error moving reservations (" + transition + "): " + e.getMessage());
+            return null;
+        }
+    }
+
+    private int updateStatus(Connection conn, List<Integer> reservationIds, Transition transition)
+            throws SQLException {
+        String update = "UPDATE reservations SET status = ? " +
+                       "WHERE reservation_id IN (" + placeholders(reservationIds) + ") AND status = ?";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(update)) {
+            int index = 1;
+            pstmt.setString(index++, transition.to.name());
+            for (int reservationId : reservationIds) {
+                pstmt.setInt(index++, reservationId);
+            }
+            pstmt.setString(index, transition.from.name());
+            return pstmt.executeUpdate();
+        }
+    }
+
+    private void deleteRoomNights(Connection conn, List<Integer> reservationIds) throws SQLException {
+        String delete = "DELETE FROM room_nights WHERE reservation_id IN (" + placeholders(reservationIds) + ")";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(delete)) {
+            int index = 1;
+            for (int reservationId : reservationIds) {
+                pstmt.setInt(index++, reservationId);
+            }
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static String placeholders(List<Integer> reservationIds) {
+        return String.join(", ", Collections.nCopies(reservationIds.size(), "?"));
+    }
+
+    private static Reservation extractReservation(ResultSet rs) throws SQLException {
+        return new Reservation(rs.getInt("reservation_id"), rs.getInt("customer_id"), rs.getInt("room_id"),
+                rs.getDate("check_in_date").toLocalDate(), rs.getDate("check_out_date").toLocalDate(),
+                rs.getDouble("total_amount"), ReservationStatus.valueOf(rs.getString("status")));
+    }
+}
@@ -0,0 +1,172 @@
+package com.hotel.dao;
+
+import com.hotel.metrics.Metrics;
+import com.hotel.metrics.OperationStats;
+import com.hotel.model.Customer;
+import com.hotel.model.Room.RoomType;
+import com.hotel.model.WaitlistRequest;
+import com.hotel.model.WaitlistRequest.WaitlistStatus;
+import com.hotel.repository.WaitlistRepository;
+import com.hotel.util.DatabaseConnection;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for the waitlist table.
+ * Status changes are guarded by status = 'WAITING', so a request is booked,
+ * cancelled or expired exactly once however many callers race for it.
+ */
+public class WaitlistDAO implements WaitlistRepository {
+
+    private static final Metrics METRICS = Metrics.forComponent("WaitlistDAO");
+
+    /**
+     * Insert a new waiting request
+     */
+    @Override
+    public boolean addRequest(WaitlistRequest request) {
+        String query = "INSERT INTO waitlist (first_name, last_name, email, phone_number, id_proof, " +
+                      "room_type, check_in_date, check_out_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (OperationStats.Timer timer = METRICS.time("addRequest");
+             Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+
+            Customer guest = request.getGuest();
+            pstmt.setString(1, guest.getFirstName());
+            pstmt.setString(2, guest.getLastName());
+            pstmt.setString(3, guest.getEmail());
+            pstmt.setString(4, guest.getPhoneNumber());
+            pstmt.setString(5, guest.getIdProof());
+            pstmt.setString(6, request.getRoomType().name());
+            pstmt.setDate(7, Date.valueOf(request.getCheckInDate()));
+            pstmt.setDate(8, Date.valueOf(request.getCheckOutDate()));
+            pstmt.executeUpdate();
+            DatabaseConnection.getInstance().markWrite();
+
+            ResultSet keys = pstmt.getGeneratedKeys();
+            if (!keys.next()) {
+                return false;
+            }
+            request.setRequestId(keys.getInt(1));
+            request.setStatus(WaitlistStatus.WAITING);
+            return true;
+        } catch (SQLException e) {
+            METRICS.error("addRequest");
+            System.err.println("Error adding waitlist request: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Get a request by ID from the primary, so its status is current
+     */
+    @Override
+    public WaitlistRequest getRequest(int requestId) {
+        String query = "SELECT * FROM waitlist WHERE request_id = ?";
+
+        try (OperationStats.Timer timer = METRICS.time("getRequest");
+             Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+            pstmt.setInt(1, requestId);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return extractRequestFromResultSet(rs);
+            }
+        } catch (SQLException e) {
+            METRICS.error("getRequest");
+            System.err.println("Error fetching waitlist request: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Get every waiting request in ID order
+     */
+    @Override
+    public List<WaitlistRequest> getWaitingRequests() {
+        List<WaitlistRequest> requests = new ArrayList<>();
+        String query = "SELECT * FROM waitlist WHERE status = 'WAITING' ORDER BY request_id";
+
+        try (OperationStats.Timer timer = METRICS.time("getWaitingRequests");
+             Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+
+            while (rs.next()) {
+                requests.add(extractRequestFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            METRICS.error("getWaitingRequests");
+            System.err.println("Error fetching waitlist: " + e.getMessage());
+        }
+        return requests;
+    }
+
+    /**
+     * Record the reservation a waiting request was booked as
+     */
+    @Override
+    public boolean markBooked(int requestId, int reservationId) {
+        String query = "UPDATE waitlist SET status = 'BOOKED', reservation_id = ? " +
+                      "WHERE request_id = ? AND status = 'WAITING'";
+
+        try (OperationStats.Timer timer = METRICS.time("markBooked");
+             Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+            pstmt.setInt(1, reservationId);
+            pstmt.setInt(2, requestId);
+            int rowsAffected = pstmt.executeUpdate();
+            DatabaseConnection.getInstance().markWrite();
+            return rowsAffected > 0;
+        } catch (SQLException e) {
+            METRICS.error("markBooked");
+            System.err.println("Error booking waitlist request: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Close a waiting request as CANCELLED or EXPIRED
+     */
+    @Override
+    public boolean close(int requestId, WaitlistStatus status) {
+        String query = "UPDATE waitlist SET status = ? WHERE request_id = ? AND status = 'WAITING'";
+
+        try (OperationStats.Timer timer = METRICS.time("close");
+             Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+            pstmt.setString(1, status.name());
+            pstmt.setInt(2, requestId);
+            int rowsAffected = pstmt.executeUpdate();
+            DatabaseConnection.getInstance().markWrite();
+            return rowsAffected > 0;
+        } catch (SQLException e) {
+            METRICS.error("close");
+            System.err.println("Error closing waitlist request: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Extract WaitlistRequest object from ResultSet
+     */
+    private WaitlistRequest extractRequestFromResultSet(ResultSet rs) throws SQLException {
+        Customer guest = new Customer(rs.getString("first_name"), rs.getString("last_name"),
+                rs.getString("email"), rs.getString("phone_number"), rs.getString("id_proof"));
+        WaitlistRequest request = new WaitlistRequest(rs.getInt("request_id"), guest,
+                RoomType.valueOf(rs.getString("room_type")),
+                rs.getDate("check_in_date").toLocalDate(), rs.getDate("check_out_date").toLocalDate(),
+                WaitlistStatus.valueOf(rs.getString("status")), rs.getInt("reservation_id"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            request.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        return request;
+    }
+}
@@ -0,0 +1,74 @@
+package com.hotel.journal;
+
+import com.hotel.model.Reservation;
+import com.hotel.model.Reservation.ReservationStatus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Active (CONFIRMED or CHECKED_IN) reservations rebuilt by applying
+ * journal events in order. Not thread-safe; meant for a single replay.
+ */
+public class ActiveReservations {
+
+    private final Map<Integer, Reservation> active = new HashMap<>();
+    private long lastSequence;
+
+    /**
+     * Apply one event; events must arrive in sequence order
+     */
+    public void apply(JournalEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+            case STATUS_CHANGED:
+                if (isActive(event.getStatus())) {
+                    active.put(event.getReservationId(), event.toReservation());
+                } else {
+                    active.remove(event.getReservationId());
+                }
+                break;
+            case CANCELLED:
+                active.remove(event.getReservationId());
+                break;
+        }
+        lastSequence = event.getSequence();
+    }
+
+    /**
+     * Add a reservation directly, e.g. when loading a snapshot
+     */
+    public void put(Reservation reservation) {
+        if (isActive(reservation.getStatus())) {
+            active.put(reservation.getReservationId(), reservation);
+        }
+    }
+
+    /**
+     * Get the active reservations in no particular order
+     */
+    public List<Reservation> toList() {
+        return new ArrayList<>(active.values());
+    }
+
+    /**
+     * Get the sequence of the last event applied
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void setLastSequence(long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+
+    public int size() {
+        return active.size();
+    }
+
+    private static boolean isActive(ReservationStatus status) {
+        return status == ReservationStatus.CONFIRMED || status == ReservationStatus.CHECKED_IN;
+    }
+}
@@ -0,0 +1,132 @@
+package com.hotel.journal;
+
+import com.hotel.model.Reservation;
+import com.hotel.model.Reservation.ReservationStatus;
+
+import java.time.LocalDate;
+
+/**
+ * One reservation state change recorded in the journal
+ */
+public class JournalEvent {
+
+    /**
+     * Kinds of reservation state change
+     */
+    public enum Type {
+        CREATED, STATUS_CHANGED, CANCELLED
+    }
+
+    private final long sequence;
+    private final long timestampMillis;
+    private final Type type;
+    private final int reservationId;
+    private final int roomId;
+    private final int customerId;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+    private final double totalAmount;
+    private final ReservationStatus status;
+
+    JournalEvent(long sequence, long timestampMillis, Type type, int reservationId, int roomId,
+                 int customerId, LocalDate checkInDate, LocalDate checkOutDate,
+                 double totalAmount, ReservationStatus status) {
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+        this.type = type;
+        this.reservationId = reservationId;
+        this.roomId = roomId;
+        this.customerId = customerId;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.totalAmount = totalAmount;
+        this.status = status;
+    }
+
+    /**
+     * Event for a newly created reservation
+     */
+    public static JournalEvent created(Reservation reservation) {
+        return of(Type.CREATED, reservation, reservation.getStatus());
+    }
+
+    /**
+     * Event for a reservation moving to a new status (check-in, check-out)
+     */
+    public static JournalEvent statusChanged(Reservation reservation, ReservationStatus status) {
+        return of(Type.STATUS_CHANGED, reservation, status);
+    }
+
+    /**
+     * Event for a cancelled reservation
+     */
+    public static JournalEvent cancelled(Reservation reservation) {
+        return of(Type.CANCELLED, reservation, ReservationStatus.CANCELLED);
+    }
+
+    private static JournalEvent of(Type type, Reservation reservation, ReservationStatus status) {
+        // Sequence and timestamp are assigned when the event is appended
+        return new JournalEvent(0, 0, type, reservation.getReservationId(), reservation.getRoomId(),
+                reservation.getCustomerId(), reservation.getCheckInDate(), reservation.getCheckOutDate(),
+                reservation.getTotalAmount(), status);
+    }
+
+    JournalEvent withSequence(long sequence, long timestampMillis) {
+        return new JournalEvent(sequence, timestampMillis, type, reservationId, roomId, customerId,
+                checkInDate, checkOutDate, totalAmount, status);
+    }
+
+    /**
+     * Build the reservation as it stands after this event
+     */
+    public Reservation toReservation() {
+        return new Reservation(reservationId, customerId, roomId, checkInDate, checkOutDate,
+                totalAmount, status);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getReservationId() {
+        return reservationId;
+    }
+
+    public int getRoomId() {
+        return roomId;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("JournalEvent[Seq=%d, Type=%s, Reservation=%d, Room=%d, CheckIn=%s, CheckOut=%s, Status=%s]",
+                sequence, type, reservationId, roomId, checkInDate, checkOutDate, status);
+    }
+}
@@ -0,0 +1,411 @@
+package com.hotel.journal;
+
+import com.hotel.metrics.Metrics;
+import com.hotel.metrics.OperationStats;
+import com.hotel.model.Reservation.ReservationStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal of reservation events.
+ * <p>
+ * Events are fixed-size 64-byte records written into a memory-mapped file,
+ * numbered 1, 2, 3... with no gaps, so record N sits at a known offset and
+ * replay can start anywhere without an index. A background flusher forces
+ * the mapping to disk and every caller waiting in awaitDurable() is released
+ * by the same flush (group commit). Each record carries a CRC32; a torn
+ * record at the tail is cut off when the journal is reopened.
+ * <p>
+ * Other processes can follow the journal as a change feed with
+ * {@link #read(Path, long, Consumer)}.
+ */
+public class ReservationJournal implements AutoCloseable {
+
+    public static final String FILE_NAME = "reservations.journal";
+
+    static final int HEADER_BYTES = 64;
+    static final int RECORD_BYTES = 64;
+
+    private static final int FILE_MAGIC = 0x48524A31;      // "HRJ1"
+    private static final int RECORD_MAGIC = 0x48524A45;    // "HRJE"
+    private static final int FORMAT_VERSION = 1;
+    private static final int CRC_OFFSET = RECORD_BYTES - 4;
+    private static final long SEGMENT_BYTES = 64L * 1024 * 1024;
+    private static final int READ_BATCH_RECORDS = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final Metrics METRICS = Metrics.forComponent("ReservationJournal");
+
+    private final Path path;
+    private final FileChannel channel;
+
+    // Writer state, guarded by writeLock
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    private final CRC32 crc = new CRC32();
+    private MappedByteBuffer segment;
+    private long segmentStart;
+    private long writePosition;
+    private long lastSequence;
+
+    // Flusher state
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableAdvanced = durableLock.newCondition();
+    private volatile long writtenSequence;
+    private volatile long durableSequence;
+    private volatile boolean closed;
+    private final Thread flusher;
+
+    private ReservationJournal(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            recover();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.writtenSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Open the journal in a directory, creating it if needed
+     */
+    public static ReservationJournal open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return new ReservationJournal(directory.resolve(FILE_NAME));
+    }
+
+    /**
+     * Check the header, find the last intact record and cut off anything after it
+     */
+    private void recover() throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(FILE_MAGIC).putInt(FORMAT_VERSION).putInt(RECORD_BYTES);
+            header.clear();
+            channel.truncate(0);
+            channel.write(header, 0);
+            channel.force(true);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(12);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != FILE_MAGIC || header.getInt() != FORMAT_VERSION
+                    || header.getInt() != RECORD_BYTES) {
+                throw new IOException("Not a reservation journal: " + path);
+            }
+        }
+
+        long[] last = {0};
+        this.writePosition = scan(channel, 0, Long.MAX_VALUE, event -> last[0] = event.getSequence());
+        this.lastSequence = last[0];
+        if (channel.size() > writePosition) {
+            // Drop the unused mapped tail, a torn record and anything stale beyond it
+            channel.truncate(writePosition);
+            channel.force(true);
+        }
+        mapSegment(writePosition);
+    }
+
+    private void mapSegment(long position) throws IOException {
+        segmentStart = position - position % SEGMENT_BYTES;
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, segmentStart, SEGMENT_BYTES);
+    }
+
+    /**
+     * Append an event and return its sequence number.
+     * The event is visible to replay once it is durable; see awaitDurable().
+     */
+    public long append(JournalEvent event) {
+        long sequence;
+        writeLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (writePosition + RECORD_BYTES > segmentStart + SEGMENT_BYTES) {
+                // Everything in the full segment must be on disk before moving on
+                segment.force();
+                mapSegment(writePosition);
+            }
+            sequence = lastSequence + 1;
+            encode(event, sequence, System.currentTimeMillis());
+            segment.put((int) (writePosition - segmentStart), record.array());
+            lastSequence = sequence;
+            writePosition += RECORD_BYTES;
+            writtenSequence = sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error appending to journal " + path, e);
+        } finally {
+            writeLock.unlock();
+        }
+        LockSupport.unpark(flusher);
+        return sequence;
+    }
+
+    /**
+     * Append an event and wait until it is on disk.
+     * Concurrent callers share one flush.
+     */
+    public long appendDurably(JournalEvent event) {
+        long sequence = append(event);
+        awaitDurable(sequence);
+        return sequence;
+    }
+
+    /**
+     * Wait until every event up to the given sequence is on disk
+     */
+    public void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        try (OperationStats.Timer timer = METRICS.time("awaitDurable")) {
+            durableLock.lock();
+            try {
+                while (durableSequence < sequence) {
+                    if (closed && writtenSequence == durableSequence) {
+                        throw new IllegalStateException("Journal closed before event " + sequence + " was flushed");
+                    }
+                    durableAdvanced.await(IDLE_PARK_NANOS, TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                durableLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Force written records to disk in batches until closed
+     */
+    private void flushLoop() {
+        while (true) {
+            long target = writtenSequence;
+            if (target > durableSequence) {
+                MappedByteBuffer current;
+                writeLock.lock();
+                try {
+                    current = segment;
+                    target = writtenSequence;
+                } finally {
+                    writeLock.unlock();
+                }
+                try (OperationStats.Timer timer = METRICS.time("force")) {
+                    current.force();
+                } catch (RuntimeException e) {
+                    METRICS.error("force");
+                    System.err.println("Error flushing journal: " + e.getMessage());
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                markDurable(target);
+            } else if (closed) {
+                return;
+            } else {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void markDurable(long sequence) {
+        durableLock.lock();
+        try {
+            durableSequence = sequence;
+            durableAdvanced.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    /**
+     * Deliver every durable event after the given sequence, in order.
+     * Returns the sequence of the last event delivered (or afterSequence if none).
+     */
+    public long replay(long afterSequence, Consumer<JournalEvent> consumer) {
+        long[] last = {afterSequence};
+        try (OperationStats.Timer timer = METRICS.time("replay")) {
+            scan(channel, afterSequence, durableSequence, event -> {
+                consumer.accept(event);
+                last[0] = event.getSequence();
+            });
+        } catch (IOException e) {
+            METRICS.error("replay");
+            throw new UncheckedIOException("Error replaying journal " + path, e);
+        }
+        return last[0];
+    }
+
+    /**
+     * Read the events after the given sequence from a journal file, as a
+     * change feed for other processes. Stops at the last intact record.
+     * Returns the sequence of the last event delivered (or afterSequence if none).
+     */
+    public static long read(Path file, long afterSequence, Consumer<JournalEvent> consumer) throws IOException {
+        long[] last = {afterSequence};
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            scan(in, afterSequence, Long.MAX_VALUE, event -> {
+                consumer.accept(event);
+                last[0] = event.getSequence();
+            });
+        }
+        return last[0];
+    }
+
+    /**
+     * Read intact, consecutive records after afterSequence up to maxSequence.
+     * Returns the file position just past the last record read.
+     */
+    private static long scan(FileChannel in, long afterSequence, long maxSequence,
+                             Consumer<JournalEvent> consumer) throws IOException {
+        ByteBuffer batch = ByteBuffer.allocate(READ_BATCH_RECORDS * RECORD_BYTES);
+        CRC32 check = new CRC32();
+        long expected = afterSequence + 1;
+        long position = positionOf(expected);
+
+        while (expected <= maxSequence) {
+            batch.clear();
+            int read = in.read(batch, position);
+            if (read < RECORD_BYTES) {
+                return position;
+            }
+            batch.flip();
+            for (int offset = 0; offset + RECORD_BYTES <= read; offset += RECORD_BYTES) {
+                if (expected > maxSequence) {
+                    return position;
+                }
+                JournalEvent event = decode(batch, offset, check);
+                if (event == null || event.getSequence() != expected) {
+                    return position;
+                }
+                consumer.accept(event);
+                expected++;
+                position += RECORD_BYTES;
+            }
+        }
+        return position;
+    }
+
+    private void encode(JournalEvent event, long sequence, long timestampMillis) {
+        record.clear();
+        record.putInt(RECORD_MAGIC);
+        record.put((byte) event.getType().ordinal());
+        record.put((byte) event.getStatus().ordinal());
+        record.putShort((short) 0);
+        record.putLong(sequence);
+        record.putLong(timestampMillis);
+        record.putInt(event.getReservationId());
+        record.putInt(event.getRoomId());
+        record.putInt(event.getCustomerId());
+        record.putInt(Math.toIntExact(event.getCheckInDate().toEpochDay()));
+        record.putInt(Math.toIntExact(event.getCheckOutDate().toEpochDay()));
+        record.putDouble(event.getTotalAmount());
+        record.putLong(0);
+        crc.reset();
+        crc.update(record.array(), 0, CRC_OFFSET);
+        record.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Decode the record at the offset, or return null if it is empty or damaged
+     */
+    private static JournalEvent decode(ByteBuffer buffer, int offset, CRC32 check) {
+        if (buffer.getInt(offset) != RECORD_MAGIC) {
+            return null;
+        }
+        check.reset();
+        check.update(buffer.array(), buffer.arrayOffset() + offset, CRC_OFFSET);
+        if ((int) check.getValue() != buffer.getInt(offset + CRC_OFFSET)) {
+            return null;
+        }
+        int type = buffer.get(offset + 4);
+        int status = buffer.get(offset + 5);
+        if (type < 0 || type >= JournalEvent.Type.values().length
+                || status < 0 || status >= ReservationStatus.values().length) {
+            return null;
+        }
+        return new JournalEvent(
+                buffer.getLong(offset + 8),
+                buffer.getLong(offset + 16),
+                JournalEvent.Type.values()[type],
+                buffer.getInt(offset + 24),
+                buffer.getInt(offset + 28),
+                buffer.getInt(offset + 32),
+                LocalDate.ofEpochDay(buffer.getInt(offset + 36)),
+                LocalDate.ofEpochDay(buffer.getInt(offset + 40)),
+                buffer.getDouble(offset + 44),
+                ReservationStatus.values()[status]);
+    }
+
+    private static long positionOf(long sequence) {
+        return HEADER_BYTES + (sequence - 1) * RECORD_BYTES;
+    }
+
+    /**
+     * Get the sequence of the last appended event (0 if empty)
+     */
+    public long getLastSequence() {
+        return writtenSequence;
+    }
+
+    /**
+     * Get the sequence of the last event known to be on disk
+     */
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    public boolean isEmpty() {
+        return writtenSequence == 0;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Flush outstanding events and close the file
+     */
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            writeLock.unlock();
+        }
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Error closing journal: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.hotel.journal;
+
+import com.hotel.cache.BloomFilter;
+import com.hotel.model.Reservation;
+
+import java.util.List;
+
+/**
+ * Point-in-time copy of the reservation service's in-memory state.
+ * The active reservations are exact as of journalSequence; the customer
+ * filters cover every customer up to customerWatermark.
+ */
+public class ServiceSnapshot {
+
+    private final long journalSequence;
+    private final int customerWatermark;
+    private final int customerCount;
+    private final int filterCapacity;
+    private final BloomFilter emailFilter;
+    private final BloomFilter phoneFilter;
+    private final List<Reservation> activeReservations;
+
+    public ServiceSnapshot(long journalSequence, int customerWatermark, int customerCount,
+                           int filterCapacity, BloomFilter emailFilter, BloomFilter phoneFilter,
+                           List<Reservation> activeReservations) {
+        this.journalSequence = journalSequence;
+        this.customerWatermark = customerWatermark;
+        this.customerCount = customerCount;
+        this.filterCapacity = filterCapacity;
+        this.emailFilter = emailFilter;
+        this.phoneFilter = phoneFilter;
+        this.activeReservations = List.copyOf(activeReservations);
+    }
+
+    /**
+     * Get the sequence of the last journal event included
+     */
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    /**
+     * Get the highest customer id known to be in the filters
+     */
+    public int getCustomerWatermark() {
+        return customerWatermark;
+    }
+
+    public int getCustomerCount() {
+        return customerCount;
+    }
+
+    /**
+     * Get the number of customers the filters were sized for
+     */
+    public int getFilterCapacity() {
+        return filterCapacity;
+    }
+
+    public BloomFilter getEmailFilter() {
+        return emailFilter;
+    }
+
+    public BloomFilter getPhoneFilter() {
+        return phoneFilter;
+    }
+
+    public List<Reservation> getActiveReservations() {
+        return activeReservations;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ServiceSnapshot[Seq=%d, Customers=%d, Active=%d]",
+                journalSequence, customerCount, activeReservations.size());
+    }
+}
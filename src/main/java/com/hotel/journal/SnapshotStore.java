@@ -0,0 +1,234 @@
+package com.hotel.journal;
+
+import com.hotel.cache.BloomFilter;
+import com.hotel.metrics.Metrics;
+import com.hotel.metrics.OperationStats;
+import com.hotel.model.Reservation;
+import com.hotel.model.Reservation.ReservationStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Directory of binary service snapshots, kept next to the journal.
+ * <p>
+ * A snapshot is one file named after the journal sequence it covers:
+ * a fixed header, the two customer Bloom filters as raw words, the active
+ * reservations as 32-byte records and a trailing CRC32 over everything
+ * before it. Files are written to a temporary name and renamed, so a crash
+ * never leaves a half-written snapshot under the real name. Loading maps
+ * the newest file read-only and falls back to older ones if it is damaged.
+ */
+public class SnapshotStore {
+
+    private static final String FILE_PREFIX = "snapshot-";
+    private static final String FILE_SUFFIX = ".snap";
+    private static final int FILE_MAGIC = 0x48525331;      // "HRS1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int RESERVATION_BYTES = 32;
+    private static final int KEEP_SNAPSHOTS = 2;
+
+    private static final Metrics METRICS = Metrics.forComponent("SnapshotStore");
+
+    private final Path directory;
+
+    private SnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Use a directory for snapshots, creating it if needed
+     */
+    public static SnapshotStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return new SnapshotStore(directory);
+    }
+
+    /**
+     * Write a snapshot and delete all but the newest few
+     */
+    public Path write(ServiceSnapshot snapshot) throws IOException {
+        try (OperationStats.Timer timer = METRICS.time("write")) {
+            ByteBuffer buffer = encode(snapshot);
+            Path target = directory.resolve(String.format("%s%020d%s",
+                    FILE_PREFIX, snapshot.getJournalSequence(), FILE_SUFFIX));
+            Path temp = directory.resolve(target.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                out.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            List<Path> files = listSnapshots();
+            for (int i = KEEP_SNAPSHOTS; i < files.size(); i++) {
+                Files.deleteIfExists(files.get(i));
+            }
+            return target;
+        } catch (IOException e) {
+            METRICS.error("write");
+            throw e;
+        }
+    }
+
+    /**
+     * Load the newest intact snapshot, or return null if there is none
+     */
+    public ServiceSnapshot loadLatest() throws IOException {
+        try (OperationStats.Timer timer = METRICS.time("loadLatest")) {
+            for (Path file : listSnapshots()) {
+                try {
+                    return read(file);
+                } catch (IOException e) {
+                    METRICS.error("loadLatest");
+                    System.err.println("Skipping snapshot " + file.getFileName() + ": " + e.getMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Get the snapshot files, newest first
+     */
+    private List<Path> listSnapshots() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        // Sequence numbers are zero-padded, so name order is sequence order
+        files.sort(Comparator.comparing((Path file) -> file.getFileName().toString()).reversed());
+        return files;
+    }
+
+    private static ByteBuffer encode(ServiceSnapshot snapshot) {
+        List<Reservation> reservations = snapshot.getActiveReservations();
+        long[] emailWords = snapshot.getEmailFilter().toWords();
+        long[] phoneWords = snapshot.getPhoneFilter().toWords();
+        long size = HEADER_BYTES
+                + filterBytes(emailWords) + filterBytes(phoneWords)
+                + (long) reservations.size() * RESERVATION_BYTES + 4;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Snapshot too large: " + size + " bytes");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(FILE_MAGIC);
+        buffer.putInt(FORMAT_VERSION);
+        buffer.putLong(snapshot.getJournalSequence());
+        buffer.putInt(snapshot.getCustomerWatermark());
+        buffer.putInt(snapshot.getCustomerCount());
+        buffer.putInt(snapshot.getFilterCapacity());
+        buffer.putInt(reservations.size());
+        putFilter(buffer, snapshot.getEmailFilter(), emailWords);
+        putFilter(buffer, snapshot.getPhoneFilter(), phoneWords);
+        for (Reservation reservation : reservations) {
+            buffer.putInt(reservation.getReservationId());
+            buffer.putInt(reservation.getCustomerId());
+            buffer.putInt(reservation.getRoomId());
+            buffer.putInt(Math.toIntExact(reservation.getCheckInDate().toEpochDay()));
+            buffer.putInt(Math.toIntExact(reservation.getCheckOutDate().toEpochDay()));
+            buffer.putDouble(reservation.getTotalAmount());
+            buffer.putInt(reservation.getStatus().ordinal());
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Map a snapshot file and decode it
+     */
+    static ServiceSnapshot read(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size < HEADER_BYTES + 4 || size > Integer.MAX_VALUE) {
+                throw new IOException("unexpected size " + size);
+            }
+            MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            int crcOffset = (int) size - 4;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, crcOffset));
+            if ((int) crc.getValue() != buffer.getInt(crcOffset)) {
+                throw new IOException("checksum mismatch");
+            }
+            if (buffer.getInt() != FILE_MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("not a version " + FORMAT_VERSION + " snapshot");
+            }
+
+            try {
+                long journalSequence = buffer.getLong();
+                int customerWatermark = buffer.getInt();
+                int customerCount = buffer.getInt();
+                int filterCapacity = buffer.getInt();
+                int reservationCount = buffer.getInt();
+                BloomFilter emailFilter = getFilter(buffer);
+                BloomFilter phoneFilter = getFilter(buffer);
+                if (reservationCount < 0 || buffer.remaining() != (long) reservationCount * RESERVATION_BYTES + 4) {
+                    throw new IOException("reservation section does not match its count");
+                }
+                List<Reservation> reservations = new ArrayList<>(reservationCount);
+                for (int i = 0; i < reservationCount; i++) {
+                    reservations.add(new Reservation(
+                            buffer.getInt(),
+                            buffer.getInt(),
+                            buffer.getInt(),
+                            LocalDate.ofEpochDay(buffer.getInt()),
+                            LocalDate.ofEpochDay(buffer.getInt()),
+                            buffer.getDouble(),
+                            ReservationStatus.values()[buffer.getInt()]));
+                }
+                return new ServiceSnapshot(journalSequence, customerWatermark, customerCount,
+                        filterCapacity, emailFilter, phoneFilter, reservations);
+            } catch (RuntimeException e) {
+                throw new IOException("malformed snapshot: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static long filterBytes(long[] words) {
+        return 12 + (long) words.length * Long.BYTES;
+    }
+
+    private static void putFilter(ByteBuffer buffer, BloomFilter filter, long[] words) {
+        buffer.putInt(filter.getBitCount());
+        buffer.putInt(filter.getHashCount());
+        buffer.putInt(words.length);
+        buffer.asLongBuffer().put(words);
+        buffer.position(buffer.position() + words.length * Long.BYTES);
+    }
+
+    private static BloomFilter getFilter(ByteBuffer buffer) {
+        int bitCount = buffer.getInt();
+        int hashCount = buffer.getInt();
+        int wordCount = buffer.getInt();
+        if (wordCount < 0 || (long) wordCount * Long.BYTES > buffer.remaining()) {
+            throw new IllegalArgumentException("filter larger than file");
+        }
+        long[] words = new long[wordCount];
+        buffer.asLongBuffer().get(words);
+        buffer.position(buffer.position() + wordCount * Long.BYTES);
+        return BloomFilter.fromWords(bitCount, hashCount, words);
+    }
+}
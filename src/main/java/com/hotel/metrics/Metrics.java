@@ -0,0 +1,85 @@
+package com.hotel.metrics;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of per-component operation statistics.
+ * Each operation is published as a JMX MBean named
+ * com.hotel:type=&lt;component&gt;,name=&lt;operation&gt; the first time it is used.
+ */
+public class Metrics {
+
+    private static final Map<String, Metrics> COMPONENTS = new ConcurrentHashMap<>();
+
+    private final String component;
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+
+    private Metrics(String component) {
+        this.component = component;
+    }
+
+    /**
+     * Get the metrics of a component such as "RoomDAO"
+     */
+    public static Metrics forComponent(String component) {
+        return COMPONENTS.computeIfAbsent(component, Metrics::new);
+    }
+
+    /**
+     * Get every operation of every component, ordered by name
+     */
+    public static List<OperationStats> getAllOperations() {
+        List<OperationStats> all = new ArrayList<>();
+        for (Metrics metrics : COMPONENTS.values()) {
+            all.addAll(metrics.operations.values());
+        }
+        all.sort(Comparator.comparing(OperationStats::getName));
+        return all;
+    }
+
+    /**
+     * Start timing one call of an operation
+     */
+    public OperationStats.Timer time(String operation) {
+        return operation(operation).start();
+    }
+
+    /**
+     * Count one failed call of an operation
+     */
+    public void error(String operation) {
+        operation(operation).recordError();
+    }
+
+    /**
+     * Get (and register on first use) the statistics of an operation
+     */
+    public OperationStats operation(String operation) {
+        OperationStats stats = operations.get(operation);
+        if (stats == null) {
+            stats = operations.computeIfAbsent(operation, this::register);
+        }
+        return stats;
+    }
+
+    private OperationStats register(String operation) {
+        OperationStats stats = new OperationStats(component + "." + operation);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("com.hotel:type=" + component + ",name=" + operation);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(stats, name);
+            }
+        } catch (Exception e) {
+            System.err.println("Error registering metrics MBean for " + stats.getName() + ": " + e.getMessage());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,108 @@
+package com.hotel.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call count, error count and latency histogram for one operation
+ */
+public class OperationStats implements OperationStatsMBean {
+
+    private final String name;
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public OperationStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Start timing one call; closing the timer records its latency
+     */
+    public Timer start() {
+        return new Timer(this, System.nanoTime());
+    }
+
+    /**
+     * Record one call that took the given time
+     */
+    public void record(long nanos) {
+        latency.record(nanos);
+    }
+
+    /**
+     * Count one failed call
+     */
+    public void recordError() {
+        errors.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCallCount() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latency.getMeanNanos() / 1_000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latency.getValueAtQuantile(0.50) / 1_000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latency.getValueAtQuantile(0.99) / 1_000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latency.getValueAtQuantile(0.999) / 1_000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latency.getMaxNanos() / 1_000.0;
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        errors.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[calls=%d, errors=%d, p50=%.1fus, p99=%.1fus, p999=%.1fus, max=%.1fus]",
+                name, getCallCount(), getErrorCount(), getP50Micros(), getP99Micros(),
+                getP999Micros(), getMaxMicros());
+    }
+
+    /**
+     * Timer for use in try-with-resources
+     */
+    public static final class Timer implements AutoCloseable {
+        private final OperationStats stats;
+        private final long startNanos;
+
+        private Timer(OperationStats stats, long startNanos) {
+            this.stats = stats;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void close() {
+            stats.record(System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.hotel.metrics;
+
+/**
+ * JMX view of one instrumented operation; latencies are in microseconds
+ */
+public interface OperationStatsMBean {
+
+    long getCallCount();
+
+    long getErrorCount();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    void reset();
+}
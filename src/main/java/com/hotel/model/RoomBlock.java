@@ -0,0 +1,90 @@
+package com.hotel.model;
+
+import java.time.LocalDate;
+
+/**
+ * A room taken out of sale for the nights [startDate, endDate), e.g. for maintenance
+ */
+public class RoomBlock {
+    private int blockId;
+    private int roomId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String reason;
+
+    // Constructors
+    public RoomBlock() {}
+
+    public RoomBlock(int roomId, LocalDate startDate, LocalDate endDate, String reason) {
+        this.roomId = roomId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.reason = reason;
+    }
+
+    public RoomBlock(int blockId, int roomId, LocalDate startDate, LocalDate endDate, String reason) {
+        this(roomId, startDate, endDate, reason);
+        this.blockId = blockId;
+    }
+
+    // Getters and Setters
+    public int getBlockId() {
+        return blockId;
+    }
+
+    public void setBlockId(int blockId) {
+        this.blockId = blockId;
+    }
+
+    public int getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(int roomId) {
+        this.roomId = roomId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    /**
+     * Check whether the block covers the night starting on the given date
+     */
+    public boolean covers(LocalDate night) {
+        return !night.isBefore(startDate) && night.isBefore(endDate);
+    }
+
+    /**
+     * Check whether the block shares a night with [from, to)
+     */
+    public boolean overlaps(LocalDate from, LocalDate to) {
+        return startDate.isBefore(to) && from.isBefore(endDate);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RoomBlock[ID=%d, Room=%d, From=%s, To=%s, Reason=%s]",
+                blockId, roomId, startDate, endDate, reason);
+    }
+}
@@ -0,0 +1,118 @@
+package com.hotel.model;
+
+import com.hotel.model.Room.RoomType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A guest waiting for any room of a type for the nights [checkInDate, checkOutDate)
+ */
+public class WaitlistRequest {
+    private int requestId;
+    private Customer guest;
+    private RoomType roomType;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private WaitlistStatus status;
+    private int reservationId;
+    private LocalDateTime createdAt;
+
+    // Enum
+    public enum WaitlistStatus {
+        WAITING, BOOKED, CANCELLED, EXPIRED
+    }
+
+    // Constructors
+    public WaitlistRequest() {}
+
+    public WaitlistRequest(Customer guest, RoomType roomType, LocalDate checkInDate, LocalDate checkOutDate) {
+        this.guest = guest;
+        this.roomType = roomType;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.status = WaitlistStatus.WAITING;
+    }
+
+    public WaitlistRequest(int requestId, Customer guest, RoomType roomType, LocalDate checkInDate,
+                           LocalDate checkOutDate, WaitlistStatus status, int reservationId) {
+        this(guest, roomType, checkInDate, checkOutDate);
+        this.requestId = requestId;
+        this.status = status;
+        this.reservationId = reservationId;
+    }
+
+    // Getters and Setters
+    public int getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(int requestId) {
+        this.requestId = requestId;
+    }
+
+    public Customer getGuest() {
+        return guest;
+    }
+
+    public void setGuest(Customer guest) {
+        this.guest = guest;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public void setRoomType(RoomType roomType) {
+        this.roomType = roomType;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public void setCheckInDate(LocalDate checkInDate) {
+        this.checkInDate = checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public void setCheckOutDate(LocalDate checkOutDate) {
+        this.checkOutDate = checkOutDate;
+    }
+
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(WaitlistStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * Get the reservation the request was booked as, or 0 if it is not booked
+     */
+    public int getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(int reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WaitlistRequest[ID=%d, Guest=%s %s, Type=%s, CheckIn=%s, CheckOut=%s, Status=%s]",
+                requestId, guest.getFirstName(), guest.getLastName(), roomType, checkInDate, checkOutDate, status);
+    }
+}
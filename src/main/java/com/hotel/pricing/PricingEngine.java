@@ -0,0 +1,285 @@
+package com.hotel.pricing;
+
+import com.hotel.cache.RoomTypeInventory;
+import com.hotel.model.Room;
+import com.hotel.model.Room.RoomType;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Prices stays in integer cents from the rate plan of each room type.
+ * rebuild() precomputes a calendar of every room's nightly price for a window
+ * of nights starting today, stored as prefix sums in one long array per room,
+ * so pricing a stay inside the window is one subtraction and allocates
+ * nothing. Occupancy tiers use the sold and blocked counts of the inventory:
+ * after a change to the counts, refreshOccupancy() reprices the type's rooms
+ * if any night moved into another tier. Nights past the window are priced one
+ * by one with no occupancy tier.
+ */
+public class PricingEngine {
+
+    private final int horizonDays;
+    private volatile Map<RoomType, RatePlan> plans;
+    private volatile Calendar calendar;
+
+    public PricingEngine(Map<RoomType, RatePlan> plans) {
+        this(plans, RoomTypeInventory.DEFAULT_HORIZON_DAYS);
+    }
+
+    public PricingEngine(Map<RoomType, RatePlan> plans, int horizonDays) {
+        this.horizonDays = horizonDays;
+        this.plans = copyOf(plans);
+        this.calendar = new Calendar(LocalDate.now().toEpochDay(), 0, new long[0][],
+                new EnumMap<>(RoomType.class), 0);
+    }
+
+    /**
+     * Replace the rate plan of a room type (null for base prices only).
+     * Takes effect on the next rebuild().
+     */
+    public synchronized void setRatePlan(RoomType type, RatePlan plan) {
+        Map<RoomType, RatePlan> next = copyOf(plans);
+        if (plan != null) {
+            next.put(type, plan);
+        } else {
+            next.remove(type);
+        }
+        plans = next;
+    }
+
+    /**
+     * Precompute the nightly prices of the rooms from today, taking
+     * occupancy from the per-type inventory
+     */
+    public synchronized void rebuild(List<Room> rooms, RoomTypeInventory inventory) {
+        long originDay = LocalDate.now().toEpochDay();
+        Map<RoomType, int[]> occupancy = new EnumMap<>(RoomType.class);
+        int maxRoomId = 0;
+        for (Room room : rooms) {
+            maxRoomId = Math.max(maxRoomId, room.getRoomId());
+            occupancy.computeIfAbsent(room.getRoomType(), type -> occupancyOf(type, originDay, inventory));
+        }
+
+        long[][] sums = new long[maxRoomId + 1][];
+        for (Room room : rooms) {
+            sums[room.getRoomId()] = priceRow(room, originDay, horizonDays, occupancy.get(room.getRoomType()));
+        }
+        long nextDayMillis = LocalDate.ofEpochDay(originDay + 1).atStartOfDay(ZoneId.systemDefault())
+                .toInstant().toEpochMilli();
+        this.calendar = new Calendar(originDay, horizonDays, sums, occupancy, nextDayMillis);
+    }
+
+    /**
+     * Rebuild if the day has changed, unless another thread already did
+     * while this one waited. Rooms are only listed when a rebuild runs.
+     */
+    public synchronized void rebuildIfStale(Supplier<List<Room>> rooms, RoomTypeInventory inventory) {
+        if (isStale()) {
+            rebuild(rooms.get(), inventory);
+        }
+    }
+
+    /**
+     * Price a room added since the last rebuild, leaving every other room's row as it is
+     */
+    public synchronized void addRoom(Room room, RoomTypeInventory inventory) {
+        Calendar current = calendar;
+        Map<RoomType, int[]> occupancy = new EnumMap<>(current.occupancy);
+        int[] typeOccupancy = occupancy.computeIfAbsent(room.getRoomType(),
+                type -> occupancyOf(type, current.originDay, inventory));
+        long[][] sums = Arrays.copyOf(current.sums, Math.max(current.sums.length, room.getRoomId() + 1));
+        sums[room.getRoomId()] = priceRow(room, current.originDay, current.size, typeOccupancy);
+        this.calendar = new Calendar(current.originDay, current.size, sums, occupancy, current.nextDayMillis);
+    }
+
+    /**
+     * Reprice the rooms of a type if, on any night in [from, to), its
+     * occupancy has moved into another tier of its rate plan since they were
+     * priced. Call after the inventory counts change. Rooms are only listed
+     * when a reprice runs; checking costs O(nights) and takes no lock.
+     */
+    public void refreshOccupancy(RoomType type, LocalDate from, LocalDate to,
+                                 Supplier<List<Room>> rooms, RoomTypeInventory inventory) {
+        if (!crossesTier(calendar, type, from, to, inventory)) {
+            return;
+        }
+        synchronized (this) {
+            Calendar current = calendar;
+            if (!crossesTier(current, type, from, to, inventory)) {
+                return;
+            }
+            Map<RoomType, int[]> occupancy = new EnumMap<>(current.occupancy);
+            int[] typeOccupancy = occupancyOf(type, current.originDay, inventory);
+            occupancy.put(type, typeOccupancy);
+            long[][] sums = current.sums.clone();
+            for (Room room : rooms.get()) {
+                if (room.getRoomType() == type && current.sumsOf(room.getRoomId()) != null) {
+                    sums[room.getRoomId()] = priceRow(room, current.originDay, current.size, typeOccupancy);
+                }
+            }
+            this.calendar = new Calendar(current.originDay, current.size, sums, occupancy, current.nextDayMillis);
+        }
+    }
+
+    /**
+     * Check whether the day has changed since the last rebuild, so the
+     * window no longer starts today. Allocates nothing.
+     */
+    public boolean isStale() {
+        return System.currentTimeMillis() >= calendar.nextDayMillis;
+    }
+
+    /**
+     * Get the price in cents of [checkIn, checkOut) in the room
+     */
+    public long quoteCents(Room room, LocalDate checkIn, LocalDate checkOut) {
+        Calendar current = calendar;
+        long from = checkIn.toEpochDay();
+        long to = checkOut.toEpochDay();
+        long[] sums = current.sumsOf(room.getRoomId());
+        if (sums != null && from >= current.originDay && to <= current.originDay + current.size) {
+            return sums[(int) (to - current.originDay)] - sums[(int) (from - current.originDay)];
+        }
+
+        // Partly or wholly outside the window, or a room added since the last rebuild
+        long covered = 0;
+        long coveredFrom = from;
+        long coveredTo = from;
+        if (sums != null) {
+            coveredFrom = Math.max(from, current.originDay);
+            coveredTo = Math.min(to, current.originDay + current.size);
+            if (coveredFrom < coveredTo) {
+                covered = sums[(int) (coveredTo - current.originDay)] - sums[(int) (coveredFrom - current.originDay)];
+            } else {
+                coveredFrom = coveredTo = from;
+            }
+        }
+        RatePlan plan = plans.get(room.getRoomType());
+        long baseCents = toCents(room.getPricePerNight());
+        for (long day = from; day < to; day++) {
+            if (day < coveredFrom || day >= coveredTo) {
+                covered += plan == null ? baseCents : plan.nightCents(baseCents, LocalDate.ofEpochDay(day), 0);
+            }
+        }
+        return covered;
+    }
+
+    /**
+     * Get the first night of the precomputed window
+     */
+    public LocalDate getFirstNight() {
+        return LocalDate.ofEpochDay(calendar.originDay);
+    }
+
+    /**
+     * Convert a DECIMAL(10,2) amount read as a double to cents
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    /**
+     * Prefix sums of the room's nightly prices over size nights from originDay
+     */
+    private long[] priceRow(Room room, long originDay, int size, int[] occupancyPercent) {
+        RatePlan plan = plans.get(room.getRoomType());
+        long baseCents = toCents(room.getPricePerNight());
+        long[] roomSums = new long[size + 1];
+        for (int i = 0; i < size; i++) {
+            long night = plan == null ? baseCents
+                    : plan.nightCents(baseCents, LocalDate.ofEpochDay(originDay + i), occupancyPercent[i]);
+            roomSums[i + 1] = roomSums[i] + night;
+        }
+        return roomSums;
+    }
+
+    /**
+     * Check whether the type's occupancy on any night in [from, to) inside the
+     * calendar reaches a different tier than the one its prices were computed at
+     */
+    private boolean crossesTier(Calendar current, RoomType type, LocalDate from, LocalDate to,
+                                RoomTypeInventory inventory) {
+        RatePlan plan = plans.get(type);
+        int[] priced = current.occupancy.get(type);
+        if (plan == null || !plan.hasOccupancyTiers() || priced == null) {
+            return false;
+        }
+        long first = Math.max(Math.max(from.toEpochDay(), current.originDay), inventory.getFirstNight().toEpochDay());
+        long end = Math.min(Math.min(to.toEpochDay(), current.originDay + current.size),
+                inventory.getEndNight().toEpochDay());
+        if (first >= end) {
+            return false;
+        }
+        int i = (int) (first - current.originDay);
+        for (RoomTypeInventory.Night night : inventory.getNights(type,
+                LocalDate.ofEpochDay(first), LocalDate.ofEpochDay(end))) {
+            if (plan.occupancyTier(priced[i++]) != plan.occupancyTier(percentOf(night))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Percent of the type's rooms sold or blocked on each night of the window;
+     * 0 where the inventory does not reach
+     */
+    private int[] occupancyOf(RoomType type, long originDay, RoomTypeInventory inventory) {
+        int[] percent = new int[horizonDays];
+        long first = Math.max(originDay, inventory.getFirstNight().toEpochDay());
+        long end = Math.min(originDay + horizonDays, inventory.getEndNight().toEpochDay());
+        if (first >= end) {
+            return percent;
+        }
+        int i = (int) (first - originDay);
+        for (RoomTypeInventory.Night night : inventory.getNights(type,
+                LocalDate.ofEpochDay(first), LocalDate.ofEpochDay(end))) {
+            percent[i++] = percentOf(night);
+        }
+        return percent;
+    }
+
+    private static int percentOf(RoomTypeInventory.Night night) {
+        int taken = night.getSold() + night.getBlocked();
+        int capacity = taken + night.getAvailable();
+        return capacity > 0 ? Math.min(100, Math.max(0, taken * 100 / capacity)) : 0;
+    }
+
+    private static Map<RoomType, RatePlan> copyOf(Map<RoomType, RatePlan> plans) {
+        Map<RoomType, RatePlan> copy = new EnumMap<>(RoomType.class);
+        copy.putAll(plans);
+        return copy;
+    }
+
+    /**
+     * Prefix sums of nightly prices per room over one window; never modified
+     */
+    private static final class Calendar {
+        private final long originDay;
+        private final int size;
+        // Room ID -> sums[i] = cents of the first i nights; null for rooms not priced
+        private final long[][] sums;
+        // Room type -> occupancy percent per night the sums were priced at
+        private final Map<RoomType, int[]> occupancy;
+        // Start of the day after originDay, when the window goes out of date
+        private final long nextDayMillis;
+
+        Calendar(long originDay, int size, long[][] sums, Map<RoomType, int[]> occupancy, long nextDayMillis) {
+            this.originDay = originDay;
+            this.size = size;
+            this.sums = sums;
+            this.occupancy = occupancy;
+            this.nextDayMillis = nextDayMillis;
+        }
+
+        long[] sumsOf(int roomId) {
+            return roomId >= 0 && roomId < sums.length ? sums[roomId] : null;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.hotel.pricing;
+
+import com.hotel.model.Room.RoomType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * How the nightly rate of a room type moves away from each room's base price
+ * (price_per_night). Adjustments are whole percentages, applied in turn and
+ * rounded half-up to the cent after each step: the season, then the weekday or
+ * weekend rate, then the occupancy tier. A plan without adjustments charges
+ * the base price every night. Configure a plan before handing it to the
+ * pricing engine; it is not changed afterwards.
+ */
+public class RatePlan {
+
+    private static final String PREFIX = "pricing.";
+
+    private int weekdayPercent = 100;
+    private int weekendPercent = 100;
+    private final List<Season> seasons = new ArrayList<>();
+    // Lowest occupancy percent of each tier -> price percent
+    private final TreeMap<Integer, Integer> occupancyTiers = new TreeMap<>();
+
+    /**
+     * A yearly date range [from, to], inclusive; it may wrap past new year
+     */
+    private static final class Season {
+        final MonthDay from;
+        final MonthDay to;
+        final int percent;
+
+        Season(MonthDay from, MonthDay to, int percent) {
+            this.from = from;
+            this.to = to;
+            this.percent = percent;
+        }
+
+        boolean contains(MonthDay day) {
+            if (!from.isAfter(to)) {
+                return !day.isBefore(from) && !day.isAfter(to);
+            }
+            return !day.isBefore(from) || !day.isAfter(to);
+        }
+    }
+
+    /**
+     * Charge the given percent of the price on Sunday to Thursday nights
+     */
+    public RatePlan withWeekdayPercent(int percent) {
+        this.weekdayPercent = checkPercent(percent);
+        return this;
+    }
+
+    /**
+     * Charge the given percent of the price on Friday and Saturday nights
+     */
+    public RatePlan withWeekendPercent(int percent) {
+        this.weekendPercent = checkPercent(percent);
+        return this;
+    }
+
+    /**
+     * Charge the given percent of the base price on nights from one day to
+     * another each year, both inclusive. Where seasons overlap the first one added wins.
+     */
+    public RatePlan withSeason(MonthDay from, MonthDay to, int percent) {
+        seasons.add(new Season(from, to, checkPercent(percent)));
+        return this;
+    }
+
+    /**
+     * Charge the given percent on nights when at least occupancyPercent of the
+     * type's rooms are sold or blocked. The highest tier reached applies.
+     */
+    public RatePlan withOccupancyTier(int occupancyPercent, int percent) {
+        if (occupancyPercent < 0 || occupancyPercent > 100) {
+            throw new IllegalArgumentException("Occupancy must be 0 to 100 percent: " + occupancyPercent);
+        }
+        occupancyTiers.put(occupancyPercent, checkPercent(percent));
+        return this;
+    }
+
+    /**
+     * Check whether the plan has any occupancy tier
+     */
+    public boolean hasOccupancyTiers() {
+        return !occupancyTiers.isEmpty();
+    }
+
+    /**
+     * Get the lowest occupancy percent of the tier reached at occupancyPercent,
+     * or -1 if none is
+     */
+    public int occupancyTier(int occupancyPercent) {
+        Integer tier = occupancyTiers.floorKey(occupancyPercent);
+        return tier != null ? tier : -1;
+    }
+
+    /**
+     * Price one night in cents for a room whose base price is baseCents,
+     * when occupancyPercent of the type's rooms are taken that night
+     */
+    public long nightCents(long baseCents, LocalDate night, int occupancyPercent) {
+        long cents = applyPercent(baseCents, seasonPercent(MonthDay.from(night)));
+        DayOfWeek day = night.getDayOfWeek();
+        boolean weekend = day == DayOfWeek.FRIDAY || day == DayOfWeek.SATURDAY;
+        cents = applyPercent(cents, weekend ? weekendPercent : weekdayPercent);
+        Map.Entry<Integer, Integer> tier = occupancyTiers.floorEntry(occupancyPercent);
+        return tier != null ? applyPercent(cents, tier.getValue()) : cents;
+    }
+
+    private int seasonPercent(MonthDay day) {
+        for (Season season : seasons) {
+            if (season.contains(day)) {
+                return season.percent;
+            }
+        }
+        return 100;
+    }
+
+    private static long applyPercent(long cents, int percent) {
+        return percent == 100 ? cents : (cents * percent + 50) / 100;
+    }
+
+    private static int checkPercent(int percent) {
+        if (percent <= 0) {
+            throw new IllegalArgumentException("Price percent must be positive: " + percent);
+        }
+        return percent;
+    }
+
+    /**
+     * Read the rate plans in application.properties, overridden by system
+     * properties with the same key. Types without settings get no plan.
+     * Malformed settings are reported and skipped.
+     */
+    public static Map<RoomType, RatePlan> loadConfigured() {
+        Properties props = new Properties();
+        try (InputStream input = RatePlan.class.getClassLoader().getResourceAsStream("application.properties")) {
+            if (input != null) {
+                props.load(input);
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading rate plans: " + e.getMessage());
+        }
+        props.putAll(System.getProperties());
+        return fromProperties(props);
+    }
+
+    /**
+     * Build rate plans from properties such as:
+     * <pre>
+     * pricing.DELUXE.weekdayPercent=100
+     * pricing.DELUXE.weekendPercent=120
+     * pricing.DELUXE.seasons=06-01..08-31:125,12-20..01-05:140
+     * pricing.DELUXE.occupancy=80:110,95:125
+     * </pre>
+     */
+    public static Map<RoomType, RatePlan> fromProperties(Properties props) {
+        Map<RoomType, RatePlan> plans = new EnumMap<>(RoomType.class);
+        for (RoomType type : RoomType.values()) {
+            String prefix = PREFIX + type.name() + ".";
+            String weekday = props.getProperty(prefix + "weekdayPercent");
+            String weekend = props.getProperty(prefix + "weekendPercent");
+            String seasons = props.getProperty(prefix + "seasons");
+            String occupancy = props.getProperty(prefix + "occupancy");
+            if (weekday == null && weekend == null && seasons == null && occupancy == null) {
+                continue;
+            }
+            try {
+                RatePlan plan = new RatePlan();
+                if (weekday != null) {
+                    plan.withWeekdayPercent(Integer.parseInt(weekday.trim()));
+                }
+                if (weekend != null) {
+                    plan.withWeekendPercent(Integer.parseInt(weekend.trim()));
+                }
+                for (String entry : entries(seasons)) {
+                    String[] rangeAndPercent = entry.split(":");
+                    String[] range = rangeAndPercent[0].split("\\.\\.");
+                    if (rangeAndPercent.length != 2 || range.length != 2) {
+                        throw new IllegalArgumentException("expected MM-DD..MM-DD:percent, got " + entry);
+                    }
+                    plan.withSeason(MonthDay.parse("--" + range[0].trim()), MonthDay.parse("--" + range[1].trim()),
+                            Integer.parseInt(rangeAndPercent[1].trim()));
+                }
+                for (String entry : entries(occupancy)) {
+                    String[] tier = entry.split(":");
+                    if (tier.length != 2) {
+                        throw new IllegalArgumentException("expected occupancy:percent, got " + entry);
+                    }
+                    plan.withOccupancyTier(Integer.parseInt(tier[0].trim()), Integer.parseInt(tier[1].trim()));
+                }
+                plans.put(type, plan);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                System.err.println("Ignoring rate plan for " + type + ": " + e.getMessage());
+            }
+        }
+        return plans;
+    }
+
+    private static List<String> entries(String value) {
+        List<String> entries = new ArrayList<>();
+        if (value != null) {
+            for (String entry : value.split(",")) {
+                if (!entry.isBlank()) {
+                    entries.add(entry.trim());
+                }
+            }
+        }
+        return entries;
+    }
+}
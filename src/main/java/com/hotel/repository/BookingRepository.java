@@ -0,0 +1,70 @@
+package com.hotel.repository;
+
+import com.hotel.model.Customer;
+import com.hotel.model.Reservation;
+
+/**
+ * Atomic booking: find or create the customer, insert the reservation and
+ * claim its room nights, all or nothing.
+ */
+public interface BookingRepository {
+
+    /**
+     * Possible outcomes of a booking attempt
+     */
+    enum Outcome {
+        BOOKED, DATES_TAKEN, FAILED
+    }
+
+    /**
+     * Result of a booking attempt
+     */
+    class Result {
+        private final Outcome outcome;
+        private final int reservationId;
+        private final Customer customer;
+        private final boolean newCustomer;
+
+        private Result(Outcome outcome, int reservationId, Customer customer, boolean newCustomer) {
+            this.outcome = outcome;
+            this.reservationId = reservationId;
+            this.customer = customer;
+            this.newCustomer = newCustomer;
+        }
+
+        public static Result booked(int reservationId, Customer customer, boolean newCustomer) {
+            return new Result(Outcome.BOOKED, reservationId, customer, newCustomer);
+        }
+
+        public static Result failed(Outcome outcome) {
+            return new Result(outcome, -1, null, false);
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public int getReservationId() {
+            return reservationId;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+
+        public boolean isNewCustomer() {
+            return newCustomer;
+        }
+    }
+
+    /**
+     * Book a room for a guest.
+     * The caller has already checked that the room exists and is available.
+     * A guest that already has a customer ID is booked as that customer;
+     * otherwise the guest is matched to an existing customer by email, then
+     * phone, and created if neither matches. The reservation's customerId is
+     * filled in. A room night already held by another reservation gives
+     * DATES_TAKEN and leaves nothing behind.
+     */
+    Result book(Customer guest, Reservation reservation);
+}
@@ -0,0 +1,70 @@
+package com.hotel.repository;
+
+import com.hotel.model.Customer;
+
+import java.util.List;
+
+/**
+ * Storage for customers. Email addresses are unique.
+ */
+public interface CustomerRepository {
+
+    /**
+     * Add a new customer and return its ID, or -1 on failure
+     */
+    int addCustomer(Customer customer);
+
+    /**
+     * Get customer by ID, or null if there is none
+     */
+    Customer getCustomerById(int customerId);
+
+    /**
+     * Get customer by email, or null if there is none
+     */
+    Customer getCustomerByEmail(String email);
+
+    /**
+     * Get customer by phone number, or null if there is none
+     */
+    Customer getCustomerByPhone(String phoneNumber);
+
+    /**
+     * Get all customers, newest first
+     */
+    List<Customer> getAllCustomers();
+
+    /**
+     * Update customer information
+     */
+    boolean updateCustomer(Customer customer);
+
+    /**
+     * Delete customer
+     */
+    boolean deleteCustomer(int customerId);
+
+    /**
+     * Get the highest customer id (0 if there are none), or -1 on error
+     */
+    int getMaxCustomerId();
+
+    /**
+     * Get the number of customers, or -1 on error
+     */
+    int countCustomers();
+
+    /**
+     * Fill any identity cache the storage keeps in front of the lookups
+     */
+    default void loadIdentityCache() {
+    }
+
+    /**
+     * Add the customers created after the given ID to the identity cache.
+     * Returns the number of customers read, or -1 on error.
+     */
+    default int catchUpIdentityCache(int afterCustomerId) {
+        return 0;
+    }
+}
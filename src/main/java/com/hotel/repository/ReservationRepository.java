@@ -0,0 +1,93 @@
+package com.hotel.repository;
+
+import com.hotel.model.Reservation;
+import com.hotel.model.Reservation.ReservationStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Storage for reservations and the room nights they hold.
+ * Bookings are made through {@link BookingRepository}, which claims the
+ * nights; cancelling or checking out releases them.
+ */
+public interface ReservationRepository {
+
+    /**
+     * Get reservation by ID, or null if there is none
+     */
+    Reservation getReservationById(int reservationId);
+
+    /**
+     * Get reservation by ID as the primary store has it now, for callers that
+     * decide a status change from it. Stores that serve getReservationById
+     * from a lagging replica override this.
+     */
+    default Reservation getLatestReservation(int reservationId) {
+        return getReservationById(reservationId);
+    }
+
+    /**
+     * Get all reservations, newest first.
+     * Prefer getReservationsPage or forEachReservation for large tables.
+     */
+    List<Reservation> getAllReservations();
+
+    /**
+     * Get one page of reservations, newest first, using the ID as cursor.
+     * Pass 0 for the first page, then the last reservation ID of the previous page.
+     */
+    List<Reservation> getReservationsPage(int afterReservationId, int pageSize);
+
+    /**
+     * Visit every reservation, newest first, without holding them all in memory.
+     * Returns the number of reservations visited.
+     */
+    int forEachReservation(Consumer<Reservation> action);
+
+    /**
+     * Get reservations by customer ID, latest check-in first
+     */
+    List<Reservation> getReservationsByCustomer(int customerId);
+
+    /**
+     * Get active reservations (CONFIRMED or CHECKED_IN), earliest check-in first.
+     * The availability indexes are built from this, so it reads the primary store.
+     */
+    List<Reservation> getActiveReservations();
+
+    /**
+     * Get the status of every active reservation by ID, from the primary
+     * store, without reading the reservations themselves. Returns null if
+     * the store could not be read.
+     */
+    Map<Integer, ReservationStatus> getActiveStatuses();
+
+    /**
+     * Check if no night of [checkIn, checkOut) is held for the room
+     */
+    boolean isRoomAvailable(int roomId, LocalDate checkIn, LocalDate checkOut);
+
+    /**
+     * Get every night held by a reservation or a maintenance block, by room ID
+     */
+    Map<Integer, List<LocalDate>> getHeldNights();
+
+    /**
+     * Change a reservation's status, but only if it still has the expected
+     * one, the status the caller read and checked the move against.
+     * Returns false if the reservation is missing or its status changed
+     * since, so of two racing changes only one succeeds. Cancelling or
+     * checking out also releases the reservation's room nights.
+     */
+    boolean updateReservationStatus(int reservationId, ReservationStatus expected, ReservationStatus status);
+
+    /**
+     * Cancel a reservation that still has the expected status
+     */
+    default boolean deleteReservation(int reservationId, ReservationStatus expected) {
+        return updateReservationStatus(reservationId, expected, ReservationStatus.CANCELLED);
+    }
+}
@@ -0,0 +1,79 @@
+package com.hotel.repository;
+
+import com.hotel.model.Room;
+import com.hotel.model.RoomBlock;
+import com.hotel.model.Room.RoomStatus;
+import com.hotel.model.Room.RoomType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Storage for rooms.
+ * Lists are ordered by room number; failures are reported as empty
+ * results, null or false rather than thrown.
+ */
+public interface RoomRepository {
+
+    /**
+     * Get all rooms
+     */
+    List<Room> getAllRooms();
+
+    /**
+     * Get room by ID, or null if there is none
+     */
+    Room getRoomById(int roomId);
+
+    /**
+     * Get room by room number, or null if there is none
+     */
+    Room getRoomByNumber(String roomNumber);
+
+    /**
+     * Get all rooms that are free tonight
+     */
+    List<Room> getAvailableRooms();
+
+    /**
+     * Get rooms of a type that are free tonight
+     */
+    List<Room> getAvailableRoomsByType(RoomType roomType);
+
+    /**
+     * Get every room free for the whole stay [checkIn, checkOut).
+     * The type, floor and occupancy filters are optional (null means any);
+     * maxOccupancy selects rooms that sleep at least that many guests.
+     * Rooms out of service (status MAINTENANCE) are never returned.
+     */
+    List<Room> searchAvailableRooms(LocalDate checkIn, LocalDate checkOut,
+                                    RoomType roomType, Integer floorNumber,
+                                    Integer maxOccupancy);
+
+    /**
+     * Update room status: AVAILABLE, or MAINTENANCE to take the room out of
+     * service until further notice. Occupancy is never stored here.
+     */
+    boolean updateRoomStatus(int roomId, RoomStatus status);
+
+    /**
+     * Add a new room; false if the room number is taken
+     */
+    boolean addRoom(Room room);
+
+    /**
+     * Block the room for [startDate, endDate) and fill in the block ID;
+     * false if any of those nights is already booked or blocked
+     */
+    boolean addBlock(RoomBlock block);
+
+    /**
+     * Remove a block, freeing its nights
+     */
+    boolean removeBlock(int blockId);
+
+    /**
+     * Get all blocks, ordered by room and start date
+     */
+    List<RoomBlock> getBlocks();
+}
@@ -0,0 +1,35 @@
+package com.hotel.repository;
+
+import com.hotel.cache.CustomerIdentityCache;
+
+/**
+ * A set of repositories over one store, handed to the service layer.
+ * The JDBC engine keeps everything in the database; the in-memory engine
+ * keeps it in process for simulations, load tests and single-node use.
+ */
+public interface StorageEngine {
+
+    RoomRepository getRooms();
+
+    CustomerRepository getCustomers();
+
+    ReservationRepository getReservations();
+
+    BookingRepository getBookings();
+
+    WaitlistRepository getWaitlist();
+
+    /**
+     * Get the identity cache in front of customer lookups, or null if the
+     * engine does not need one
+     */
+    default CustomerIdentityCache getIdentityCache() {
+        return null;
+    }
+
+    /**
+     * Check whether the data outlives the process, so a journal and
+     * snapshots taken from it can be trusted on the next start
+     */
+    boolean isDurable();
+}
@@ -0,0 +1,40 @@
+package com.hotel.repository;
+
+import com.hotel.model.WaitlistRequest;
+import com.hotel.model.WaitlistRequest.WaitlistStatus;
+
+import java.util.List;
+
+/**
+ * Storage for waitlist requests.
+ * Failures are reported as empty results, null or false rather than thrown.
+ */
+public interface WaitlistRepository {
+
+    /**
+     * Store a new WAITING request and fill in its ID; false on failure
+     */
+    boolean addRequest(WaitlistRequest request);
+
+    /**
+     * Get request by ID, or null if there is none
+     */
+    WaitlistRequest getRequest(int requestId);
+
+    /**
+     * Get every WAITING request, oldest first
+     */
+    List<WaitlistRequest> getWaitingRequests();
+
+    /**
+     * Mark a WAITING request BOOKED as the given reservation;
+     * false if it is no longer waiting
+     */
+    boolean markBooked(int requestId, int reservationId);
+
+    /**
+     * Move a WAITING request to CANCELLED or EXPIRED;
+     * false if it is no longer waiting
+     */
+    boolean close(int requestId, WaitlistStatus status);
+}
@@ -0,0 +1,81 @@
+package com.hotel.repository.memory;
+
+import com.hotel.metrics.Metrics;
+import com.hotel.metrics.OperationStats;
+import com.hotel.model.Customer;
+import com.hotel.model.Reservation;
+import com.hotel.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Booking against the in-memory store.
+ * The room's nights are claimed first, under that room's lock only, so a
+ * conflicting booking fails before anything is written; the customer and
+ * reservation are stored after the claim succeeds.
+ */
+public class InMemoryBookingRepository implements BookingRepository {
+
+    private static final Metrics METRICS = Metrics.forComponent("InMemoryBookingRepository");
+
+    private final MemoryStore store;
+    private final InMemoryCustomerRepository customers;
+
+    InMemoryBookingRepository(MemoryStore store, InMemoryCustomerRepository customers) {
+        this.store = store;
+        this.customers = customers;
+    }
+
+    @Override
+    public Result book(Customer guest, Reservation reservation) {
+        try (OperationStats.Timer timer = METRICS.time("book")) {
+            Customer customer = null;
+            if (guest.getCustomerId() > 0) {
+                customer = customers.getCustomerById(guest.getCustomerId());
+                if (customer == null) {
+                    METRICS.error("book");
+                    return Result.failed(Outcome.FAILED);
+                }
+            }
+
+            int reservationId = store.lastReservationId.incrementAndGet();
+            if (!store.staysOf(reservation.getRoomId()).claim(reservation.getCheckInDate().toEpochDay(),
+                    reservation.getCheckOutDate().toEpochDay(), reservationId)) {
+                return Result.failed(Outcome.DATES_TAKEN);
+            }
+
+            boolean newCustomer = false;
+            while (customer == null) {
+                customer = findCustomer(guest);
+                if (customer == null) {
+                    customer = MemoryStore.copyOf(customers.insert(guest));
+                    newCustomer = customer != null;
+                }
+                if (customer == null) {
+                    // Another booking is storing a customer with this email right now
+                    Thread.onSpinWait();
+                }
+            }
+            if (newCustomer) {
+                guest.setCustomerId(customer.getCustomerId());
+            }
+            reservation.setCustomerId(customer.getCustomerId());
+
+            Reservation stored = MemoryStore.copyOf(reservation);
+            stored.setReservationId(reservationId);
+            stored.setCreatedAt(LocalDateTime.now());
+            stored.setUpdatedAt(stored.getCreatedAt());
+            store.reservations.put(reservationId, stored);
+
+            return Result.booked(reservationId, customer, newCustomer);
+        }
+    }
+
+    private Customer findCustomer(Customer guest) {
+        Customer customer = customers.getCustomerByEmail(guest.getEmail());
+        if (customer == null) {
+            customer = customers.getCustomerByPhone(guest.getPhoneNumber());
+        }
+        return customer;
+    }
+}
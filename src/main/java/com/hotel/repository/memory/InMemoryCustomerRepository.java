@@ -0,0 +1,153 @@
+package com.hotel.repository.memory;
+
+import com.hotel.model.Customer;
+import com.hotel.model.Reservation;
+import com.hotel.repository.CustomerRepository;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Customers held in process; see {@link InMemoryStorageEngine}.
+ * Emails are unique, as in the customers table.
+ */
+public class InMemoryCustomerRepository implements CustomerRepository {
+
+    private final MemoryStore store;
+
+    InMemoryCustomerRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public int addCustomer(Customer customer) {
+        Customer stored = insert(customer);
+        if (stored == null) {
+            System.err.println("Error adding customer: email " + customer.getEmail() + " already exists");
+            return -1;
+        }
+        customer.setCustomerId(stored.getCustomerId());
+        return stored.getCustomerId();
+    }
+
+    /**
+     * Store a new customer, or return null if the email is taken
+     */
+    Customer insert(Customer customer) {
+        int customerId = store.lastCustomerId.incrementAndGet();
+        if (customer.getEmail() != null
+                && store.customerIdsByEmail.putIfAbsent(customer.getEmail(), customerId) != null) {
+            return null;
+        }
+        Customer stored = MemoryStore.copyOf(customer);
+        stored.setCustomerId(customerId);
+        stored.setCreatedAt(LocalDateTime.now());
+        store.customers.put(customerId, stored);
+        if (stored.getPhoneNumber() != null) {
+            store.customerIdsByPhone.putIfAbsent(stored.getPhoneNumber(), customerId);
+        }
+        return stored;
+    }
+
+    @Override
+    public Customer getCustomerById(int customerId) {
+        return MemoryStore.copyOf(store.customers.get(customerId));
+    }
+
+    @Override
+    public Customer getCustomerByEmail(String email) {
+        Integer customerId = email != null ? store.customerIdsByEmail.get(email) : null;
+        return customerId != null ? getCustomerById(customerId) : null;
+    }
+
+    @Override
+    public Customer getCustomerByPhone(String phoneNumber) {
+        Integer customerId = phoneNumber != null ? store.customerIdsByPhone.get(phoneNumber) : null;
+        return customerId != null ? getCustomerById(customerId) : null;
+    }
+
+    @Override
+    public List<Customer> getAllCustomers() {
+        return store.customers.values().stream()
+                .sorted(Comparator.comparingInt(Customer::getCustomerId).reversed())
+                .map(MemoryStore::copyOf)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean updateCustomer(Customer customer) {
+        int customerId = customer.getCustomerId();
+        while (true) {
+            Customer current = store.customers.get(customerId);
+            if (current == null) {
+                return false;
+            }
+            String email = customer.getEmail();
+            boolean emailChanged = !Objects.equals(email, current.getEmail());
+            if (emailChanged && email != null
+                    && store.customerIdsByEmail.putIfAbsent(email, customerId) != null) {
+                System.err.println("Error updating customer: email " + email + " already exists");
+                return false;
+            }
+            Customer updated = MemoryStore.copyOf(customer);
+            updated.setCreatedAt(current.getCreatedAt());
+            if (!store.customers.replace(customerId, current, updated)) {
+                if (emailChanged && email != null) {
+                    store.customerIdsByEmail.remove(email, customerId);
+                }
+                continue;
+            }
+            if (emailChanged && current.getEmail() != null) {
+                store.customerIdsByEmail.remove(current.getEmail(), customerId);
+            }
+            if (!Objects.equals(customer.getPhoneNumber(), current.getPhoneNumber())) {
+                if (current.getPhoneNumber() != null) {
+                    store.customerIdsByPhone.remove(current.getPhoneNumber(), customerId);
+                }
+                if (customer.getPhoneNumber() != null) {
+                    store.customerIdsByPhone.putIfAbsent(customer.getPhoneNumber(), customerId);
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Delete a customer and, like ON DELETE CASCADE, their reservations
+     */
+    @Override
+    public boolean deleteCustomer(int customerId) {
+        Customer removed = store.customers.remove(customerId);
+        if (removed == null) {
+            return false;
+        }
+        if (removed.getEmail() != null) {
+            store.customerIdsByEmail.remove(removed.getEmail(), customerId);
+        }
+        if (removed.getPhoneNumber() != null) {
+            store.customerIdsByPhone.remove(removed.getPhoneNumber(), customerId);
+        }
+        for (Reservation reservation : store.reservations.values()) {
+            if (reservation.getCustomerId() == customerId) {
+                Reservation current = store.reservations.remove(reservation.getReservationId());
+                if (current != null) {
+                    store.releaseStay(current);
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getMaxCustomerId() {
+        return store.customers.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    @Override
+    public int countCustomers() {
+        return store.customers.size();
+    }
+}
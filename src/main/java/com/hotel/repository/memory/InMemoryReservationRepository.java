@@ -0,0 +1,117 @@
+package com.hotel.repository.memory;
+
+import com.hotel.model.Reservation;
+import com.hotel.model.Reservation.ReservationStatus;
+import com.hotel.repository.ReservationRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Reservations held in process; see {@link InMemoryStorageEngine}
+ */
+public class InMemoryReservationRepository implements ReservationRepository {
+
+    private final MemoryStore store;
+
+    InMemoryReservationRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Reservation getReservationById(int reservationId) {
+        Reservation stored = store.reservations.get(reservationId);
+        return stored != null ? store.view(stored) : null;
+    }
+
+    @Override
+    public List<Reservation> getAllReservations() {
+        return store.reservations.descendingMap().values().stream()
+                .map(store::view)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Reservation> getReservationsPage(int afterReservationId, int pageSize) {
+        int before = afterReservationId > 0 ? afterReservationId : Integer.MAX_VALUE;
+        return store.reservations.headMap(before, false).descendingMap().values().stream()
+                .limit(pageSize)
+                .map(store::view)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int forEachReservation(Consumer<Reservation> action) {
+        int count = 0;
+        for (Reservation stored : store.reservations.descendingMap().values()) {
+            action.accept(store.view(stored));
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public List<Reservation> getReservationsByCustomer(int customerId) {
+        return select(reservation -> reservation.getCustomerId() == customerId,
+                Comparator.comparing(Reservation::getCheckInDate).reversed());
+    }
+
+    @Override
+    public List<Reservation> getActiveReservations() {
+        return select(reservation -> reservation.getStatus() == ReservationStatus.CONFIRMED
+                        || reservation.getStatus() == ReservationStatus.CHECKED_IN,
+                Comparator.comparing(Reservation::getCheckInDate));
+    }
+
+    @Override
+    public Map<Integer, ReservationStatus> getActiveStatuses() {
+        return store.reservations.values().stream()
+                .filter(reservation -> reservation.getStatus() == ReservationStatus.CONFIRMED
+                        || reservation.getStatus() == ReservationStatus.CHECKED_IN)
+                .collect(Collectors.toMap(Reservation::getReservationId, Reservation::getStatus));
+    }
+
+    @Override
+    public boolean isRoomAvailable(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        return store.isRoomFree(roomId, checkIn, checkOut);
+    }
+
+    @Override
+    public Map<Integer, List<LocalDate>> getHeldNights() {
+        return store.heldNights();
+    }
+
+    @Override
+    public boolean updateReservationStatus(int reservationId, ReservationStatus expected, ReservationStatus status) {
+        while (true) {
+            Reservation current = store.reservations.get(reservationId);
+            // Compare-and-set on the status the caller checked, as the JDBC engine does
+            if (current == null || current.getStatus() != expected) {
+                return false;
+            }
+            Reservation updated = MemoryStore.copyOf(current);
+            updated.setStatus(status);
+            updated.setUpdatedAt(LocalDateTime.now());
+            if (store.reservations.replace(reservationId, current, updated)) {
+                if (status == ReservationStatus.CANCELLED || status == ReservationStatus.CHECKED_OUT) {
+                    store.releaseStay(current);
+                }
+                return true;
+            }
+        }
+    }
+
+    private List<Reservation> select(Predicate<Reservation> filter, Comparator<Reservation> order) {
+        return store.reservations.values().stream()
+                .filter(filter)
+                .sorted(order)
+                .map(store::view)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,141 @@
+package com.hotel.repository.memory;
+
+import com.hotel.model.Room;
+import com.hotel.model.RoomBlock;
+import com.hotel.model.Room.RoomStatus;
+import com.hotel.model.Room.RoomType;
+import com.hotel.repository.RoomRepository;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Rooms held in process; see {@link InMemoryStorageEngine}
+ */
+public class InMemoryRoomRepository implements RoomRepository {
+
+    private static final Comparator<Room> BY_NUMBER = Comparator.comparing(Room::getRoomNumber);
+
+    private final MemoryStore store;
+
+    InMemoryRoomRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public List<Room> getAllRooms() {
+        return select(room -> true);
+    }
+
+    @Override
+    public Room getRoomById(int roomId) {
+        return MemoryStore.copyOf(store.rooms.get(roomId));
+    }
+
+    @Override
+    public Room getRoomByNumber(String roomNumber) {
+        Integer roomId = store.roomIdsByNumber.get(roomNumber);
+        return roomId != null ? getRoomById(roomId) : null;
+    }
+
+    @Override
+    public List<Room> getAvailableRooms() {
+        LocalDate today = LocalDate.now();
+        return searchAvailableRooms(today, today.plusDays(1), null, null, null);
+    }
+
+    @Override
+    public List<Room> getAvailableRoomsByType(RoomType roomType) {
+        LocalDate today = LocalDate.now();
+        return searchAvailableRooms(today, today.plusDays(1), roomType, null, null);
+    }
+
+    @Override
+    public List<Room> searchAvailableRooms(LocalDate checkIn, LocalDate checkOut,
+                                           RoomType roomType, Integer floorNumber,
+                                           Integer maxOccupancy) {
+        return select(room -> room.getStatus() != RoomStatus.MAINTENANCE
+                && (roomType == null || room.getRoomType() == roomType)
+                && (floorNumber == null || room.getFloorNumber() == floorNumber)
+                && (maxOccupancy == null || room.getMaxOccupancy() >= maxOccupancy)
+                && store.isRoomFree(room.getRoomId(), checkIn, checkOut));
+    }
+
+    @Override
+    public boolean updateRoomStatus(int roomId, RoomStatus status) {
+        while (true) {
+            Room current = store.rooms.get(roomId);
+            if (current == null) {
+                return false;
+            }
+            Room updated = MemoryStore.copyOf(current);
+            updated.setStatus(status);
+            if (store.rooms.replace(roomId, current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean addRoom(Room room) {
+        int roomId = store.lastRoomId.incrementAndGet();
+        if (store.roomIdsByNumber.putIfAbsent(room.getRoomNumber(), roomId) != null) {
+            System.err.println("Error adding room: room number " + room.getRoomNumber() + " already exists");
+            return false;
+        }
+        Room stored = MemoryStore.copyOf(room);
+        stored.setRoomId(roomId);
+        if (stored.getStatus() == null) {
+            stored.setStatus(RoomStatus.AVAILABLE);
+        }
+        store.rooms.put(roomId, stored);
+        return true;
+    }
+
+    @Override
+    public boolean addBlock(RoomBlock block) {
+        if (!store.rooms.containsKey(block.getRoomId())) {
+            System.err.println("Error adding room block: room " + block.getRoomId() + " does not exist");
+            return false;
+        }
+        int blockId = store.lastBlockId.incrementAndGet();
+        if (!store.staysOf(block.getRoomId()).claim(block.getStartDate().toEpochDay(),
+                block.getEndDate().toEpochDay(), -blockId)) {
+            return false;
+        }
+        RoomBlock stored = MemoryStore.copyOf(block);
+        stored.setBlockId(blockId);
+        store.blocks.put(blockId, stored);
+        block.setBlockId(blockId);
+        return true;
+    }
+
+    @Override
+    public boolean removeBlock(int blockId) {
+        RoomBlock block = store.blocks.remove(blockId);
+        if (block == null) {
+            return false;
+        }
+        store.staysOf(block.getRoomId()).release(block.getStartDate().toEpochDay(), -blockId);
+        return true;
+    }
+
+    @Override
+    public List<RoomBlock> getBlocks() {
+        return store.blocks.values().stream()
+                .sorted(Comparator.comparing(RoomBlock::getRoomId).thenComparing(RoomBlock::getStartDate))
+                .map(MemoryStore::copyOf)
+                .collect(Collectors.toList());
+    }
+
+    private List<Room> select(Predicate<Room> filter) {
+        return store.rooms.values().stream()
+                .filter(filter)
+                .sorted(BY_NUMBER)
+                .map(MemoryStore::copyOf)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,90 @@
+package com.hotel.repository.memory;
+
+import com.hotel.model.Room;
+import com.hotel.model.Room.RoomStatus;
+import com.hotel.model.Room.RoomType;
+import com.hotel.repository.BookingRepository;
+import com.hotel.repository.CustomerRepository;
+import com.hotel.repository.ReservationRepository;
+import com.hotel.repository.RoomRepository;
+import com.hotel.repository.StorageEngine;
+import com.hotel.repository.WaitlistRepository;
+
+/**
+ * Storage engine that keeps rooms, customers and reservations in concurrent
+ * maps inside the process, with one interval map of booked stays per room.
+ * It applies the same rules as the database (unique room numbers and
+ * emails, no two reservations holding the same room night) at memory speed,
+ * for simulations, load tests and single-node deployments. Nothing survives
+ * a restart.
+ */
+public class InMemoryStorageEngine implements StorageEngine {
+
+    private final InMemoryRoomRepository rooms;
+    private final InMemoryCustomerRepository customers;
+    private final InMemoryReservationRepository reservations;
+    private final InMemoryBookingRepository bookings;
+    private final InMemoryWaitlistRepository waitlist;
+
+    public InMemoryStorageEngine() {
+        MemoryStore store = new MemoryStore();
+        this.rooms = new InMemoryRoomRepository(store);
+        this.customers = new InMemoryCustomerRepository(store);
+        this.reservations = new InMemoryReservationRepository(store);
+        this.bookings = new InMemoryBookingRepository(store, customers);
+        this.waitlist = new InMemoryWaitlistRepository(store);
+    }
+
+    /**
+     * Add the sample rooms that schema.sql creates, so a fresh engine has a hotel to book
+     */
+    public InMemoryStorageEngine withSampleRooms() {
+        addRoom("101", RoomType.SINGLE, 1500.00, 1, 1);
+        addRoom("102", RoomType.DOUBLE, 2500.00, 1, 2);
+        addRoom("103", RoomType.DOUBLE, 2500.00, 1, 2);
+        addRoom("201", RoomType.SUITE, 5000.00, 2, 4);
+        addRoom("202", RoomType.DELUXE, 7500.00, 2, 4);
+        addRoom("301", RoomType.SINGLE, 1500.00, 3, 1);
+        addRoom("302", RoomType.SUITE, 5000.00, 3, 4);
+        addRoom("303", RoomType.DOUBLE, 2500.00, 3, 2);
+        addRoom("401", RoomType.DELUXE, 7500.00, 4, 4);
+        addRoom("402", RoomType.SUITE, 5000.00, 4, 4);
+        return this;
+    }
+
+    private void addRoom(String roomNumber, RoomType roomType, double pricePerNight,
+                         int floorNumber, int maxOccupancy) {
+        rooms.addRoom(new Room(0, roomNumber, roomType, pricePerNight, RoomStatus.AVAILABLE,
+                floorNumber, maxOccupancy));
+    }
+
+    @Override
+    public RoomRepository getRooms() {
+        return rooms;
+    }
+
+    @Override
+    public CustomerRepository getCustomers() {
+        return customers;
+    }
+
+    @Override
+    public ReservationRepository getReservations() {
+        return reservations;
+    }
+
+    @Override
+    public BookingRepository getBookings() {
+        return bookings;
+    }
+
+    @Override
+    public WaitlistRepository getWaitlist() {
+        return waitlist;
+    }
+
+    @Override
+    public boolean isDurable() {
+        return false;
+    }
+}
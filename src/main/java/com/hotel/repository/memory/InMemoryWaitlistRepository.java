@@ -0,0 +1,73 @@
+package com.hotel.repository.memory;
+
+import com.hotel.model.WaitlistRequest;
+import com.hotel.model.WaitlistRequest.WaitlistStatus;
+import com.hotel.repository.WaitlistRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Waitlist requests held in process; see {@link InMemoryStorageEngine}
+ */
+public class InMemoryWaitlistRepository implements WaitlistRepository {
+
+    private final MemoryStore store;
+
+    InMemoryWaitlistRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean addRequest(WaitlistRequest request) {
+        int requestId = store.lastWaitlistId.incrementAndGet();
+        WaitlistRequest stored = MemoryStore.copyOf(request);
+        stored.setRequestId(requestId);
+        stored.setStatus(WaitlistStatus.WAITING);
+        stored.setReservationId(0);
+        stored.setCreatedAt(LocalDateTime.now());
+        store.waitlist.put(requestId, stored);
+        request.setRequestId(requestId);
+        request.setStatus(WaitlistStatus.WAITING);
+        return true;
+    }
+
+    @Override
+    public WaitlistRequest getRequest(int requestId) {
+        return MemoryStore.copyOf(store.waitlist.get(requestId));
+    }
+
+    @Override
+    public List<WaitlistRequest> getWaitingRequests() {
+        return store.waitlist.values().stream()
+                .filter(request -> request.getStatus() == WaitlistStatus.WAITING)
+                .map(MemoryStore::copyOf)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean markBooked(int requestId, int reservationId) {
+        return replaceWaiting(requestId, WaitlistStatus.BOOKED, reservationId);
+    }
+
+    @Override
+    public boolean close(int requestId, WaitlistStatus status) {
+        return replaceWaiting(requestId, status, 0);
+    }
+
+    private boolean replaceWaiting(int requestId, WaitlistStatus status, int reservationId) {
+        while (true) {
+            WaitlistRequest current = store.waitlist.get(requestId);
+            if (current == null || current.getStatus() != WaitlistStatus.WAITING) {
+                return false;
+            }
+            WaitlistRequest updated = MemoryStore.copyOf(current);
+            updated.setStatus(status);
+            updated.setReservationId(reservationId);
+            if (store.waitlist.replace(requestId, current, updated)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.hotel.repository.memory;
+
+import com.hotel.model.Customer;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import com.hotel.model.RoomBlock;
+import com.hotel.model.WaitlistRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The tables shared by the in-memory repositories.
+ * <p>
+ * Stored objects are never modified: a change replaces the map entry with
+ * an updated copy (compare-and-set on the old object), and readers get
+ * copies, so callers cannot corrupt the store and a lookup needs no lock.
+ * Each room's booked stays live in a {@link RoomStays} interval map; claiming
+ * nights locks that one room only.
+ */
+final class MemoryStore {
+
+    final ConcurrentHashMap<Integer, Room> rooms = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<String, Integer> roomIdsByNumber = new ConcurrentHashMap<>();
+    final AtomicInteger lastRoomId = new AtomicInteger();
+
+    final ConcurrentHashMap<Integer, Customer> customers = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<String, Integer> customerIdsByEmail = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<String, Integer> customerIdsByPhone = new ConcurrentHashMap<>();
+    final AtomicInteger lastCustomerId = new AtomicInteger();
+
+    // Ordered by ID so pages and "newest first" need no sort
+    final ConcurrentSkipListMap<Integer, Reservation> reservations = new ConcurrentSkipListMap<>();
+    final AtomicInteger lastReservationId = new AtomicInteger();
+
+    final ConcurrentSkipListMap<Integer, RoomBlock> blocks = new ConcurrentSkipListMap<>();
+    final AtomicInteger lastBlockId = new AtomicInteger();
+
+    final ConcurrentSkipListMap<Integer, WaitlistRequest> waitlist = new ConcurrentSkipListMap<>();
+    final AtomicInteger lastWaitlistId = new AtomicInteger();
+
+    private final ConcurrentHashMap<Integer, RoomStays> stays = new ConcurrentHashMap<>();
+
+    /**
+     * Booked stays of one room as non-overlapping [checkIn, checkOut) intervals.
+     * A maintenance block is held like a stay, under the negated block ID.
+     */
+    static final class RoomStays {
+        // Check-in epoch day -> stay
+        private final TreeMap<Long, Stay> byCheckIn = new TreeMap<>();
+
+        private static final class Stay {
+            final long end;
+            final int reservationId;
+
+            Stay(long end, int reservationId) {
+                this.end = end;
+                this.reservationId = reservationId;
+            }
+        }
+
+        /**
+         * Hold [from, to) for a reservation unless any of those nights is taken
+         */
+        synchronized boolean claim(long from, long to, int reservationId) {
+            if (!isFree(from, to)) {
+                return false;
+            }
+            byCheckIn.put(from, new Stay(to, reservationId));
+            return true;
+        }
+
+        /**
+         * Release the stay a reservation holds from the given day, if it still does
+         */
+        synchronized void release(long from, int reservationId) {
+            Stay stay = byCheckIn.get(from);
+            if (stay != null && stay.reservationId == reservationId) {
+                byCheckIn.remove(from);
+            }
+        }
+
+        synchronized boolean isFree(long from, long to) {
+            // Stays never overlap, so only the last one starting before `to` can reach into [from, to)
+            Map.Entry<Long, Stay> last = byCheckIn.lowerEntry(to);
+            return last == null || last.getValue().end <= from;
+        }
+
+        synchronized List<LocalDate> heldNights() {
+            List<LocalDate> nights = new ArrayList<>();
+            byCheckIn.forEach((from, stay) -> {
+                for (long day = from; day < stay.end; day++) {
+                    nights.add(LocalDate.ofEpochDay(day));
+                }
+            });
+            return nights;
+        }
+    }
+
+    RoomStays staysOf(int roomId) {
+        return stays.computeIfAbsent(roomId, id -> new RoomStays());
+    }
+
+    boolean isRoomFree(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomStays roomStays = stays.get(roomId);
+        return roomStays == null || roomStays.isFree(checkIn.toEpochDay(), checkOut.toEpochDay());
+    }
+
+    /**
+     * Get every night held by a stay or block, by room ID
+     */
+    Map<Integer, List<LocalDate>> heldNights() {
+        Map<Integer, List<LocalDate>> nights = new TreeMap<>();
+        stays.forEach((roomId, roomStays) -> {
+            List<LocalDate> held = roomStays.heldNights();
+            if (!held.isEmpty()) {
+                nights.put(roomId, held);
+            }
+        });
+        return nights;
+    }
+
+    void releaseStay(Reservation reservation) {
+        RoomStays roomStays = stays.get(reservation.getRoomId());
+        if (roomStays != null) {
+            roomStays.release(reservation.getCheckInDate().toEpochDay(), reservation.getReservationId());
+        }
+    }
+
+    /**
+     * Copy a stored reservation and fill in the display fields, like the JDBC join does
+     */
+    Reservation view(Reservation stored) {
+        Reservation reservation = copyOf(stored);
+        Customer customer = customers.get(stored.getCustomerId());
+        if (customer != null) {
+            reservation.setCustomerName(customer.getFirstName() + " " + customer.getLastName());
+        }
+        Room room = rooms.get(stored.getRoomId());
+        if (room != null) {
+            reservation.setRoomNumber(room.getRoomNumber());
+        }
+        return reservation;
+    }
+
+    static RoomBlock copyOf(RoomBlock block) {
+        return new RoomBlock(block.getBlockId(), block.getRoomId(), block.getStartDate(),
+                block.getEndDate(), block.getReason());
+    }
+
+    static WaitlistRequest copyOf(WaitlistRequest request) {
+        if (request == null) {
+            return null;
+        }
+        WaitlistRequest copy = new WaitlistRequest(request.getRequestId(), copyOf(request.getGuest()),
+                request.getRoomType(), request.getCheckInDate(), request.getCheckOutDate(),
+                request.getStatus(), request.getReservationId());
+        copy.setCreatedAt(request.getCreatedAt());
+        return copy;
+    }
+
+    static Room copyOf(Room room) {
+        if (room == null) {
+            return null;
+        }
+        return new Room(room.getRoomId(), room.getRoomNumber(), room.getRoomType(),
+                room.getPricePerNight(), room.getStatus(), room.getFloorNumber(), room.getMaxOccupancy());
+    }
+
+    static Customer copyOf(Customer customer) {
+        if (customer == null) {
+            return null;
+        }
+        Customer copy = new Customer(customer.getCustomerId(), customer.getFirstName(),
+                customer.getLastName(), customer.getEmail(), customer.getPhoneNumber(),
+                customer.getIdProof());
+        copy.setCreatedAt(customer.getCreatedAt());
+        return copy;
+    }
+
+    static Reservation copyOf(Reservation reservation) {
+        Reservation copy = new Reservation(reservation.getReservationId(), reservation.getCustomerId(),
+                reservation.getRoomId(), reservation.getCheckInDate(), reservation.getCheckOutDate(),
+                reservation.getTotalAmount(), reservation.getStatus());
+        copy.setCreatedAt(reservation.getCreatedAt());
+        copy.setUpdatedAt(reservation.getUpdatedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,187 @@
+package com.hotel.service;
+
+import com.hotel.model.Customer;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import com.hotel.model.Room.RoomType;
+import com.hotel.util.DatabaseConnection;
+import com.hotel.util.ReadYourWrites;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous facade over ReservationService.
+ * Every method returns a CompletableFuture completed on a bounded executor.
+ * A booking is validated as the caller entered it, then looks up the room,
+ * its availability and the guest's email and phone in parallel, so it
+ * waits for the slowest lookup rather than all of them in turn, before the
+ * booking transaction runs.
+ * When the executor's queue is full, the returned future fails with
+ * RejectedExecutionException instead of queueing without limit.
+ * Work submitted while serving an API request runs as part of that
+ * request, so it reads the client's own writes.
+ */
+public class AsyncReservationService implements AutoCloseable {
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 1_000;
+
+    private final ReservationService reservationService;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Create a facade with one worker per pooled database connection
+     */
+    public AsyncReservationService(ReservationService reservationService) {
+        this(reservationService, DatabaseConnection.getInstance().getPoolStats().getMaxConnections(),
+                DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Create a facade with the given number of workers, e.g. when no database pool bounds them
+     */
+    public AsyncReservationService(ReservationService reservationService, int threads) {
+        this(reservationService, threads, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public AsyncReservationService(ReservationService reservationService, int threads, int queueCapacity) {
+        this.reservationService = reservationService;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new WorkerThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Create a new reservation
+     */
+    public CompletableFuture<BookingResult> createReservation(String firstName, String lastName, String email,
+                                                              String phoneNumber, String idProof,
+                                                              int roomId, LocalDate checkIn, LocalDate checkOut) {
+        Customer guest = new Customer(firstName, lastName, email, phoneNumber, idProof);
+        // Check the request itself: a matched customer's stored fields must not stand in for it
+        String problem = ReservationService.validateStay(guest, checkIn, checkOut);
+        if (problem != null) {
+            return CompletableFuture.completedFuture(
+                    BookingResult.rejected(BookingResult.Status.INVALID_REQUEST, problem));
+        }
+
+        // Independent lookups run side by side
+        CompletableFuture<Room> room = supply(() -> reservationService.getRoomById(roomId));
+        CompletableFuture<Boolean> free = supply(() -> reservationService.isRoomAvailable(roomId, checkIn, checkOut));
+        CompletableFuture<Customer> byEmail = supply(() -> reservationService.getCustomerByEmail(email));
+        CompletableFuture<Customer> byPhone = supply(() -> reservationService.getCustomerByPhone(phoneNumber));
+
+        Supplier<BookingResult> book = ReadYourWrites.inCurrentRequest(() -> {
+            if (room.join() == null) {
+                return BookingResult.rejected(BookingResult.Status.ROOM_NOT_FOUND, "Room not found");
+            }
+            if (!free.join()) {
+                return BookingResult.rejected(BookingResult.Status.DATES_TAKEN,
+                        "Room is already booked for selected dates");
+            }
+            // Book as the existing customer so the transaction skips both lookups
+            Customer existing = byEmail.join() != null ? byEmail.join() : byPhone.join();
+            return reservationService.createReservation(existing != null ? existing : guest,
+                    roomId, checkIn, checkOut);
+        });
+        return CompletableFuture.allOf(room, free, byEmail, byPhone).thenApplyAsync(ignored -> book.get(), executor);
+    }
+
+    /**
+     * Cancel reservation
+     */
+    public CompletableFuture<CancellationResult> cancelReservation(int reservationId) {
+        return supply(() -> reservationService.cancelReservation(reservationId));
+    }
+
+    /**
+     * Get reservation by ID; completes with null if not found
+     */
+    public CompletableFuture<Reservation> getReservationById(int reservationId) {
+        return supply(() -> reservationService.getReservationById(reservationId));
+    }
+
+    /**
+     * Get customer by ID; completes with null if not found
+     */
+    public CompletableFuture<Customer> getCustomerById(int customerId) {
+        return supply(() -> reservationService.getCustomerById(customerId));
+    }
+
+    /**
+     * Get a customer's reservations, archived ones included, latest stay first
+     */
+    public CompletableFuture<List<Reservation>> getReservationsByCustomer(int customerId) {
+        return supply(() -> reservationService.getReservationsByCustomer(customerId));
+    }
+
+    /**
+     * Get one page of reservations, newest first
+     */
+    public CompletableFuture<List<Reservation>> getReservationsPage(int afterReservationId, int pageSize) {
+        return supply(() -> reservationService.getReservationsPage(afterReservationId, pageSize));
+    }
+
+    /**
+     * Find every room free for the given dates; filters may be null
+     */
+    public CompletableFuture<List<Room>> searchAvailableRooms(LocalDate checkIn, LocalDate checkOut,
+                                                              RoomType roomType, Integer floorNumber,
+                                                              Integer maxOccupancy) {
+        return supply(() -> reservationService.searchAvailableRooms(checkIn, checkOut,
+                roomType, floorNumber, maxOccupancy));
+    }
+
+    /**
+     * Check if room is free for the given dates
+     */
+    public CompletableFuture<Boolean> isRoomAvailable(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        return supply(() -> reservationService.isRoomAvailable(roomId, checkIn, checkOut));
+    }
+
+    /**
+     * Stop accepting work and wait briefly for queued work to finish
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(ReadYourWrites.inCurrentRequest(task), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Daemon worker threads named hotel-async-N
+     */
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "hotel-async-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
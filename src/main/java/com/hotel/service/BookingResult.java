@@ -0,0 +1,87 @@
+package com.hotel.service;
+
+import com.hotel.model.Customer;
+import com.hotel.model.Room;
+
+/**
+ * Outcome of a reservation request
+ */
+public class BookingResult {
+
+    /**
+     * Possible outcomes of a reservation request
+     */
+    public enum Status {
+        CREATED, INVALID_REQUEST, ROOM_NOT_FOUND, ROOM_UNAVAILABLE, DATES_TAKEN, FAILED
+    }
+
+    private final Status status;
+    private final String message;
+    private final int reservationId;
+    private final Room room;
+    private final Customer customer;
+    private final boolean newCustomer;
+    private final long nights;
+    private final double totalAmount;
+
+    private BookingResult(Status status, String message, int reservationId, Room room,
+                          Customer customer, boolean newCustomer, long nights, double totalAmount) {
+        this.status = status;
+        this.message = message;
+        this.reservationId = reservationId;
+        this.room = room;
+        this.customer = customer;
+        this.newCustomer = newCustomer;
+        this.nights = nights;
+        this.totalAmount = totalAmount;
+    }
+
+    static BookingResult created(int reservationId, Room room, Customer customer,
+                                 boolean newCustomer, long nights, double totalAmount) {
+        return new BookingResult(Status.CREATED, "Reservation created successfully", reservationId,
+                room, customer, newCustomer, nights, totalAmount);
+    }
+
+    static BookingResult rejected(Status status, String message) {
+        return new BookingResult(status, message, -1, null, null, false, 0, 0);
+    }
+
+    public boolean isSuccess() {
+        return status == Status.CREATED;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Get the new reservation ID, or -1 if no reservation was created
+     */
+    public int getReservationId() {
+        return reservationId;
+    }
+
+    public Room getRoom() {
+        return room;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public boolean isNewCustomer() {
+        return newCustomer;
+    }
+
+    public long getNights() {
+        return nights;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+}
@@ -0,0 +1,49 @@
+package com.hotel.service;
+
+import com.hotel.model.Reservation;
+
+/**
+ * Outcome of a cancellation request
+ */
+public class CancellationResult {
+
+    /**
+     * Possible outcomes of a cancellation request
+     */
+    public enum Status {
+        CANCELLED, NOT_FOUND, ALREADY_CANCELLED, COMPLETED, FAILED
+    }
+
+    private final Status status;
+    private final String message;
+    private final Reservation reservation;
+
+    private CancellationResult(Status status, String message, Reservation reservation) {
+        this.status = status;
+        this.message = message;
+        this.reservation = reservation;
+    }
+
+    static CancellationResult of(Status status, String message, Reservation reservation) {
+        return new CancellationResult(status, message, reservation);
+    }
+
+    public boolean isSuccess() {
+        return status == Status.CANCELLED;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Get the reservation, or null if it was not found
+     */
+    public Reservation getReservation() {
+        return reservation;
+    }
+}
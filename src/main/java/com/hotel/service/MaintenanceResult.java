@@ -0,0 +1,49 @@
+package com.hotel.service;
+
+import com.hotel.model.RoomBlock;
+
+/**
+ * Outcome of a request to block a room for maintenance
+ */
+public class MaintenanceResult {
+
+    /**
+     * Possible outcomes of a maintenance block request
+     */
+    public enum Status {
+        CREATED, INVALID_REQUEST, ROOM_NOT_FOUND, DATES_TAKEN, FAILED
+    }
+
+    private final Status status;
+    private final String message;
+    private final RoomBlock block;
+
+    private MaintenanceResult(Status status, String message, RoomBlock block) {
+        this.status = status;
+        this.message = message;
+        this.block = block;
+    }
+
+    static MaintenanceResult of(Status status, String message, RoomBlock block) {
+        return new MaintenanceResult(status, message, block);
+    }
+
+    public boolean isSuccess() {
+        return status == Status.CREATED;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Get the new block, or null if none was created
+     */
+    public RoomBlock getBlock() {
+        return block;
+    }
+}
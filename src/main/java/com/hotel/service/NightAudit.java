@@ -0,0 +1,148 @@
+package com.hotel.service;
+
+import com.hotel.dao.StayTransitionDAO;
+import com.hotel.dao.StayTransitionDAO.Transition;
+import com.hotel.metrics.Metrics;
+import com.hotel.metrics.OperationStats;
+import com.hotel.model.Reservation;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves reservations through their stay for a business date: no-shows
+ * (still CONFIRMED after their arrival day) are cancelled first, then
+ * guests due out are checked out. Arrivals are left to the front desk
+ * (ReservationService.updateReservationStatus, from the console or the
+ * status endpoint), so nobody is checked in before they turn up. Each transition runs
+ * as set-based UPDATEs of at most batchSize rows per transaction.
+ * Rows are picked by status, so a second run for the same date changes
+ * nothing, and a run that stops part way is finished by the next one.
+ * Waitlist requests whose check-in date has passed are expired as well,
+ * and the per-type inventory and price calendar are moved on to the new day.
+ */
+public class NightAudit {
+
+    private static final Metrics METRICS = Metrics.forComponent("NightAudit");
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final StayTransitionDAO transitionDAO;
+    private final ReservationService reservationService;
+    private final int batchSize;
+
+    /**
+     * Called after every committed batch
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onBatch(Transition transition, int batchMoved, int totalMoved);
+    }
+
+    /**
+     * Reservations moved by one run, per transition
+     */
+    public static class Report {
+        private final LocalDate businessDate;
+        private final Map<Transition, Integer> moved = new EnumMap<>(Transition.class);
+        private int expiredRequests;
+        private boolean complete = true;
+
+        Report(LocalDate businessDate) {
+            this.businessDate = businessDate;
+        }
+
+        public LocalDate getBusinessDate() {
+            return businessDate;
+        }
+
+        public int getMoved(Transition transition) {
+            return moved.getOrDefault(transition, 0);
+        }
+
+        public int getTotalMoved() {
+            return moved.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        /**
+         * Get the number of waitlist requests expired because their check-in date passed
+         */
+        public int getExpiredRequests() {
+            return expiredRequests;
+        }
+
+        /**
+         * False if a batch failed or the run was interrupted; the next run picks up the rest
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Night audit %s: %d no-shows, %d departures, "
+                    + "%d waitlist requests expired%s",
+                    businessDate, getMoved(Transition.NO_SHOWS), getMoved(Transition.DEPARTURES),
+                    expiredRequests, complete ? "" : " (incomplete)");
+        }
+    }
+
+    public NightAudit(StayTransitionDAO transitionDAO, ReservationService reservationService) {
+        this(transitionDAO, reservationService, DEFAULT_BATCH_SIZE);
+    }
+
+    public NightAudit(StayTransitionDAO transitionDAO, ReservationService reservationService, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be > 0");
+        }
+        this.transitionDAO = transitionDAO;
+        this.reservationService = reservationService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Apply every transition due on the business date
+     */
+    public Report run(LocalDate businessDate) {
+        return run(businessDate, (transition, batchMoved, totalMoved) -> { });
+    }
+
+    /**
+     * Apply every transition due on the business date, reporting each batch
+     */
+    public Report run(LocalDate businessDate, ProgressListener listener) {
+        try (OperationStats.Timer timer = METRICS.time("run")) {
+            Report report = new Report(businessDate);
+            for (Transition transition : Transition.values()) {
+                int moved = 0;
+                while (true) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        report.complete = false;
+                        break;
+                    }
+                    List<Reservation> batch = transitionDAO.transitionBatch(transition, businessDate, batchSize);
+                    if (batch == null) {
+                        METRICS.error("run");
+                        report.complete = false;
+                        break;
+                    }
+                    if (batch.isEmpty()) {
+                        break;
+                    }
+                    reservationService.applyStatusChanges(batch, transition.getTo());
+                    moved += batch.size();
+                    listener.onBatch(transition, batch.size(), moved);
+                    if (batch.size() < batchSize) {
+                        break;
+                    }
+                }
+                report.moved.put(transition, moved);
+            }
+            report.expiredRequests = reservationService.expireWaitlist(businessDate);
+            reservationService.rebuildTypeInventory();
+            return report;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.hotel.service;
+
+import com.hotel.model.Room;
+
+/**
+ * Availability and price of one quote request
+ */
+public class Quote {
+
+    /**
+     * Possible outcomes of a quote request. UNAVAILABLE still carries the
+     * room's price when a given room was asked for.
+     */
+    public enum Status {
+        AVAILABLE, UNAVAILABLE, INVALID_REQUEST, ROOM_NOT_FOUND
+    }
+
+    private final QuoteRequest request;
+    private final Status status;
+    private final String message;
+    private final Room room;
+    private final long nights;
+    private final long totalCents;
+
+    private Quote(QuoteRequest request, Status status, String message, Room room, long nights, long totalCents) {
+        this.request = request;
+        this.status = status;
+        this.message = message;
+        this.room = room;
+        this.nights = nights;
+        this.totalCents = totalCents;
+    }
+
+    static Quote priced(QuoteRequest request, boolean available, Room room, long nights, long totalCents) {
+        return new Quote(request, available ? Status.AVAILABLE : Status.UNAVAILABLE,
+                available ? "Available" : "Room is not free for selected dates", room, nights, totalCents);
+    }
+
+    static Quote rejected(QuoteRequest request, Status status, String message) {
+        return new Quote(request, status, message, null, 0, -1);
+    }
+
+    public boolean isAvailable() {
+        return status == Status.AVAILABLE;
+    }
+
+    public QuoteRequest getRequest() {
+        return request;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Get the quoted room, or null if no room was priced
+     */
+    public Room getRoom() {
+        return room;
+    }
+
+    public long getNights() {
+        return nights;
+    }
+
+    /**
+     * Get the stay price in cents, or -1 if no room was priced
+     */
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    /**
+     * Get the stay price as stored in total_amount, or -1 if no room was priced
+     */
+    public double getTotalAmount() {
+        return totalCents < 0 ? -1 : totalCents / 100.0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.hotel.service;
+
+import com.hotel.model.Room.RoomType;
+
+import java.time.LocalDate;
+
+/**
+ * One line of a bulk quote: a given room, or the cheapest free room of a
+ * type, for the nights [checkIn, checkOut)
+ */
+public class QuoteRequest {
+
+    private final int roomId;
+    private final RoomType roomType;
+    private final LocalDate checkIn;
+    private final LocalDate checkOut;
+
+    private QuoteRequest(int roomId, RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        this.roomId = roomId;
+        this.roomType = roomType;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+    }
+
+    /**
+     * Quote a given room
+     */
+    public static QuoteRequest forRoom(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        return new QuoteRequest(roomId, null, checkIn, checkOut);
+    }
+
+    /**
+     * Quote the cheapest room of a type that is free for the stay
+     */
+    public static QuoteRequest forType(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        return new QuoteRequest(0, roomType, checkIn, checkOut);
+    }
+
+    /**
+     * Get the room to quote, or 0 for a room type request
+     */
+    public int getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * Get the room type to quote, or null for a room request
+     */
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public LocalDate getCheckIn() {
+        return checkIn;
+    }
+
+    public LocalDate getCheckOut() {
+        return checkOut;
+    }
+}
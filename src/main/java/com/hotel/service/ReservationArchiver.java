@@ -0,0 +1,69 @@
+package com.hotel.service;
+
+import com.hotel.dao.ReservationArchiveDAO;
+import com.hotel.metrics.Metrics;
+import com.hotel.metrics.OperationStats;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keeps the reservations table hot by moving CHECKED_OUT and CANCELLED
+ * reservations whose stay ended more than horizonDays ago into
+ * reservations_archive, batchSize rows per transaction.
+ * A run can stop at any batch (error, interrupt, shutdown); the next run
+ * finds whatever is left, since archived rows are no longer in reservations.
+ */
+public class ReservationArchiver {
+
+    private static final Metrics METRICS = Metrics.forComponent("ReservationArchiver");
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final ReservationArchiveDAO archiveDAO;
+    private final int horizonDays;
+    private final int batchSize;
+
+    public ReservationArchiver(ReservationArchiveDAO archiveDAO, int horizonDays) {
+        this(archiveDAO, horizonDays, DEFAULT_BATCH_SIZE);
+    }
+
+    public ReservationArchiver(ReservationArchiveDAO archiveDAO, int horizonDays, int batchSize) {
+        if (horizonDays < 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("horizonDays must be >= 0 and batchSize > 0");
+        }
+        this.archiveDAO = archiveDAO;
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Archive every eligible reservation, one batch at a time.
+     * Returns the number of reservations moved by this run.
+     */
+    public int archiveCompleted() {
+        try (OperationStats.Timer timer = METRICS.time("archiveCompleted")) {
+            LocalDate cutoff = LocalDate.now().minusDays(horizonDays);
+            int archived = 0;
+            int afterReservationId = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Integer> batch = archiveDAO.findArchivable(cutoff, afterReservationId, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                int moved = archiveDAO.archive(batch);
+                if (moved < 0) {
+                    METRICS.error("archiveCompleted");
+                    break;
+                }
+                archived += moved;
+                afterReservationId = batch.get(batch.size() - 1);
+            }
+            return archived;
+        }
+    }
+
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+}
@@ -1,288 +1,1323 @@
 package com.hotel.service;
 
-import com.hotel.dao.CustomerDAO;
-import com.hotel.dao.ReservationDAO;
-import com.hotel.dao.RoomDAO;
+import com.hotel.cache.AvailabilityIndex;
+import com.hotel.cache.BloomFilter;
+import com.hotel.cache.CustomerIdentityCache;
+import com.hotel.cache.RoomCatalog;
+import com.hotel.cache.RoomTypeInventory;
+import com.hotel.cache.WaitlistIndex;
+import com.hotel.dao.JdbcStorageEngine;
+import com.hotel.journal.ActiveReservations;
+import com.hotel.journal.JournalEvent;
+import com.hotel.journal.ReservationJournal;
+import com.hotel.journal.ServiceSnapshot;
+import com.hotel.journal.SnapshotStore;
+import com.hotel.metrics.Metrics;
+import com.hotel.metrics.OperationStats;
 import com.hotel.model.Customer;
 import com.hotel.model.Reservation;
 import com.hotel.model.Reservation.ReservationStatus;
 import com.hotel.model.Room;
 import com.hotel.model.Room.RoomStatus;
 import com.hotel.model.Room.RoomType;
+import com.hotel.model.RoomBlock;
+import com.hotel.model.WaitlistRequest;
+import com.hotel.model.WaitlistRequest.WaitlistStatus;
+import com.hotel.pricing.PricingEngine;
+import com.hotel.pricing.RatePlan;
+import com.hotel.repository.BookingRepository;
+import com.hotel.repository.CustomerRepository;
+import com.hotel.repository.ReservationRepository;
+import com.hotel.repository.RoomRepository;
+import com.hotel.repository.StorageEngine;
+import com.hotel.repository.WaitlistRepository;
 import com.hotel.util.InputValidator;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
 
 /**
- * Service layer for reservation business logic
+ * Service layer for reservation business logic.
+ * Operations return data or result objects and never print, so the same
+ * service can back the console UI and the HTTP API.
  */
 public class ReservationService {
     
-    private final ReservationDAO reservationDAO;
-    private final RoomDAO roomDAO;
-    private final CustomerDAO customerDAO;
+    private static final Metrics METRICS = Metrics.forComponent("ReservationService");
+
+    // Bulk quote slices of at most this many requests are priced on one thread
+    private static final int QUOTE_SLICE_SIZE = 64;
+
+    private final ReservationRepository reservationRepository;
+    private final RoomRepository roomRepository;
+    private final CustomerRepository customerRepository;
+    private final BookingRepository bookingRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final RoomCatalog roomCatalog;
+    private final RoomTypeInventory typeInventory;
+    private final PricingEngine pricing;
+    // Maintenance blocks by block ID
+    private final ConcurrentHashMap<Integer, RoomBlock> blocks = new ConcurrentHashMap<>();
+    private final WaitlistIndex waitlistIndex = new WaitlistIndex();
+    private final CustomerIdentityCache identityCache;
+    private final ReservationJournal journal;
+    private final SnapshotStore snapshots;
+
+    // Last snapshot written or restored; the next snapshot starts from it
+    private final Object snapshotLock = new Object();
+    private ServiceSnapshot lastSnapshot;
+    private final long restoredSequence;
+    private int reconciledReservations;
 
     public ReservationService() {
-        this.reservationDAO = new ReservationDAO();
-        this.roomDAO = new RoomDAO();
-        this.customerDAO = new CustomerDAO();
+        this(null);
+    }
+
+    public ReservationService(ReservationJournal journal) {
+        this(journal, null);
+    }
+
+    public ReservationService(ReservationJournal journal, SnapshotStore snapshots) {
+        this(new JdbcStorageEngine(), journal, snapshots);
     }
 
     /**
-     * Create a new reservation
+     * Create the service over a storage engine. With a journal, every
+     * reservation change is also appended to it, and the in-memory indexes
+     * are rebuilt by replaying the journal instead of querying reservations;
+     * only the IDs and statuses of active reservations are read, to catch
+     * changes committed just before a crash but never journaled.
+     * With snapshots as well, startup loads the latest snapshot and only
+     * replays the journal events and reads the customers added since it was
+     * taken. A journal needs a durable engine; snapshots also need the
+     * engine's identity cache and are ignored without one.
      */
-    public int createReservation(String firstName, String lastName, String email, 
-                                  String phoneNumber, String idProof,
-                                  int roomId, LocalDate checkIn, LocalDate checkOut) {
-        
-        // Validate inputs
-        if (!InputValidator.isNotEmpty(firstName) || !InputValidator.isNotEmpty(lastName)) {
-            System.out.println("Error: Name cannot be empty");
-            return -1;
+    public ReservationService(StorageEngine storage, ReservationJournal journal, SnapshotStore snapshots) {
+        if (journal != null && !storage.isDurable()) {
+            throw new IllegalArgumentException("A reservation journal needs a durable storage engine");
         }
+        this.journal = journal;
+        this.reservationRepository = storage.getReservations();
+        this.roomRepository = storage.getRooms();
+        this.customerRepository = storage.getCustomers();
+        this.bookingRepository = storage.getBookings();
+        this.waitlistRepository = storage.getWaitlist();
+        this.identityCache = storage.getIdentityCache();
+        this.snapshots = journal != null && identityCache != null ? snapshots : null;
 
-        if (!InputValidator.isValidEmail(email)) {
-            System.out.println("Error: Invalid email format");
-            return -1;
+        ServiceSnapshot snapshot = loadSnapshot();
+        List<Reservation> activeReservations;
+        if (snapshot != null) {
+            if (!restoreIdentityCache(snapshot)) {
+                customerRepository.loadIdentityCache();
+            }
+            ActiveReservations active = new ActiveReservations();
+            snapshot.getActiveReservations().forEach(active::put);
+            active.setLastSequence(snapshot.getJournalSequence());
+            journal.replay(snapshot.getJournalSequence(), active::apply);
+            activeReservations = reconcile(active.toList());
+        } else {
+            customerRepository.loadIdentityCache();
+            activeReservations = loadActiveReservations();
         }
+        this.lastSnapshot = snapshot;
+        this.restoredSequence = snapshot != null ? snapshot.getJournalSequence() : -1;
 
-        if (!InputValidator.isValidPhone(phoneNumber)) {
-            System.out.println("Error: Invalid phone number (must be 10 digits)");
-            return -1;
+        // Rooms and blocks are always read fresh: they are not journaled and the tables are small
+        List<RoomBlock> roomBlocks = roomRepository.getBlocks();
+        roomBlocks.forEach(block -> blocks.put(block.getBlockId(), block));
+        this.availabilityIndex = new AvailabilityIndex();
+        availabilityIndex.load(activeReservations, roomBlocks);
+        this.roomCatalog = new RoomCatalog();
+        roomCatalog.load(roomRepository.getAllRooms());
+        this.typeInventory = new RoomTypeInventory();
+        typeInventory.load(roomCatalog.getAllRooms(), activeReservations, roomBlocks);
+        this.pricing = new PricingEngine(RatePlan.loadConfigured());
+        pricing.rebuild(roomCatalog.getAllRooms(), typeInventory);
+        waitlistIndex.load(waitlistRepository.getWaitingRequests());
+    }
+
+    /**
+     * Load the newest snapshot that this journal can continue from, or null
+     */
+    private ServiceSnapshot loadSnapshot() {
+        if (snapshots == null) {
+            return null;
+        }
+        try {
+            ServiceSnapshot snapshot = snapshots.loadLatest();
+            // A snapshot ahead of the journal belongs to a journal that was since replaced
+            if (snapshot != null && snapshot.getJournalSequence() <= journal.getDurableSequence()) {
+                return snapshot;
+            }
+        } catch (IOException e) {
+            METRICS.error("loadSnapshot");
+            System.err.println("Error loading snapshot: " + e.getMessage());
         }
+        return null;
+    }
 
-        if (!InputValidator.isValidDateRange(checkIn, checkOut)) {
-            System.out.println("Error: Check-out date must be after check-in date");
-            return -1;
+    /**
+     * Restore the customer filters from a snapshot and add the customers
+     * created since. Returns false if a full reload is needed instead.
+     */
+    private boolean restoreIdentityCache(ServiceSnapshot snapshot) {
+        identityCache.restore(snapshot.getFilterCapacity(), snapshot.getEmailFilter(), snapshot.getPhoneFilter());
+        int added = customerRepository.catchUpIdentityCache(snapshot.getCustomerWatermark());
+        // Past their capacity the filters' false-positive rate climbs, so resize them
+        return added >= 0 && snapshot.getCustomerCount() + added <= snapshot.getFilterCapacity();
+    }
+
+    /**
+     * Write a snapshot of the in-memory state, if snapshots are enabled.
+     * The previous snapshot is rolled forward with the journal, so this reads
+     * no reservations from the database. Returns true if a snapshot is current.
+     */
+    public boolean writeSnapshot() {
+        if (snapshots == null) {
+            return false;
         }
+        try (OperationStats.Timer timer = METRICS.time("writeSnapshot")) {
+            synchronized (snapshotLock) {
+                // Read the watermark before copying the filters so they cover it
+                int customerWatermark = customerRepository.getMaxCustomerId();
+                int customerCount = customerRepository.countCustomers();
+                if (customerWatermark < 0 || customerCount < 0) {
+                    METRICS.error("writeSnapshot");
+                    return false;
+                }
+                if (lastSnapshot != null && lastSnapshot.getJournalSequence() == journal.getDurableSequence()
+                        && lastSnapshot.getCustomerWatermark() == customerWatermark) {
+                    return true;
+                }
 
-        if (checkIn.isBefore(LocalDate.now())) {
-            System.out.println("Error: Check-in date cannot be in the past");
-            return -1;
+                ActiveReservations active = new ActiveReservations();
+                if (lastSnapshot != null) {
+                    lastSnapshot.getActiveReservations().forEach(active::put);
+                    active.setLastSequence(lastSnapshot.getJournalSequence());
+                }
+                journal.replay(active.getLastSequence(), active::apply);
+
+                ServiceSnapshot snapshot = new ServiceSnapshot(active.getLastSequence(),
+                        customerWatermark, customerCount, identityCache.getFilterCapacity(),
+                        copyOf(identityCache.getEmailFilter()), copyOf(identityCache.getPhoneFilter()),
+                        active.toList());
+                snapshots.write(snapshot);
+                lastSnapshot = snapshot;
+                return true;
+            }
+        } catch (IOException | RuntimeException e) {
+            METRICS.error("writeSnapshot");
+            System.err.println("Error writing snapshot: " + e.getMessage());
+            return false;
         }
+    }
 
-        // Check if room exists and is available
-        Room room = roomDAO.getRoomById(roomId);
-        if (room == null) {
-            System.out.println("Error: Room not found");
-            return -1;
+    private static BloomFilter copyOf(BloomFilter filter) {
+        return BloomFilter.fromWords(filter.getBitCount(), filter.getHashCount(), filter.toWords());
+    }
+
+    /**
+     * Get the journal sequence of the snapshot the service started from,
+     * or -1 if it was loaded from the database or journal alone
+     */
+    public long getRestoredSnapshotSequence() {
+        return restoredSequence;
+    }
+
+    /**
+     * Get the active reservations from the journal, or from the table when
+     * there is no journal. An empty journal is seeded from the table first.
+     */
+    private List<Reservation> loadActiveReservations() {
+        if (journal == null) {
+            return reservationRepository.getActiveReservations();
         }
+        if (journal.isEmpty()) {
+            List<Reservation> reservations = reservationRepository.getActiveReservations();
+            long last = 0;
+            for (Reservation reservation : reservations) {
+                last = journal.append(JournalEvent.created(reservation));
+            }
+            journal.awaitDurable(last);
+            return reservations;
+        }
+        ActiveReservations active = new ActiveReservations();
+        journal.replay(0, active::apply);
+        return reconcile(active.toList());
+    }
 
-        if (room.getStatus() != RoomStatus.AVAILABLE) {
-            System.out.println("Error: Room is not available");
-            return -1;
+    /**
+     * Bring reservations replayed from the journal in line with the table.
+     * Events are appended once their transaction has committed, so a crash
+     * in between leaves a booking or status change the journal never saw.
+     * Only the IDs and statuses of active reservations are read; a row the
+     * journal missed is then read on its own, and the repair is journaled
+     * so later starts replay it.
+     */
+    private List<Reservation> reconcile(List<Reservation> replayed) {
+        Map<Integer, ReservationStatus> stored = reservationRepository.getActiveStatuses();
+        if (stored == null) {
+            METRICS.error("reconcile");
+            System.err.println("Could not check the reservation journal against the table; using it as is");
+            return replayed;
         }
 
-        // Check if room is available for the requested dates
-        if (!reservationDAO.isRoomAvailable(roomId, checkIn, checkOut)) {
-            System.out.println("Error: Room is already booked for selected dates");
-            return -1;
+        Map<Integer, Reservation> active = new HashMap<>();
+        replayed.forEach(reservation -> active.put(reservation.getReservationId(), reservation));
+        List<JournalEvent> repairs = new ArrayList<>();
+        for (Iterator<Reservation> it = active.values().iterator(); it.hasNext(); ) {
+            Reservation reservation = it.next();
+            ReservationStatus status = stored.get(reservation.getReservationId());
+            if (status == null) {
+                // Cancelled or checked out without a journal record
+                Reservation current = reservationRepository.getLatestReservation(reservation.getReservationId());
+                it.remove();
+                repairs.add(current == null || current.getStatus() == ReservationStatus.CANCELLED
+                        ? JournalEvent.cancelled(reservation)
+                        : JournalEvent.statusChanged(reservation, current.getStatus()));
+            } else if (status != reservation.getStatus()) {
+                repairs.add(JournalEvent.statusChanged(reservation, status));
+                reservation.setStatus(status);
+            }
+        }
+        for (int reservationId : stored.keySet()) {
+            if (!active.containsKey(reservationId)) {
+                // Booked without a journal record
+                Reservation current = reservationRepository.getLatestReservation(reservationId);
+                if (current != null && (current.getStatus() == ReservationStatus.CONFIRMED
+                                        || current.getStatus() == ReservationStatus.CHECKED_IN)) {
+                    active.put(reservationId, current);
+                    repairs.add(JournalEvent.created(current));
+                }
+            }
         }
 
-        // Check if customer exists (by email or phone)
-        Customer customer = customerDAO.getCustomerByEmail(email);
-        if (customer == null) {
-            customer = customerDAO.getCustomerByPhone(phoneNumber);
+        long last = 0;
+        for (JournalEvent repair : repairs) {
+            last = journal.append(repair);
         }
+        journal.awaitDurable(last);
+        reconciledReservations = repairs.size();
+        return new ArrayList<>(active.values());
+    }
+
+    /**
+     * Get the number of reservation changes the journal had missed, found
+     * against the table and journaled at startup
+     */
+    public int getReconciledReservations() {
+        return reconciledReservations;
+    }
 
-        // If customer doesn't exist, create new customer
-        int customerId;
-        if (customer == null) {
-            Customer newCustomer = new Customer(firstName, lastName, email, phoneNumber, idProof);
-            customerId = customerDAO.addCustomer(newCustomer);
-            
-            if (customerId == -1) {
-                System.out.println("Error: Failed to create customer");
-                return -1;
+    /**
+     * Record a committed change in the journal, if there is one.
+     * The table is the source of truth, so a journal failure is only reported.
+     */
+    private void journal(JournalEvent event) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.appendDurably(event);
+        } catch (RuntimeException e) {
+            METRICS.error("journal");
+            System.err.println("Error writing reservation journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Create a new reservation.
+     * Validation failures and conflicts are reported in the result, never thrown.
+     */
+    public BookingResult createReservation(String firstName, String lastName, String email,
+                                           String phoneNumber, String idProof,
+                                           int roomId, LocalDate checkIn, LocalDate checkOut) {
+        Customer guest = new Customer(firstName, lastName, email, phoneNumber, idProof);
+        return createReservation(guest, roomId, checkIn, checkOut);
+    }
+
+    /**
+     * Create a new reservation for a guest.
+     * A guest with a customer ID (from an earlier lookup) is booked as that
+     * customer; otherwise the customer is found by email or phone, or created.
+     * Requests for the same room nights are settled by a lock-free claim in
+     * the availability index, so only the winner reaches the database.
+     */
+    public BookingResult createReservation(Customer guest, int roomId, LocalDate checkIn, LocalDate checkOut) {
+        try (OperationStats.Timer timer = METRICS.time("createReservation")) {
+            // Validate inputs
+            String problem = validateStay(guest, checkIn, checkOut);
+            if (problem != null) {
+                return BookingResult.rejected(BookingResult.Status.INVALID_REQUEST, problem);
             }
-            System.out.println("New customer created with ID: " + customerId);
-        } else {
-            customerId = customer.getCustomerId();
-            System.out.println("Existing customer found: " + customer.getFullName());
+
+            // Check if room exists and is available
+            Room room = roomCatalog.getRoomById(roomId);
+            if (room == null) {
+                return BookingResult.rejected(BookingResult.Status.ROOM_NOT_FOUND, "Room not found");
+            }
+
+            if (room.getStatus() == RoomStatus.MAINTENANCE) {
+                return BookingResult.rejected(BookingResult.Status.ROOM_UNAVAILABLE, "Room is out of service");
+            }
+
+            // Claim the requested nights in the availability index
+            if (!availabilityIndex.reserve(roomId, checkIn, checkOut)) {
+                if (findBlock(roomId, checkIn, checkOut) != null) {
+                    return BookingResult.rejected(BookingResult.Status.ROOM_UNAVAILABLE,
+                            "Room is under maintenance for selected dates");
+                }
+                return BookingResult.rejected(BookingResult.Status.DATES_TAKEN,
+                        "Room is already booked for selected dates");
+            }
+
+            BookingResult result = bookClaimedRoom(room, guest, checkIn, checkOut);
+            if (!result.isSuccess()) {
+                availabilityIndex.release(roomId, checkIn, checkOut);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Check a guest and stay before booking or queueing them.
+     * Returns the problem to report, or null if the request is valid.
+     */
+    static String validateStay(Customer guest, LocalDate checkIn, LocalDate checkOut) {
+        if (!InputValidator.isNotEmpty(guest.getFirstName()) || !InputValidator.isNotEmpty(guest.getLastName())) {
+            return "Name cannot be empty";
+        }
+        if (!InputValidator.isValidEmail(guest.getEmail())) {
+            return "Invalid email format";
         }
+        if (!InputValidator.isValidPhone(guest.getPhoneNumber())) {
+            return "Invalid phone number (must be 10 digits)";
+        }
+        if (checkIn == null || checkOut == null || !InputValidator.isValidDateRange(checkIn, checkOut)) {
+            return "Check-out date must be after check-in date";
+        }
+        if (checkIn.isBefore(LocalDate.now())) {
+            return "Check-in date cannot be in the past";
+        }
+        return null;
+    }
 
-        // Calculate total amount
+    /**
+     * Persist a reservation for a room whose nights are already claimed in the index
+     */
+    private BookingResult bookClaimedRoom(Room room, Customer guest, LocalDate checkIn, LocalDate checkOut) {
+        // Price the stay in cents; the amount is exactly what total_amount stores
         long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
-        double totalAmount = nights * room.getPricePerNight();
-
-        // Create reservation
-        Reservation reservation = new Reservation(customerId, roomId, checkIn, checkOut, totalAmount);
-        int reservationId = reservationDAO.createReservation(reservation);
-
-        if (reservationId > 0) {
-            // Update room status to OCCUPIED
-            roomDAO.updateRoomStatus(roomId, RoomStatus.OCCUPIED);
-            System.out.println("\n✓ Reservation created successfully!");
-            System.out.println("Reservation ID: " + reservationId);
-            System.out.println("Room Number: " + room.getRoomNumber());
-            System.out.println("Total Amount: ₹" + String.format("%.2f", totalAmount) + " for " + nights + " night(s)");
-            return reservationId;
-        } else {
-            System.out.println("Error: Failed to create reservation");
+        double totalAmount = priceCents(room, checkIn, checkOut) / 100.0;
+
+        // Find or create the customer and insert the reservation in one transaction
+        Reservation reservation = new Reservation(0, room.getRoomId(), checkIn, checkOut, totalAmount);
+        // Count the stay in the same step, so an inventory reload neither drops it nor counts it twice
+        BookingRepository.Result result = typeInventory.counting(() -> {
+            BookingRepository.Result booked = bookingRepository.book(guest, reservation);
+            if (booked.getOutcome() == BookingRepository.Outcome.BOOKED) {
+                typeInventory.book(booked.getReservationId(), room.getRoomType(), checkIn, checkOut);
+            }
+            return booked;
+        });
+
+        switch (result.getOutcome()) {
+            case BOOKED:
+                refreshOccupancyPrices(room.getRoomType(), checkIn, checkOut);
+                reservation.setReservationId(result.getReservationId());
+                journal(JournalEvent.created(reservation));
+                return BookingResult.created(result.getReservationId(), room, result.getCustomer(),
+                        result.isNewCustomer(), nights, totalAmount);
+            case DATES_TAKEN:
+                return BookingResult.rejected(BookingResult.Status.DATES_TAKEN,
+                        "Room is already booked for selected dates");
+            default:
+                METRICS.error("createReservation");
+                return BookingResult.rejected(BookingResult.Status.FAILED, "Failed to create reservation");
+        }
+    }
+
+    /**
+     * Stream every reservation, newest first, to the given consumer.
+     * Rows are handed over as they are read, so the list is never held in memory.
+     * Returns the number of reservations.
+     */
+    public int forEachReservation(Consumer<Reservation> consumer) {
+        try (OperationStats.Timer timer = METRICS.time("forEachReservation")) {
+            return reservationRepository.forEachReservation(consumer);
+        }
+    }
+
+    /**
+     * Get one page of reservations, newest first.
+     * Pass 0 for the first page, then the last reservation ID of the previous page.
+     */
+    public List<Reservation> getReservationsPage(int afterReservationId, int pageSize) {
+        try (OperationStats.Timer timer = METRICS.time("getReservationsPage")) {
+            return reservationRepository.getReservationsPage(afterReservationId, pageSize);
+        }
+    }
+
+    /**
+     * Get reservation by ID, or null if not found
+     */
+    public Reservation getReservationById(int reservationId) {
+        try (OperationStats.Timer timer = METRICS.time("getReservationById")) {
+            return reservationRepository.getReservationById(reservationId);
+        }
+    }
+
+    /**
+     * Get a customer's reservations, archived ones included, latest stay first
+     */
+    public List<Reservation> getReservationsByCustomer(int customerId) {
+        try (OperationStats.Timer timer = METRICS.time("getReservationsByCustomer")) {
+            return reservationRepository.getReservationsByCustomer(customerId);
+        }
+    }
+
+    /**
+     * Cancel reservation and offer its nights to the waitlist.
+     * The status is only changed if it is still the one checked here; if it
+     * moved on meanwhile (a check-out or the night audit), the decision is
+     * made again on the new status.
+     */
+    public CancellationResult cancelReservation(int reservationId) {
+        try (OperationStats.Timer timer = METRICS.time("cancelReservation")) {
+            Reservation reservation = reservationRepository.getLatestReservation(reservationId);
+            while (true) {
+                if (reservation == null) {
+                    return CancellationResult.of(CancellationResult.Status.NOT_FOUND,
+                            "Reservation not found with ID: " + reservationId, null);
+                }
+
+                if (reservation.getStatus() == ReservationStatus.CANCELLED) {
+                    return CancellationResult.of(CancellationResult.Status.ALREADY_CANCELLED,
+                            "Reservation is already cancelled", reservation);
+                }
+
+                if (reservation.getStatus() == ReservationStatus.CHECKED_OUT) {
+                    return CancellationResult.of(CancellationResult.Status.COMPLETED,
+                            "Cannot cancel a completed reservation", reservation);
+                }
+
+                if (cancel(reservation)) {
+                    reservation.setStatus(ReservationStatus.CANCELLED);
+                    return CancellationResult.of(CancellationResult.Status.CANCELLED,
+                            "Reservation cancelled successfully", reservation);
+                }
+                Reservation current = reservationRepository.getLatestReservation(reservationId);
+                if (current != null && current.getStatus() == reservation.getStatus()) {
+                    // Still the status we checked, so the change failed in storage
+                    METRICS.error("cancelReservation");
+                    return CancellationResult.of(CancellationResult.Status.FAILED,
+                            "Failed to cancel reservation", reservation);
+                }
+                reservation = current;
+            }
+        }
+    }
+
+    /**
+     * Cancel a reservation that still has the status it was read with, stop
+     * counting its nights and offer them to the waitlist. Returns false if
+     * its status changed or the change failed.
+     */
+    private boolean cancel(Reservation reservation) {
+        int reservationId = reservation.getReservationId();
+        Room room = roomCatalog.getRoomById(reservation.getRoomId());
+        boolean cancelled = typeInventory.counting(() -> {
+            if (!reservationRepository.deleteReservation(reservationId, reservation.getStatus())) {
+                return false;
+            }
+            if (room != null) {
+                typeInventory.release(reservationId, room.getRoomType(),
+                        reservation.getCheckInDate(), reservation.getCheckOutDate());
+            }
+            return true;
+        });
+        if (!cancelled) {
+            return false;
+        }
+
+        availabilityIndex.release(reservation.getRoomId(),
+                reservation.getCheckInDate(), reservation.getCheckOutDate());
+        journal(JournalEvent.cancelled(reservation));
+        if (room != null) {
+            refreshOccupancyPrices(room.getRoomType(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+            offerFreedNights(room, reservation.getCheckInDate(), reservation.getCheckOutDate());
+        }
+        return true;
+    }
+
+    /**
+     * Move a reservation forward to CHECKED_IN or CHECKED_OUT.
+     * Checking out frees the reservation's nights in the in-memory indexes,
+     * and an early departure offers the nights left to the waitlist.
+     * Like cancelReservation(), the move is checked again if the status
+     * changes underneath it. Use cancelReservation() to cancel.
+     */
+    public boolean updateReservationStatus(int reservationId, ReservationStatus status) {
+        if (status == ReservationStatus.CANCELLED) {
+            return cancelReservation(reservationId).isSuccess();
+        }
+        try (OperationStats.Timer timer = METRICS.time("updateReservationStatus")) {
+            Reservation reservation = reservationRepository.getLatestReservation(reservationId);
+            while (reservation != null && canMove(reservation.getStatus(), status)) {
+                if (moveForward(reservation, status)) {
+                    return true;
+                }
+                Reservation current = reservationRepository.getLatestReservation(reservationId);
+                if (current != null && current.getStatus() == reservation.getStatus()) {
+                    METRICS.error("updateReservationStatus");
+                    return false;
+                }
+                reservation = current;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Check a forward move: CONFIRMED -> CHECKED_IN -> CHECKED_OUT
+     */
+    private static boolean canMove(ReservationStatus current, ReservationStatus status) {
+        return (status == ReservationStatus.CHECKED_IN && current == ReservationStatus.CONFIRMED)
+                || (status == ReservationStatus.CHECKED_OUT && (current == ReservationStatus.CONFIRMED
+                                                             || current == ReservationStatus.CHECKED_IN));
+    }
+
+    /**
+     * Apply a forward move to a reservation that still has the status it was
+     * read with. Returns false if its status changed or the change failed.
+     */
+    private boolean moveForward(Reservation reservation, ReservationStatus status) {
+        int reservationId = reservation.getReservationId();
+        Room room = status == ReservationStatus.CHECKED_OUT
+                ? roomCatalog.getRoomById(reservation.getRoomId()) : null;
+        boolean updated = typeInventory.counting(() -> {
+            if (!reservationRepository.updateReservationStatus(reservationId, reservation.getStatus(), status)) {
+                return false;
+            }
+            if (room != null) {
+                typeInventory.release(reservationId, room.getRoomType(),
+                        reservation.getCheckInDate(), reservation.getCheckOutDate());
+            }
+            return true;
+        });
+        if (!updated) {
+            return false;
+        }
+
+        if (status == ReservationStatus.CHECKED_OUT) {
+            availabilityIndex.release(reservation.getRoomId(),
+                    reservation.getCheckInDate(), reservation.getCheckOutDate());
+        }
+        journal(JournalEvent.statusChanged(reservation, status));
+        if (room != null) {
+            refreshOccupancyPrices(room.getRoomType(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+            offerFreedNights(room, reservation.getCheckInDate(), reservation.getCheckOutDate());
+        }
+        return true;
+    }
+
+    /**
+     * Bring the in-memory indexes and the journal up to date with
+     * reservations whose status was changed in bulk, e.g. by the night
+     * audit. Checked-out and cancelled reservations give up their nights.
+     */
+    public void applyStatusChanges(List<Reservation> reservations, ReservationStatus status) {
+        try (OperationStats.Timer timer = METRICS.time("applyStatusChanges")) {
+            for (Reservation reservation : reservations) {
+                if (status == ReservationStatus.CHECKED_OUT || status == ReservationStatus.CANCELLED) {
+                    availabilityIndex.release(reservation.getRoomId(),
+                            reservation.getCheckInDate(), reservation.getCheckOutDate());
+                    Room room = roomCatalog.getRoomById(reservation.getRoomId());
+                    if (room != null) {
+                        typeInventory.counting(() -> {
+                            typeInventory.release(reservation.getReservationId(), room.getRoomType(),
+                                    reservation.getCheckInDate(), reservation.getCheckOutDate());
+                            return null;
+                        });
+                    }
+                }
+                journal(status == ReservationStatus.CANCELLED ? JournalEvent.cancelled(reservation)
+                        : JournalEvent.statusChanged(reservation, status));
+            }
+        }
+    }
+
+    /**
+     * Get all rooms free tonight, ordered by room number
+     */
+    public List<Room> getAvailableRooms() {
+        try (OperationStats.Timer timer = METRICS.time("getAvailableRooms")) {
+            return getAvailableRooms(roomCatalog.getAllRooms(), LocalDate.now());
+        }
+    }
+
+    /**
+     * Get rooms of a type free tonight, cheapest first
+     */
+    public List<Room> getAvailableRoomsByType(RoomType roomType) {
+        try (OperationStats.Timer timer = METRICS.time("getAvailableRoomsByType")) {
+            return getAvailableRooms(roomCatalog.getRoomsByType(roomType), LocalDate.now());
+        }
+    }
+
+    /**
+     * Get all rooms ordered by room number with their stored status:
+     * AVAILABLE, or MAINTENANCE for rooms out of service
+     */
+    public List<Room> getAllRooms() {
+        return roomCatalog.getAllRooms();
+    }
+
+    /**
+     * Get all rooms ordered by room number with their status on the night
+     * starting on the given date: OCCUPIED if booked, MAINTENANCE if blocked
+     * or out of service, otherwise AVAILABLE
+     */
+    public List<Room> getRoomsOn(LocalDate date) {
+        try (OperationStats.Timer timer = METRICS.time("getRoomsOn")) {
+            List<Room> rooms = new ArrayList<>();
+            for (Room room : roomCatalog.getAllRooms()) {
+                rooms.add(withStatusOn(room, date));
+            }
+            return rooms;
+        }
+    }
+
+    /**
+     * Get a room with its status on the night starting on the given date, or null if not found
+     */
+    public Room getRoomOn(int roomId, LocalDate date) {
+        Room room = roomCatalog.getRoomById(roomId);
+        return room != null ? withStatusOn(room, date) : null;
+    }
+
+    /**
+     * Find every room free for the given dates in a single query.
+     * Filters may be null to match any type, floor or occupancy.
+     */
+    public List<Room> searchAvailableRooms(LocalDate checkIn, LocalDate checkOut,
+                                           RoomType roomType, Integer floorNumber,
+                                           Integer maxOccupancy) {
+        try (OperationStats.Timer timer = METRICS.time("searchAvailableRooms")) {
+            return roomRepository.searchAvailableRooms(checkIn, checkOut, roomType, floorNumber, maxOccupancy);
+        }
+    }
+
+    /**
+     * Check if room is free for the given dates using the in-memory index
+     */
+    public boolean isRoomAvailable(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        try (OperationStats.Timer timer = METRICS.time("isRoomAvailable")) {
+            return availabilityIndex.isAvailable(roomId, checkIn, checkOut);
+        }
+    }
+
+    /**
+     * Compare the availability index with the nights held in storage
+     * (the room_nights table), which is what bookings are checked against.
+     * Returns a description of every mismatch; empty when consistent.
+     */
+    public List<String> checkAvailabilityConsistency() {
+        try (OperationStats.Timer timer = METRICS.time("checkAvailabilityConsistency")) {
+            return availabilityIndex.findInconsistencies(reservationRepository.getHeldNights());
+        }
+    }
+
+    /**
+     * Get sold, blocked and available counts of a room type for each night in [from, to)
+     *
+     * @throws IllegalArgumentException if the range is empty or outside the inventory window
+     */
+    public List<RoomTypeInventory.Night> getTypeInventory(RoomType roomType, LocalDate from, LocalDate to) {
+        try (OperationStats.Timer timer = METRICS.time("getTypeInventory")) {
+            return typeInventory.getNights(roomType, from, to);
+        }
+    }
+
+    /**
+     * Get the fewest rooms of a type free on any night in [from, to)
+     *
+     * @throws IllegalArgumentException if the range is empty or outside the inventory window
+     */
+    public int getMinAvailable(RoomType roomType, LocalDate from, LocalDate to) {
+        try (OperationStats.Timer timer = METRICS.time("getMinAvailable")) {
+            return typeInventory.getMinAvailable(roomType, from, to);
+        }
+    }
+
+    /**
+     * Rebuild the per-type nightly inventory from the reservations and room
+     * blocks tables, then reprice with the new occupancy
+     */
+    public void rebuildTypeInventory() {
+        try (OperationStats.Timer timer = METRICS.time("rebuildTypeInventory")) {
+            // Bookings and cancellations go on while the tables are read; room changes wait
+            typeInventory.reload(roomCatalog::getAllRooms, reservationRepository::getActiveReservations,
+                    roomRepository::getBlocks);
+        }
+        refreshPriceCalendar();
+    }
+
+    /**
+     * Get the price in cents of [checkIn, checkOut) in a room under its type's
+     * rate plan, or -1 if the room is not found or the range is empty
+     */
+    public long getStayPriceCents(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        Room room = roomCatalog.getRoomById(roomId);
+        if (room == null || checkIn == null || checkOut == null || !checkIn.isBefore(checkOut)) {
             return -1;
         }
+        return priceCents(room, checkIn, checkOut);
     }
 
     /**
-     * View all reservations
+     * Quote many rooms and room types for many date ranges at once.
+     * Each request is answered from the in-memory availability index, room
+     * catalog and price calendar, with no database access. Large batches are
+     * split into slices priced in parallel on the common fork/join pool.
+     * Quotes come back in request order. Quoting holds no nights: a room
+     * quoted AVAILABLE can still be booked by someone else first.
      */
-    public void viewAllReservations() {
-        List<Reservation> reservations = reservationDAO.getAllReservations();
-        
-        if (reservations.isEmpty()) {
-            System.out.println("\nNo reservations found.");
-            return;
+    public List<Quote> quote(List<QuoteRequest> requests) {
+        try (OperationStats.Timer timer = METRICS.time("quote")) {
+            refreshStalePriceCalendar();
+            QuoteRequest[] batch = requests.toArray(new QuoteRequest[0]);
+            Quote[] quotes = new Quote[batch.length];
+            QuoteSlice all = new QuoteSlice(batch, quotes, 0, batch.length, LocalDate.now());
+            if (batch.length <= QUOTE_SLICE_SIZE) {
+                all.compute();
+            } else {
+                ForkJoinPool.commonPool().invoke(all);
+            }
+            return Arrays.asList(quotes);
         }
+    }
 
-        System.out.println("\n" + "=".repeat(120));
-        System.out.printf("%-8s %-20s %-12s %-12s %-12s %-12s %-15s%n",
-                "ID", "Customer", "Room", "Check-In", "Check-Out", "Amount", "Status");
-        System.out.println("=".repeat(120));
+    /**
+     * Prices batch[from, to) into the same positions of quotes, halving
+     * the range until it fits in one slice
+     */
+    private final class QuoteSlice extends RecursiveAction {
+        private final QuoteRequest[] batch;
+        private final Quote[] quotes;
+        private final int from;
+        private final int to;
+        private final LocalDate today;
 
-        for (Reservation r : reservations) {
-            System.out.printf("%-8d %-20s %-12s %-12s %-12s ₹%-11.2f %-15s%n",
-                    r.getReservationId(),
-                    truncate(r.getCustomerName(), 20),
-                    r.getRoomNumber(),
-                    r.getCheckInDate(),
-                    r.getCheckOutDate(),
-                    r.getTotalAmount(),
-                    r.getStatus());
+        QuoteSlice(QuoteRequest[] batch, Quote[] quotes, int from, int to, LocalDate today) {
+            this.batch = batch;
+            this.quotes = quotes;
+            this.from = from;
+            this.to = to;
+            this.today = today;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= QUOTE_SLICE_SIZE) {
+                for (int i = from; i < to; i++) {
+                    quotes[i] = quoteOne(batch[i], today);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new QuoteSlice(batch, quotes, from, mid, today),
+                    new QuoteSlice(batch, quotes, mid, to, today));
         }
-        System.out.println("=".repeat(120));
+    }
+
+    private Quote quoteOne(QuoteRequest request, LocalDate today) {
+        if (request == null) {
+            return Quote.rejected(null, Quote.Status.INVALID_REQUEST, "Missing quote request");
+        }
+        LocalDate checkIn = request.getCheckIn();
+        LocalDate checkOut = request.getCheckOut();
+        if (checkIn == null || checkOut == null || !InputValidator.isValidDateRange(checkIn, checkOut)) {
+            return Quote.rejected(request, Quote.Status.INVALID_REQUEST, "Check-out date must be after check-in date");
+        }
+        if (checkIn.isBefore(today)) {
+            return Quote.rejected(request, Quote.Status.INVALID_REQUEST, "Check-in date cannot be in the past");
+        }
+        long nights = checkOut.toEpochDay() - checkIn.toEpochDay();
+
+        if (request.getRoomType() == null) {
+            Room room = roomCatalog.getRoomById(request.getRoomId());
+            if (room == null) {
+                return Quote.rejected(request, Quote.Status.ROOM_NOT_FOUND, "Room not found");
+            }
+            return Quote.priced(request, isBookable(room, checkIn, checkOut), room, nights,
+                    pricing.quoteCents(room, checkIn, checkOut));
+        }
+
+        // Rooms of a type share its rate plan, so the cheapest base price is the cheapest stay
+        List<Room> rooms = roomCatalog.getRoomsByType(request.getRoomType());
+        if (rooms != null) {
+            for (Room room : rooms) {
+                if (isBookable(room, checkIn, checkOut)) {
+                    return Quote.priced(request, true, room, nights, pricing.quoteCents(room, checkIn, checkOut));
+                }
+            }
+        }
+        return Quote.rejected(request, Quote.Status.UNAVAILABLE,
+                "No " + request.getRoomType() + " room is free for selected dates");
+    }
+
+    private boolean isBookable(Room room, LocalDate checkIn, LocalDate checkOut) {
+        return room.getStatus() != RoomStatus.MAINTENANCE
+                && availabilityIndex.isAvailable(room.getRoomId(), checkIn, checkOut);
     }
 
     /**
-     * View reservation by ID
+     * Replace the rate plan of a room type (null to charge base prices) and reprice
      */
-    public void viewReservationById(int reservationId) {
-        Reservation reservation = reservationDAO.getReservationById(reservationId);
-        
-        if (reservation == null) {
-            System.out.println("\nReservation not found with ID: " + reservationId);
-            return;
+    public void setRatePlan(RoomType roomType, RatePlan plan) {
+        pricing.setRatePlan(roomType, plan);
+        refreshPriceCalendar();
+    }
+
+    /**
+     * Recompute the nightly price calendar from today with current occupancy
+     */
+    public void refreshPriceCalendar() {
+        try (OperationStats.Timer timer = METRICS.time("refreshPriceCalendar")) {
+            pricing.rebuild(roomCatalog.getAllRooms(), typeInventory);
         }
+    }
 
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println("RESERVATION DETAILS");
-        System.out.println("=".repeat(60));
-        System.out.println("Reservation ID    : " + reservation.getReservationId());
-        System.out.println("Customer Name     : " + reservation.getCustomerName());
-        System.out.println("Room Number       : " + reservation.getRoomNumber());
-        System.out.println("Check-In Date     : " + reservation.getCheckInDate());
-        System.out.println("Check-Out Date    : " + reservation.getCheckOutDate());
-        System.out.println("Number of Nights  : " + reservation.getNumberOfNights());
-        System.out.println("Total Amount      : ₹" + String.format("%.2f", reservation.getTotalAmount()));
-        System.out.println("Status            : " + reservation.getStatus());
-        System.out.println("Created At        : " + reservation.getCreatedAt());
-        System.out.println("=".repeat(60));
+    /**
+     * Move the price calendar on if the day has changed. Threads that find
+     * it stale together wait for a single rebuild.
+     */
+    private void refreshStalePriceCalendar() {
+        if (pricing.isStale()) {
+            try (OperationStats.Timer timer = METRICS.time("refreshPriceCalendar")) {
+                pricing.rebuildIfStale(roomCatalog::getAllRooms, typeInventory);
+            }
+        }
     }
 
     /**
-     * Cancel reservation
+     * Reprice the rooms of a type if its occupancy on any night in
+     * [from, to) has crossed a tier of its rate plan
      */
-    public void cancelReservation(int reservationId) {
-        Reservation reservation = reservationDAO.getReservationById(reservationId);
-        
-        if (reservation == null) {
-            System.out.println("\nReservation not found with ID: " + reservationId);
-            return;
+    private void refreshOccupancyPrices(RoomType roomType, LocalDate from, LocalDate to) {
+        pricing.refreshOccupancy(roomType, from, to, roomCatalog::getAllRooms, typeInventory);
+    }
+
+    /**
+     * Price a stay from the calendar, first moving the calendar on if the day has changed
+     */
+    private long priceCents(Room room, LocalDate checkIn, LocalDate checkOut) {
+        refreshStalePriceCalendar();
+        return pricing.quoteCents(room, checkIn, checkOut);
+    }
+
+    /**
+     * Get customer by ID, or null if not found
+     */
+    public Customer getCustomerById(int customerId) {
+        try (OperationStats.Timer timer = METRICS.time("getCustomerById")) {
+            return customerRepository.getCustomerById(customerId);
         }
+    }
 
-        if (reservation.getStatus() == ReservationStatus.CANCELLED) {
-            System.out.println("\nReservation is already cancelled.");
-            return;
+    /**
+     * Get customer by email, or null if not found
+     */
+    public Customer getCustomerByEmail(String email) {
+        try (OperationStats.Timer timer = METRICS.time("getCustomerByEmail")) {
+            return customerRepository.getCustomerByEmail(email);
         }
+    }
 
-        if (reservation.getStatus() == ReservationStatus.CHECKED_OUT) {
-            System.out.println("\nCannot cancel a completed reservation.");
-            return;
+    /**
+     * Get customer by phone number, or null if not found
+     */
+    public Customer getCustomerByPhone(String phoneNumber) {
+        try (OperationStats.Timer timer = METRICS.time("getCustomerByPhone")) {
+            return customerRepository.getCustomerByPhone(phoneNumber);
         }
+    }
 
-        // Cancel the reservation
-        boolean success = reservationDAO.deleteReservation(reservationId);
-        
-        if (success) {
-            // Update room status back to AVAILABLE
-            roomDAO.updateRoomStatus(reservation.getRoomId(), RoomStatus.AVAILABLE);
-            System.out.println("\n✓ Reservation cancelled successfully!");
-            System.out.println("Reservation ID: " + reservationId);
-            System.out.println("Room " + reservation.getRoomNumber() + " is now available.");
-        } else {
-            System.out.println("\nError: Failed to cancel reservation");
+    /**
+     * Get room by ID
+     */
+    public Room getRoomById(int roomId) {
+        return roomCatalog.getRoomById(roomId);
+    }
+
+    /**
+     * Add a new room and publish it in the room catalog. Only the new room
+     * is priced, unless the added capacity moves its type into another occupancy tier.
+     */
+    public boolean addRoom(Room room) {
+        try (OperationStats.Timer timer = METRICS.time("addRoom")) {
+            boolean added = typeInventory.changingRooms(() -> {
+                if (!roomRepository.addRoom(room)) {
+                    return false;
+                }
+                Room saved = roomRepository.getRoomByNumber(room.getRoomNumber());
+                if (saved != null) {
+                    roomCatalog.put(saved);
+                    if (saved.getStatus() != RoomStatus.MAINTENANCE) {
+                        typeInventory.addCapacity(saved.getRoomType(), 1);
+                    }
+                }
+                return true;
+            });
+            Room saved = added ? roomCatalog.getRoomByNumber(room.getRoomNumber()) : null;
+            if (saved != null) {
+                pricing.addRoom(saved, typeInventory);
+                if (saved.getStatus() != RoomStatus.MAINTENANCE) {
+                    refreshOccupancyPrices(saved.getRoomType(), typeInventory.getFirstNight(),
+                            typeInventory.getEndNight());
+                }
+            }
+            return added;
         }
     }
 
     /**
-     * View all available rooms
+     * Take a room out of service (MAINTENANCE) or put it back (AVAILABLE) in
+     * the database, the room catalog and the sellable rooms per type.
+     * OCCUPIED is rejected: occupancy is derived per night from reservations.
+     * Use addMaintenanceBlock() for maintenance on given dates.
      */
-    public void viewAvailableRooms() {
-        List<Room> rooms = roomDAO.getAvailableRooms();
-        
-        if (rooms.isEmpty()) {
-            System.out.println("\nNo available rooms at the moment.");
-            return;
+    public boolean updateRoomStatus(int roomId, RoomStatus status) {
+        if (status == RoomStatus.OCCUPIED) {
+            return false;
+        }
+        try (OperationStats.Timer timer = METRICS.time("updateRoomStatus")) {
+            Room before = roomCatalog.getRoomById(roomId);
+            boolean updated = typeInventory.changingRooms(() -> {
+                if (!roomRepository.updateRoomStatus(roomId, status)) {
+                    return false;
+                }
+                roomCatalog.updateStatus(roomId, status);
+                if (before != null && (before.getStatus() == RoomStatus.MAINTENANCE) != (status == RoomStatus.MAINTENANCE)) {
+                    boolean outOfService = status == RoomStatus.MAINTENANCE;
+                    typeInventory.addCapacity(before.getRoomType(), outOfService ? -1 : 1);
+                    // Blocks only count against rooms that are for sale
+                    for (RoomBlock block : blocks.values()) {
+                        if (block.getRoomId() != roomId) {
+                            continue;
+                        }
+                        if (outOfService) {
+                            typeInventory.unblock(before.getRoomType(), block.getStartDate(), block.getEndDate());
+                        } else {
+                            typeInventory.block(before.getRoomType(), block.getStartDate(), block.getEndDate());
+                        }
+                    }
+                }
+                return true;
+            });
+            if (updated && before != null) {
+                refreshOccupancyPrices(before.getRoomType(), typeInventory.getFirstNight(),
+                        typeInventory.getEndNight());
+            }
+            return updated;
         }
+    }
 
-        System.out.println("\n" + "=".repeat(100));
-        System.out.printf("%-8s %-12s %-12s %-15s %-10s %-12s%n",
-                "ID", "Room No", "Type", "Price/Night", "Floor", "Capacity");
-        System.out.println("=".repeat(100));
+    /**
+     * Block a room for maintenance on the nights [startDate, endDate).
+     * Fails if any of those nights is booked or already blocked.
+     */
+    public MaintenanceResult addMaintenanceBlock(int roomId, LocalDate startDate, LocalDate endDate, String reason) {
+        try (OperationStats.Timer timer = METRICS.time("addMaintenanceBlock")) {
+            if (startDate == null || endDate == null || !InputValidator.isValidDateRange(startDate, endDate)) {
+                return MaintenanceResult.of(MaintenanceResult.Status.INVALID_REQUEST,
+                        "End date must be after start date", null);
+            }
+            if (startDate.isBefore(LocalDate.now())) {
+                return MaintenanceResult.of(MaintenanceResult.Status.INVALID_REQUEST,
+                        "Start date cannot be in the past", null);
+            }
 
-        for (Room room : rooms) {
-            System.out.printf("%-8d %-12s %-12s ₹%-14.2f %-10d %-12d%n",
-                    room.getRoomId(),
-                    room.getRoomNumber(),
-                    room.getRoomType(),
-                    room.getPricePerNight(),
-                    room.getFloorNumber(),
-                    room.getMaxOccupancy());
+            Room room = roomCatalog.getRoomById(roomId);
+            if (room == null) {
+                return MaintenanceResult.of(MaintenanceResult.Status.ROOM_NOT_FOUND, "Room not found", null);
+            }
+
+            if (!availabilityIndex.reserve(roomId, startDate, endDate)) {
+                return MaintenanceResult.of(MaintenanceResult.Status.DATES_TAKEN,
+                        "Room is booked or blocked for some of the selected dates", null);
+            }
+
+            RoomBlock block = new RoomBlock(roomId, startDate, endDate, reason);
+            boolean added = typeInventory.changingRooms(() -> {
+                if (!roomRepository.addBlock(block)) {
+                    return false;
+                }
+                blocks.put(block.getBlockId(), block);
+                if (room.getStatus() != RoomStatus.MAINTENANCE) {
+                    typeInventory.block(room.getRoomType(), startDate, endDate);
+                }
+                return true;
+            });
+            if (!added) {
+                availabilityIndex.release(roomId, startDate, endDate);
+                METRICS.error("addMaintenanceBlock");
+                return MaintenanceResult.of(MaintenanceResult.Status.FAILED,
+                        "Failed to block room; the dates may have just been booked", null);
+            }
+
+            refreshOccupancyPrices(room.getRoomType(), startDate, endDate);
+            return MaintenanceResult.of(MaintenanceResult.Status.CREATED, "Room blocked for maintenance", block);
+        }
+    }
+
+    /**
+     * Remove a maintenance block, freeing its nights for booking and offering them to the waitlist
+     */
+    public boolean removeMaintenanceBlock(int blockId) {
+        try (OperationStats.Timer timer = METRICS.time("removeMaintenanceBlock")) {
+            RoomBlock block = blocks.get(blockId);
+            if (block == null) {
+                return false;
+            }
+            Room room = roomCatalog.getRoomById(block.getRoomId());
+            boolean sellable = room != null && room.getStatus() != RoomStatus.MAINTENANCE;
+            boolean removed = typeInventory.changingRooms(() -> {
+                if (!roomRepository.removeBlock(blockId) || blocks.remove(blockId) == null) {
+                    return false;
+                }
+                if (sellable) {
+                    typeInventory.unblock(room.getRoomType(), block.getStartDate(), block.getEndDate());
+                }
+                return true;
+            });
+            if (!removed) {
+                return false;
+            }
+            availabilityIndex.release(block.getRoomId(), block.getStartDate(), block.getEndDate());
+            if (sellable) {
+                refreshOccupancyPrices(room.getRoomType(), block.getStartDate(), block.getEndDate());
+                offerFreedNights(room, block.getStartDate(), block.getEndDate());
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Get all maintenance blocks ordered by room and start date
+     */
+    public List<RoomBlock> getMaintenanceBlocks() {
+        List<RoomBlock> result = new ArrayList<>(blocks.values());
+        result.sort(Comparator.comparing(RoomBlock::getRoomId).thenComparing(RoomBlock::getStartDate));
+        return result;
+    }
+
+    /**
+     * Put a guest on the waitlist for any room of a type for [checkIn, checkOut).
+     * The request is stored first; if a room of the type is free it is booked
+     * at once (BOOKED), otherwise it waits (QUEUED) until a cancellation frees
+     * nights it needs. Validation failures are reported in the result, never thrown.
+     */
+    public WaitlistResult joinWaitlist(Customer guest, RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        try (OperationStats.Timer timer = METRICS.time("joinWaitlist")) {
+            String problem = roomType == null ? "Room type is required" : validateStay(guest, checkIn, checkOut);
+            if (problem != null) {
+                return WaitlistResult.of(WaitlistResult.Status.INVALID_REQUEST, problem, null);
+            }
+
+            WaitlistRequest request = new WaitlistRequest(guest, roomType, checkIn, checkOut);
+            if (!waitlistRepository.addRequest(request)) {
+                METRICS.error("joinWaitlist");
+                return WaitlistResult.of(WaitlistResult.Status.FAILED, "Failed to join the waitlist", null);
+            }
+            // Indexed before the rooms are tried, so a cancellation from here on sees it
+            waitlistIndex.add(request);
+
+            BookingResult booking = bookFromWaitlist(request, roomCatalog.getRoomsByType(roomType));
+            if (booking != null) {
+                return WaitlistResult.booked(request, booking);
+            }
+            return WaitlistResult.of(WaitlistResult.Status.QUEUED, "Added to the waitlist", request);
+        }
+    }
+
+    /**
+     * Get a waitlist request by ID with its current status, or null if not found
+     */
+    public WaitlistRequest getWaitlistRequest(int requestId) {
+        try (OperationStats.Timer timer = METRICS.time("getWaitlistRequest")) {
+            return waitlistRepository.getRequest(requestId);
         }
-        System.out.println("=".repeat(100));
     }
 
     /**
-     * View available rooms by type
+     * Get every waiting request, oldest first
      */
-    public void viewAvailableRoomsByType(RoomType roomType) {
-        List<Room> rooms = roomDAO.getAvailableRoomsByType(roomType);
-        
-        if (rooms.isEmpty()) {
-            System.out.println("\nNo available " + roomType + " rooms at the moment.");
+    public List<WaitlistRequest> getWaitlist() {
+        return waitlistIndex.getAll();
+    }
+
+    /**
+     * Take a request off the waitlist. False if it is not waiting, or is
+     * being booked at this moment.
+     */
+    public boolean cancelWaitlistRequest(int requestId) {
+        try (OperationStats.Timer timer = METRICS.time("cancelWaitlistRequest")) {
+            if (waitlistIndex.remove(requestId) == null) {
+                return false;
+            }
+            return waitlistRepository.close(requestId, WaitlistStatus.CANCELLED);
+        }
+    }
+
+    /**
+     * Expire waiting requests whose check-in date is before the given date.
+     * Returns the number expired.
+     */
+    public int expireWaitlist(LocalDate date) {
+        try (OperationStats.Timer timer = METRICS.time("expireWaitlist")) {
+            int expired = 0;
+            for (WaitlistRequest request : waitlistIndex.getAll()) {
+                if (request.getCheckInDate().isBefore(date) && expire(request)) {
+                    expired++;
+                }
+            }
+            return expired;
+        }
+    }
+
+    /**
+     * Book the waiting requests that fit in nights just freed on a room,
+     * oldest first. Only requests that need one of those nights are looked
+     * at, found through the waitlist index; each is booked through
+     * createReservation(), so it gets the same checks and claims as any booking.
+     */
+    private void offerFreedNights(Room room, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        if (!from.isAfter(today)) {
+            from = today;
+        }
+        if (!from.isBefore(to) || room.getStatus() == RoomStatus.MAINTENANCE) {
             return;
         }
+        try (OperationStats.Timer timer = METRICS.time("offerFreedNights")) {
+            List<Room> rooms = List.of(room);
+            for (WaitlistRequest request : waitlistIndex.findOverlapping(room.getRoomType(), from, to)) {
+                if (request.getCheckInDate().isBefore(today)) {
+                    expire(request);
+                } else {
+                    bookFromWaitlist(request, rooms);
+                }
+            }
+        }
+    }
 
-        System.out.println("\nAvailable " + roomType + " Rooms:");
-        System.out.println("=".repeat(100));
-        System.out.printf("%-8s %-12s %-15s %-10s %-12s%n",
-                "ID", "Room No", "Price/Night", "Floor", "Capacity");
-        System.out.println("=".repeat(100));
+    /**
+     * Book a waiting request into the first of the rooms free for its whole
+     * stay. Returns the booking, or null if the request is still waiting or
+     * was taken by a concurrent caller.
+     */
+    private BookingResult bookFromWaitlist(WaitlistRequest request, List<Room> rooms) {
+        for (Room room : rooms) {
+            if (room.getStatus() == RoomStatus.MAINTENANCE || !availabilityIndex.isAvailable(room.getRoomId(),
+                    request.getCheckInDate(), request.getCheckOutDate())) {
+                continue;
+            }
+            // Claim the request so no other caller books it as well
+            if (waitlistIndex.remove(request.getRequestId()) == null) {
+                return null;
+            }
+            Customer guest = request.getGuest();
+            BookingResult booking = createReservation(new Customer(guest.getFirstName(), guest.getLastName(),
+                    guest.getEmail(), guest.getPhoneNumber(), guest.getIdProof()),
+                    room.getRoomId(), request.getCheckInDate(), request.getCheckOutDate());
+            if (booking.isSuccess()) {
+                if (!waitlistRepository.markBooked(request.getRequestId(), booking.getReservationId())) {
+                    METRICS.error("bookFromWaitlist");
+                    System.err.println("Error recording waitlist request " + request.getRequestId()
+                            + " as reservation " + booking.getReservationId());
+                }
+                request.setStatus(WaitlistStatus.BOOKED);
+                request.setReservationId(booking.getReservationId());
+                return booking;
+            }
+            waitlistIndex.add(request);
+            if (booking.getStatus() != BookingResult.Status.DATES_TAKEN
+                    && booking.getStatus() != BookingResult.Status.ROOM_UNAVAILABLE) {
+                // Not a lost race for the room; leave the request waiting for the next offer
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private boolean expire(WaitlistRequest request) {
+        return waitlistIndex.remove(request.getRequestId()) != null
+                && waitlistRepository.close(request.getRequestId(), WaitlistStatus.EXPIRED);
+    }
+
+    /**
+     * Reload the room catalog from the database
+     */
+    public void refreshRoomCatalog() {
+        try (OperationStats.Timer timer = METRICS.time("refreshRoomCatalog")) {
+            roomCatalog.load(roomRepository.getAllRooms());
+        }
+    }
 
+    /**
+     * Keep only rooms in service and free on the night starting on the given date
+     */
+    private List<Room> getAvailableRooms(List<Room> rooms, LocalDate date) {
+        List<Room> available = new ArrayList<>();
         for (Room room : rooms) {
-            System.out.printf("%-8d %-12s ₹%-14.2f %-10d %-12d%n",
-                    room.getRoomId(),
-                    room.getRoomNumber(),
-                    room.getPricePerNight(),
-                    room.getFloorNumber(),
-                    room.getMaxOccupancy());
+            if (room.getStatus() != RoomStatus.MAINTENANCE
+                    && availabilityIndex.isAvailable(room.getRoomId(), date, date.plusDays(1))) {
+                available.add(room);
+            }
         }
-        System.out.println("=".repeat(100));
+        return available;
     }
 
     /**
-     * Get room by ID
+     * Copy a catalog room with its status on the night starting on the given date
      */
-    public Room getRoomById(int roomId) {
-        return roomDAO.getRoomById(roomId);
+    private Room withStatusOn(Room room, LocalDate date) {
+        RoomStatus status = room.getStatus();
+        if (status != RoomStatus.MAINTENANCE
+                && !availabilityIndex.isAvailable(room.getRoomId(), date, date.plusDays(1))) {
+            status = findBlock(room.getRoomId(), date, date.plusDays(1)) != null
+                    ? RoomStatus.MAINTENANCE : RoomStatus.OCCUPIED;
+        }
+        return new Room(room.getRoomId(), room.getRoomNumber(), room.getRoomType(),
+                room.getPricePerNight(), status, room.getFloorNumber(), room.getMaxOccupancy());
     }
 
     /**
-     * Truncate string for display
+     * Get a maintenance block of the room that shares a night with [from, to), or null
      */
-    private String truncate(String str, int length) {
-        if (str == null) return "";
-        return str.length() > length ? str.substring(0, length - 3) + "..." : str;
+    private RoomBlock findBlock(int roomId, LocalDate from, LocalDate to) {
+        for (RoomBlock block : blocks.values()) {
+            if (block.getRoomId() == roomId && block.overlaps(from, to)) {
+                return block;
+            }
+        }
+        return null;
     }
-}
\ No newline at end of file
+
+}
@@ -0,0 +1,63 @@
+package com.hotel.service;
+
+import com.hotel.model.WaitlistRequest;
+
+/**
+ * Outcome of a request to join the waitlist
+ */
+public class WaitlistResult {
+
+    /**
+     * Possible outcomes of a waitlist request: QUEUED to wait for a room,
+     * or BOOKED straight away because a room of the type was free
+     */
+    public enum Status {
+        QUEUED, BOOKED, INVALID_REQUEST, FAILED
+    }
+
+    private final Status status;
+    private final String message;
+    private final WaitlistRequest request;
+    private final BookingResult booking;
+
+    private WaitlistResult(Status status, String message, WaitlistRequest request, BookingResult booking) {
+        this.status = status;
+        this.message = message;
+        this.request = request;
+        this.booking = booking;
+    }
+
+    static WaitlistResult of(Status status, String message, WaitlistRequest request) {
+        return new WaitlistResult(status, message, request, null);
+    }
+
+    static WaitlistResult booked(WaitlistRequest request, BookingResult booking) {
+        return new WaitlistResult(Status.BOOKED, "Room available; reservation created", request, booking);
+    }
+
+    public boolean isSuccess() {
+        return status == Status.QUEUED || status == Status.BOOKED;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Get the stored request, or null if none was stored
+     */
+    public WaitlistRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Get the reservation made for the request, or null unless BOOKED
+     */
+    public BookingResult getBooking() {
+        return booking;
+    }
+}
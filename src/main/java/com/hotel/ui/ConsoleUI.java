@@ -1,11 +1,21 @@
 package com.hotel.ui;
 
+import com.hotel.model.Customer;
+import com.hotel.model.Reservation;
+import com.hotel.model.Reservation.ReservationStatus;
+import com.hotel.model.Room;
 import com.hotel.model.Room.RoomType;
+import com.hotel.model.RoomBlock;
+import com.hotel.service.BookingResult;
+import com.hotel.service.CancellationResult;
+import com.hotel.service.MaintenanceResult;
 import com.hotel.service.ReservationService;
+import com.hotel.service.WaitlistResult;
 import com.hotel.util.InputValidator;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -18,8 +28,12 @@ public class ConsoleUI {
     private boolean running;
 
     public ConsoleUI() {
+        this(new ReservationService());
+    }
+
+    public ConsoleUI(ReservationService reservationService) {
         this.scanner = new Scanner(System.in);
-        this.reservationService = new ReservationService();
+        this.reservationService = reservationService;
         this.running = true;
     }
 
@@ -63,7 +77,11 @@ public class ConsoleUI {
         System.out.println("4. View All Reservations");
         System.out.println("5. View Reservation by ID");
         System.out.println("6. Cancel Reservation");
-        System.out.println("7. Exit");
+        System.out.println("7. Search Rooms by Date Range");
+        System.out.println("8. Schedule Room Maintenance");
+        System.out.println("9. Check In Guest");
+        System.out.println("10. Check Out Guest");
+        System.out.println("11. Exit");
         System.out.println("-".repeat(60));
     }
 
@@ -91,10 +109,22 @@ public class ConsoleUI {
                 cancelReservation();
                 break;
             case 7:
+                searchRoomsByDateRange();
+                break;
+            case 8:
+                scheduleMaintenance();
+                break;
+            case 9:
+                changeStayStatus("CHECK IN GUEST", ReservationStatus.CHECKED_IN);
+                break;
+            case 10:
+                changeStayStatus("CHECK OUT GUEST", ReservationStatus.CHECKED_OUT);
+                break;
+            case 11:
                 running = false;
                 break;
             default:
-                System.out.println("Invalid choice! Please enter a number between 1 and 7.");
+                System.out.println("Invalid choice! Please enter a number between 1 and 11.");
         }
     }
 
@@ -103,7 +133,21 @@ public class ConsoleUI {
      */
     private void viewAvailableRooms() {
         System.out.println("\n>>> AVAILABLE ROOMS <<<");
-        reservationService.viewAvailableRooms();
+        printAvailableRooms();
+    }
+
+    /**
+     * Print all available rooms
+     */
+    private void printAvailableRooms() {
+        List<Room> rooms = reservationService.getAvailableRooms();
+        
+        if (rooms.isEmpty()) {
+            System.out.println("\nNo available rooms at the moment.");
+            return;
+        }
+
+        printRoomTable(rooms);
     }
 
     /**
@@ -119,26 +163,105 @@ public class ConsoleUI {
         
         int typeChoice = getIntInput("\nSelect room type (1-4): ");
         
-        RoomType roomType;
-        switch (typeChoice) {
+        RoomType roomType = toRoomType(typeChoice);
+        if (roomType == null) {
+            System.out.println("Invalid room type!");
+            return;
+        }
+        
+        List<Room> rooms = reservationService.getAvailableRoomsByType(roomType);
+        
+        if (rooms.isEmpty()) {
+            System.out.println("\nNo available " + roomType + " rooms at the moment.");
+            return;
+        }
+
+        System.out.println("\nAvailable " + roomType + " Rooms:");
+        System.out.println("=".repeat(100));
+        System.out.printf("%-8s %-12s %-15s %-10s %-12s%n",
+                "ID", "Room No", "Price/Night", "Floor", "Capacity");
+        System.out.println("=".repeat(100));
+
+        for (Room room : rooms) {
+            System.out.printf("%-8d %-12s ₹%-14.2f %-10d %-12d%n",
+                    room.getRoomId(),
+                    room.getRoomNumber(),
+                    room.getPricePerNight(),
+                    room.getFloorNumber(),
+                    room.getMaxOccupancy());
+        }
+        System.out.println("=".repeat(100));
+    }
+
+    /**
+     * Search rooms free for a date range, with optional filters
+     */
+    private void searchRoomsByDateRange() {
+        System.out.println("\n>>> SEARCH ROOMS BY DATE RANGE <<<");
+        
+        LocalDate checkInDate = getCheckInDate();
+        LocalDate checkOutDate = getCheckOutDate(checkInDate);
+        
+        System.out.println("\nRoom Types: 0. ANY  1. SINGLE  2. DOUBLE  3. SUITE  4. DELUXE");
+        int typeChoice = getIntInput("Select room type (0-4): ");
+        RoomType roomType = toRoomType(typeChoice);
+        if (typeChoice != 0 && roomType == null) {
+            System.out.println("Invalid room type!");
+            return;
+        }
+        
+        Integer floorNumber = getOptionalIntInput("Floor (press Enter for any): ");
+        Integer guests = getOptionalIntInput("Number of guests (press Enter for any): ");
+        
+        List<Room> rooms = reservationService.searchAvailableRooms(checkInDate, checkOutDate,
+                roomType, floorNumber, guests);
+
+        if (rooms.isEmpty()) {
+            System.out.println("\nNo rooms available from " + checkInDate + " to " + checkOutDate + ".");
+            return;
+        }
+
+        System.out.println("\nRooms available from " + checkInDate + " to " + checkOutDate + ":");
+        printRoomTable(rooms);
+    }
+
+    /**
+     * Print rooms with their type, price, floor and capacity
+     */
+    private void printRoomTable(List<Room> rooms) {
+        System.out.println("\n" + "=".repeat(100));
+        System.out.printf("%-8s %-12s %-12s %-15s %-10s %-12s%n",
+                "ID", "Room No", "Type", "Price/Night", "Floor", "Capacity");
+        System.out.println("=".repeat(100));
+
+        for (Room room : rooms) {
+            System.out.printf("%-8d %-12s %-12s ₹%-14.2f %-10d %-12d%n",
+                    room.getRoomId(),
+                    room.getRoomNumber(),
+                    room.getRoomType(),
+                    room.getPricePerNight(),
+                    room.getFloorNumber(),
+                    room.getMaxOccupancy());
+        }
+        System.out.println("=".repeat(100));
+    }
+
+    /**
+     * Map a menu choice (1-4) to a room type, or null if out of range
+     */
+    private RoomType toRoomType(int choice) {
+        switch (choice) {
             case 1:
-                roomType = RoomType.SINGLE;
-                break;
+                return RoomType.SINGLE;
             case 2:
-                roomType = RoomType.DOUBLE;
-                break;
+                return RoomType.DOUBLE;
             case 3:
-                roomType = RoomType.SUITE;
-                break;
+                return RoomType.SUITE;
             case 4:
-                roomType = RoomType.DELUXE;
-                break;
+                return RoomType.DELUXE;
             default:
-                System.out.println("Invalid room type!");
-                return;
+                return null;
         }
-        
-        reservationService.viewAvailableRoomsByType(roomType);
     }
 
     /**
@@ -148,7 +271,7 @@ public class ConsoleUI {
         System.out.println("\n>>> CREATE NEW RESERVATION <<<");
         
         // Show available rooms first
-        reservationService.viewAvailableRooms();
+        printAvailableRooms();
         
         System.out.println("\n--- Customer Information ---");
         
@@ -185,42 +308,59 @@ public class ConsoleUI {
             return;
         }
         
-        LocalDate checkInDate;
-        while (true) {
-            String checkInStr = getStringInput("Check-In Date (YYYY-MM-DD): ");
-            try {
-                checkInDate = InputValidator.parseDate(checkInStr);
-                if (checkInDate.isBefore(LocalDate.now())) {
-                    System.out.println("Check-in date cannot be in the past!");
-                    continue;
-                }
-                break;
-            } catch (DateTimeParseException e) {
-                System.out.println("Invalid date format! Use YYYY-MM-DD (e.g., 2024-12-25)");
-            }
-        }
-        
-        LocalDate checkOutDate;
-        while (true) {
-            String checkOutStr = getStringInput("Check-Out Date (YYYY-MM-DD): ");
-            try {
-                checkOutDate = InputValidator.parseDate(checkOutStr);
-                if (!InputValidator.isValidDateRange(checkInDate, checkOutDate)) {
-                    System.out.println("Check-out date must be after check-in date!");
-                    continue;
-                }
-                break;
-            } catch (DateTimeParseException e) {
-                System.out.println("Invalid date format! Use YYYY-MM-DD (e.g., 2024-12-27)");
-            }
-        }
+        LocalDate checkInDate = getCheckInDate();
+        LocalDate checkOutDate = getCheckOutDate(checkInDate);
         
         // Create reservation
         System.out.println("\nProcessing reservation...");
-        reservationService.createReservation(
+        BookingResult result = reservationService.createReservation(
             firstName, lastName, email, phoneNumber, idProof,
             roomId, checkInDate, checkOutDate
         );
+        
+        if (!result.isSuccess()) {
+            System.out.println("Error: " + result.getMessage());
+            if (result.getStatus() == BookingResult.Status.DATES_TAKEN) {
+                offerWaitlist(new Customer(firstName, lastName, email, phoneNumber, idProof),
+                        reservationService.getRoomById(roomId).getRoomType(), checkInDate, checkOutDate);
+            }
+            return;
+        }
+
+        Customer customer = result.getCustomer();
+        if (result.isNewCustomer()) {
+            System.out.println("New customer created with ID: " + customer.getCustomerId());
+        } else {
+            System.out.println("Existing customer found: " + customer.getFullName());
+        }
+
+        System.out.println("\n✓ Reservation created successfully!");
+        System.out.println("Reservation ID: " + result.getReservationId());
+        System.out.println("Room Number: " + result.getRoom().getRoomNumber());
+        System.out.println("Total Amount: ₹" + String.format("%.2f", result.getTotalAmount())
+                + " for " + result.getNights() + " night(s)");
+    }
+
+    /**
+     * Offer to wait for any room of the type when the chosen one is booked
+     */
+    private void offerWaitlist(Customer guest, RoomType roomType, LocalDate checkInDate, LocalDate checkOutDate) {
+        String answer = getStringInput("Join the waitlist for any " + roomType + " room on these dates? (yes/no): ");
+        if (!answer.equalsIgnoreCase("yes")) {
+            return;
+        }
+
+        WaitlistResult result = reservationService.joinWaitlist(guest, roomType, checkInDate, checkOutDate);
+        if (!result.isSuccess()) {
+            System.out.println("Error: " + result.getMessage());
+        } else if (result.getStatus() == WaitlistResult.Status.BOOKED) {
+            BookingResult booking = result.getBooking();
+            System.out.println("\n✓ A " + roomType + " room was free: reservation " + booking.getReservationId()
+                    + " created for room " + booking.getRoom().getRoomNumber());
+        } else {
+            System.out.println("\n✓ Added to the waitlist with request ID: " + result.getRequest().getRequestId());
+            System.out.println("The guest is booked automatically when a cancellation frees a room.");
+        }
     }
 
     /**
@@ -228,7 +368,32 @@ public class ConsoleUI {
      */
     private void viewAllReservations() {
         System.out.println("\n>>> ALL RESERVATIONS <<<");
-        reservationService.viewAllReservations();
+        
+        // Rows are printed as they are streamed, so the list is never held in memory
+        boolean[] headerPrinted = {false};
+        int count = reservationService.forEachReservation(r -> {
+            if (!headerPrinted[0]) {
+                System.out.println("\n" + "=".repeat(120));
+                System.out.printf("%-8s %-20s %-12s %-12s %-12s %-12s %-15s%n",
+                        "ID", "Customer", "Room", "Check-In", "Check-Out", "Amount", "Status");
+                System.out.println("=".repeat(120));
+                headerPrinted[0] = true;
+            }
+            System.out.printf("%-8d %-20s %-12s %-12s %-12s ₹%-11.2f %-15s%n",
+                    r.getReservationId(),
+                    truncate(r.getCustomerName(), 20),
+                    r.getRoomNumber(),
+                    r.getCheckInDate(),
+                    r.getCheckOutDate(),
+                    r.getTotalAmount(),
+                    r.getStatus());
+        });
+        
+        if (count == 0) {
+            System.out.println("\nNo reservations found.");
+            return;
+        }
+        System.out.println("=".repeat(120));
     }
 
     /**
@@ -237,7 +402,26 @@ public class ConsoleUI {
     private void viewReservationById() {
         System.out.println("\n>>> VIEW RESERVATION <<<");
         int reservationId = getIntInput("Enter Reservation ID: ");
-        reservationService.viewReservationById(reservationId);
+        Reservation reservation = reservationService.getReservationById(reservationId);
+        
+        if (reservation == null) {
+            System.out.println("\nReservation not found with ID: " + reservationId);
+            return;
+        }
+
+        System.out.println("\n" + "=".repeat(60));
+        System.out.println("RESERVATION DETAILS");
+        System.out.println("=".repeat(60));
+        System.out.println("Reservation ID    : " + reservation.getReservationId());
+        System.out.println("Customer Name     : " + reservation.getCustomerName());
+        System.out.println("Room Number       : " + reservation.getRoomNumber());
+        System.out.println("Check-In Date     : " + reservation.getCheckInDate());
+        System.out.println("Check-Out Date    : " + reservation.getCheckOutDate());
+        System.out.println("Number of Nights  : " + reservation.getNumberOfNights());
+        System.out.println("Total Amount      : ₹" + String.format("%.2f", reservation.getTotalAmount()));
+        System.out.println("Status            : " + reservation.getStatus());
+        System.out.println("Created At        : " + reservation.getCreatedAt());
+        System.out.println("=".repeat(60));
     }
 
     /**
@@ -249,12 +433,106 @@ public class ConsoleUI {
         
         String confirmation = getStringInput("Are you sure you want to cancel? (yes/no): ");
         if (confirmation.equalsIgnoreCase("yes")) {
-            reservationService.cancelReservation(reservationId);
+            CancellationResult result = reservationService.cancelReservation(reservationId);
+            if (result.isSuccess()) {
+                Reservation reservation = result.getReservation();
+                System.out.println("\n✓ Reservation cancelled successfully!");
+                System.out.println("Reservation ID: " + reservationId);
+                System.out.println("Room " + reservation.getRoomNumber() + " is available again from "
+                        + reservation.getCheckInDate() + " to " + reservation.getCheckOutDate() + ".");
+            } else {
+                System.out.println("\nError: " + result.getMessage());
+            }
         } else {
             System.out.println("Cancellation aborted.");
         }
     }
 
+    /**
+     * Check a guest in on arrival or out on departure.
+     * Arrivals left CONFIRMED are cancelled as no-shows by the night audit.
+     */
+    private void changeStayStatus(String title, ReservationStatus status) {
+        System.out.println("\n>>> " + title + " <<<");
+        int reservationId = getIntInput("Enter Reservation ID: ");
+
+        if (reservationService.updateReservationStatus(reservationId, status)) {
+            System.out.println("\n✓ Reservation " + reservationId + " is now " + status + ".");
+            if (status == ReservationStatus.CHECKED_OUT) {
+                System.out.println("Any nights left of the stay can be booked again.");
+            }
+            return;
+        }
+        Reservation reservation = reservationService.getReservationById(reservationId);
+        if (reservation == null) {
+            System.out.println("\nReservation not found with ID: " + reservationId);
+        } else {
+            System.out.println("\nError: Cannot move a " + reservation.getStatus() + " reservation to " + status);
+        }
+    }
+
+    /**
+     * Block a room for maintenance on a date range
+     */
+    private void scheduleMaintenance() {
+        System.out.println("\n>>> SCHEDULE ROOM MAINTENANCE <<<");
+        int roomId = getIntInput("Enter Room ID: ");
+
+        System.out.println("Maintenance runs from the first date up to, not including, the end date.");
+        LocalDate startDate = getCheckInDate();
+        LocalDate endDate = getCheckOutDate(startDate);
+        String reason = getStringInput("Reason: ");
+
+        MaintenanceResult result = reservationService.addMaintenanceBlock(roomId, startDate, endDate,
+                reason.isEmpty() ? null : reason);
+        if (result.isSuccess()) {
+            RoomBlock block = result.getBlock();
+            System.out.println("\n✓ Maintenance scheduled! Block ID: " + block.getBlockId());
+            System.out.println("Room " + roomId + " cannot be booked from " + block.getStartDate()
+                    + " to " + block.getEndDate() + ".");
+        } else {
+            System.out.println("\nError: " + result.getMessage());
+        }
+    }
+
+    /**
+     * Get a check-in date that is not in the past
+     */
+    private LocalDate getCheckInDate() {
+        while (true) {
+            String checkInStr = getStringInput("Check-In Date (YYYY-MM-DD): ");
+            try {
+                LocalDate checkInDate = InputValidator.parseDate(checkInStr);
+                if (checkInDate.isBefore(LocalDate.now())) {
+                    System.out.println("Check-in date cannot be in the past!");
+                    continue;
+                }
+                return checkInDate;
+            } catch (DateTimeParseException e) {
+                System.out.println("Invalid date format! Use YYYY-MM-DD (e.g., 2024-12-25)");
+            }
+        }
+    }
+
+    /**
+     * Get a check-out date after the given check-in date
+     */
+    private LocalDate getCheckOutDate(LocalDate checkInDate) {
+        while (true) {
+            String checkOutStr = getStringInput("Check-Out Date (YYYY-MM-DD): ");
+            try {
+                LocalDate checkOutDate = InputValidator.parseDate(checkOutStr);
+                if (!InputValidator.isValidDateRange(checkInDate, checkOutDate)) {
+                    System.out.println("Check-out date must be after check-in date!");
+                    continue;
+                }
+                return checkOutDate;
+            } catch (DateTimeParseException e) {
+                System.out.println("Invalid date format! Use YYYY-MM-DD (e.g., 2024-12-27)");
+            }
+        }
+    }
+
     /**
      * Get string input from user
      */
@@ -277,4 +555,27 @@ public class ConsoleUI {
             }
         }
     }
+
+    /**
+     * Get an optional integer input from user; blank input returns null
+     */
+    private Integer getOptionalIntInput(String prompt) {
+        while (true) {
+            try {
+                System.out.print(prompt);
+                String input = scanner.nextLine().trim();
+                return input.isEmpty() ? null : Integer.valueOf(input);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input! Please enter a valid number.");
+            }
+        }
+    }
+
+    /**
+     * Truncate string for display
+     */
+    private String truncate(String str, int length) {
+        if (str == null) return "";
+        return str.length() > length ? str.substring(0, length - 3) + "..." : str;
+    }
 }
\ No newline at end of file
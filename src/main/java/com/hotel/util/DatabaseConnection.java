@@ -1,25 +1,86 @@
 package com.hotel.util;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import javax.sql.DataSource;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Singleton class for managing database connections
+ * Singleton class for managing pooled database connections.
+ * Writes and transactions use the primary pool; read-only queries may be
+ * spread over read replicas listed in db.replicaUrls (see getReadConnection).
  */
 public class DatabaseConnection {
-    private static DatabaseConnection instance;
+    private static volatile DatabaseConnection instance;
+
+    // In-memory H2 database used when db.mode=test
+    private static final String TEST_URL =
+        "jdbc:h2:mem:hotel_reservation_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String TEST_SCHEMA = "schema.sql";
+
     private String url;
     private String username;
     private String password;
     private String driver;
+    private boolean testMode;
+    private HikariDataSource dataSource;
+
+    // Read replicas, in db.replicaUrls order; empty when reads go to the primary
+    private List<Replica> replicas = Collections.emptyList();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private ScheduledExecutorService replicaHealthCheck;
+    private long readYourWritesMillis;
 
     // Private constructor (Singleton pattern)
     private DatabaseConnection() {
-        loadProperties();
+        this(loadProperties());
+    }
+
+    /**
+     * Build pools from the given settings alone, apart from the singleton; for tests
+     */
+    DatabaseConnection(Properties props) {
+        applySettings(props);
+        initDataSource(props);
+        initReplicas(props);
+        if (testMode) {
+            loadTestSchema();
+        }
+    }
+
+    /**
+     * A read replica pool and its last health check result
+     */
+    private static final class Replica {
+        private final String url;
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String url, HikariDataSource dataSource) {
+            this.url = url;
+            this.dataSource = dataSource;
+        }
+    }
+
+    /**
+     * A query that runs on a borrowed connection
+     */
+    @FunctionalInterface
+    public interface SqlQuery<T> {
+        T run(Connection conn) throws SQLException;
     }
 
     /**
@@ -37,39 +98,290 @@ public class DatabaseConnection {
     }
 
     /**
-     * Load database properties from application.properties
+     * Load database properties from application.properties.
+     * System properties with the same key take precedence over the file.
      */
-    private void loadProperties() {
+    private static Properties loadProperties() {
         Properties props = new Properties();
-        try (InputStream input = getClass().getClassLoader()
+        try (InputStream input = DatabaseConnection.class.getClassLoader()
                 .getResourceAsStream("application.properties")) {
-            
-            if (input == null) {
+
+            if (input != null) {
+                props.load(input);
+            } else if (!"test".equalsIgnoreCase(System.getProperty("db.mode"))) {
                 System.err.println("Unable to find application.properties");
-                return;
             }
+        } catch (IOException e) {
+            System.err.println("Error loading database configuration: " + e.getMessage());
+            e.printStackTrace();
+        }
+        props.putAll(System.getProperties());
+        return props;
+    }
 
-            props.load(input);
-            
+    /**
+     * Pick the primary's URL and credentials; db.mode=test uses the embedded H2
+     * database, or the one in db.testUrl
+     */
+    private void applySettings(Properties props) {
+        this.testMode = "test".equalsIgnoreCase(props.getProperty("db.mode"));
+        if (testMode) {
+            this.url = props.getProperty("db.testUrl", TEST_URL);
+            this.username = "sa";
+            this.password = "";
+            this.driver = "org.h2.Driver";
+        } else {
             this.url = props.getProperty("db.url");
             this.username = props.getProperty("db.username");
             this.password = props.getProperty("db.password");
             this.driver = props.getProperty("db.driver");
+        }
+    }
 
-            // Load JDBC driver
-            Class.forName(driver);
-            
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("Error loading database configuration: " + e.getMessage());
-            e.printStackTrace();
+    /**
+     * Build the connection pool from db.* settings
+     */
+    private void initDataSource(Properties props) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("hotel-db");
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        if (driver != null) {
+            config.setDriverClassName(driver);
+        }
+
+        // Pool size and timeouts
+        config.setMaximumPoolSize(intProperty(props, "db.maxConnections", 10));
+        config.setMinimumIdle(intProperty(props, "db.minIdle", 2));
+        config.setConnectionTimeout(longProperty(props, "db.connectionTimeoutMs", 5_000));
+        config.setValidationTimeout(longProperty(props, "db.validationTimeoutMs", 2_000));
+        config.setIdleTimeout(longProperty(props, "db.idleTimeoutMs", 300_000));
+        config.setMaxLifetime(longProperty(props, "db.maxLifetimeMs", 1_800_000));
+
+        // Do not fail at startup; testConnection() reports an unreachable database
+        config.setInitializationFailTimeout(-1);
+
+        // Publish pool counters over JMX next to the DAO metrics
+        config.setRegisterMbeans(true);
+
+        this.dataSource = new HikariDataSource(config);
+    }
+
+    /**
+     * Build one read-only pool per URL in db.replicaUrls and start the health check.
+     * In test mode each replica is another embedded H2 database loaded with the
+     * same schema, so routing can be tried without real replication.
+     */
+    private void initReplicas(Properties props) {
+        String urls = props.getProperty("db.replicaUrls");
+        if (urls == null || urls.trim().isEmpty()) {
+            return;
+        }
+        String replicaUsername = props.getProperty("db.replicaUsername", username);
+        String replicaPassword = props.getProperty("db.replicaPassword", password);
+        int maxConnections = intProperty(props, "db.replicaMaxConnections",
+                intProperty(props, "db.maxConnections", 10));
+
+        List<Replica> pools = new ArrayList<>();
+        for (String replicaUrl : urls.split(",")) {
+            if (replicaUrl.trim().isEmpty()) {
+                continue;
+            }
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("hotel-db-replica-" + (pools.size() + 1));
+            config.setJdbcUrl(replicaUrl.trim());
+            config.setUsername(testMode ? username : replicaUsername);
+            config.setPassword(testMode ? password : replicaPassword);
+            if (driver != null) {
+                config.setDriverClassName(driver);
+            }
+            config.setReadOnly(!testMode);
+            config.setMaximumPoolSize(maxConnections);
+            config.setMinimumIdle(intProperty(props, "db.minIdle", 2));
+            // Fail fast so a dead replica costs little before reads fall back to the primary
+            config.setConnectionTimeout(longProperty(props, "db.replicaConnectionTimeoutMs", 1_000));
+            config.setValidationTimeout(longProperty(props, "db.validationTimeoutMs", 2_000));
+            config.setIdleTimeout(longProperty(props, "db.idleTimeoutMs", 300_000));
+            config.setMaxLifetime(longProperty(props, "db.maxLifetimeMs", 1_800_000));
+            config.setInitializationFailTimeout(-1);
+            config.setRegisterMbeans(true);
+            pools.add(new Replica(replicaUrl.trim(), new HikariDataSource(config)));
+        }
+        if (pools.isEmpty()) {
+            return;
+        }
+        this.replicas = Collections.unmodifiableList(pools);
+        this.readYourWritesMillis = longProperty(props, "db.readYourWritesMs", 5_000);
+
+        long intervalMs = Math.max(100, longProperty(props, "db.replicaHealthCheckMs", 5_000));
+        replicaHealthCheck = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        replicaHealthCheck.scheduleWithFixedDelay(this::checkReplicas,
+                intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Validate a connection from each replica and record the result
+     */
+    private void checkReplicas() {
+        int timeoutSeconds = 2;
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection conn = replica.dataSource.getConnection()) {
+                healthy = conn.isValid(timeoutSeconds);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                System.err.println("Read replica " + replica.url + (healthy ? " is back" : " is down"));
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    /**
+     * Create the tables and sample data in the embedded test database
+     */
+    private void loadTestSchema() {
+        List<DataSource> databases = new ArrayList<>();
+        databases.add(dataSource);
+        for (Replica replica : replicas) {
+            databases.add(replica.dataSource);
+        }
+        for (DataSource database : databases) {
+            try (Connection conn = database.getConnection()) {
+                SqlScriptRunner.run(conn, TEST_SCHEMA);
+            } catch (SQLException | IOException e) {
+                System.err.println("Error loading test schema: " + e.getMessage());
+            }
         }
     }
 
     /**
-     * Get a new database connection
+     * Borrow a connection to the primary. Closing it returns it to the pool.
+     * Use this for writes, transactions and reads that must see the latest data.
      */
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(url, username, password);
+        return dataSource.getConnection();
+    }
+
+    /**
+     * Borrow a connection for a read-only query. Replicas take turns; the
+     * primary serves the read when none is configured or healthy, or when
+     * the current client wrote within db.readYourWritesMs (see ReadYourWrites)
+     * so it sees its own changes.
+     */
+    public Connection getReadConnection() throws SQLException {
+        Connection conn = borrowReplica();
+        return conn != null ? conn : getConnection();
+    }
+
+    /**
+     * Run a point lookup on a read connection. If a replica served it and found
+     * nothing, run it again on the primary, since the row may not have
+     * replicated yet.
+     */
+    public <T> T lookup(SqlQuery<T> query) throws SQLException {
+        try (Connection conn = borrowReplica()) {
+            if (conn != null) {
+                T result = query.run(conn);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        try (Connection conn = getConnection()) {
+            return query.run(conn);
+        }
+    }
+
+    /**
+     * Record that the current client just wrote to the primary, so its reads
+     * stay on the primary until the replicas have had time to catch up
+     */
+    public void markWrite() {
+        ReadYourWrites.recordWrite();
+    }
+
+    /**
+     * Check whether read replicas are configured
+     */
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    /**
+     * Count the replicas that passed their last health check
+     */
+    public int getHealthyReplicaCount() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    /**
+     * Borrow a connection from the next healthy replica, or return null when
+     * the read should go to the primary
+     */
+    private Connection borrowReplica() {
+        int count = replicas.size();
+        if (count == 0) {
+            return null;
+        }
+        long wroteAt = ReadYourWrites.lastWriteMillis();
+        if (wroteAt > 0 && System.currentTimeMillis() - wroteAt < readYourWritesMillis) {
+            return null;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                // Leave it out until the health check sees it recover
+                replica.healthy = false;
+                System.err.println("Read replica " + replica.url + " is down: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the underlying pooled DataSource
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Check whether the embedded H2 test database is in use
+     */
+    public boolean isTestMode() {
+        return testMode;
+    }
+
+    /**
+     * Get a snapshot of the pool counters
+     */
+    public PoolStats getPoolStats() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return new PoolStats(0, 0, 0, 0, dataSource.getMaximumPoolSize());
+        }
+        return new PoolStats(pool.getActiveConnections(), pool.getIdleConnections(),
+                pool.getTotalConnections(), pool.getThreadsAwaitingConnection(),
+                dataSource.getMaximumPoolSize());
     }
 
     /**
@@ -84,6 +396,23 @@ public class DatabaseConnection {
         }
     }
 
+    /**
+     * Close all pooled connections
+     */
+    public void shutdown() {
+        if (replicaHealthCheck != null) {
+            replicaHealthCheck.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (!replica.dataSource.isClosed()) {
+                replica.dataSource.close();
+            }
+        }
+        if (dataSource != null && !dataSource.isClosed()) {
+            dataSource.close();
+        }
+    }
+
     /**
      * Close connection safely
      */
@@ -96,4 +425,21 @@ public class DatabaseConnection {
             }
         }
     }
-}
\ No newline at end of file
+
+    private static int intProperty(Properties props, String key, int defaultValue) {
+        return (int) longProperty(props, key, defaultValue);
+    }
+
+    private static long longProperty(Properties props, String key, long defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.hotel.util;
+
+/**
+ * Point-in-time counters of the database connection pool
+ */
+public class PoolStats {
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int totalConnections;
+    private final int threadsAwaitingConnection;
+    private final int maxConnections;
+
+    public PoolStats(int activeConnections, int idleConnections, int totalConnections,
+                     int threadsAwaitingConnection, int maxConnections) {
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.totalConnections = totalConnections;
+        this.threadsAwaitingConnection = threadsAwaitingConnection;
+        this.maxConnections = maxConnections;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public int getThreadsAwaitingConnection() {
+        return threadsAwaitingConnection;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PoolStats[active=%d, idle=%d, total=%d, waiting=%d, max=%d]",
+                activeConnections, idleConnections, totalConnections,
+                threadsAwaitingConnection, maxConnections);
+    }
+}
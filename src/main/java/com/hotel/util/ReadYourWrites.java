@@ -0,0 +1,114 @@
+package com.hotel.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * When the current client last wrote to the primary, so its reads can stay
+ * on the primary until the replicas have caught up (see DatabaseConnection).
+ * Each API request runs on a thread of its own, so the time cannot live in a
+ * thread between requests: a response to a request that wrote hands it to
+ * the client, and the client sends it back on its next requests (see
+ * beginRequest). Work outside a request, such as the console or the night
+ * audit, shares one time for the whole process.
+ */
+public final class ReadYourWrites {
+
+    // The request being served on this thread, if any
+    private static final ThreadLocal<Request> CURRENT = new ThreadLocal<>();
+    // Last write made outside any request, in epoch millis
+    private static final AtomicLong processLastWrite = new AtomicLong();
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * One client request served on the current thread; close it when the request ends
+     */
+    public static final class Request implements AutoCloseable {
+        private long lastWriteMillis;
+        private boolean wrote;
+
+        private Request(long lastWriteMillis) {
+            this.lastWriteMillis = lastWriteMillis;
+        }
+
+        /**
+         * Get when the client last wrote, in epoch millis, or 0 if it has not
+         */
+        public long getLastWriteMillis() {
+            return lastWriteMillis;
+        }
+
+        /**
+         * Check whether this request wrote to the primary
+         */
+        public boolean hasWritten() {
+            return wrote;
+        }
+
+        @Override
+        public void close() {
+            if (CURRENT.get() == this) {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Start serving a request on this thread for a client that last wrote at
+     * the given epoch millis, as it sent back; 0 if it has not written.
+     * A time in the future counts as now.
+     */
+    public static Request beginRequest(long lastWriteMillis) {
+        Request request = new Request(Math.max(0, Math.min(lastWriteMillis, System.currentTimeMillis())));
+        CURRENT.set(request);
+        return request;
+    }
+
+    /**
+     * Wrap a task handed to another thread so it runs as part of the current
+     * request, if any: its reads then see the client's writes
+     */
+    public static <T> Supplier<T> inCurrentRequest(Supplier<T> task) {
+        Request request = CURRENT.get();
+        if (request == null) {
+            return task;
+        }
+        return () -> {
+            Request previous = CURRENT.get();
+            CURRENT.set(request);
+            try {
+                return task.get();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * Record a write to the primary by the current request, or by the process outside one
+     */
+    public static void recordWrite() {
+        long now = System.currentTimeMillis();
+        Request request = CURRENT.get();
+        if (request != null) {
+            request.lastWriteMillis = now;
+            request.wrote = true;
+        } else {
+            processLastWrite.accumulateAndGet(now, Math::max);
+        }
+    }
+
+    /**
+     * Get when the current client last wrote, in epoch millis, or 0 if it has not
+     */
+    public static long lastWriteMillis() {
+        Request request = CURRENT.get();
+        return request != null ? request.lastWriteMillis : processLastWrite.get();
+    }
+}
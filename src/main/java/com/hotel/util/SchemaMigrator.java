@@ -0,0 +1,133 @@
+package com.hotel.util;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the versioned scripts in db/migration in order and records each
+ * one in the schema_version table, so every database converges on the same
+ * schema however old it is.
+ *
+ * A database without schema_version is baselined first: the migrations
+ * whose tables already exist (for example because schema.sql created them)
+ * are recorded as applied without running them.
+ */
+public class SchemaMigrator {
+
+    private static final String LOCATION = "db/migration/";
+
+    // In version order; add new scripts at the end
+    private static final List<String> MIGRATIONS = List.of(
+            "V1__baseline.sql",
+            "V2__room_nights.sql",
+            "V3__reservations_archive.sql",
+            "V4__query_indexes.sql",
+            "V5__room_blocks.sql",
+            "V6__waitlist.sql");
+
+    // Table whose presence shows that the migration of the same index has been applied
+    private static final List<String> MARKER_TABLES = List.of(
+            "reservations",
+            "room_nights",
+            "reservations_archive");
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    /**
+     * Bring the database up to the latest version.
+     * Returns the number of migrations applied.
+     */
+    public static int migrate(Connection conn) throws SQLException, IOException {
+        if (!tableExists(conn, "schema_version")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE schema_version (" +
+                             "version INT PRIMARY KEY, " +
+                             "description VARCHAR(200) NOT NULL, " +
+                             "installed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            }
+            baseline(conn);
+        }
+
+        int current = getCurrentVersion(conn);
+        int applied = 0;
+        for (String migration : MIGRATIONS) {
+            int version = versionOf(migration);
+            if (version <= current) {
+                continue;
+            }
+            SqlScriptRunner.run(conn, LOCATION + migration);
+            record(conn, version, descriptionOf(migration));
+            applied++;
+        }
+        return applied;
+    }
+
+    /**
+     * Get the highest applied version, or 0 for an empty database
+     */
+    public static int getCurrentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Record the migrations an unversioned database already has
+     */
+    private static void baseline(Connection conn) throws SQLException {
+        for (int i = 0; i < MARKER_TABLES.size(); i++) {
+            if (!tableExists(conn, MARKER_TABLES.get(i))) {
+                return;
+            }
+            String migration = MIGRATIONS.get(i);
+            record(conn, versionOf(migration), descriptionOf(migration) + " (baseline)");
+        }
+    }
+
+    private static void record(Connection conn, int version, String description) throws SQLException {
+        String query = "INSERT INTO schema_version (version, description) VALUES (?, ?)";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, version);
+            pstmt.setString(2, description);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        for (String name : new String[] {table, table.toUpperCase()}) {
+            try (ResultSet rs = metaData.getTables(conn.getCatalog(), null, name, new String[] {"TABLE"})) {
+                if (rs.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int versionOf(String migration) {
+        return Integer.parseInt(parse(migration).group(1));
+    }
+
+    private static String descriptionOf(String migration) {
+        return parse(migration).group(2).replace('_', ' ');
+    }
+
+    private static Matcher parse(String migration) {
+        Matcher matcher = FILE_NAME.matcher(migration);
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Bad migration file name: " + migration);
+        }
+        return matcher;
+    }
+}
@@ -0,0 +1,68 @@
+package com.hotel.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for executing SQL scripts from the classpath
+ */
+public class SqlScriptRunner {
+
+    /**
+     * Execute every statement of a classpath script on the given connection.
+     * CREATE DATABASE and USE statements are skipped so the script runs
+     * against whatever database the connection points to.
+     */
+    public static void run(Connection conn, String resource) throws IOException, SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : readStatements(resource)) {
+                String upper = sql.toUpperCase();
+                if (upper.startsWith("CREATE DATABASE") || upper.startsWith("USE ")) {
+                    continue;
+                }
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Split a classpath script into statements, dropping "--" comment lines
+     */
+    public static List<String> readStatements(String resource) throws IOException {
+        InputStream input = SqlScriptRunner.class.getClassLoader().getResourceAsStream(resource);
+        if (input == null) {
+            throw new IOException("SQL script not found: " + resource);
+        }
+
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                    continue;
+                }
+                current.append(line).append('\n');
+                if (trimmed.endsWith(";")) {
+                    String sql = current.toString().trim();
+                    statements.add(sql.substring(0, sql.length() - 1).trim());
+                    current.setLength(0);
+                }
+            }
+        }
+        if (current.toString().trim().length() > 0) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,30 @@
+-- Hotel Reservation System - Room Nights Migration
+-- Adds the room_nights inventory table to a database created from an
+-- older schema.sql and backfills it from the active reservations.
+--
+-- Applied at startup by SchemaMigrator, which records it in schema_version.
+
+CREATE TABLE IF NOT EXISTS room_nights (
+    room_id INT NOT NULL,
+    stay_date DATE NOT NULL,
+    reservation_id INT NOT NULL,
+    PRIMARY KEY (room_id, stay_date),
+    FOREIGN KEY (room_id) REFERENCES rooms(room_id) ON DELETE CASCADE,
+    FOREIGN KEY (reservation_id) REFERENCES reservations(reservation_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE INDEX idx_room_nights_reservation ON room_nights(reservation_id);
+
+-- One row per night of every CONFIRMED or CHECKED_IN reservation.
+-- INSERT IGNORE keeps the first reservation if legacy data already overlaps.
+INSERT IGNORE INTO room_nights (room_id, stay_date, reservation_id)
+WITH RECURSIVE nights (reservation_id, room_id, stay_date, check_out_date) AS (
+    SELECT reservation_id, room_id, check_in_date, check_out_date
+    FROM reservations
+    WHERE status IN ('CONFIRMED', 'CHECKED_IN')
+    UNION ALL
+    SELECT reservation_id, room_id, stay_date + INTERVAL 1 DAY, check_out_date
+    FROM nights
+    WHERE stay_date + INTERVAL 1 DAY < check_out_date
+)
+SELECT room_id, stay_date, reservation_id FROM nights;
@@ -0,0 +1,23 @@
+-- Hotel Reservation System - Reservations Archive Migration
+-- Adds the reservations_archive table that completed (CHECKED_OUT or
+-- CANCELLED) reservations are moved into once their stay is past the
+-- archive horizon. Rows are moved by ReservationArchiver, not here.
+--
+-- Applied at startup by SchemaMigrator, which records it in schema_version.
+
+CREATE TABLE IF NOT EXISTS reservations_archive (
+    reservation_id INT PRIMARY KEY,
+    customer_id INT NOT NULL,
+    room_id INT NOT NULL,
+    check_in_date DATE NOT NULL,
+    check_out_date DATE NOT NULL,
+    total_amount DECIMAL(10, 2),
+    status ENUM('CONFIRMED', 'CHECKED_IN', 'CHECKED_OUT', 'CANCELLED') NOT NULL,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (customer_id) REFERENCES customers(customer_id) ON DELETE CASCADE,
+    FOREIGN KEY (room_id) REFERENCES rooms(room_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE INDEX idx_archive_customer ON reservations_archive(customer_id, check_in_date);
@@ -0,0 +1,13 @@
+-- Hotel Reservation System - Query Index Migration
+-- Indexes shaped after the queries the DAOs run:
+--   getReservationsByCustomer   WHERE customer_id = ? ORDER BY check_in_date DESC
+--   getActiveReservations       WHERE status IN (...)
+--   ReservationArchiveDAO       WHERE status IN (...) AND check_out_date < ?
+-- Availability is answered from the room_nights primary key (room_id, stay_date),
+-- so no reservations index is needed for it. idx_reservation_status is a prefix
+-- of the new status index, and no query filters on check_in_date first.
+
+CREATE INDEX idx_reservation_customer_checkin ON reservations(customer_id, check_in_date);
+CREATE INDEX idx_reservation_status_checkout ON reservations(status, check_out_date);
+DROP INDEX idx_reservation_status ON reservations;
+DROP INDEX idx_reservation_dates ON reservations;
@@ -0,0 +1,30 @@
+-- Hotel Reservation System - Room Blocks Migration
+-- Room status becomes date-aware: bookings no longer mark a room OCCUPIED,
+-- and maintenance for a date range is a room_blocks row whose nights are
+-- claimed in room_nights, so the same primary key keeps bookings off them.
+-- rooms.status keeps AVAILABLE or MAINTENANCE (out of service until reopened).
+--
+-- Applied at startup by SchemaMigrator, which records it in schema_version.
+
+CREATE TABLE IF NOT EXISTS room_blocks (
+    block_id INT PRIMARY KEY AUTO_INCREMENT,
+    room_id INT NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    reason VARCHAR(100),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (room_id) REFERENCES rooms(room_id) ON DELETE CASCADE,
+    CONSTRAINT check_block_dates CHECK (end_date > start_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+ALTER TABLE room_nights MODIFY reservation_id INT NULL;
+ALTER TABLE room_nights ADD COLUMN block_id INT NULL;
+ALTER TABLE room_nights ADD CONSTRAINT fk_room_nights_block
+    FOREIGN KEY (block_id) REFERENCES room_blocks(block_id) ON DELETE CASCADE;
+CREATE INDEX idx_room_nights_block ON room_nights(block_id);
+
+-- OCCUPIED is now derived per night from room_nights
+UPDATE rooms SET status = 'AVAILABLE' WHERE status = 'OCCUPIED';
+
+-- Listings filter by date through room_nights, not by this low-cardinality column
+DROP INDEX idx_room_status ON rooms;
@@ -0,0 +1,25 @@
+-- Hotel Reservation System - Waitlist Migration
+-- Adds the waitlist table: booking requests for a room type that found no
+-- free room. Waiting requests are loaded into memory at startup and booked
+-- by ReservationService when a cancellation frees nights they need.
+--
+-- Applied at startup by SchemaMigrator, which records it in schema_version.
+
+CREATE TABLE IF NOT EXISTS waitlist (
+    request_id INT PRIMARY KEY AUTO_INCREMENT,
+    first_name VARCHAR(50) NOT NULL,
+    last_name VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    phone_number VARCHAR(15) NOT NULL,
+    id_proof VARCHAR(50),
+    room_type ENUM('SINGLE', 'DOUBLE', 'SUITE', 'DELUXE') NOT NULL,
+    check_in_date DATE NOT NULL,
+    check_out_date DATE NOT NULL,
+    status ENUM('WAITING', 'BOOKED', 'CANCELLED', 'EXPIRED') DEFAULT 'WAITING',
+    reservation_id INT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT check_waitlist_dates CHECK (check_out_date > check_in_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE INDEX idx_waitlist_status ON waitlist(status, request_id);
@@ -7,11 +7,17 @@ CREATE DATABASE IF NOT EXISTS hotel_reservation_db;
 USE hotel_reservation_db;
 
 -- Drop tables if they exist (for clean setup)
+DROP TABLE IF EXISTS waitlist;
+DROP TABLE IF EXISTS room_nights;
+DROP TABLE IF EXISTS room_blocks;
+DROP TABLE IF EXISTS reservations_archive;
 DROP TABLE IF EXISTS reservations;
 DROP TABLE IF EXISTS customers;
 DROP TABLE IF EXISTS rooms;
+DROP TABLE IF EXISTS schema_version;
 
--- Create Rooms Table
+-- Create Rooms Table (status MAINTENANCE takes a room out of service until
+-- it is set back to AVAILABLE; who sleeps in it on which night is in room_nights)
 CREATE TABLE rooms (
     room_id INT PRIMARY KEY AUTO_INCREMENT,
     room_number VARCHAR(10) UNIQUE NOT NULL,
@@ -49,13 +55,94 @@ CREATE TABLE reservations (
     CONSTRAINT check_dates CHECK (check_out_date > check_in_date)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- Create Room Blocks Table (date-ranged maintenance; the room is not
+-- sold for the nights [start_date, end_date))
+CREATE TABLE room_blocks (
+    block_id INT PRIMARY KEY AUTO_INCREMENT,
+    room_id INT NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    reason VARCHAR(100),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (room_id) REFERENCES rooms(room_id) ON DELETE CASCADE,
+    CONSTRAINT check_block_dates CHECK (end_date > start_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Create Room Nights Table (one row per booked or blocked night; the
+-- primary key rejects a second claim on the same room and night)
+CREATE TABLE room_nights (
+    room_id INT NOT NULL,
+    stay_date DATE NOT NULL,
+    reservation_id INT NULL,
+    block_id INT NULL,
+    PRIMARY KEY (room_id, stay_date),
+    FOREIGN KEY (room_id) REFERENCES rooms(room_id) ON DELETE CASCADE,
+    FOREIGN KEY (reservation_id) REFERENCES reservations(reservation_id) ON DELETE CASCADE,
+    FOREIGN KEY (block_id) REFERENCES room_blocks(block_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Create Reservations Archive Table (CHECKED_OUT and CANCELLED reservations
+-- moved out of reservations once their stay is past the archive horizon)
+CREATE TABLE reservations_archive (
+    reservation_id INT PRIMARY KEY,
+    customer_id INT NOT NULL,
+    room_id INT NOT NULL,
+    check_in_date DATE NOT NULL,
+    check_out_date DATE NOT NULL,
+    total_amount DECIMAL(10, 2),
+    status ENUM('CONFIRMED', 'CHECKED_IN', 'CHECKED_OUT', 'CANCELLED') NOT NULL,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (customer_id) REFERENCES customers(customer_id) ON DELETE CASCADE,
+    FOREIGN KEY (room_id) REFERENCES rooms(room_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Create Waitlist Table (booking requests for a room type that found no
+-- free room; matched against nights freed by cancellations)
+CREATE TABLE waitlist (
+    request_id INT PRIMARY KEY AUTO_INCREMENT,
+    first_name VARCHAR(50) NOT NULL,
+    last_name VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    phone_number VARCHAR(15) NOT NULL,
+    id_proof VARCHAR(50),
+    room_type ENUM('SINGLE', 'DOUBLE', 'SUITE', 'DELUXE') NOT NULL,
+    check_in_date DATE NOT NULL,
+    check_out_date DATE NOT NULL,
+    status ENUM('WAITING', 'BOOKED', 'CANCELLED', 'EXPIRED') DEFAULT 'WAITING',
+    reservation_id INT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT check_waitlist_dates CHECK (check_out_date > check_in_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 -- Create Indexes for better query performance
-CREATE INDEX idx_room_status ON rooms(status);
 CREATE INDEX idx_room_type ON rooms(room_type);
 CREATE INDEX idx_customer_email ON customers(email);
 CREATE INDEX idx_customer_phone ON customers(phone_number);
-CREATE INDEX idx_reservation_dates ON reservations(check_in_date, check_out_date);
-CREATE INDEX idx_reservation_status ON reservations(status);
+CREATE INDEX idx_reservation_customer_checkin ON reservations(customer_id, check_in_date);
+CREATE INDEX idx_reservation_status_checkout ON reservations(status, check_out_date);
+CREATE INDEX idx_room_nights_reservation ON room_nights(reservation_id);
+CREATE INDEX idx_room_nights_block ON room_nights(block_id);
+CREATE INDEX idx_archive_customer ON reservations_archive(customer_id, check_in_date);
+CREATE INDEX idx_waitlist_status ON waitlist(status, request_id);
+
+-- Record the migrations this script covers, so SchemaMigrator
+-- (src/main/resources/db/migration) only applies newer ones
+CREATE TABLE schema_version (
+    version INT PRIMARY KEY,
+    description VARCHAR(200) NOT NULL,
+    installed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO schema_version (version, description) VALUES
+(1, 'baseline (schema.sql)'),
+(2, 'room nights (schema.sql)'),
+(3, 'reservations archive (schema.sql)'),
+(4, 'query indexes (schema.sql)'),
+(5, 'room blocks (schema.sql)'),
+(6, 'waitlist (schema.sql)');
 
 -- Insert Sample Room Data
 INSERT INTO rooms (room_number, room_type, price_per_night, floor_number, max_occupancy) VALUES
@@ -80,8 +167,12 @@ INSERT INTO reservations (customer_id, room_id, check_in_date, check_out_date, t
 (1, 2, '2025-11-25', '2025-11-27', 5000.00, 'CONFIRMED'),
 (2, 4, '2025-11-28', '2025-11-30', 10000.00, 'CONFIRMED');
 
--- Update room status for booked rooms
-UPDATE rooms SET status = 'OCCUPIED' WHERE room_id IN (2, 4);
+-- Insert booked nights for the sample reservations
+INSERT INTO room_nights (room_id, stay_date, reservation_id) VALUES
+(2, '2025-11-25', 1),
+(2, '2025-11-26', 1),
+(4, '2025-11-28', 2),
+(4, '2025-11-29', 2);
 
 -- Verify data
 SELECT 'Rooms Created:' AS Info, COUNT(*) AS Count FROM rooms
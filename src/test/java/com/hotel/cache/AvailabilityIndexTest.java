@@ -0,0 +1,153 @@
+package com.hotel.cache;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compare-and-set claims: concurrent overlapping claims never share a night,
+ * and a claim that fails part way gives back the words it had already set
+ */
+public class AvailabilityIndexTest {
+
+    private static final int THREADS = 16;
+    private static final int ROOMS = 3;
+    private static final int CLAIMS_PER_THREAD = 20_000;
+    // First night of a chunk, so stays cross word and chunk boundaries around it
+    private static final long CHUNK_START = 1024L * 25;
+    private static final long FIRST_DAY = CHUNK_START - 200;
+    private static final int SPAN = 400;
+
+    /**
+     * A stay claimed by one thread and still held
+     */
+    private static final class Stay {
+        final int roomId;
+        final long from;
+        final long to;
+
+        Stay(int roomId, long from, long to) {
+            this.roomId = roomId;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    @Test
+    public void concurrentClaimsMatchHeldStays() throws Exception {
+        AvailabilityIndex index = new AvailabilityIndex();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<Stay>>> futures = new ArrayList<>();
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            for (int t = 0; t < THREADS; t++) {
+                long seed = t;
+                Callable<List<Stay>> claims = () -> {
+                    start.await();
+                    return claimAndRelease(index, new Random(seed));
+                };
+                futures.add(pool.submit(claims));
+            }
+            start.countDown();
+
+            Map<Integer, BitSet> held = new HashMap<>();
+            for (Future<List<Stay>> future : futures) {
+                for (Stay stay : future.get()) {
+                    BitSet nights = held.computeIfAbsent(stay.roomId, id -> new BitSet());
+                    for (long day = stay.from; day < stay.to; day++) {
+                        assertFalse("night held twice in room " + stay.roomId, nights.get((int) (day - FIRST_DAY)));
+                        nights.set((int) (day - FIRST_DAY));
+                    }
+                }
+            }
+
+            Map<Integer, List<LocalDate>> heldNights = new HashMap<>();
+            held.forEach((roomId, nights) -> {
+                List<LocalDate> dates = new ArrayList<>();
+                nights.stream().forEach(i -> dates.add(LocalDate.ofEpochDay(FIRST_DAY + i)));
+                heldNights.put(roomId, dates);
+            });
+            assertEquals(List.of(), index.findInconsistencies(heldNights));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failedClaimReleasesEarlierWords() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        // Taken nights in the second word of the new chunk
+        assertTrue(index.reserve(1, day(CHUNK_START + 70), day(CHUNK_START + 75)));
+
+        // Starts two words back in the previous chunk and runs into the taken nights
+        assertFalse(index.reserve(1, day(CHUNK_START - 100), day(CHUNK_START + 72)));
+
+        assertTrue(index.isAvailable(1, day(CHUNK_START - 100), day(CHUNK_START + 70)));
+        assertEquals(List.of(), index.findInconsistencies(Map.of(1, dates(CHUNK_START + 70, CHUNK_START + 75))));
+        assertTrue(index.reserve(1, day(CHUNK_START - 100), day(CHUNK_START + 70)));
+    }
+
+    @Test
+    public void claimFailsOnAnyTakenNight() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        assertTrue(index.reserve(2, day(CHUNK_START - 1), day(CHUNK_START + 1)));
+
+        assertFalse(index.reserve(2, day(CHUNK_START), day(CHUNK_START + 3)));
+        assertFalse(index.reserve(2, day(CHUNK_START - 5), day(CHUNK_START)));
+        assertTrue(index.reserve(2, day(CHUNK_START + 1), day(CHUNK_START + 3)));
+        assertTrue(index.reserve(3, day(CHUNK_START - 1), day(CHUNK_START + 1)));
+
+        index.release(2, day(CHUNK_START - 1), day(CHUNK_START + 1));
+        assertEquals(List.of(), index.findInconsistencies(Map.of(
+                2, dates(CHUNK_START + 1, CHUNK_START + 3),
+                3, dates(CHUNK_START - 1, CHUNK_START + 1))));
+    }
+
+    /**
+     * Claim random stays, now and then releasing one held earlier; return the stays still held
+     */
+    private static List<Stay> claimAndRelease(AvailabilityIndex index, Random random) {
+        List<Stay> held = new ArrayList<>();
+        for (int i = 0; i < CLAIMS_PER_THREAD; i++) {
+            if (!held.isEmpty() && random.nextInt(3) == 0) {
+                Stay stay = held.remove(random.nextInt(held.size()));
+                index.release(stay.roomId, day(stay.from), day(stay.to));
+                continue;
+            }
+            int roomId = 1 + random.nextInt(ROOMS);
+            long from = FIRST_DAY + random.nextInt(SPAN);
+            long to = Math.min(from + 1 + random.nextInt(150), FIRST_DAY + SPAN);
+            if (index.reserve(roomId, day(from), day(to))) {
+                held.add(new Stay(roomId, from, to));
+            }
+        }
+        return held;
+    }
+
+    private static LocalDate day(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static List<LocalDate> dates(long from, long to) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (long d = from; d < to; d++) {
+            dates.add(day(d));
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,187 @@
+package com.hotel.cache;
+
+import com.hotel.model.Reservation;
+import com.hotel.model.Reservation.ReservationStatus;
+import com.hotel.model.Room;
+import com.hotel.model.Room.RoomStatus;
+import com.hotel.model.Room.RoomType;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Changes made while a reload reads storage are counted exactly once,
+ * whether the read saw them or not, and do not wait for the reload
+ */
+public class RoomTypeInventoryTest {
+
+    private static final List<Room> ROOMS = List.of(
+            new Room(1, "101", RoomType.SINGLE, 100.0, RoomStatus.AVAILABLE, 1, 1),
+            new Room(2, "102", RoomType.SINGLE, 100.0, RoomStatus.AVAILABLE, 1, 1));
+
+    private final LocalDate checkIn = LocalDate.now().plusDays(2);
+    private final LocalDate checkOut = checkIn.plusDays(3);
+
+    @Test
+    public void bookingDuringReloadDoesNotWait() throws Exception {
+        RoomTypeInventory inventory = new RoomTypeInventory(30);
+        List<Reservation> stored = storedStays(1);
+        inventory.load(ROOMS, stored, List.of());
+
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch booked = new CountDownLatch(1);
+        boolean[] bookedWhileReading = new boolean[1];
+        Thread reload = new Thread(() -> inventory.reload(() -> ROOMS, () -> {
+            reading.countDown();
+            try {
+                bookedWhileReading[0] = booked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ArrayList<>(stored);
+        }, List::of));
+        reload.start();
+        reading.await();
+
+        book(inventory, stored, 2);
+        booked.countDown();
+        reload.join();
+
+        assertTrue("booking waited for the reload to read storage", bookedWhileReading[0]);
+        assertEquals(2, sold(inventory));
+    }
+
+    @Test
+    public void bookingAfterReadIsCountedOnce() throws Exception {
+        RoomTypeInventory inventory = new RoomTypeInventory(30);
+        List<Reservation> stored = storedStays(1);
+        inventory.load(ROOMS, stored, List.of());
+
+        reloadAround(inventory, stored, false, () -> book(inventory, stored, 2));
+
+        assertEquals(2, sold(inventory));
+        assertEquals(0, inventory.getMinAvailable(RoomType.SINGLE, checkIn, checkOut));
+    }
+
+    @Test
+    public void bookingBeforeReadIsCountedOnce() throws Exception {
+        RoomTypeInventory inventory = new RoomTypeInventory(30);
+        List<Reservation> stored = storedStays(1);
+        inventory.load(ROOMS, stored, List.of());
+
+        reloadAround(inventory, stored, true, () -> book(inventory, stored, 2));
+
+        assertEquals(2, sold(inventory));
+    }
+
+    @Test
+    public void cancellationAfterReadIsCountedOnce() throws Exception {
+        RoomTypeInventory inventory = new RoomTypeInventory(30);
+        List<Reservation> stored = storedStays(1, 2);
+        inventory.load(ROOMS, stored, List.of());
+
+        reloadAround(inventory, stored, false, () -> cancel(inventory, stored, 1));
+
+        assertEquals(1, sold(inventory));
+        assertEquals(1, inventory.getMinAvailable(RoomType.SINGLE, checkIn, checkOut));
+    }
+
+    @Test
+    public void cancellationBeforeReadIsCountedOnce() throws Exception {
+        RoomTypeInventory inventory = new RoomTypeInventory(30);
+        List<Reservation> stored = storedStays(1, 2);
+        inventory.load(ROOMS, stored, List.of());
+
+        reloadAround(inventory, stored, true, () -> cancel(inventory, stored, 1));
+
+        assertEquals(1, sold(inventory));
+    }
+
+    @Test
+    public void bookedAndCancelledDuringReloadLeavesNothing() throws Exception {
+        RoomTypeInventory inventory = new RoomTypeInventory(30);
+        List<Reservation> stored = storedStays(1);
+        inventory.load(ROOMS, stored, List.of());
+
+        reloadAround(inventory, stored, false, () -> {
+            book(inventory, stored, 2);
+            cancel(inventory, stored, 2);
+        });
+
+        assertEquals(1, sold(inventory));
+    }
+
+    /**
+     * Run a reload and make the change while it is in progress: before it
+     * reads the reservations, or after it has read them
+     */
+    private static void reloadAround(RoomTypeInventory inventory, List<Reservation> stored,
+                                     boolean beforeRead, Runnable change) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch changed = new CountDownLatch(1);
+        Thread reload = new Thread(() -> inventory.reload(() -> ROOMS, () -> {
+            started.countDown();
+            try {
+                List<Reservation> read;
+                if (beforeRead) {
+                    changed.await(5, TimeUnit.SECONDS);
+                    read = new ArrayList<>(stored);
+                } else {
+                    read = new ArrayList<>(stored);
+                    changed.await(5, TimeUnit.SECONDS);
+                }
+                return read;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return List.of();
+            }
+        }, List::of));
+        reload.start();
+        started.await();
+
+        change.run();
+        changed.countDown();
+        reload.join();
+    }
+
+    private List<Reservation> storedStays(int... reservationIds) {
+        List<Reservation> stored = Collections.synchronizedList(new ArrayList<>());
+        for (int reservationId : reservationIds) {
+            stored.add(stay(reservationId));
+        }
+        return stored;
+    }
+
+    private void book(RoomTypeInventory inventory, List<Reservation> stored, int reservationId) {
+        inventory.counting(() -> {
+            stored.add(stay(reservationId));
+            inventory.book(reservationId, RoomType.SINGLE, checkIn, checkOut);
+            return null;
+        });
+    }
+
+    private void cancel(RoomTypeInventory inventory, List<Reservation> stored, int reservationId) {
+        inventory.counting(() -> {
+            stored.removeIf(reservation -> reservation.getReservationId() == reservationId);
+            inventory.release(reservationId, RoomType.SINGLE, checkIn, checkOut);
+            return null;
+        });
+    }
+
+    private Reservation stay(int reservationId) {
+        return new Reservation(reservationId, reservationId, reservationId, checkIn, checkOut, 300.0,
+                ReservationStatus.CONFIRMED);
+    }
+
+    private int sold(RoomTypeInventory inventory) {
+        return inventory.getNights(RoomType.SINGLE, checkIn, checkOut).get(0).getSold();
+    }
+}
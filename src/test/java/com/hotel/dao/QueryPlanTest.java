@@ -0,0 +1,149 @@
+package com.hotel.dao;
+
+import com.hotel.dao.StayTransitionDAO.Transition;
+import com.hotel.util.SchemaMigrator;
+import com.hotel.util.SqlScriptRunner;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * EXPLAIN the hot queries on the embedded H2 database once the schema is
+ * migrated, and check each reads reservations and room_nights through the
+ * expected index instead of scanning the table. The SQL is the DAOs' own,
+ * so a change to a query is checked here too.
+ */
+public class QueryPlanTest {
+
+    private static final String URL =
+            "jdbc:h2:mem:query_plan_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    // A table in the plan followed by the index H2 reads it with and the index condition, e.g.
+    // FROM "public"."reservations" "r" /* public.idx_x: customer_id = ?1 */ or /* public.reservations.tableScan */
+    private static final Pattern TABLE_ACCESS =
+            Pattern.compile("\"public\"\\.\"(\\w+)\"(?: \"\\w+\")?\\s*/\\* public\\.([\\w.]+)([^*]*)\\*/");
+
+    private static Connection conn;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        conn = DriverManager.getConnection(URL, "sa", "");
+        SqlScriptRunner.run(conn, "schema.sql");
+        SchemaMigrator.migrate(conn);
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        conn.createStatement().execute("SHUTDOWN");
+        conn.close();
+    }
+
+    @Test
+    public void availabilityProbeUsesRoomNightsKey() throws Exception {
+        assertAccess(ReservationDAO.NIGHTS_TAKEN_QUERY, "room_nights", "room_id", "stay_date");
+    }
+
+    @Test
+    public void searchProbesRoomNightsKey() throws Exception {
+        assertAccess(RoomDAO.searchQuery(false, false, false), "room_nights", "room_id", "stay_date");
+        assertAccess(RoomDAO.searchQuery(true, true, true), "room_nights", "room_id", "stay_date");
+    }
+
+    @Test
+    public void customerHistoryUsesCustomerIndex() throws Exception {
+        assertAccess(ReservationDAO.CUSTOMER_RESERVATIONS_QUERY, "reservations", "customer_id");
+        assertAccess(ReservationDAO.CUSTOMER_RESERVATIONS_QUERY, "reservations_archive", "customer_id");
+    }
+
+    @Test
+    public void activeReservationsUseStatusIndex() throws Exception {
+        assertAccess(ReservationDAO.ACTIVE_RESERVATIONS_QUERY, "reservations", "status");
+        assertAccess(ReservationDAO.ACTIVE_STATUSES_QUERY, "reservations", "status");
+    }
+
+    @Test
+    public void nightAuditBatchesUseStatusIndex() throws Exception {
+        assertAccess(Transition.NO_SHOWS.batchQuery, "reservations", "status");
+        assertAccess(Transition.DEPARTURES.batchQuery, "reservations", "status", "check_out_date");
+    }
+
+    @Test
+    public void reservationPagesSeekOnPrimaryKey() throws Exception {
+        assertAccess(ReservationDAO.RESERVATIONS_PAGE_QUERY, "reservations", "reservation_id");
+    }
+
+    @Test
+    public void releasingNightsUsesReservationIndex() throws Exception {
+        assertAccess(ReservationDAO.DELETE_ROOM_NIGHTS_QUERY, "room_nights", "reservation_id");
+    }
+
+    /**
+     * Assert the plan reads the table through an index whose leading columns
+     * are the given ones, seeking on the first of them, and reads no table
+     * of interest by a full scan
+     */
+    private static void assertAccess(String query, String table, String... leadingColumns) throws Exception {
+        String plan = explain(query);
+        assertFalse("full scan of reservations or room_nights:\n" + plan,
+                plan.contains("reservations.tableScan") || plan.contains("room_nights.tableScan"));
+
+        Matcher access = TABLE_ACCESS.matcher(plan);
+        List<String> indexes = new ArrayList<>();
+        String condition = "";
+        while (access.find()) {
+            if (access.group(1).equals(table)) {
+                indexes.add(access.group(2));
+                condition = access.group(3);
+            }
+        }
+        assertEquals("one read of " + table + " in:\n" + plan, 1, indexes.size());
+        List<String> columns = indexColumns(table, indexes.get(0));
+        assertTrue(table + " read with " + indexes.get(0) + " on " + columns + ":\n" + plan,
+                columns.size() >= leadingColumns.length
+                        && columns.subList(0, leadingColumns.length).equals(List.of(leadingColumns)));
+        // Walking the index without a condition on its first column is a scan all the same
+        assertTrue(table + " read with no condition on " + leadingColumns[0] + ":\n" + plan,
+                condition.contains(leadingColumns[0]));
+    }
+
+    private static String explain(String query) throws Exception {
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + query)) {
+            ParameterMetaData parameters = pstmt.getParameterMetaData();
+            for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                pstmt.setObject(i, null);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private static List<String> indexColumns(String table, String index) throws Exception {
+        String query = "SELECT column_name FROM information_schema.index_columns "
+                + "WHERE table_name = ? AND index_name = ? ORDER BY ordinal_position";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setString(1, table);
+            pstmt.setString(2, index);
+            ResultSet rs = pstmt.executeQuery();
+            List<String> columns = new ArrayList<>();
+            while (rs.next()) {
+                columns.add(rs.getString(1));
+            }
+            return columns;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.hotel.pricing;
+
+import com.hotel.cache.RoomTypeInventory;
+import com.hotel.model.Room;
+import com.hotel.model.Room.RoomStatus;
+import com.hotel.model.Room.RoomType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Calendar updates: occupancy tiers follow the inventory, added rooms are
+ * priced on their own, and a calendar that is up to date is not rebuilt
+ */
+public class PricingEngineTest {
+
+    private final List<Room> rooms = new ArrayList<>(List.of(
+            new Room(1, "101", RoomType.SINGLE, 100.0, RoomStatus.AVAILABLE, 1, 1),
+            new Room(2, "102", RoomType.SINGLE, 100.0, RoomStatus.AVAILABLE, 1, 1),
+            new Room(3, "201", RoomType.DOUBLE, 150.0, RoomStatus.AVAILABLE, 2, 2)));
+
+    private RoomTypeInventory inventory;
+    private PricingEngine pricing;
+    private LocalDate night;
+
+    @Before
+    public void setUp() {
+        inventory = new RoomTypeInventory(30);
+        inventory.load(rooms, List.of(), List.of());
+        pricing = new PricingEngine(Map.of(RoomType.SINGLE, new RatePlan().withOccupancyTier(50, 200)), 30);
+        pricing.rebuild(rooms, inventory);
+        night = LocalDate.now().plusDays(3);
+    }
+
+    @Test
+    public void repricesTypeWhenOccupancyCrossesTier() {
+        assertEquals(10_000, pricing.quoteCents(rooms.get(1), night, night.plusDays(1)));
+
+        inventory.book(1, RoomType.SINGLE, night, night.plusDays(1));
+        pricing.refreshOccupancy(RoomType.SINGLE, night, night.plusDays(1), () -> rooms, inventory);
+        assertEquals(20_000, pricing.quoteCents(rooms.get(1), night, night.plusDays(1)));
+        assertEquals(10_000, pricing.quoteCents(rooms.get(1), night.plusDays(1), night.plusDays(2)));
+        assertEquals(15_000, pricing.quoteCents(rooms.get(2), night, night.plusDays(1)));
+
+        inventory.release(1, RoomType.SINGLE, night, night.plusDays(1));
+        pricing.refreshOccupancy(RoomType.SINGLE, night, night.plusDays(1), () -> rooms, inventory);
+        assertEquals(10_000, pricing.quoteCents(rooms.get(1), night, night.plusDays(1)));
+    }
+
+    @Test
+    public void skipsRepriceWithinTier() {
+        pricing.refreshOccupancy(RoomType.SINGLE, night, night.plusDays(1), () -> {
+            fail("rooms listed without a tier change");
+            return rooms;
+        }, inventory);
+        pricing.refreshOccupancy(RoomType.DOUBLE, night, night.plusDays(1), () -> {
+            fail("rooms listed for a type without tiers");
+            return rooms;
+        }, inventory);
+    }
+
+    @Test
+    public void addRoomPricesOnlyNewRoom() {
+        inventory.book(1, RoomType.SINGLE, night, night.plusDays(1));
+        Room added = new Room(7, "301", RoomType.SINGLE, 80.0, RoomStatus.AVAILABLE, 3, 1);
+        inventory.addCapacity(RoomType.SINGLE, 1);
+
+        pricing.addRoom(added, inventory);
+
+        // The new room is priced at the occupancy the others were priced at
+        assertEquals(8_000, pricing.quoteCents(added, night, night.plusDays(1)));
+        assertEquals(8_000 * 4, pricing.quoteCents(added, night.plusDays(1), night.plusDays(5)));
+        assertEquals(10_000, pricing.quoteCents(rooms.get(0), night, night.plusDays(1)));
+    }
+
+    @Test
+    public void rebuildIfStaleSkipsFreshCalendar() {
+        pricing.rebuildIfStale(() -> {
+            fail("rebuilt a calendar that starts today");
+            return rooms;
+        }, inventory);
+        assertEquals(LocalDate.now(), pricing.getFirstNight());
+    }
+}
@@ -0,0 +1,86 @@
+package com.hotel.service;
+
+import com.hotel.model.Customer;
+import com.hotel.repository.memory.InMemoryStorageEngine;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The async facade must accept and reject exactly what the service does
+ */
+public class AsyncReservationServiceTest {
+
+    private static final String PHONE = "9000000001";
+
+    private ReservationService service;
+    private AsyncReservationService async;
+
+    @Before
+    public void setUp() {
+        service = new ReservationService(new InMemoryStorageEngine().withSampleRooms(), null, null);
+        async = new AsyncReservationService(service, 4, 100);
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        BookingResult existing = service.createReservation(
+                new Customer("Ana", "Roy", "ana@example.com", PHONE, "PASSPORT"), 1, checkIn, checkIn.plusDays(1));
+        assertEquals(BookingResult.Status.CREATED, existing.getStatus());
+    }
+
+    @After
+    public void tearDown() {
+        async.close();
+    }
+
+    @Test
+    public void rejectsInvalidInputEvenWhenPhoneMatchesCustomer() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(5);
+
+        BookingResult sync = service.createReservation("", "", "not-an-email", PHONE, "PASSPORT",
+                2, checkIn, checkIn.plusDays(2));
+        BookingResult result = async.createReservation("", "", "not-an-email", PHONE, "PASSPORT",
+                2, checkIn, checkIn.plusDays(2)).get();
+
+        assertEquals(BookingResult.Status.INVALID_REQUEST, sync.getStatus());
+        assertEquals(sync.getStatus(), result.getStatus());
+        assertEquals(sync.getMessage(), result.getMessage());
+    }
+
+    @Test
+    public void rejectsInvalidEmailWithValidName() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(5);
+
+        BookingResult result = async.createReservation("Ana", "Roy", "not-an-email", PHONE, "PASSPORT",
+                2, checkIn, checkIn.plusDays(2)).get();
+
+        assertEquals(BookingResult.Status.INVALID_REQUEST, result.getStatus());
+    }
+
+    @Test
+    public void booksExistingCustomerMatchedByEmail() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(8);
+
+        BookingResult result = async.createReservation("Ana", "Roy", "ana@example.com", "9000000099", "PASSPORT",
+                3, checkIn, checkIn.plusDays(2)).get();
+
+        assertEquals(BookingResult.Status.CREATED, result.getStatus());
+        assertEquals(service.getCustomerByEmail("ana@example.com").getCustomerId(),
+                result.getCustomer().getCustomerId());
+    }
+
+    @Test
+    public void reportsTakenDatesAndMissingRoom() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+
+        BookingResult taken = async.createReservation("Ben", "Lee", "ben@example.com", "9000000002", "PASSPORT",
+                1, checkIn, checkIn.plusDays(1)).get();
+        BookingResult missing = async.createReservation("Ben", "Lee", "ben@example.com", "9000000002", "PASSPORT",
+                999, checkIn, checkIn.plusDays(1)).get();
+
+        assertEquals(BookingResult.Status.DATES_TAKEN, taken.getStatus());
+        assertEquals(BookingResult.Status.ROOM_NOT_FOUND, missing.getStatus());
+    }
+}
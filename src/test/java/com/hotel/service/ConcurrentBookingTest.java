@@ -0,0 +1,148 @@
+package com.hotel.service;
+
+import com.hotel.dao.BookingDAO;
+import com.hotel.dao.CustomerDAO;
+import com.hotel.dao.ReservationDAO;
+import com.hotel.model.Customer;
+import com.hotel.model.Reservation;
+import com.hotel.repository.BookingRepository;
+import com.hotel.util.DatabaseConnection;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Many threads book the same room and dates at once against the embedded
+ * H2 database (MySQL mode); exactly one of them may get the room.
+ */
+public class ConcurrentBookingTest {
+
+    private static final int THREADS = 16;
+    private static final int ROOM_ID = 5;
+
+    private static ReservationService service;
+
+    @BeforeClass
+    public static void setUp() {
+        service = new ReservationService();
+    }
+
+    @Test
+    public void serviceBooksSameRoomAndDatesOnce() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(300);
+        LocalDate checkOut = checkIn.plusDays(3);
+
+        List<BookingResult> results = runConcurrently(i ->
+                service.createReservation(guest("svc", i), ROOM_ID, checkIn, checkOut));
+
+        int created = 0;
+        int winner = -1;
+        for (BookingResult result : results) {
+            if (result.getStatus() == BookingResult.Status.CREATED) {
+                created++;
+                winner = result.getReservationId();
+            } else {
+                assertEquals(BookingResult.Status.DATES_TAKEN, result.getStatus());
+            }
+        }
+        assertEquals(1, created);
+        assertEquals(3, countRoomNights(ROOM_ID, checkIn, checkOut, winner));
+        assertEquals(3, countRoomNights(ROOM_ID, checkIn, checkOut, 0));
+    }
+
+    @Test
+    public void bookingTransactionBooksSameRoomAndDatesOnce() throws Exception {
+        // Straight to the database, past the availability index, so only room_nights decides
+        BookingDAO bookings = new BookingDAO(new CustomerDAO(), new ReservationDAO());
+        LocalDate checkIn = LocalDate.now().plusDays(310);
+        LocalDate checkOut = checkIn.plusDays(4);
+
+        List<BookingRepository.Result> results = runConcurrently(i ->
+                bookings.book(guest("dao", i), new Reservation(0, ROOM_ID, checkIn, checkOut, 100.0)));
+
+        int booked = 0;
+        int winner = -1;
+        for (BookingRepository.Result result : results) {
+            if (result.getOutcome() == BookingRepository.Outcome.BOOKED) {
+                booked++;
+                winner = result.getReservationId();
+            } else {
+                assertEquals(BookingRepository.Outcome.DATES_TAKEN, result.getOutcome());
+            }
+        }
+        assertEquals(1, booked);
+        assertEquals(4, countRoomNights(ROOM_ID, checkIn, checkOut, winner));
+        assertEquals(4, countRoomNights(ROOM_ID, checkIn, checkOut, 0));
+    }
+
+    /**
+     * Run one task per thread, released together, and collect the results in thread order
+     */
+    private static <T> List<T> runConcurrently(IntFunction<T> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                Callable<T> call = () -> {
+                    start.await();
+                    return task.apply(thread);
+                };
+                futures.add(pool.submit(call));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Customer guest(String prefix, int i) {
+        int number = (prefix.equals("svc") ? 100 : 200) + i;
+        return new Customer("Guest", prefix + i, prefix + i + "@concurrent.test",
+                String.format("91%08d", number), "PASSPORT");
+    }
+
+    /**
+     * Count room_nights rows of the room in [from, to), only those of the
+     * given reservation unless it is 0
+     */
+    private static int countRoomNights(int roomId, LocalDate from, LocalDate to, int reservationId)
+            throws SQLException {
+        String query = "SELECT COUNT(*) FROM room_nights WHERE room_id = ? AND stay_date >= ? AND stay_date < ?"
+                + (reservationId > 0 ? " AND reservation_id = ?" : "");
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, roomId);
+            pstmt.setDate(2, Date.valueOf(from));
+            pstmt.setDate(3, Date.valueOf(to));
+            if (reservationId > 0) {
+                pstmt.setInt(4, reservationId);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.hotel.service;
+
+import com.hotel.dao.BookingDAO;
+import com.hotel.dao.CustomerDAO;
+import com.hotel.dao.ReservationDAO;
+import com.hotel.journal.ReservationJournal;
+import com.hotel.journal.SnapshotStore;
+import com.hotel.model.Customer;
+import com.hotel.model.Reservation;
+import com.hotel.model.Reservation.ReservationStatus;
+import com.hotel.repository.BookingRepository;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Restart from a journal that missed changes committed just before a
+ * crash: the changes are made straight through the DAOs, as if the process
+ * died between the commit and the journal append. The restarted service
+ * must still see them, and journal them so the next start replays them.
+ */
+public class JournalReconcileTest {
+
+    private static final int BOOKED_ROOM = 6;
+    private static final int CANCELLED_ROOM = 7;
+    private static final int CHECKED_IN_ROOM = 10;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ReservationDAO reservationDAO = new ReservationDAO();
+
+    @Test
+    public void replayFromJournalPicksUpUnjournaledChanges() throws Exception {
+        restartAfterCrash(folder.newFolder("journal").toPath(), false, 500);
+    }
+
+    @Test
+    public void replayFromSnapshotPicksUpUnjournaledChanges() throws Exception {
+        restartAfterCrash(folder.newFolder("snapshot").toPath(), true, 520);
+    }
+
+    private void restartAfterCrash(Path dir, boolean snapshot, int daysAhead) throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(daysAhead);
+        LocalDate checkOut = checkIn.plusDays(3);
+
+        ReservationJournal journal = ReservationJournal.open(dir);
+        ReservationService service = new ReservationService(journal, snapshot ? SnapshotStore.open(dir) : null);
+        int cancelledId = book(service, CANCELLED_ROOM, "cancel" + daysAhead, checkIn, checkOut);
+        int checkedInId = book(service, CHECKED_IN_ROOM, "checkin" + daysAhead, checkIn, checkOut);
+        if (snapshot) {
+            assertTrue(service.writeSnapshot());
+        }
+
+        // Committed, then the process dies before the journal append
+        BookingRepository.Result booked = new BookingDAO(new CustomerDAO(), reservationDAO).book(
+                guest("booked" + daysAhead), new Reservation(0, BOOKED_ROOM, checkIn, checkOut, 100.0));
+        assertEquals(BookingRepository.Outcome.BOOKED, booked.getOutcome());
+        assertTrue(reservationDAO.deleteReservation(cancelledId, ReservationStatus.CONFIRMED));
+        assertTrue(reservationDAO.updateReservationStatus(checkedInId,
+                ReservationStatus.CONFIRMED, ReservationStatus.CHECKED_IN));
+        journal.close();
+
+        journal = ReservationJournal.open(dir);
+        ReservationService restarted = new ReservationService(journal, snapshot ? SnapshotStore.open(dir) : null);
+        assertEquals(snapshot, restarted.getRestoredSnapshotSequence() >= 0);
+        assertEquals(3, restarted.getReconciledReservations());
+        assertFalse(restarted.isRoomAvailable(BOOKED_ROOM, checkIn, checkOut));
+        assertTrue(restarted.isRoomAvailable(CANCELLED_ROOM, checkIn, checkOut));
+        assertFalse(restarted.isRoomAvailable(CHECKED_IN_ROOM, checkIn, checkOut));
+        assertEquals(List.of(), restarted.checkAvailabilityConsistency());
+        // The check-in was journaled, so the stay can be checked out rather than cancelled as a no-show
+        assertTrue(restarted.updateReservationStatus(checkedInId, ReservationStatus.CHECKED_OUT));
+        journal.close();
+
+        // The repairs are in the journal now, so the next start finds nothing missing
+        journal = ReservationJournal.open(dir);
+        ReservationService again = new ReservationService(journal, snapshot ? SnapshotStore.open(dir) : null);
+        assertEquals(0, again.getReconciledReservations());
+        assertFalse(again.isRoomAvailable(BOOKED_ROOM, checkIn, checkOut));
+        assertTrue(again.isRoomAvailable(CHECKED_IN_ROOM, checkIn, checkOut));
+        assertEquals(List.of(), again.checkAvailabilityConsistency());
+        journal.close();
+
+        assertTrue(again.cancelReservation(booked.getReservationId()).isSuccess());
+    }
+
+    private static int book(ReservationService service, int roomId, String name,
+                            LocalDate checkIn, LocalDate checkOut) {
+        BookingResult result = service.createReservation(guest(name), roomId, checkIn, checkOut);
+        assertTrue(result.getMessage(), result.isSuccess());
+        return result.getReservationId();
+    }
+
+    private static Customer guest(String name) {
+        return new Customer("Journal", name, name + "@journal.test",
+                String.format("95%08d", Math.abs(name.hashCode()) % 100_000_000), "PASSPORT");
+    }
+}
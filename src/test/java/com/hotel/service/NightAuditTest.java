@@ -0,0 +1,109 @@
+package com.hotel.service;
+
+import com.hotel.dao.StayTransitionDAO;
+import com.hotel.dao.StayTransitionDAO.Transition;
+import com.hotel.model.Customer;
+import com.hotel.model.Reservation.ReservationStatus;
+import com.hotel.model.Room;
+import com.hotel.util.DatabaseConnection;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A stay through the front desk and the night audit on the embedded H2
+ * database: a guest checked in on arrival is checked out by the audit on
+ * their departure date, with the room's nights released exactly once,
+ * while an arrival who never checked in is cancelled as a no-show
+ */
+public class NightAuditTest {
+
+    private static final int CHECKED_IN_ROOM = 8;
+    private static final int NO_SHOW_ROOM = 9;
+
+    private static ReservationService service;
+    private static NightAudit audit;
+
+    @BeforeClass
+    public static void setUp() {
+        service = new ReservationService();
+        audit = new NightAudit(new StayTransitionDAO(), service);
+    }
+
+    @Test
+    public void checkedInGuestIsCheckedOutOnDeparture() throws Exception {
+        LocalDate arrival = LocalDate.now();
+        LocalDate departure = arrival.plusDays(1);
+        Room room = service.getRoomById(CHECKED_IN_ROOM);
+        int soldBefore = sold(room, arrival);
+
+        int reservationId = book(CHECKED_IN_ROOM, "stay", arrival, departure);
+        assertEquals(soldBefore + 1, sold(room, arrival));
+        assertTrue(service.updateReservationStatus(reservationId, ReservationStatus.CHECKED_IN));
+
+        // The arrival day's run leaves the checked-in guest alone
+        audit.run(arrival);
+        assertEquals(ReservationStatus.CHECKED_IN, service.getReservationById(reservationId).getStatus());
+        assertEquals(1, countRoomNights(reservationId));
+
+        NightAudit.Report report = audit.run(departure);
+        assertTrue(report.isComplete());
+        assertTrue(report.getMoved(Transition.DEPARTURES) >= 1);
+        assertEquals(ReservationStatus.CHECKED_OUT, service.getReservationById(reservationId).getStatus());
+        assertEquals(0, countRoomNights(reservationId));
+        assertEquals(soldBefore, sold(room, arrival));
+
+        // A second run for the same date releases nothing more
+        audit.run(departure);
+        assertEquals(ReservationStatus.CHECKED_OUT, service.getReservationById(reservationId).getStatus());
+        assertEquals(soldBefore, sold(room, arrival));
+        assertEquals(List.of(), service.checkAvailabilityConsistency());
+        assertTrue(service.isRoomAvailable(CHECKED_IN_ROOM, arrival, departure));
+    }
+
+    @Test
+    public void arrivalNotCheckedInIsCancelledNextDay() throws Exception {
+        LocalDate arrival = LocalDate.now();
+        int reservationId = book(NO_SHOW_ROOM, "noshow", arrival, arrival.plusDays(2));
+
+        audit.run(arrival);
+        assertEquals(ReservationStatus.CONFIRMED, service.getReservationById(reservationId).getStatus());
+
+        audit.run(arrival.plusDays(1));
+        assertEquals(ReservationStatus.CANCELLED, service.getReservationById(reservationId).getStatus());
+        assertEquals(0, countRoomNights(reservationId));
+        assertEquals(List.of(), service.checkAvailabilityConsistency());
+    }
+
+    private static int book(int roomId, String name, LocalDate checkIn, LocalDate checkOut) {
+        Customer guest = new Customer("Audit", name, name + "@night-audit.test",
+                name.equals("stay") ? "9400000001" : "9400000002", "PASSPORT");
+        BookingResult result = service.createReservation(guest, roomId, checkIn, checkOut);
+        assertTrue(result.getMessage(), result.isSuccess());
+        return result.getReservationId();
+    }
+
+    private static int sold(Room room, LocalDate night) {
+        return service.getTypeInventory(room.getRoomType(), night, night.plusDays(1)).get(0).getSold();
+    }
+
+    private static int countRoomNights(int reservationId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT COUNT(*) FROM room_nights WHERE reservation_id = ?")) {
+            pstmt.setInt(1, reservationId);
+            ResultSet rs = pstmt.executeQuery();
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
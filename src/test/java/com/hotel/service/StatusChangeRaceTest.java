@@ -0,0 +1,91 @@
+package com.hotel.service;
+
+import com.hotel.model.Customer;
+import com.hotel.model.Reservation;
+import com.hotel.model.Reservation.ReservationStatus;
+import com.hotel.model.Room;
+import com.hotel.repository.memory.InMemoryStorageEngine;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A cancellation and a check-out of the same checked-in reservation race;
+ * exactly one of them may win, on either storage engine, and the stay's
+ * nights stop being counted exactly once
+ */
+public class StatusChangeRaceTest {
+
+    private static final int ROUNDS = 100;
+
+    @Test
+    public void inMemoryEngineLetsOneChangeWin() throws Exception {
+        ReservationService service = new ReservationService(
+                new InMemoryStorageEngine().withSampleRooms(), null, null);
+        race(service, 1, "mem", 100);
+    }
+
+    @Test
+    public void databaseLetsOneChangeWin() throws Exception {
+        race(new ReservationService(), 2, "jdbc", 320);
+    }
+
+    private static void race(ReservationService service, int roomId, String prefix, int daysAhead)
+            throws Exception {
+        Room room = service.getRoomById(roomId);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                LocalDate checkIn = LocalDate.now().plusDays(daysAhead + 3L * round);
+                LocalDate checkOut = checkIn.plusDays(2);
+                int soldBefore = sold(service, room, checkIn, checkOut);
+
+                BookingResult booked = service.createReservation(guest(prefix, round), roomId, checkIn, checkOut);
+                assertTrue(booked.getMessage(), booked.isSuccess());
+                int reservationId = booked.getReservationId();
+                assertTrue(service.updateReservationStatus(reservationId, ReservationStatus.CHECKED_IN));
+
+                CyclicBarrier start = new CyclicBarrier(2);
+                Callable<Boolean> cancel = () -> {
+                    start.await();
+                    return service.cancelReservation(reservationId).isSuccess();
+                };
+                Callable<Boolean> checkOutGuest = () -> {
+                    start.await();
+                    return service.updateReservationStatus(reservationId, ReservationStatus.CHECKED_OUT);
+                };
+                Future<Boolean> cancelled = pool.submit(cancel);
+                Future<Boolean> checkedOut = pool.submit(checkOutGuest);
+
+                assertTrue("neither change won", cancelled.get() || checkedOut.get());
+                assertTrue("both changes won", !(cancelled.get() && checkedOut.get()));
+                Reservation reservation = service.getReservationById(reservationId);
+                assertEquals(cancelled.get() ? ReservationStatus.CANCELLED : ReservationStatus.CHECKED_OUT,
+                        reservation.getStatus());
+                assertEquals(soldBefore, sold(service, room, checkIn, checkOut));
+                assertTrue(service.isRoomAvailable(roomId, checkIn, checkOut));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static int sold(ReservationService service, Room room, LocalDate from, LocalDate to) {
+        return service.getTypeInventory(room.getRoomType(), from, to).stream()
+                .mapToInt(night -> night.getSold())
+                .sum();
+    }
+
+    private static Customer guest(String prefix, int round) {
+        return new Customer("Race", prefix + round, prefix + round + "@race.test",
+                String.format("93%08d", (prefix.equals("mem") ? 0 : 1000) + round), "PASSPORT");
+    }
+}
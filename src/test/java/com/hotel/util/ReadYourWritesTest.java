@@ -0,0 +1,136 @@
+package com.hotel.util;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Read routing against a primary and a replica that are two separate
+ * embedded H2 databases: only the primary has the marker row, so a read
+ * shows which one served it. Each request runs on a fresh thread, as API
+ * requests do.
+ */
+public class ReadYourWritesTest {
+
+    private static final String PRIMARY =
+            "jdbc:h2:mem:ryw_primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA =
+            "jdbc:h2:mem:ryw_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String MARKER = "primary@read-your-writes.test";
+
+    private static DatabaseConnection db;
+    private static ExecutorService threads;
+
+    @BeforeClass
+    public static void setUp() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("db.mode", "test");
+        props.setProperty("db.testUrl", PRIMARY);
+        props.setProperty("db.replicaUrls", REPLICA);
+        props.setProperty("db.readYourWritesMs", "60000");
+        props.setProperty("db.replicaHealthCheckMs", "60000");
+        db = new DatabaseConnection(props);
+        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO customers (first_name, last_name, email, phone_number, id_proof) "
+                    + "VALUES ('Read', 'Primary', '" + MARKER + "', '9555000001', 'PASSPORT')");
+        }
+        threads = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        threads.shutdownNow();
+        db.shutdown();
+    }
+
+    @Test
+    public void requestWithoutWritesReadsReplica() throws Exception {
+        assertEquals("replica", request(0, () -> servedBy()));
+    }
+
+    @Test
+    public void laterRequestSendingLastWriteReadsPrimary() throws Exception {
+        long lastWrite = request(0, () -> {
+            db.markWrite();
+            // The same request sees its own write at once
+            assertEquals("primary", servedBy());
+            return ReadYourWrites.lastWriteMillis();
+        });
+        assertTrue(lastWrite > 0);
+
+        assertEquals("primary", request(lastWrite, () -> servedBy()));
+        assertEquals("replica", request(0, () -> servedBy()));
+    }
+
+    @Test
+    public void lastWriteOlderThanWindowReadsReplica() throws Exception {
+        long longAgo = System.currentTimeMillis() - 120_000;
+        assertEquals("replica", request(longAgo, () -> servedBy()));
+    }
+
+    @Test
+    public void workHandedToAnotherThreadStaysInRequest() throws Exception {
+        long lastWrite = System.currentTimeMillis();
+        ExecutorService workers = Executors.newSingleThreadExecutor();
+        try {
+            String servedBy = request(lastWrite, () -> CompletableFuture.supplyAsync(
+                    ReadYourWrites.inCurrentRequest(ReadYourWritesTest::servedByUnchecked), workers).join());
+            assertEquals("primary", servedBy);
+            // The worker does not keep the request once the task is done
+            assertEquals("replica", workers.submit(() -> servedBy()).get());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void lookupMissOnReplicaFallsBackToPrimary() throws Exception {
+        String email = request(0, () -> db.lookup(conn -> markerEmail(conn)));
+        assertEquals(MARKER, email);
+    }
+
+    /**
+     * Serve one request on its own thread for a client that last wrote at lastWrite
+     */
+    private static <T> T request(long lastWrite, Callable<T> work) throws Exception {
+        return threads.submit(() -> {
+            try (ReadYourWrites.Request request = ReadYourWrites.beginRequest(lastWrite)) {
+                return work.call();
+            }
+        }).get();
+    }
+
+    private static String servedBy() throws SQLException {
+        try (Connection conn = db.getReadConnection()) {
+            return markerEmail(conn) != null ? "primary" : "replica";
+        }
+    }
+
+    private static String servedByUnchecked() {
+        try {
+            return servedBy();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String markerEmail(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT email FROM customers WHERE email = '" + MARKER + "'")) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+}